@@ -14,6 +14,7 @@ import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
@@ -21,7 +22,10 @@ import java.util.concurrent.Callable;
 
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.edit.provider.ComposedAdapterFactory;
 import org.eclipse.emf.edit.ui.provider.AdapterFactoryLabelProvider;
@@ -49,9 +53,10 @@ import org.eclipse.emf.emfstore.internal.client.ui.views.scm.SCMContentProvider;
 import org.eclipse.emf.emfstore.internal.common.model.ModelElementId;
 import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
 import org.eclipse.emf.emfstore.internal.server.conflictDetection.ModelElementIdToEObjectMappingImpl;
-import org.eclipse.emf.emfstore.internal.server.model.impl.api.ESHistoryInfoImpl;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.AbstractChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.ChangePackage;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.HistoryInfo;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.HistoryQuery;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.ModelElementQuery;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.PrimaryVersionSpec;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.RangeQuery;
@@ -61,12 +66,10 @@ import org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningFacto
 import org.eclipse.emf.emfstore.internal.server.model.versioning.Versions;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AbstractOperation;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.CompositeOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.util.HistoryInfoSummary;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.util.HistoryQueryBuilder;
 import org.eclipse.emf.emfstore.server.ESCloseableIterable;
 import org.eclipse.emf.emfstore.server.exceptions.ESException;
-import org.eclipse.emf.emfstore.server.model.ESHistoryInfo;
-import org.eclipse.emf.emfstore.server.model.query.ESHistoryQuery;
-import org.eclipse.emf.emfstore.server.model.query.ESModelElementQuery;
 import org.eclipse.emf.emfstore.server.model.versionspec.ESVersionSpec;
 import org.eclipse.jface.action.Action;
 import org.eclipse.jface.action.IToolBarManager;
@@ -79,7 +82,9 @@ import org.eclipse.jface.layout.GridLayoutFactory;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.jface.viewers.ColumnViewerToolTipSupport;
 import org.eclipse.jface.viewers.ISelection;
+import org.eclipse.jface.viewers.ITreeViewerListener;
 import org.eclipse.jface.viewers.StructuredSelection;
+import org.eclipse.jface.viewers.TreeExpansionEvent;
 import org.eclipse.jface.viewers.TreeViewer;
 import org.eclipse.jface.viewers.TreeViewerColumn;
 import org.eclipse.jface.viewers.Viewer;
@@ -90,6 +95,7 @@ import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.events.SelectionListener;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Link;
 import org.eclipse.swt.widgets.Listener;
@@ -122,12 +128,14 @@ public class HistoryBrowserView extends ViewPart implements ProjectSpaceContaine
 	// Config
 	private static final int UPPER_LIMIT = 10;
 	private static final int LOWER_LIMIT = 20;
+	private static final int PAGE_SIZE = UPPER_LIMIT + LOWER_LIMIT + 1;
 
 	// model state
 	private ProjectSpace projectSpace;
 	private EObject modelElement;
 
 	private List<HistoryInfo> infos;
+	private final Set<HistoryInfo> loadingHistoryInfos = new HashSet<HistoryInfo>();
 	private PrimaryVersionSpec centerVersion;
 	private boolean showAllVersions;
 
@@ -161,23 +169,19 @@ public class HistoryBrowserView extends ViewPart implements ProjectSpaceContaine
 	// installed listeners/observers
 	private DeleteProjectSpaceObserver deleteProjectSpaceObserver;
 
-	// changes can be transferred with historyInfos. However, this must be avoided if the server sends
-	// FileBasedChangePackages which the client can not open
-	private final static Boolean isLazyLoadingChanges;
+	// history infos carry summaries of their changes, which are loaded when a version is expanded. Loading the
+	// changes of several selected versions at once via the menu can be enabled in addition
 	private static final String ENABLE_LAZY_LOADING_OF_CHANGE_PACKAGES_EXTENSION_POINT = "org.eclipse.emf.emfstore.client.ui.enableLazyLoadingOfChangePackages"; //$NON-NLS-1$
 
 	static {
-		Boolean result;
 		try {
-			result = new ESExtensionPoint(ENABLE_LAZY_LOADING_OF_CHANGE_PACKAGES_EXTENSION_POINT, true)
+			final Boolean result = new ESExtensionPoint(ENABLE_LAZY_LOADING_OF_CHANGE_PACKAGES_EXTENSION_POINT, true)
 				.getBoolean("enabled", false); //$NON-NLS-1$
 			// set system property to be in sync with extension point and to be queryable for menu point enablement
 			System.setProperty(ENABLE_LAZY_LOADING_OF_CHANGE_PACKAGES_EXTENSION_POINT, result.toString()); // $NON-NLS-1$
 		} catch (final ESExtensionPointException e) {
-			// if no extension is available, check for system property
-			result = Boolean.getBoolean(ENABLE_LAZY_LOADING_OF_CHANGE_PACKAGES_EXTENSION_POINT); // $NON-NLS-1$
+			// if no extension is available, the menu point queries the system property
 		}
-		isLazyLoadingChanges = result;
 	}
 
 	/**
@@ -196,6 +200,17 @@ public class HistoryBrowserView extends ViewPart implements ProjectSpaceContaine
 
 		// init viewer
 		viewer = new TreeViewerWithModelElementSelectionProvider(parent);
+		viewer.addTreeListener(new ITreeViewerListener() {
+			public void treeExpanded(TreeExpansionEvent event) {
+				if (event.getElement() instanceof HistoryInfo) {
+					loadChangePackage((HistoryInfo) event.getElement());
+				}
+			}
+
+			public void treeCollapsed(TreeExpansionEvent event) {
+				// nothing to do
+			}
+		});
 		viewer.setFilters(new ViewerFilter[] { new ViewerFilter() {
 
 			@Override
@@ -409,18 +424,21 @@ public class HistoryBrowserView extends ViewPart implements ProjectSpaceContaine
 				monitor.beginTask(Messages.HistoryBrowserView_FetchingHistory, 100);
 				final List<HistoryInfo> historyInfos = getLocalChanges();
 				monitor.worked(10);
+				final HistoryQuery<?> query;
 				if (projectSpace != modelElement) {
-					final List<ESHistoryInfo> infos = modelElementQuery();
-					for (final ESHistoryInfo info : infos) {
-						historyInfos.add(((ESHistoryInfoImpl) info).toInternalAPI());
-					}
+					query = modelElementQuery();
 				} else {
-					// TODO monitor
-					final List<ESHistoryInfo> infos = rangeQuery();
-					for (final ESHistoryInfo info : infos) {
-						historyInfos.add(((ESHistoryInfoImpl) info).toInternalAPI());
-					}
+					query = rangeQuery();
 				}
+				// change packages are loaded when a version is expanded. The page size is not guaranteed to cover
+				// the incoming and outgoing versions, so pages are requested until the last one has been received
+				String continuationToken = StringUtils.EMPTY;
+				do {
+					final List<HistoryInfo> page = getConnectionManager().getHistoryInfoPage(getSessionId(),
+						projectSpace.getProjectId(), query, continuationToken, PAGE_SIZE);
+					historyInfos.addAll(page);
+					continuationToken = HistoryInfoSummary.getContinuationToken(page);
+				} while (continuationToken != null);
 				monitor.worked(90);
 				return historyInfos;
 			}
@@ -429,31 +447,113 @@ public class HistoryBrowserView extends ViewPart implements ProjectSpaceContaine
 
 	}
 
-	private List<ESHistoryInfo> modelElementQuery() throws ESException {
-		final ModelElementQuery query = HistoryQueryBuilder.modelelementQuery(
+	private ModelElementQuery modelElementQuery() {
+		return HistoryQueryBuilder.modelelementQuery(
 			centerVersion,
 			Arrays.asList(ModelUtil.getModelElementId(modelElement)),
 			UPPER_LIMIT,
 			LOWER_LIMIT,
 			showAllVersions,
-			!isLazyLoadingChanges);
-		// TODO: proivde util method
-		final ESHistoryQuery<ESModelElementQuery> api = query.toAPI();
-		final List<ESHistoryInfo> infos = projectSpace.toAPI().getHistoryInfos(api, new NullProgressMonitor());
-		return infos;
+			true);
 	}
 
-	private List<ESHistoryInfo> rangeQuery() throws ESException {
-		final RangeQuery<?> rangeQuery = HistoryQueryBuilder
+	private RangeQuery<?> rangeQuery() {
+		return HistoryQueryBuilder
 			.rangeQuery(
 				centerVersion,
 				UPPER_LIMIT,
 				LOWER_LIMIT,
-				showAllVersions, true, true, !isLazyLoadingChanges);
-		final List<ESHistoryInfo> infos = projectSpace.toAPI().getHistoryInfos(
-			rangeQuery.toAPI(),
-			new NullProgressMonitor());
-		return infos;
+				showAllVersions, true, true, true);
+	}
+
+	/**
+	 * Loads the change package of a history info that only carries a summary of it. The change package is fetched
+	 * in a background job and attached to the history info in the UI thread afterwards.
+	 *
+	 * @param historyInfo the {@link HistoryInfo} whose change package is loaded
+	 */
+	private void loadChangePackage(final HistoryInfo historyInfo) {
+		if (historyInfo.getChangePackage() != null || HistoryInfoSummary.getOperationCount(historyInfo) < 1
+			|| historyInfo.getPreviousSpec() == null || !loadingHistoryInfos.add(historyInfo)) {
+			return;
+		}
+		final ProjectSpace loadedProjectSpace = projectSpace;
+		final PrimaryVersionSpec previousSpec = ModelUtil.clone(historyInfo.getPreviousSpec());
+		final PrimaryVersionSpec primarySpec = ModelUtil.clone(historyInfo.getPrimarySpec());
+		final ModelElementId modelElementId = projectSpace != modelElement && modelElement != null
+			? ModelUtil.getModelElementId(modelElement) : null;
+		final Display display = viewer.getControl().getDisplay();
+
+		final Job job = new Job(Messages.HistoryBrowserView_FetchingChanges) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				AbstractChangePackage changePackage = null;
+				ESException exception = null;
+				try {
+					final List<AbstractChangePackage> changes = new ServerCall<List<AbstractChangePackage>>(
+						loadedProjectSpace) {
+						@Override
+						protected List<AbstractChangePackage> run() throws ESException {
+							return getConnectionManager().getChanges(getSessionId(),
+								loadedProjectSpace.getProjectId(), previousSpec, primarySpec);
+						}
+					}.execute();
+					if (changes.size() == 1) {
+						changePackage = modelElementId != null
+							? filterChangePackage(changes.get(0), modelElementId) : changes.get(0);
+					}
+				} catch (final ESException e) {
+					exception = e;
+				}
+				showChangePackage(display, historyInfo, changePackage, exception);
+				return Status.OK_STATUS;
+			}
+		};
+		job.setSystem(true);
+		job.schedule();
+	}
+
+	private void showChangePackage(Display display, final HistoryInfo historyInfo,
+		final AbstractChangePackage changePackage, final ESException exception) {
+		if (display.isDisposed()) {
+			return;
+		}
+		display.asyncExec(new Runnable() {
+			public void run() {
+				loadingHistoryInfos.remove(historyInfo);
+				if (exception != null) {
+					EMFStoreMessageDialog.showExceptionDialog(exception);
+					return;
+				}
+				// the view may have been disposed or refreshed in the meantime
+				if (changePackage == null || viewer.getControl().isDisposed() || !infos.contains(historyInfo)) {
+					return;
+				}
+				historyInfo.setChangePackage(changePackage);
+				resetProviders(infos);
+				viewer.refresh(historyInfo);
+			}
+		});
+	}
+
+	/**
+	 * Keeps the operations involving the given model element, like the server does for model element queries.
+	 */
+	private static ChangePackage filterChangePackage(AbstractChangePackage changePackage,
+		ModelElementId modelElementId) {
+		final ChangePackage result = VersioningFactory.eINSTANCE.createChangePackage();
+		final ESCloseableIterable<AbstractOperation> operations = changePackage.operations();
+		try {
+			for (final AbstractOperation operation : operations.iterable()) {
+				if (operation.getAllInvolvedModelElements().contains(modelElementId)) {
+					result.getOperations().add(ModelUtil.clone(operation));
+				}
+			}
+		} finally {
+			operations.close();
+		}
+		result.setLogMessage(ModelUtil.clone(changePackage.getLogMessage()));
+		return result;
 	}
 
 	private List<HistoryInfo> getLocalChanges() {
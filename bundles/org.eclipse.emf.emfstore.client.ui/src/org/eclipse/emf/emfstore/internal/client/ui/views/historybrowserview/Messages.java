@@ -26,6 +26,7 @@ public class Messages extends NLS {
 	public static String HistoryBrowserView_Error;
 	public static String HistoryBrowserView_ExpandCollapseToggle;
 	public static String HistoryBrowserView_ExpandToggle;
+	public static String HistoryBrowserView_FetchingChanges;
 	public static String HistoryBrowserView_FetchingHistory;
 	public static String HistoryBrowserView_FilterByTagAction;
 	public static String HistoryBrowserView_FilterByTagDialog;
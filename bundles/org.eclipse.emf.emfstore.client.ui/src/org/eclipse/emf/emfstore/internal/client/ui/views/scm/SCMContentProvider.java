@@ -31,6 +31,7 @@ import org.eclipse.emf.emfstore.internal.server.model.versioning.OperationProxy;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningFactory;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AbstractOperation;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.CompositeOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.util.HistoryInfoSummary;
 import org.eclipse.emf.emfstore.server.ESCloseableIterable;
 
 /**
@@ -199,6 +200,10 @@ public class SCMContentProvider extends AdapterFactoryContentProvider {
 		if (object instanceof OperationProxy) {
 			return true;
 		}
+		if (object instanceof HistoryInfo && ((HistoryInfo) object).getChangePackage() == null) {
+			// the change package is loaded on demand
+			return HistoryInfoSummary.getOperationCount((HistoryInfo) object) > 0;
+		}
 		return getChildren(object).length > 0;
 	}
 
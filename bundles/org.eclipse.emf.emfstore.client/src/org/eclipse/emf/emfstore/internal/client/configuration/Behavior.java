@@ -31,6 +31,7 @@ import org.eclipse.emf.emfstore.internal.client.model.connectionmanager.KeyStore
 import org.eclipse.emf.emfstore.internal.client.model.impl.api.DefaultCopier;
 import org.eclipse.emf.emfstore.internal.client.model.impl.api.ESServerImpl;
 import org.eclipse.emf.emfstore.internal.client.model.util.ChecksumErrorHandler;
+import org.eclipse.emf.emfstore.internal.server.filetransfer.ChunkedFileTransfer;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AbstractOperation;
 
 import com.google.common.base.Optional;
@@ -89,6 +90,56 @@ public class Behavior {
 	 */
 	public static final String CHANGEPACKAGE_FRAGMENT_SIZE = "changePackageFragmentationSize"; //$NON-NLS-1$
 
+	/**
+	 * Conflict detection parallelism option identifier.
+	 */
+	public static final String CONFLICT_DETECTION_PARALLELISM = "conflictDetectionParallelism"; //$NON-NLS-1$
+
+	/**
+	 * File transfer chunk size option identifier.
+	 */
+	public static final String FILE_TRANSFER_CHUNK_SIZE = "fileTransferChunkSize"; //$NON-NLS-1$
+
+	/**
+	 * Change package fragment window option identifier.
+	 */
+	public static final String CHANGEPACKAGE_FRAGMENT_WINDOW = "changePackageFragmentWindow"; //$NON-NLS-1$
+
+	/**
+	 * Project snapshot interval option identifier.
+	 */
+	public static final String PROJECT_SNAPSHOT_INTERVAL = "projectSnapshotInterval"; //$NON-NLS-1$
+
+	/**
+	 * Lazy capture of created elements option identifier.
+	 */
+	public static final String LAZY_CREATE_CAPTURE = "lazyCreateCapture"; //$NON-NLS-1$
+
+	/**
+	 * Lazy project space initialization option identifier.
+	 */
+	public static final String LAZY_PROJECT_SPACE_INIT = "lazyProjectSpaceInit"; //$NON-NLS-1$
+
+	/**
+	 * Bulk apply of incoming changes option identifier.
+	 */
+	public static final String BULK_APPLY = "bulkApply"; //$NON-NLS-1$
+
+	/**
+	 * Compaction of the local operations before commit option identifier.
+	 */
+	public static final String COMPACT_OPERATIONS = "compactOperations"; //$NON-NLS-1$
+
+	/**
+	 * Commutative checksum option identifier.
+	 */
+	public static final String COMMUTATIVE_CHECKSUM = "commutativeChecksum"; //$NON-NLS-1$
+
+	/**
+	 * Commutative checksum verification option identifier.
+	 */
+	public static final String VERIFY_COMMUTATIVE_CHECKSUM = "verifyCommutativeChecksum"; //$NON-NLS-1$
+
 	/**
 	 * Operation modifier option identifier.
 	 */
@@ -105,7 +156,17 @@ public class Behavior {
 	private static Boolean isForceCommandsActive;
 	private static Boolean isDenyAddCutElementsToModelElementsFeatureActive;
 	private static Boolean isUseMemoryChangePackageActive;
+	private static Boolean isLazyCreateCaptureActive;
+	private static Boolean isLazyProjectSpaceInitActive;
+	private static Boolean isBulkApplyActive;
+	private static Boolean isCompactOperationsActive;
+	private static Boolean isCommutativeChecksumActive;
+	private static Boolean isCommutativeChecksumVerificationActive;
 	private static Optional<Integer> changePackageFragmentSize;
+	private static Integer conflictDetectionParallelism;
+	private static Integer fileTransferChunkSize;
+	private static Integer changePackageFragmentWindow;
+	private static Integer projectSnapshotInterval;
 	private static ESOperationModifier operationModifier;
 	private static List<ESCopier> copierList;
 
@@ -199,6 +260,168 @@ public class Behavior {
 		return isDenyAddCutElementsToModelElementsFeatureActive;
 	}
 
+	/**
+	 * Whether the copy of an element that has been created within a command is deferred until the command completes
+	 * or the element is changed or removed. Default is {@link Boolean#FALSE}.
+	 *
+	 * @return {@link Boolean#TRUE}, if the copy of created elements is deferred, {@link Boolean#FALSE} otherwise
+	 */
+	public Boolean isLazyCreateCaptureActivated() {
+
+		if (isLazyCreateCaptureActive == null) {
+			isLazyCreateCaptureActive = new ESExtensionPoint(RESOURCE_OPTIONS_EXTENSION_POINT_NAME)
+				.getBoolean(LAZY_CREATE_CAPTURE, Boolean.FALSE);
+		}
+
+		return isLazyCreateCaptureActive;
+	}
+
+	/**
+	 * Sets whether the copy of an element that has been created within a command is deferred until the command
+	 * completes or the element is changed or removed. Applies to project spaces initialized afterwards.
+	 *
+	 * @param enabled
+	 *            whether to defer the copy of created elements
+	 */
+	public void setLazyCreateCapture(boolean enabled) {
+		isLazyCreateCaptureActive = Boolean.valueOf(enabled);
+	}
+
+	/**
+	 * Whether the project spaces of the workspace are initialized upon their first use instead of when the workspace
+	 * is loaded. A project space is used once it is accessed via its local project, apart from its name, IDs and
+	 * other metadata, or once its project is loaded. Default is {@link Boolean#FALSE}.
+	 *
+	 * @return {@link Boolean#TRUE}, if project spaces are initialized lazily, {@link Boolean#FALSE} otherwise
+	 */
+	public Boolean isLazyProjectSpaceInitActivated() {
+
+		if (isLazyProjectSpaceInitActive == null) {
+			isLazyProjectSpaceInitActive = new ESExtensionPoint(RESOURCE_OPTIONS_EXTENSION_POINT_NAME)
+				.getBoolean(LAZY_PROJECT_SPACE_INIT, Boolean.FALSE);
+		}
+
+		return isLazyProjectSpaceInitActive;
+	}
+
+	/**
+	 * Sets whether the project spaces of the workspace are initialized upon their first use. Applies to workspaces
+	 * loaded afterwards.
+	 *
+	 * @param enabled
+	 *            whether to initialize project spaces lazily
+	 */
+	public void setLazyProjectSpaceInit(boolean enabled) {
+		isLazyProjectSpaceInitActive = Boolean.valueOf(enabled);
+	}
+
+	/**
+	 * Whether the incoming changes of an update are applied in bulk. Observers that react to single notifications,
+	 * such as the inverse cross reference cache, are suspended meanwhile and catch up once all changes have been
+	 * applied, and consecutive changes of the same attribute are only applied once. Default is {@link Boolean#FALSE}.
+	 *
+	 * @return {@link Boolean#TRUE}, if incoming changes are applied in bulk, {@link Boolean#FALSE} otherwise
+	 */
+	public Boolean isBulkApplyActivated() {
+
+		if (isBulkApplyActive == null) {
+			isBulkApplyActive = new ESExtensionPoint(RESOURCE_OPTIONS_EXTENSION_POINT_NAME)
+				.getBoolean(BULK_APPLY, Boolean.FALSE);
+		}
+
+		return isBulkApplyActive;
+	}
+
+	/**
+	 * Sets whether the incoming changes of an update are applied in bulk.
+	 *
+	 * @param enabled
+	 *            whether to apply incoming changes in bulk
+	 */
+	public void setBulkApply(boolean enabled) {
+		isBulkApplyActive = Boolean.valueOf(enabled);
+	}
+
+	/**
+	 * Whether the local operations are compacted before they are committed. Redundant operations, such as subsequent
+	 * changes of the same attribute or creates and deletes of the same element, are folded, so that fewer operations
+	 * are sent to the server. Default is {@link Boolean#FALSE}.
+	 *
+	 * @return {@link Boolean#TRUE}, if local operations are compacted before commit, {@link Boolean#FALSE} otherwise
+	 */
+	public Boolean isCompactOperationsActivated() {
+
+		if (isCompactOperationsActive == null) {
+			isCompactOperationsActive = new ESExtensionPoint(RESOURCE_OPTIONS_EXTENSION_POINT_NAME)
+				.getBoolean(COMPACT_OPERATIONS, Boolean.FALSE);
+		}
+
+		return isCompactOperationsActive;
+	}
+
+	/**
+	 * Sets whether the local operations are compacted before they are committed.
+	 *
+	 * @param enabled
+	 *            whether to compact local operations before commit
+	 */
+	public void setCompactOperations(boolean enabled) {
+		isCompactOperationsActive = Boolean.valueOf(enabled);
+	}
+
+	/**
+	 * Whether the commutative checksum of a project, i.e. an order independent sum over its model elements, is updated
+	 * incrementally as elements change. Which kind of checksum is computed is determined by the version spec whose
+	 * checksum it is compared to, which records the kind of checksum the server has computed.
+	 *
+	 * @return {@link Boolean#TRUE}, if commutative checksums are used, {@link Boolean#FALSE} otherwise
+	 */
+	public Boolean isCommutativeChecksumActivated() {
+
+		if (isCommutativeChecksumActive == null) {
+			isCommutativeChecksumActive = new ESExtensionPoint(RESOURCE_OPTIONS_EXTENSION_POINT_NAME)
+				.getBoolean(COMMUTATIVE_CHECKSUM, Boolean.FALSE);
+		}
+
+		return isCommutativeChecksumActive;
+	}
+
+	/**
+	 * Sets whether the commutative checksum of a project is updated incrementally.
+	 * Applies to project spaces initialized afterwards.
+	 *
+	 * @param enabled
+	 *            whether to use commutative checksums
+	 */
+	public void setCommutativeChecksum(boolean enabled) {
+		isCommutativeChecksumActive = Boolean.valueOf(enabled);
+	}
+
+	/**
+	 * Whether an incrementally updated commutative checksum is verified by computing it over the whole project.
+	 *
+	 * @return {@link Boolean#TRUE}, if commutative checksums are verified, {@link Boolean#FALSE} otherwise
+	 */
+	public Boolean isCommutativeChecksumVerificationActivated() {
+
+		if (isCommutativeChecksumVerificationActive == null) {
+			isCommutativeChecksumVerificationActive = new ESExtensionPoint(RESOURCE_OPTIONS_EXTENSION_POINT_NAME)
+				.getBoolean(VERIFY_COMMUTATIVE_CHECKSUM, Boolean.FALSE);
+		}
+
+		return isCommutativeChecksumVerificationActive;
+	}
+
+	/**
+	 * Sets whether an incrementally updated commutative checksum is verified by computing it over the whole project.
+	 *
+	 * @param enabled
+	 *            whether to verify commutative checksums
+	 */
+	public void setCommutativeChecksumVerification(boolean enabled) {
+		isCommutativeChecksumVerificationActive = Boolean.valueOf(enabled);
+	}
+
 	/**
 	 * Whether the checksum check is active. If true, and checksum comparison fails, an {@link ESChecksumErrorHandler}
 	 * will be active.
@@ -271,6 +494,17 @@ public class Behavior {
 		return isUseMemoryChangePackageActive;
 	}
 
+	/**
+	 * Sets whether the in-memory change package should be used. Only affects project spaces and change packages
+	 * created afterwards.
+	 *
+	 * @param enabled
+	 *            whether to use the in-memory change package
+	 */
+	public void setUseInMemoryChangePackage(boolean enabled) {
+		isUseMemoryChangePackageActive = Boolean.valueOf(enabled);
+	}
+
 	/**
 	 * Returns the change package fragments size.
 	 *
@@ -290,6 +524,111 @@ public class Behavior {
 		return changePackageFragmentSize;
 	}
 
+	/**
+	 * Returns the number of threads used to detect conflicts. If not configured via the extension point, the system
+	 * property {@code emfstore.conflictDetection.parallelism} is used. A value of 0 uses one thread per available
+	 * processor.
+	 *
+	 * @return the number of threads, 1 if conflicts should be detected on the calling thread
+	 */
+	public int getConflictDetectionParallelism() {
+		if (conflictDetectionParallelism == null) {
+			Integer parallelism = new ESExtensionPoint(RESOURCE_OPTIONS_EXTENSION_POINT_NAME)
+				.getInteger(CONFLICT_DETECTION_PARALLELISM);
+			if (parallelism == null) {
+				parallelism = Integer.getInteger("emfstore.conflictDetection.parallelism", 1); //$NON-NLS-1$
+			}
+			if (parallelism < 1) {
+				parallelism = Runtime.getRuntime().availableProcessors();
+			}
+			conflictDetectionParallelism = parallelism;
+		}
+		return conflictDetectionParallelism;
+	}
+
+	/**
+	 * Returns the number of bytes transferred per call when uploading or downloading files. If not configured via the
+	 * extension point, the system property {@code emfstore.fileTransfer.chunkSize} is used.
+	 *
+	 * @return the chunk size of file transfers, in bytes
+	 */
+	public int getFileTransferChunkSize() {
+		if (fileTransferChunkSize == null) {
+			Integer chunkSize = new ESExtensionPoint(RESOURCE_OPTIONS_EXTENSION_POINT_NAME)
+				.getInteger(FILE_TRANSFER_CHUNK_SIZE);
+			if (chunkSize == null) {
+				chunkSize = Integer.getInteger("emfstore.fileTransfer.chunkSize", //$NON-NLS-1$
+					ChunkedFileTransfer.DEFAULT_CHUNK_SIZE);
+			}
+			if (chunkSize < 1) {
+				chunkSize = ChunkedFileTransfer.DEFAULT_CHUNK_SIZE;
+			}
+			fileTransferChunkSize = chunkSize;
+		}
+		return fileTransferChunkSize;
+	}
+
+	/**
+	 * Returns the number of change package fragments that may be requested from the server at the same time when
+	 * uploading or downloading a fragmented change package. If not configured via the extension point, the system
+	 * property {@code emfstore.changePackageFragmentWindow} is used. A window of 1, the default, transfers one
+	 * fragment after the other.
+	 *
+	 * @return the number of fragment transfers in flight, at least 1
+	 */
+	public int getChangePackageFragmentWindow() {
+		if (changePackageFragmentWindow == null) {
+			Integer window = new ESExtensionPoint(RESOURCE_OPTIONS_EXTENSION_POINT_NAME)
+				.getInteger(CHANGEPACKAGE_FRAGMENT_WINDOW);
+			if (window == null) {
+				window = Integer.getInteger("emfstore.changePackageFragmentWindow", 1); //$NON-NLS-1$
+			}
+			changePackageFragmentWindow = Math.max(1, window);
+		}
+		return changePackageFragmentWindow;
+	}
+
+	/**
+	 * Sets the number of change package fragments that may be requested from the server at the same time.
+	 *
+	 * @param window
+	 *            the number of fragment transfers in flight
+	 */
+	public void setChangePackageFragmentWindow(int window) {
+		changePackageFragmentWindow = Math.max(1, window);
+	}
+
+	/**
+	 * Returns the number of automatic saves after which the whole project is saved again. In between, automatic saves
+	 * only persist the local change package, whose operations are replayed onto the last saved project when the project
+	 * space is initialized. Commits, updates and explicit saves always save the whole project. If not configured via
+	 * the extension point, the system property {@code emfstore.projectSnapshotInterval} is used. An interval of 1, the
+	 * default, saves the whole project upon every automatic save.
+	 *
+	 * @return the number of automatic saves per saved project, at least 1
+	 */
+	public int getProjectSnapshotInterval() {
+		if (projectSnapshotInterval == null) {
+			Integer interval = new ESExtensionPoint(RESOURCE_OPTIONS_EXTENSION_POINT_NAME)
+				.getInteger(PROJECT_SNAPSHOT_INTERVAL);
+			if (interval == null) {
+				interval = Integer.getInteger("emfstore.projectSnapshotInterval", 1); //$NON-NLS-1$
+			}
+			projectSnapshotInterval = Math.max(1, interval);
+		}
+		return projectSnapshotInterval;
+	}
+
+	/**
+	 * Sets the number of automatic saves after which the whole project is saved again.
+	 *
+	 * @param interval
+	 *            the number of automatic saves per saved project
+	 */
+	public void setProjectSnapshotInterval(int interval) {
+		projectSnapshotInterval = Math.max(1, interval);
+	}
+
 	/**
 	 * Returns the operation modifier.
 	 *
@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.internal.client.model.connectionmanager.xmlrpc;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.eclipse.emf.emfstore.internal.server.model.versioning.ChangePackageEnvelope;
+import org.eclipse.emf.emfstore.server.exceptions.ESException;
+
+/**
+ * Transfers the fragments of a change package with up to a given number of fragment requests in flight, so that a
+ * transfer over a connection with a high latency is not bounded by the round trip time per fragment.
+ * <p>
+ * Downloaded fragments are written in the order of their fragment index, no matter in which order their requests
+ * complete. Uploaded fragments may reach the server in any order; the server reassembles them by their fragment index.
+ * A window of 1 transfers one fragment after the other without any additional threads.
+ * </p>
+ */
+public class ChangePackageFragmentTransfer {
+
+	private static final String LINE_SEPARATOR = System.getProperty("line.separator"); //$NON-NLS-1$
+
+	private final FragmentConnection connection;
+	private final int window;
+
+	/**
+	 * The calls transferring a single change package fragment. Implementations must allow concurrent calls if the
+	 * window is larger than 1.
+	 */
+	public interface FragmentConnection {
+
+		/**
+		 * Downloads the fragment with the given index.
+		 *
+		 * @param fragmentIndex
+		 *            the index of the fragment
+		 * @return the envelope containing the fragment along with the overall number of fragments
+		 * @throws ESException in case the download fails
+		 */
+		ChangePackageEnvelope downloadFragment(int fragmentIndex) throws ESException;
+
+		/**
+		 * Uploads the fragment contained in the given envelope.
+		 *
+		 * @param envelope
+		 *            the envelope containing the fragment
+		 * @return the ID identifying the uploaded change package on the server
+		 * @throws ESException in case the upload fails
+		 */
+		String uploadFragment(ChangePackageEnvelope envelope) throws ESException;
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param connection
+	 *            the connection used to transfer single fragments
+	 * @param window
+	 *            the maximum number of fragment transfers in flight
+	 */
+	public ChangePackageFragmentTransfer(FragmentConnection connection, int window) {
+		this.connection = connection;
+		this.window = Math.max(1, window);
+	}
+
+	/**
+	 * Downloads all fragments of a change package and writes their lines to the given writer.
+	 *
+	 * @param writer
+	 *            the writer receiving the lines of all fragments in order
+	 * @throws ESException in case a fragment can not be downloaded
+	 * @throws IOException in case a fragment can not be written
+	 */
+	public void download(Writer writer) throws ESException, IOException {
+		// the first fragment tells how many fragments there are
+		ChangePackageEnvelope envelope = connection.downloadFragment(0);
+		write(writer, envelope);
+		if (envelope.isLast()) {
+			return;
+		}
+		final int fragmentCount = envelope.getFragmentCount();
+		if (window == 1) {
+			do {
+				envelope = connection.downloadFragment(envelope.getFragmentIndex() + 1);
+				write(writer, envelope);
+			} while (!envelope.isLast());
+			return;
+		}
+
+		final Window<ChangePackageEnvelope> transfers = new Window<ChangePackageEnvelope>(window,
+			Messages.XmlRpcClientManager_DownloadOfFragmentFailed);
+		try {
+			int nextFragmentIndex = 1;
+			while (nextFragmentIndex < fragmentCount || !transfers.isEmpty()) {
+				while (nextFragmentIndex < fragmentCount && !transfers.isFull()) {
+					final int fragmentIndex = nextFragmentIndex++;
+					transfers.submit(new Callable<ChangePackageEnvelope>() {
+						public ChangePackageEnvelope call() throws ESException {
+							return connection.downloadFragment(fragmentIndex);
+						}
+					});
+				}
+				write(writer, transfers.takeOldest());
+			}
+		} finally {
+			transfers.dispose();
+		}
+	}
+
+	/**
+	 * Uploads the given fragments of a change package.
+	 *
+	 * @param envelopes
+	 *            the envelopes containing the fragments, in the order of their fragment index
+	 * @return the ID identifying the uploaded change package on the server
+	 * @throws ESException in case a fragment can not be uploaded
+	 */
+	public String upload(Iterator<ChangePackageEnvelope> envelopes) throws ESException {
+		String proxyId = null;
+		if (window == 1) {
+			while (envelopes.hasNext()) {
+				proxyId = connection.uploadFragment(envelopes.next());
+			}
+			return proxyId;
+		}
+
+		final Window<String> transfers = new Window<String>(window,
+			Messages.XmlRpcClientManager_UploadChangePackageFragmentCallFailed);
+		try {
+			while (envelopes.hasNext()) {
+				final ChangePackageEnvelope envelope = envelopes.next();
+				if (transfers.isFull()) {
+					proxyId = transfers.takeOldest();
+				}
+				transfers.submit(new Callable<String>() {
+					public String call() throws ESException {
+						return connection.uploadFragment(envelope);
+					}
+				});
+			}
+			while (!transfers.isEmpty()) {
+				proxyId = transfers.takeOldest();
+			}
+		} finally {
+			transfers.dispose();
+		}
+		return proxyId;
+	}
+
+	private static void write(Writer writer, ChangePackageEnvelope envelope) throws IOException {
+		for (final String line : envelope.getFragment()) {
+			writer.write(line);
+			writer.write(LINE_SEPARATOR);
+		}
+	}
+
+	/**
+	 * The fragment transfers in flight, in the order of their submission.
+	 *
+	 * @param <T> the result type of a transfer
+	 */
+	private static final class Window<T> {
+
+		private final int size;
+		private final String failureMessage;
+		private final ExecutorService executor;
+		private final LinkedList<Future<T>> transfers = new LinkedList<Future<T>>();
+
+		Window(int size, String failureMessage) {
+			this.size = size;
+			this.failureMessage = failureMessage;
+			executor = Executors.newFixedThreadPool(size, new ThreadFactory() {
+				private int count;
+
+				public synchronized Thread newThread(Runnable runnable) {
+					final Thread thread = new Thread(runnable, "EMFStore Fragment Transfer " + ++count); //$NON-NLS-1$
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+
+		boolean isFull() {
+			return transfers.size() >= size;
+		}
+
+		boolean isEmpty() {
+			return transfers.isEmpty();
+		}
+
+		void submit(Callable<T> transfer) {
+			transfers.addLast(executor.submit(transfer));
+		}
+
+		T takeOldest() throws ESException {
+			try {
+				return transfers.removeFirst().get();
+			} catch (final InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new ESException(failureMessage, ex);
+			} catch (final ExecutionException ex) {
+				if (ex.getCause() instanceof ESException) {
+					throw (ESException) ex.getCause();
+				}
+				throw new ESException(failureMessage, ex.getCause());
+			}
+		}
+
+		void dispose() {
+			// abandons the remaining transfers of a failed transfer
+			executor.shutdownNow();
+		}
+	}
+}
@@ -37,6 +37,7 @@ import org.eclipse.emf.emfstore.internal.common.SocketUtil;
 import org.eclipse.emf.emfstore.internal.common.model.util.FileUtil;
 import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
 import org.eclipse.emf.emfstore.internal.common.model.util.SerializationException;
+import org.eclipse.emf.emfstore.internal.server.connection.xmlrpc.util.BinaryEObjectSerializer;
 import org.eclipse.emf.emfstore.internal.server.connection.xmlrpc.util.EObjectTypeFactory;
 import org.eclipse.emf.emfstore.internal.server.exceptions.ConnectionException;
 import org.eclipse.emf.emfstore.internal.server.model.ProjectId;
@@ -64,6 +65,8 @@ public class XmlRpcClientManager {
 	private static boolean serializationOptionsInitialized;
 	private static boolean gzipCompressionEnabled;
 	private static boolean gzipRequestingEnabled;
+	private static boolean binaryTransportEnabled;
+	private static boolean binaryCompressionEnabled;
 
 	/**
 	 * Default constructor.
@@ -111,6 +114,26 @@ public class XmlRpcClientManager {
 		}
 	}
 
+	/**
+	 * Switches the connection to send EObjects in the binary format of the {@link BinaryEObjectSerializer}. This must
+	 * only be called once the server is known to support the binary format, i.e. after a successful call to the
+	 * {@link org.eclipse.emf.emfstore.internal.server.connection.xmlrpc.XmlRpcBinaryConnectionHandler binary
+	 * interface}.
+	 */
+	public void enableBinaryTransport() {
+		client.setTypeFactory(new EObjectTypeFactory(client, true, binaryCompressionEnabled));
+	}
+
+	/**
+	 * Whether the client is configured to use the binary transport for servers that support it.
+	 *
+	 * @return <code>true</code> if the binary transport should be used, <code>false</code> otherwise
+	 */
+	public static boolean isBinaryTransportEnabled() {
+		initSerializationOptions();
+		return binaryTransportEnabled;
+	}
+
 	private URL createURL(ServerInfo serverInfo) throws MalformedURLException {
 		checkUrl(serverInfo.getUrl());
 		return new URL("https", serverInfo.getUrl(), serverInfo.getPort(), "/xmlrpc"); //$NON-NLS-1$ //$NON-NLS-2$
@@ -264,7 +287,6 @@ public class XmlRpcClientManager {
 			throw new ESException(Messages.XmlRpcClientManager_NoValidProjectId);
 		}
 
-		int fragmentIndex = 0;
 		final FileBasedChangePackage changePackage = VersioningFactory.eINSTANCE
 			.createFileBasedChangePackage();
 		changePackage.initialize(FileUtil.createLocationForTemporaryChangePackage());
@@ -272,20 +294,7 @@ public class XmlRpcClientManager {
 		FileWriter writer = null;
 		try {
 			writer = new FileWriter(file);
-
-			ChangePackageEnvelope envelope;
-			do {
-				envelope = executeCall("downloadChangePackageFragment", ChangePackageEnvelope.class, new Object[] { //$NON-NLS-1$
-					maybeSession.get(),
-					maybeProjectId.get(),
-					proxy.getId(),
-					fragmentIndex
-				});
-				for (final String s : envelope.getFragment()) {
-					writer.write(s + System.getProperty("line.separator")); //$NON-NLS-1$
-				}
-				fragmentIndex += 1;
-			} while (!envelope.isLast());
+			createFragmentTransfer(maybeSession.get(), maybeProjectId.get(), proxy.getId()).download(writer);
 		} catch (final IOException ex) {
 			throw new ESException(Messages.XmlRpcClientManager_DownloadOfFragmentFailed, ex);
 		} finally {
@@ -317,17 +326,7 @@ public class XmlRpcClientManager {
 			changePackage,
 			Configuration.getClientBehavior().getChangePackageFragmentSize().get());
 
-		String proxyId = null;
-		try {
-			while (envelopes.hasNext()) {
-				proxyId = uploadChangePackageFragment(
-					sessionId,
-					projectId,
-					envelopes.next());
-			}
-		} catch (final XmlRpcException ex) {
-			throw new ESException(Messages.XmlRpcClientManager_UploadChangePackageFragmentCallFailed, ex);
-		}
+		final String proxyId = createFragmentTransfer(sessionId, projectId, null).upload(envelopes);
 
 		final ChangePackageProxy proxy = VersioningFactory.eINSTANCE.createChangePackageProxy();
 		proxy.setLogMessage(ModelUtil.clone(changePackage.getLogMessage()));
@@ -335,6 +334,28 @@ public class XmlRpcClientManager {
 		return proxy;
 	}
 
+	private ChangePackageFragmentTransfer createFragmentTransfer(final SessionId sessionId,
+		final ProjectId projectId, final String proxyId) {
+		return new ChangePackageFragmentTransfer(new ChangePackageFragmentTransfer.FragmentConnection() {
+			public ChangePackageEnvelope downloadFragment(int fragmentIndex) throws ESException {
+				return executeCall("downloadChangePackageFragment", ChangePackageEnvelope.class, new Object[] { //$NON-NLS-1$
+					sessionId,
+					projectId,
+					proxyId,
+					fragmentIndex
+				});
+			}
+
+			public String uploadFragment(ChangePackageEnvelope envelope) throws ESException {
+				try {
+					return uploadChangePackageFragment(sessionId, projectId, envelope);
+				} catch (final XmlRpcException ex) {
+					throw new ESException(Messages.XmlRpcClientManager_UploadChangePackageFragmentCallFailed, ex);
+				}
+			}
+		}, Configuration.getClientBehavior().getChangePackageFragmentWindow());
+	}
+
 	private String uploadChangePackageFragment(final SessionId sessionId,
 		final ProjectId projectId, final ChangePackageEnvelope envelope) throws XmlRpcException {
 		return (String) client.execute(serverInterface + "." + "uploadChangePackageFragment", //$NON-NLS-1$ //$NON-NLS-2$
@@ -356,6 +377,8 @@ public class XmlRpcClientManager {
 		// init compression with false if not configured
 		gzipRequestingEnabled = false;
 		gzipCompressionEnabled = false;
+		binaryTransportEnabled = false;
+		binaryCompressionEnabled = false;
 		final ESExtensionElement element = new ESExtensionPoint(
 			"org.eclipse.emf.emfstore.common.model.serializationOptions") //$NON-NLS-1$
 				.getFirst();
@@ -363,6 +386,8 @@ public class XmlRpcClientManager {
 		if (element != null) {
 			gzipCompressionEnabled = element.getBoolean("GzipCompression"); //$NON-NLS-1$
 			gzipRequestingEnabled = element.getBoolean("GzipRequesting"); //$NON-NLS-1$
+			binaryTransportEnabled = element.getBoolean("BinaryTransport"); //$NON-NLS-1$
+			binaryCompressionEnabled = element.getBoolean("BinaryCompression"); //$NON-NLS-1$
 		}
 
 		serializationOptionsInitialized = true;
@@ -11,8 +11,11 @@
  ******************************************************************************/
 package org.eclipse.emf.emfstore.internal.client.model.connectionmanager.xmlrpc;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
+import org.apache.xmlrpc.server.XmlRpcNoSuchHandlerException;
 import org.eclipse.emf.ecore.EPackage;
 import org.eclipse.emf.emfstore.internal.client.model.ServerInfo;
 import org.eclipse.emf.emfstore.internal.client.model.connectionmanager.AbstractConnectionManager;
@@ -20,7 +23,9 @@ import org.eclipse.emf.emfstore.internal.client.model.connectionmanager.Connecti
 import org.eclipse.emf.emfstore.internal.client.model.util.EMFStoreClientUtil;
 import org.eclipse.emf.emfstore.internal.common.model.EMFStoreProperty;
 import org.eclipse.emf.emfstore.internal.common.model.Project;
+import org.eclipse.emf.emfstore.internal.server.connection.xmlrpc.XmlRpcBinaryConnectionHandler;
 import org.eclipse.emf.emfstore.internal.server.connection.xmlrpc.XmlRpcConnectionHandler;
+import org.eclipse.emf.emfstore.internal.server.exceptions.ConnectionException;
 import org.eclipse.emf.emfstore.internal.server.exceptions.InvalidVersionSpecException;
 import org.eclipse.emf.emfstore.internal.server.filetransfer.FileChunk;
 import org.eclipse.emf.emfstore.internal.server.filetransfer.FileTransferInformation;
@@ -57,12 +62,37 @@ public class XmlRpcConnectionManager extends AbstractConnectionManager<XmlRpcCli
 
 	private static final String LOGGING_PREFIX = "XMLRPC-Client"; //$NON-NLS-1$
 
+	private final Set<String> serversWithoutBinaryTransport = new LinkedHashSet<String>();
+
 	/**
 	 * {@inheritDoc}
 	 */
 	public AuthenticationInformation logIn(String username, String password, ServerInfo serverInfo,
 		ClientVersionInfo clientVersionInfo) throws ESException {
-		final XmlRpcClientManager clientManager = new XmlRpcClientManager(XmlRpcConnectionHandler.EMFSTORE);
+		if (XmlRpcClientManager.isBinaryTransportEnabled() && isBinaryTransportSupported(serverInfo)) {
+			final XmlRpcClientManager clientManager = new XmlRpcClientManager(
+				XmlRpcBinaryConnectionHandler.EMFSTORE_BINARY);
+			try {
+				// the login itself is sent as XMI, since the server might not understand the binary format
+				final AuthenticationInformation authenticationInformation = logIn(clientManager, username, password,
+					serverInfo, clientVersionInfo);
+				clientManager.enableBinaryTransport();
+				return authenticationInformation;
+			} catch (final ConnectionException e) {
+				if (!(e.getCause() instanceof XmlRpcNoSuchHandlerException)) {
+					throw e;
+				}
+				synchronized (serversWithoutBinaryTransport) {
+					serversWithoutBinaryTransport.add(getServerKey(serverInfo));
+				}
+			}
+		}
+		return logIn(new XmlRpcClientManager(XmlRpcConnectionHandler.EMFSTORE), username, password, serverInfo,
+			clientVersionInfo);
+	}
+
+	private AuthenticationInformation logIn(XmlRpcClientManager clientManager, String username, String password,
+		ServerInfo serverInfo, ClientVersionInfo clientVersionInfo) throws ESException {
 		clientManager.initConnection(serverInfo);
 		final AuthenticationInformation authenticationInformation = clientManager.callWithResult("logIn", //$NON-NLS-1$
 			AuthenticationInformation.class, username, password, clientVersionInfo);
@@ -70,6 +100,16 @@ public class XmlRpcConnectionManager extends AbstractConnectionManager<XmlRpcCli
 		return authenticationInformation;
 	}
 
+	private boolean isBinaryTransportSupported(ServerInfo serverInfo) {
+		synchronized (serversWithoutBinaryTransport) {
+			return !serversWithoutBinaryTransport.contains(getServerKey(serverInfo));
+		}
+	}
+
+	private static String getServerKey(ServerInfo serverInfo) {
+		return serverInfo.getUrl() + ':' + serverInfo.getPort();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -172,6 +212,15 @@ public class XmlRpcConnectionManager extends AbstractConnectionManager<XmlRpcCli
 			projectId, historyQuery);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<HistoryInfo> getHistoryInfoPage(SessionId sessionId, ProjectId projectId,
+		HistoryQuery<?> historyQuery, String continuationToken, int pageSize) throws ESException {
+		return getConnectionProxy(sessionId).callWithListResult("getHistoryInfoPage", HistoryInfo.class, //$NON-NLS-1$
+			sessionId, projectId, historyQuery, continuationToken, pageSize);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -28,7 +28,6 @@ import org.eclipse.emf.emfstore.internal.client.model.connectionmanager.ServerCa
 import org.eclipse.emf.emfstore.internal.client.model.impl.ProjectSpaceBase;
 import org.eclipse.emf.emfstore.internal.client.model.util.EMFStoreClientUtil;
 import org.eclipse.emf.emfstore.internal.client.model.util.WorkspaceUtil;
-import org.eclipse.emf.emfstore.internal.common.model.Project;
 import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
 import org.eclipse.emf.emfstore.internal.common.model.util.SerializationException;
 import org.eclipse.emf.emfstore.internal.server.conflictDetection.ModelElementIdToEObjectMappingImpl;
@@ -39,6 +38,11 @@ import org.eclipse.emf.emfstore.internal.server.model.versioning.LogMessage;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.PrimaryVersionSpec;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningFactory;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.Versions;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.impl.FileBasedChangePackageImpl;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AbstractOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.util.ChangePackageUtil;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.util.OperationsCompactor;
+import org.eclipse.emf.emfstore.server.ESCloseableIterable;
 import org.eclipse.emf.emfstore.server.exceptions.ESException;
 import org.eclipse.emf.emfstore.server.exceptions.ESUpdateRequiredException;
 
@@ -192,9 +196,54 @@ public class CommitController extends ServerCall<PrimaryVersionSpec> {
 		return commitAfterUpdate(branch, localChangePackage);
 	}
 
+	/**
+	 * Compacts the operations of the local change package into a new change package to be sent instead. The local
+	 * change package is not changed, since it is cleared once the commit succeeded anyway.
+	 *
+	 * @return the compacted change package or the local change package, if no operation could be folded
+	 */
+	private AbstractChangePackage compactOperations(AbstractChangePackage localChangePackage) {
+		final OperationsCompactor compactor = new OperationsCompactor();
+		final AbstractChangePackage compactedChangePackage = ChangePackageUtil.createChangePackage(
+			Configuration.getClientBehavior().useInMemoryChangePackage());
+		final ESCloseableIterable<AbstractOperation> operations = localChangePackage.operations();
+		try {
+			compactor.compact(operations.iterable(), compactedChangePackage);
+		} finally {
+			operations.close();
+		}
+		EMFStoreClientUtil.logProjectDetails(LOGGING_PREFIX,
+			MessageFormat.format("Compacted operations: {0} -> {1}", //$NON-NLS-1$
+				compactor.getOperationCount(), compactor.getCompactedOperationCount()),
+			getProjectSpace(), branch, getUsersession());
+		if (compactor.getCompactedOperationCount() == compactor.getOperationCount()) {
+			deleteChangePackage(compactedChangePackage);
+			return localChangePackage;
+		}
+		compactedChangePackage.setLogMessage(ModelUtil.clone(localChangePackage.getLogMessage()));
+		return compactedChangePackage;
+	}
+
+	private static void deleteChangePackage(AbstractChangePackage changePackage) {
+		if (changePackage instanceof FileBasedChangePackageImpl) {
+			FileBasedChangePackageImpl.class.cast(changePackage).delete();
+		}
+	}
+
 	private PrimaryVersionSpec commitAfterUpdate(final BranchVersionSpec branch,
 		final AbstractChangePackage localChangePackage) throws ESException {
-		final PrimaryVersionSpec newBaseVersion = performCommit(branch, localChangePackage);
+		// compacted once the changes are final, outside of the server call, which may be retried
+		final AbstractChangePackage changePackage = Configuration.getClientBehavior().isCompactOperationsActivated()
+			? compactOperations(localChangePackage)
+			: localChangePackage;
+		final PrimaryVersionSpec newBaseVersion;
+		try {
+			newBaseVersion = performCommit(branch, changePackage);
+		} finally {
+			if (changePackage != localChangePackage) {
+				deleteChangePackage(changePackage);
+			}
+		}
 
 		// TODO reimplement with ObserverBus and think about subtasks for commit
 		getProgressMonitor().worked(35);
@@ -230,7 +279,7 @@ public class CommitController extends ServerCall<PrimaryVersionSpec> {
 	private void handleChecksumProcessing(final PrimaryVersionSpec newBaseVersion) throws ESException {
 		boolean validChecksum = true;
 		try {
-			validChecksum = performChecksumCheck(newBaseVersion, getProjectSpace().getProject());
+			validChecksum = performChecksumCheck(newBaseVersion);
 		} catch (final SerializationException exception) {
 			WorkspaceUtil.logWarning(MessageFormat.format(Messages.CommitController_ChecksumComputationFailed,
 				getProjectSpace().getProjectName()), exception);
@@ -284,13 +333,12 @@ public class CommitController extends ServerCall<PrimaryVersionSpec> {
 		});
 	}
 
-	private boolean performChecksumCheck(PrimaryVersionSpec newBaseVersion, Project project)
-		throws SerializationException {
+	private boolean performChecksumCheck(PrimaryVersionSpec newBaseVersion) throws SerializationException {
 		EMFStoreClientUtil.logProjectDetails(LOGGING_PREFIX, "Perform checksum check..", getProjectSpace(), branch, //$NON-NLS-1$
 			getUsersession());
 
 		if (Configuration.getClientBehavior().isChecksumCheckActive()) {
-			final long computedChecksum = ModelUtil.computeChecksum(project);
+			final long computedChecksum = getProjectSpace().computeChecksum(newBaseVersion);
 			EMFStoreClientUtil.logProjectDetails(
 				LOGGING_PREFIX, MessageFormat.format("Computed Checksum: {0} , ProjectState Checksum: {1}", //$NON-NLS-1$
 					computedChecksum, newBaseVersion.getProjectStateChecksum()),
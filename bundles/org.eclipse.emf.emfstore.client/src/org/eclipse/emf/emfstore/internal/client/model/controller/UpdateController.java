@@ -252,7 +252,8 @@ public class UpdateController extends ServerCall<PrimaryVersionSpec> {
 	private ChangeConflictSet calcConflicts(AbstractChangePackage localChanges,
 		List<AbstractChangePackage> changes, ModelElementIdToEObjectMappingImpl idToEObjectMapping) {
 
-		final ConflictDetector conflictDetector = new ConflictDetector();
+		final ConflictDetector conflictDetector = new ConflictDetector(
+			Configuration.getClientBehavior().getConflictDetectionParallelism());
 		return conflictDetector.calculateConflicts(
 			Collections.singletonList(localChanges), changes, idToEObjectMapping);
 	}
@@ -18,8 +18,8 @@ import java.rmi.RemoteException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.emf.emfstore.internal.server.filetransfer.ChunkedFileTransfer;
 import org.eclipse.emf.emfstore.internal.server.filetransfer.FileChunk;
-import org.eclipse.emf.emfstore.internal.server.filetransfer.FilePartitionerUtil;
 import org.eclipse.emf.emfstore.internal.server.filetransfer.FileTransferInformation;
 import org.eclipse.emf.emfstore.internal.server.model.FileIdentifier;
 import org.eclipse.emf.emfstore.server.exceptions.ESException;
@@ -57,8 +57,8 @@ public class FileDownloadJob extends FileTransferJob {
 		try {
 			// read values from file attachment
 			getConnectionAttributes();
-			// set file that is to be written to
-			setFile(getCache().createTempFile(getFileId()));
+			// set file that is to be written to, keeping the chunks of an interrupted download
+			setFile(getCache().getTempFile(getFileId()));
 			// receive file chunks from server
 			if (!executeTransfer(monitor)) {
 				return Status.CANCEL_STATUS;
@@ -91,9 +91,11 @@ public class FileDownloadJob extends FileTransferJob {
 
 	private boolean executeTransfer(IProgressMonitor monitor) throws RemoteException, ESException {
 
-		// download file chunk to retrieve filesize (file chunk is discarded)
-		FileChunk fileChunk = null;
-		fileChunk = getConnectionManager().downloadFileChunk(getSessionId(), getProjectId(), getFileInformation());
+		// resume an interrupted download, the first chunk also tells the file size
+		getFileInformation().setChunkNumber(
+			ChunkedFileTransfer.getResumeChunkNumber(getFile(), getFileInformation()));
+		FileChunk fileChunk = getConnectionManager().downloadFileChunk(getSessionId(), getProjectId(),
+			getFileInformation());
 		if (fileChunk == null) {
 			status.transferCancelled();
 			return false;
@@ -102,16 +104,15 @@ public class FileDownloadJob extends FileTransferJob {
 		getFileInformation().setFileSize(fileChunk.getFileSize());
 		initializeMonitor(monitor);
 		status.transferStarted(fileChunk.getFileSize());
-		do {
+		if (!writeChunk(fileChunk, monitor)) {
+			return false;
+		}
+		while (!fileChunk.isLast()) {
 			fileChunk = getConnectionManager().downloadFileChunk(getSessionId(), getProjectId(), getFileInformation());
-			FilePartitionerUtil.writeChunk(getFile(), fileChunk);
-			monitor.worked(1);
-			incrementChunkNumber();
-			if (isCanceled()) {
-				status.transferCancelled();
+			if (!writeChunk(fileChunk, monitor)) {
 				return false;
 			}
-		} while (!fileChunk.isLast());
+		}
 
 		// Once the file is downloaded, it can be moved from the tmp folder to the cache
 		final File result = getCache().moveTempFileToCache(getFileId(), true);
@@ -119,4 +120,15 @@ public class FileDownloadJob extends FileTransferJob {
 		return true;
 	}
 
+	private boolean writeChunk(FileChunk fileChunk, IProgressMonitor monitor) throws ESException {
+		ChunkedFileTransfer.writeChunk(getFile(), fileChunk);
+		monitor.worked(1);
+		incrementChunkNumber();
+		if (isCanceled()) {
+			status.transferCancelled();
+			return false;
+		}
+		return true;
+	}
+
 }
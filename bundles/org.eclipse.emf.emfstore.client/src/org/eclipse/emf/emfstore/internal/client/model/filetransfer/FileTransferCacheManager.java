@@ -177,6 +177,25 @@ public class FileTransferCacheManager {
 		return cacheFile;
 	}
 
+	/**
+	 * Returns the file in the temporary cache folder for a specified file id. Unlike
+	 * {@link #createTempFile(FileIdentifier)}, an existing file is kept, so that an
+	 * interrupted download into the file can be resumed.
+	 *
+	 * @param id
+	 *            the file id for which to return the temporary file
+	 * @return the temporary file
+	 * @throws FileTransferException
+	 *             if an IO exception occurred during the creation of a new file
+	 */
+	public File getTempFile(FileIdentifier id) throws FileTransferException {
+		final File cacheFile = getFileFromId(tempCacheFolder, id);
+		if (cacheFile.exists()) {
+			return cacheFile;
+		}
+		return createTempFile(id);
+	}
+
 	/**
 	 * This method moves a file from the temporary folder into the cache. It should
 	 * be called after a temporary file was written successfully. A file
@@ -15,11 +15,11 @@ import java.io.File;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.emf.emfstore.internal.client.model.Configuration;
 import org.eclipse.emf.emfstore.internal.client.model.ESWorkspaceProviderImpl;
 import org.eclipse.emf.emfstore.internal.client.model.connectionmanager.ConnectionManager;
 import org.eclipse.emf.emfstore.internal.client.model.util.EMFStoreCommand;
 import org.eclipse.emf.emfstore.internal.server.exceptions.FileTransferException;
-import org.eclipse.emf.emfstore.internal.server.filetransfer.FilePartitionerUtil;
 import org.eclipse.emf.emfstore.internal.server.filetransfer.FileTransferInformation;
 import org.eclipse.emf.emfstore.internal.server.model.FileIdentifier;
 import org.eclipse.emf.emfstore.internal.server.model.ProjectId;
@@ -54,6 +54,7 @@ public abstract class FileTransferJob extends Job {
 	protected FileTransferJob(FileTransferManager transferManager, FileTransferInformation fileInfo, String name) {
 		super(name);
 		fileInformation = fileInfo;
+		fileInformation.setChunkSize(Configuration.getClientBehavior().getFileTransferChunkSize());
 		fileId = fileInfo.getFileIdentifier();
 		this.transferManager = transferManager;
 		cache = transferManager.getCache();
@@ -86,7 +87,7 @@ public abstract class FileTransferJob extends Job {
 	 */
 	protected void setTotalWork(IProgressMonitor monitor) {
 		monitor.beginTask(Messages.FileTransferJob_Transferring,
-			fileInformation.getFileSize() / FilePartitionerUtil.getChunkSize());
+			fileInformation.getFileSize() / fileInformation.getChunkSize());
 	}
 
 	/**
@@ -11,14 +11,16 @@
  ******************************************************************************/
 package org.eclipse.emf.emfstore.internal.client.model.filetransfer;
 
+import java.io.IOException;
 import java.text.MessageFormat;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.emf.emfstore.internal.server.exceptions.FileTransferException;
+import org.eclipse.emf.emfstore.internal.server.filetransfer.ChunkedFileTransfer;
+import org.eclipse.emf.emfstore.internal.server.filetransfer.ContentAddressedFileStore;
 import org.eclipse.emf.emfstore.internal.server.filetransfer.FileChunk;
-import org.eclipse.emf.emfstore.internal.server.filetransfer.FilePartitionerUtil;
 import org.eclipse.emf.emfstore.internal.server.filetransfer.FileTransferInformation;
 import org.eclipse.emf.emfstore.internal.server.model.FileIdentifier;
 import org.eclipse.emf.emfstore.server.exceptions.ESException;
@@ -77,10 +79,14 @@ public class FileUploadJob extends FileTransferJob {
 	 */
 	private boolean executeTransfer(IProgressMonitor monitor) throws ESException {
 		FileChunk fileChunk;
+		if (!prepareTransfer()) {
+			getTransferManager().removeWaitingUpload(getFileId());
+			return true;
+		}
 		initializeMonitor(monitor);
-		long transmitted = 0;
+		long transmitted = (long) getFileInformation().getChunkNumber() * getFileInformation().getChunkSize();
 		do {
-			fileChunk = FilePartitionerUtil.readChunk(getFile(), getFileInformation());
+			fileChunk = ChunkedFileTransfer.readChunk(getFile(), getFileInformation());
 			getConnectionManager().uploadFileChunk(getSessionId(), getProjectId(), fileChunk);
 			transmitted += fileChunk.getData().length;
 			monitor.worked(1);
@@ -98,4 +104,28 @@ public class FileUploadJob extends FileTransferJob {
 		return true;
 	}
 
+	/**
+	 * Asks the server whether it already stores the content of the file, in which case no chunks need to be uploaded.
+	 * Otherwise, an earlier, interrupted upload of the file is continued, if the server already received some of its
+	 * chunks.
+	 *
+	 * @return {@code true} if the file has to be uploaded, {@code false} if the server already holds its content
+	 * @throws ESException if any error occurs in the emf store
+	 */
+	private boolean prepareTransfer() throws ESException {
+		try {
+			getFileInformation().setContentHash(ContentAddressedFileStore.computeHash(getFile()));
+		} catch (final IOException e) {
+			throw new FileTransferException(Messages.FileUploadJob_Hash_Failed, e);
+		}
+		// a chunk without data asks the server for the content or the chunk to resume with
+		final FileTransferInformation queryInformation = getConnectionManager().uploadFileChunk(getSessionId(),
+			getProjectId(), new FileChunk(getFileInformation(), false, null));
+		if (queryInformation.isComplete()) {
+			return false;
+		}
+		getFileInformation().setChunkNumber(queryInformation.getChunkNumber());
+		return true;
+	}
+
 }
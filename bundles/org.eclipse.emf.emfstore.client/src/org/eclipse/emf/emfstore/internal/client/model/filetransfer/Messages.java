@@ -49,6 +49,7 @@ public class Messages extends NLS {
 	public static String FileTransferManager_UploadFailed;
 	public static String FileTransferManager_UploadIsDirectory;
 	public static String FileUploadJob_FileUpload;
+	public static String FileUploadJob_Hash_Failed;
 	public static String FileUploadJob_SendingFile;
 	public static String TransferCanceledException_FileTransferCancelled;
 	static {
@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.internal.client.model.impl;
+
+import org.eclipse.emf.emfstore.internal.client.model.util.EMFStoreCommand;
+import org.eclipse.emf.emfstore.internal.client.model.util.WorkspaceUtil;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.AbstractChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AbstractOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AttributeOperation;
+import org.eclipse.emf.emfstore.server.ESCloseableIterable;
+
+/**
+ * A {@link Runnable} implementation that applies the operations of the given change packages onto a
+ * {@link ProjectSpaceBase} in bulk, without adding them to the project space.
+ * <p>
+ * Observers of the project that react to single notifications are suspended while the operations are applied and
+ * catch up once afterwards. Consecutive {@link AttributeOperation}s of a change package that change the same attribute
+ * of the same element are coalesced, i.e. only the last one of them is applied, since each of them overwrites the
+ * value set by its predecessor.
+ * </p>
+ */
+public class BulkApplyOperationsRunnable implements Runnable {
+
+	private final ProjectSpaceBase projectSpace;
+	private final Iterable<AbstractChangePackage> changePackages;
+	private int appliedOperations;
+	private int coalescedOperations;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param projectSpaceBase
+	 *            the {@link ProjectSpaceBase} onto which to apply the operations
+	 * @param changePackages
+	 *            the change packages whose operations are to be applied upon the project space
+	 */
+	public BulkApplyOperationsRunnable(ProjectSpaceBase projectSpaceBase,
+		Iterable<AbstractChangePackage> changePackages) {
+		projectSpace = projectSpaceBase;
+		this.changePackages = changePackages;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @see java.lang.Runnable#run()
+	 */
+	public void run() {
+		new EMFStoreCommand() {
+			@Override
+			protected void doRun() {
+				projectSpace.stopChangeRecording();
+				projectSpace.beginBulkApply();
+				try {
+					for (final AbstractChangePackage changePackage : changePackages) {
+						final ESCloseableIterable<AbstractOperation> operations = changePackage.operations();
+						try {
+							applyCoalesced(operations.iterable());
+						} finally {
+							operations.close();
+						}
+					}
+				} finally {
+					projectSpace.endBulkApply();
+					if (projectSpace.getOperationManager() != null) {
+						projectSpace.startChangeRecording();
+					}
+				}
+			}
+		}.run(false);
+	}
+
+	private void applyCoalesced(Iterable<AbstractOperation> operations) {
+		AttributeOperation pending = null;
+		for (final AbstractOperation operation : operations) {
+			if (pending != null) {
+				if (isSameAttribute(pending, operation)) {
+					coalescedOperations++;
+				} else {
+					apply(pending);
+				}
+				pending = null;
+			}
+			if (operation instanceof AttributeOperation) {
+				pending = (AttributeOperation) operation;
+			} else {
+				apply(operation);
+			}
+		}
+		if (pending != null) {
+			apply(pending);
+		}
+	}
+
+	private static boolean isSameAttribute(AttributeOperation operation, AbstractOperation nextOperation) {
+		if (!(nextOperation instanceof AttributeOperation)) {
+			return false;
+		}
+		final AttributeOperation next = (AttributeOperation) nextOperation;
+		return operation.getModelElementId() != null
+			&& operation.getModelElementId().equals(next.getModelElementId())
+			&& operation.getFeatureName() != null
+			&& operation.getFeatureName().equals(next.getFeatureName());
+	}
+
+	private void apply(AbstractOperation operation) {
+		try {
+			operation.apply(projectSpace.getProject());
+			// BEGIN SUPRESS CATCH EXCEPTION
+		} catch (final RuntimeException e) {
+			WorkspaceUtil.handleException(e);
+			// END SUPRESS CATCH EXCEPTION
+		}
+		appliedOperations++;
+	}
+
+	/**
+	 * @return the number of operations that have been applied
+	 */
+	public int getAppliedOperations() {
+		return appliedOperations;
+	}
+
+	/**
+	 * @return the number of operations that have been skipped, since they were overwritten by their successor
+	 */
+	public int getCoalescedOperations() {
+		return coalescedOperations;
+	}
+}
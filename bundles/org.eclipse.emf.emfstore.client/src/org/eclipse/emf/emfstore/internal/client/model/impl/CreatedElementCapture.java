@@ -0,0 +1,363 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.internal.client.model.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.util.ECollections;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.common.util.EMap;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.util.EcoreUtil.Copier;
+import org.eclipse.emf.ecore.util.ExtendedMetaData;
+import org.eclipse.emf.ecore.util.FeatureMap;
+import org.eclipse.emf.ecore.util.FeatureMapUtil;
+import org.eclipse.emf.ecore.util.InternalEList;
+import org.eclipse.emf.emfstore.internal.common.model.IdEObjectCollection;
+import org.eclipse.emf.emfstore.internal.common.model.ModelElementId;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.CreateDeleteOperation;
+
+/**
+ * Captures the containment tree of a model element that has been added to a collection, along with the IDs of its
+ * elements, for a {@link CreateDeleteOperation}.
+ * <p>
+ * The copy of the tree that becomes the model element of the operation may be made later than the capture. As long as
+ * no element of the tree has been changed, a later copy equals a copy made right away. Since notifications are
+ * delivered after a change has been applied, the first change to an element of the tree has to be passed to
+ * {@link #materialize(Notification)}, which copies the tree and reverts the change on the copy. Transient references
+ * are not copied, since changes to them are not propagated to the observers of a collection.
+ * </p>
+ */
+public class CreatedElementCapture {
+
+	private final CreateDeleteOperation operation;
+	private final EObject modelElement;
+	private final Map<EObject, ModelElementId> ids;
+	private final Map<EClass, List<EAttribute>> featureMapAttributes;
+	private boolean deferrable;
+	private boolean materialized;
+
+	/**
+	 * Captures the containment tree of the given model element.
+	 *
+	 * @param operation
+	 *            the operation whose model element is set upon materialization
+	 * @param modelElement
+	 *            the model element that has been added
+	 * @param collection
+	 *            the collection that assigned the IDs of the elements
+	 */
+	public CreatedElementCapture(CreateDeleteOperation operation, EObject modelElement,
+		IdEObjectCollection collection) {
+		this.operation = operation;
+		this.modelElement = modelElement;
+		ids = new LinkedHashMap<EObject, ModelElementId>();
+		featureMapAttributes = new HashMap<EClass, List<EAttribute>>();
+		deferrable = true;
+
+		final TreeIterator<EObject> iterator = modelElement.eAllContents();
+		while (iterator.hasNext()) {
+			final EObject child = iterator.next();
+			if (child.eContainingFeature() == null || child.eContainingFeature().isTransient()) {
+				iterator.prune();
+				continue;
+			}
+			capture(child, collection);
+		}
+		capture(modelElement, collection);
+	}
+
+	private void capture(EObject element, IdEObjectCollection collection) {
+		ids.put(element, collection.getModelElementId(element));
+		// feature maps can only be restored on a copy if they have been empty
+		for (final EAttribute attribute : getFeatureMapAttributes(element.eClass())) {
+			if (!((List<?>) element.eGet(attribute)).isEmpty()) {
+				deferrable = false;
+			}
+		}
+	}
+
+	private List<EAttribute> getFeatureMapAttributes(EClass eClass) {
+		List<EAttribute> attributes = featureMapAttributes.get(eClass);
+		if (attributes == null) {
+			attributes = new ArrayList<EAttribute>();
+			for (final EAttribute attribute : eClass.getEAllAttributes()) {
+				if (FeatureMapUtil.isFeatureMap(attribute)) {
+					attributes.add(attribute);
+				}
+			}
+			featureMapAttributes.put(eClass, attributes);
+		}
+		return attributes;
+	}
+
+	/**
+	 * Returns the operation the tree has been captured for.
+	 *
+	 * @return the operation
+	 */
+	public CreateDeleteOperation getOperation() {
+		return operation;
+	}
+
+	/**
+	 * Returns the captured elements, i.e. the added model element and all elements contained in it.
+	 *
+	 * @return the captured elements
+	 */
+	public Set<EObject> getElements() {
+		return ids.keySet();
+	}
+
+	/**
+	 * Whether the copy may be made later than the capture. This is not the case if an element of the tree has a non
+	 * empty feature map.
+	 *
+	 * @return {@code true}, if the copy may be deferred, {@code false} otherwise
+	 */
+	public boolean isDeferrable() {
+		return deferrable;
+	}
+
+	/**
+	 * Whether the copy has already been made.
+	 *
+	 * @return {@code true}, if the copy has been made, {@code false} otherwise
+	 */
+	public boolean isMaterialized() {
+		return materialized;
+	}
+
+	/**
+	 * Whether the given notification reports a change to a captured element that is reflected by the copy.
+	 *
+	 * @param notification
+	 *            the notification
+	 * @return {@code true}, if the copy depends on the reported change, {@code false} otherwise
+	 */
+	public boolean isChangedBy(Notification notification) {
+		if (notification.isTouch() || !ids.containsKey(notification.getNotifier())
+			|| !(notification.getFeature() instanceof EStructuralFeature)) {
+			return false;
+		}
+		final EStructuralFeature feature = (EStructuralFeature) notification.getFeature();
+		return isFeatureMapFeature(feature) || isCopied(feature);
+	}
+
+	/**
+	 * Copies the captured tree, sets the copy as the model element of the operation and maps the copied elements to
+	 * their IDs.
+	 *
+	 * @param change
+	 *            the first change to a captured element since the capture, which is reverted on the copy, or
+	 *            {@code null} if the captured elements are unchanged
+	 */
+	public void materialize(Notification change) {
+		if (materialized) {
+			return;
+		}
+		materialized = true;
+
+		final Copier copier = new CaptureCopier(ids.keySet());
+		final EObject copiedElement = copier.copy(modelElement);
+		// elements that the change has moved out of the tree
+		for (final EObject element : ids.keySet()) {
+			if (!copier.containsKey(element)) {
+				copier.copy(getTopmostUncopiedContainer(element, copier));
+			}
+		}
+		copier.copyReferences();
+
+		if (change != null && isChangedBy(change)) {
+			revert(change, copier);
+		}
+
+		final EMap<EObject, ModelElementId> eObjectToIdMap = operation.getEObjectToIdMap();
+		for (final Map.Entry<EObject, ModelElementId> entry : ids.entrySet()) {
+			eObjectToIdMap.put(copier.get(entry.getKey()), entry.getValue());
+		}
+		operation.setModelElement(copiedElement);
+	}
+
+	private EObject getTopmostUncopiedContainer(EObject element, Copier copier) {
+		EObject result = element;
+		while (result.eContainer() != null && ids.containsKey(result.eContainer())
+			&& !copier.containsKey(result.eContainer())) {
+			result = result.eContainer();
+		}
+		return result;
+	}
+
+	private void revert(Notification change, Copier copier) {
+		final EStructuralFeature feature = (EStructuralFeature) change.getFeature();
+		final EObject element = (EObject) change.getNotifier();
+		final EObject copiedElement = copier.get(element);
+
+		if (isFeatureMapFeature(feature)) {
+			for (final EAttribute attribute : getFeatureMapAttributes(copiedElement.eClass())) {
+				((FeatureMap) copiedElement.eGet(attribute)).clear();
+			}
+			return;
+		}
+
+		if (!feature.isMany()) {
+			if (change.getEventType() != Notification.SET && change.getEventType() != Notification.UNSET) {
+				return;
+			}
+			if (feature.isUnsettable() && !change.wasSet()) {
+				copiedElement.eUnset(feature);
+			} else {
+				copiedElement.eSet(feature, getCopiedValue(feature, change.getOldValue(), copier));
+			}
+			return;
+		}
+
+		final List<Object> previousValues = getPreviousValues(change, (List<?>) element.eGet(feature, false));
+		if (previousValues == null) {
+			return;
+		}
+		final List<Object> copiedValues = new ArrayList<Object>(previousValues.size());
+		for (final Object value : previousValues) {
+			if (feature instanceof EReference) {
+				final EObject copiedValue = copier.get(value);
+				if (copiedValue != null) {
+					copiedValues.add(copiedValue);
+				}
+			} else {
+				copiedValues.add(value);
+			}
+		}
+		@SuppressWarnings("unchecked")
+		final EList<Object> copiedList = (EList<Object>) copiedElement.eGet(feature);
+		ECollections.setEList(copiedList, copiedValues);
+	}
+
+	private static Object getCopiedValue(EStructuralFeature feature, Object value, Copier copier) {
+		if (feature instanceof EReference) {
+			return value == null ? null : copier.get(value);
+		}
+		return value;
+	}
+
+	/**
+	 * Reconstructs the values of a many-valued feature before the given change from its current values.
+	 */
+	private static List<Object> getPreviousValues(Notification change, List<?> currentValues) {
+		final List<Object> values = new ArrayList<Object>(currentValues);
+		final int position = change.getPosition();
+
+		switch (change.getEventType()) {
+		case Notification.ADD:
+			values.remove(position);
+			break;
+		case Notification.ADD_MANY:
+			for (int i = 0; i < ((Collection<?>) change.getNewValue()).size(); i++) {
+				values.remove(position);
+			}
+			break;
+		case Notification.REMOVE:
+			values.add(position, change.getOldValue());
+			break;
+		case Notification.REMOVE_MANY:
+			final List<?> removedValues = (List<?>) change.getOldValue();
+			final int[] positions = change.getNewValue() instanceof int[] ? (int[]) change.getNewValue() : null;
+			for (int i = 0; i < removedValues.size(); i++) {
+				values.add(positions == null ? Math.max(0, position) + i : positions[i], removedValues.get(i));
+			}
+			break;
+		case Notification.MOVE:
+			values.add((Integer) change.getOldValue(), values.remove(position));
+			break;
+		case Notification.SET:
+			values.set(position, change.getOldValue());
+			break;
+		default:
+			return null;
+		}
+
+		return values;
+	}
+
+	private static boolean isFeatureMapFeature(EStructuralFeature feature) {
+		return FeatureMapUtil.isFeatureMap(feature) || ExtendedMetaData.INSTANCE.getGroup(feature) != null;
+	}
+
+	private static boolean isCopied(EStructuralFeature feature) {
+		if (!feature.isChangeable() || feature.isDerived()) {
+			return false;
+		}
+		if (feature instanceof EReference) {
+			final EReference reference = (EReference) feature;
+			return !reference.isTransient() && !reference.isContainer();
+		}
+		return true;
+	}
+
+	/**
+	 * Copies the captured elements only. Elements that have been added to the tree after the capture and transient
+	 * references are skipped.
+	 */
+	private static final class CaptureCopier extends Copier {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Set<EObject> capturedElements;
+
+		CaptureCopier(Set<EObject> capturedElements) {
+			super(true, false);
+			this.capturedElements = capturedElements;
+		}
+
+		@Override
+		protected void copyContainment(EReference eReference, EObject eObject, EObject copyEObject) {
+			if (eReference.isTransient() || !eObject.eIsSet(eReference)) {
+				return;
+			}
+			if (eReference.isMany()) {
+				final List<?> children = (List<?>) eObject.eGet(eReference);
+				final List<EObject> copiedChildren = new ArrayList<EObject>(children.size());
+				for (final Object child : children) {
+					if (capturedElements.contains(child)) {
+						copiedChildren.add(copy((EObject) child));
+					}
+				}
+				@SuppressWarnings("unchecked")
+				final InternalEList<EObject> target = (InternalEList<EObject>) copyEObject
+					.eGet(getTarget(eReference));
+				target.addAllUnique(copiedChildren);
+			} else {
+				final Object child = eObject.eGet(eReference);
+				if (capturedElements.contains(child)) {
+					copyEObject.eSet(getTarget(eReference), copy((EObject) child));
+				}
+			}
+		}
+
+		@Override
+		protected void copyReference(EReference eReference, EObject eObject, EObject copyEObject) {
+			if (!eReference.isTransient()) {
+				super.copyReference(eReference, eObject, copyEObject);
+			}
+		}
+	}
+}
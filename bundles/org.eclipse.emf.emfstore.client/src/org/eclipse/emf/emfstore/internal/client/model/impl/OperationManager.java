@@ -72,6 +72,10 @@ public class OperationManager implements OperationRecorderListener, ESDisposable
 		config.setDenyAddCutElementsToModelElements(
 			Configuration.getClientBehavior().isDenyAddCutElementsToModelElementsFeatureActived());
 
+		// created elements are copied right away by default
+		config.setLazyCreateCapture(
+			Configuration.getClientBehavior().isLazyCreateCaptureActivated());
+
 		config.setOperationModifier(
 			Configuration.getClientBehavior().getOperationModifier());
 	}
@@ -17,6 +17,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -90,6 +91,7 @@ public class OperationRecorder implements ESCommandObserver, ESCommitObserver, E
 	private List<AbstractOperation> operations;
 	private final List<OperationRecorderListener> observers;
 	private final RemovedElementsCache removedElementsCache;
+	private final Map<EObject, CreatedElementCapture> pendingCaptures;
 
 	private final NotificationToOperationConverter converter;
 	private NotificationRecorder notificationRecorder;
@@ -117,6 +119,7 @@ public class OperationRecorder implements ESCommandObserver, ESCommitObserver, E
 		operations = new ArrayList<AbstractOperation>();
 		observers = new ArrayList<OperationRecorderListener>();
 		removedElementsCache = new RemovedElementsCache(collection);
+		pendingCaptures = new HashMap<EObject, CreatedElementCapture>();
 
 		config = new OperationRecorderConfig();
 		converter = new NotificationToOperationConverter(collection);
@@ -128,6 +131,7 @@ public class OperationRecorder implements ESCommandObserver, ESCommitObserver, E
 	 * @return the list of cleared operations
 	 */
 	public List<AbstractOperation> clearOperations() {
+		materializePendingCaptures();
 		final List<AbstractOperation> ops = new ArrayList<AbstractOperation>(operations);
 		operations.clear();
 		return ops;
@@ -302,6 +306,8 @@ public class OperationRecorder implements ESCommandObserver, ESCommitObserver, E
 			return;
 		}
 
+		materializePendingCaptures();
+
 		for (final OperationRecorderListener observer : observers) {
 			observer.operationsRecorded(operations);
 		}
@@ -397,8 +403,36 @@ public class OperationRecorder implements ESCommandObserver, ESCommitObserver, E
 	private CreateDeleteOperation createCreateDeleteOperation(EObject modelElement, boolean delete) {
 		final CreateDeleteOperation createDeleteOperation = OperationsFactory.eINSTANCE.createCreateDeleteOperation();
 		createDeleteOperation.setDelete(delete);
-		final EObject element = modelElement;
+		createDeleteOperation.setModelElementId(collection.getModelElementId(modelElement));
+		createDeleteOperation.setClientDate(new Date());
+
+		if (!config.isLazyCreateCapture()) {
+			copyModelElement(createDeleteOperation, modelElement);
+			return createDeleteOperation;
+		}
 
+		final CreatedElementCapture capture = new CreatedElementCapture(createDeleteOperation, modelElement,
+			collection);
+
+		// the copy is only deferred while the operations are buffered until the command completes
+		if (commandIsRunning && config.isEmitOperationsUponCommandCompletion() && capture.isDeferrable()) {
+			for (final EObject element : capture.getElements()) {
+				final CreatedElementCapture previousCapture = pendingCaptures.get(element);
+				if (previousCapture != null) {
+					materializeCapture(previousCapture, null);
+				}
+			}
+			for (final EObject element : capture.getElements()) {
+				pendingCaptures.put(element, capture);
+			}
+		} else {
+			capture.materialize(null);
+		}
+
+		return createDeleteOperation;
+	}
+
+	private void copyModelElement(CreateDeleteOperation createDeleteOperation, EObject element) {
 		final List<EObject> allContainedModelElements = ModelUtil.getAllContainedModelElementsAsList(element, false);
 		allContainedModelElements.add(element);
 
@@ -421,10 +455,24 @@ public class OperationRecorder implements ESCommandObserver, ESCommitObserver, E
 		}
 
 		createDeleteOperation.setModelElement(copiedElement);
-		createDeleteOperation.setModelElementId(collection.getModelElementId(modelElement));
-		createDeleteOperation.setClientDate(new Date());
+	}
 
-		return createDeleteOperation;
+	private void materializeCapture(CreatedElementCapture capture, Notification change) {
+		for (final EObject element : capture.getElements()) {
+			pendingCaptures.remove(element);
+		}
+		capture.materialize(change);
+	}
+
+	private void materializePendingCaptures() {
+		if (pendingCaptures.isEmpty()) {
+			return;
+		}
+		for (final CreatedElementCapture capture : new LinkedHashSet<CreatedElementCapture>(
+			pendingCaptures.values())) {
+			capture.materialize(null);
+		}
+		pendingCaptures.clear();
 	}
 
 	/**
@@ -446,6 +494,15 @@ public class OperationRecorder implements ESCommandObserver, ESCommitObserver, E
 					ModelUtil.getAllContainedModelElements(
 						modelElement,
 						/* includeTransientContainments= */false));
+				if (!pendingCaptures.isEmpty()) {
+					// captures of removed elements are copied before their removal is handled
+					for (final EObject element : allModelElements) {
+						final CreatedElementCapture capture = pendingCaptures.get(element);
+						if (capture != null) {
+							materializeCapture(capture, null);
+						}
+					}
+				}
 				final List<SettingWithReferencedElement> crossReferences = ModelUtil.collectOutgoingCrossReferences(
 					collection, allModelElements);
 				final List<SettingWithReferencedElement> ingoingCrossReferences = collectIngoingCrossReferences(
@@ -482,6 +539,8 @@ public class OperationRecorder implements ESCommandObserver, ESCommitObserver, E
 		// return;
 		// }
 
+		materializePendingCaptures();
+
 		final List<EObject> deletedElements = new ArrayList<EObject>();
 		for (int i = removedElementsCache.getRemovedRootElements().size() - 1; i >= 0; i--) {
 			final EObject removedElement = removedElementsCache.getRemovedRootElements().get(i);
@@ -813,6 +872,8 @@ public class OperationRecorder implements ESCommandObserver, ESCommitObserver, E
 	 */
 	public void commandFailed(Command command, Exception exception) {
 
+		materializePendingCaptures();
+
 		// this is a backup in order to remove obsolete operations. In most
 		// (all?) cases though, the rollback of the
 		// transaction does this.
@@ -848,6 +909,8 @@ public class OperationRecorder implements ESCommandObserver, ESCommitObserver, E
 	 * @return the composite operation
 	 */
 	public CompositeOperation getCompositeOperation() {
+		// the composite operation may be handed to observers
+		materializePendingCaptures();
 		return compositeOperation;
 	}
 
@@ -893,6 +956,7 @@ public class OperationRecorder implements ESCommandObserver, ESCommitObserver, E
 	 * Aborts the current composite operation.
 	 */
 	public void abortCompositeOperation() {
+		materializePendingCaptures();
 		final AbstractOperation reversedCompositeOperation = compositeOperation.reverse();
 		projectSpace.applyOperations(
 			Collections.singletonList(reversedCompositeOperation), false);
@@ -913,6 +977,14 @@ public class OperationRecorder implements ESCommandObserver, ESCommitObserver, E
 	 */
 	public void notify(Notification notification, IdEObjectCollection collection, EObject modelElement) {
 
+		// copy captured trees before they are changed any further
+		if (!pendingCaptures.isEmpty()) {
+			final CreatedElementCapture capture = pendingCaptures.get(notification.getNotifier());
+			if (capture != null && capture.isChangedBy(notification)) {
+				materializeCapture(capture, notification);
+			}
+		}
+
 		if (!isRecording) {
 			return;
 		}
@@ -970,7 +1042,7 @@ public class OperationRecorder implements ESCommandObserver, ESCommitObserver, E
 	 * @see org.eclipse.emf.emfstore.internal.common.model.util.IdEObjectCollectionChangeObserver#collectionDeleted(org.eclipse.emf.emfstore.internal.common.model.IdEObjectCollection)
 	 */
 	public void collectionDeleted(IdEObjectCollection collection) {
-
+		pendingCaptures.clear();
 	}
 
 	/**
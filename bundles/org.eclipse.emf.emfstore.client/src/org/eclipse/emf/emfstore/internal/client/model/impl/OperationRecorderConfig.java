@@ -25,6 +25,7 @@ public class OperationRecorderConfig {
 	private boolean isRollBackInCaseOfCommandFailure;
 	private boolean isForceCommands;
 	private boolean isEmitOperationsUponCommandCompletion = true;
+	private boolean isLazyCreateCapture;
 	private ESOperationModifier operationModifier;
 
 	/**
@@ -76,11 +77,14 @@ public class OperationRecorderConfig {
 	}
 
 	/**
-	 * Whether to emit the recorded instantly or at command completion.
+	 * Whether the copy of an element that has been created within a command is deferred until the recorded operations
+	 * are emitted or the element is changed or removed.
 	 *
-	 * @param shouldEmitOperationsUponCommandCompletion
-	 *            true, if operations should only be emitted when a command completes, false otherwise
+	 * @return true, if the copy of created elements is deferred, false otherwise
 	 */
+	public Boolean isLazyCreateCapture() {
+		return isLazyCreateCapture;
+	}
 
 	/**
 	 * Whether to cut off incoming cross references upon deletion.
@@ -135,6 +139,18 @@ public class OperationRecorderConfig {
 		isEmitOperationsUponCommandCompletion = shouldEmitOperationsUponCommandCompletion;
 	}
 
+	/**
+	 * Whether the copy of an element that has been created within a command should be deferred until the recorded
+	 * operations are emitted or the element is changed or removed. Only applies if operations are emitted upon command
+	 * completion.
+	 *
+	 * @param shouldCaptureLazily
+	 *            true, if the copy of created elements should be deferred, false otherwise
+	 */
+	public void setLazyCreateCapture(Boolean shouldCaptureLazily) {
+		isLazyCreateCapture = shouldCaptureLazily;
+	}
+
 	/**
 	 * Set the operation modifier that enables to modify operations whenever they have been recored
 	 *
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.internal.client.model.impl;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.emfstore.internal.common.model.util.FileUtil;
+
+import com.google.common.base.Optional;
+
+/**
+ * Records how many operations of the local change package are contained in the last saved snapshot of a project.
+ * <p>
+ * Operations recorded after the snapshot are only persisted as part of the local change package, which thereby acts as
+ * a journal that is replayed onto the snapshot when the project space is initialized. Along with the number of
+ * operations, the marker records the length and the modification date of the project file, so that a marker is
+ * ignored if the project file has been saved by other means, or if saving the snapshot has been interrupted before the
+ * marker could be written.
+ * </p>
+ */
+public class ProjectSnapshotMarker {
+
+	private static final String MARKER_SUFFIX = ".snapshot"; //$NON-NLS-1$
+	private static final String SEPARATOR = " "; //$NON-NLS-1$
+
+	private final File projectFile;
+	private final File markerFile;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param projectFile
+	 *            the file the project is saved to
+	 */
+	public ProjectSnapshotMarker(File projectFile) {
+		this.projectFile = projectFile;
+		markerFile = new File(projectFile.getPath() + MARKER_SUFFIX);
+	}
+
+	/**
+	 * Returns the marker of the project contained in the given resource.
+	 *
+	 * @param resource
+	 *            the resource containing the project
+	 * @return the marker, or absent if the resource is not saved to a local file
+	 */
+	public static Optional<ProjectSnapshotMarker> forResource(Resource resource) {
+		if (resource == null || resource.getURI() == null || resource.getResourceSet() == null) {
+			return Optional.absent();
+		}
+		final URI uri = resource.getResourceSet().getURIConverter().normalize(resource.getURI());
+		if (!uri.isFile()) {
+			return Optional.absent();
+		}
+		return Optional.of(new ProjectSnapshotMarker(new File(uri.toFileString())));
+	}
+
+	/**
+	 * Returns the number of local operations contained in the snapshot.
+	 *
+	 * @return the number of operations, or -1 if there is no marker or the project file has been changed since the
+	 *         marker has been written
+	 */
+	public int read() {
+		if (!markerFile.exists()) {
+			return -1;
+		}
+		try {
+			final BufferedReader reader = new BufferedReader(new FileReader(markerFile));
+			try {
+				final String line = reader.readLine();
+				if (line == null) {
+					return -1;
+				}
+				final String[] values = line.trim().split(SEPARATOR);
+				if (values.length != 3
+					|| Long.parseLong(values[1]) != projectFile.length()
+					|| Long.parseLong(values[2]) != projectFile.lastModified()) {
+					return -1;
+				}
+				return Integer.parseInt(values[0]);
+			} finally {
+				reader.close();
+			}
+		} catch (final IOException ex) {
+			return -1;
+		} catch (final NumberFormatException ex) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Records that the snapshot, which has just been saved, contains the given number of local operations.
+	 *
+	 * @param operationCount
+	 *            the number of operations of the local change package contained in the snapshot
+	 * @throws IOException if the marker can not be written
+	 */
+	public void write(int operationCount) throws IOException {
+		final String content = operationCount + SEPARATOR + projectFile.length() + SEPARATOR
+			+ projectFile.lastModified();
+		FileUtil.writeAtomically(markerFile, content.getBytes("US-ASCII")); //$NON-NLS-1$
+	}
+
+	/**
+	 * Deletes the marker, if any.
+	 */
+	public void delete() {
+		markerFile.delete();
+	}
+}
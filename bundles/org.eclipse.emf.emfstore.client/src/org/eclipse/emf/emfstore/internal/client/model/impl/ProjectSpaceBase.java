@@ -32,6 +32,9 @@ import java.util.concurrent.Callable;
 import org.apache.commons.io.FileUtils;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EObject;
@@ -40,7 +43,6 @@ import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
 import org.eclipse.emf.ecore.util.ECrossReferenceAdapter;
-import org.eclipse.emf.ecore.util.EcoreUtil.UsageCrossReferencer;
 import org.eclipse.emf.ecore.xmi.XMIResource;
 import org.eclipse.emf.emfstore.client.ESUsersession;
 import org.eclipse.emf.emfstore.client.callbacks.ESCommitCallback;
@@ -59,6 +61,7 @@ import org.eclipse.emf.emfstore.internal.client.importexport.impl.ExportProjectC
 import org.eclipse.emf.emfstore.internal.client.model.CompositeOperationHandle;
 import org.eclipse.emf.emfstore.internal.client.model.Configuration;
 import org.eclipse.emf.emfstore.internal.client.model.ESWorkspaceProviderImpl;
+import org.eclipse.emf.emfstore.internal.client.model.ModelPackage;
 import org.eclipse.emf.emfstore.internal.client.model.ProjectSpace;
 import org.eclipse.emf.emfstore.internal.client.model.Usersession;
 import org.eclipse.emf.emfstore.internal.client.model.changeTracking.merging.ConflictResolver;
@@ -82,9 +85,10 @@ import org.eclipse.emf.emfstore.internal.client.properties.PropertyManager;
 import org.eclipse.emf.emfstore.internal.common.ESDisposable;
 import org.eclipse.emf.emfstore.internal.common.ExtensionRegistry;
 import org.eclipse.emf.emfstore.internal.common.model.ModelElementId;
-import org.eclipse.emf.emfstore.internal.common.model.Project;
 import org.eclipse.emf.emfstore.internal.common.model.impl.IdentifiableElementImpl;
 import org.eclipse.emf.emfstore.internal.common.model.impl.ProjectImpl;
+import org.eclipse.emf.emfstore.internal.common.model.util.CommutativeChecksum;
+import org.eclipse.emf.emfstore.internal.common.model.util.CommutativeChecksumTracker;
 import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
 import org.eclipse.emf.emfstore.internal.common.model.util.SerializationException;
 import org.eclipse.emf.emfstore.internal.server.conflictDetection.ChangeConflictSet;
@@ -118,6 +122,8 @@ import org.eclipse.emf.emfstore.server.ESCloseableIterable;
 import org.eclipse.emf.emfstore.server.exceptions.ESException;
 import org.eclipse.emf.emfstore.server.model.ESChangePackage;
 
+import com.google.common.base.Optional;
+
 /**
  * Project space base class that contains custom user methods.
  *
@@ -144,9 +150,11 @@ public abstract class ProjectSpaceBase extends IdentifiableElementImpl
 
 	private ResourceSet resourceSet;
 	private ResourcePersister resourcePersister;
+	private CommutativeChecksumTracker checksumTracker;
 
 	private ECrossReferenceAdapter crossReferenceAdapter;
 	private ESRunnableContext runnableContext;
+	private Adapter deferredInitAdapter;
 
 	/**
 	 * Constructor.
@@ -260,7 +268,11 @@ public abstract class ProjectSpaceBase extends IdentifiableElementImpl
 		notifyPostRevertMyChanges();
 
 		// apply changes from repo. incoming (aka theirs)
-		applyChangePackages(incomingChangePackages, false);
+		if (Configuration.getClientBehavior().isBulkApplyActivated()) {
+			executeRunnable(new BulkApplyOperationsRunnable(this, incomingChangePackages));
+		} else {
+			applyChangePackages(incomingChangePackages, false);
+		}
 		if (runChecksumCheckOnBaseSpec) {
 			runChecksumTests(baseSpec, incomingChangePackages, progressMonitor);
 		}
@@ -292,7 +304,7 @@ public abstract class ProjectSpaceBase extends IdentifiableElementImpl
 
 		progressMonitor.subTask(Messages.ProjectSpaceBase_Computing_Checksum);
 
-		if (!performChecksumCheck(baseSpec, getProject())) {
+		if (!performChecksumCheck(baseSpec)) {
 			progressMonitor.subTask(Messages.ProjectSpaceBase_Activate_ChecksumErrorHandler_Invalid_Chekcum);
 			final boolean errorHandled = Configuration.getClientBehavior()
 				.getChecksumErrorHandler()
@@ -333,12 +345,12 @@ public abstract class ProjectSpaceBase extends IdentifiableElementImpl
 		}
 	}
 
-	private boolean performChecksumCheck(PrimaryVersionSpec baseVersion, Project project) {
+	private boolean performChecksumCheck(PrimaryVersionSpec baseVersion) {
 
 		if (Configuration.getClientBehavior().isChecksumCheckActive()) {
 			final long expectedChecksum = baseVersion.getProjectStateChecksum();
 			try {
-				final long computedChecksum = ModelUtil.computeChecksum(project);
+				final long computedChecksum = computeChecksum(baseVersion);
 				return expectedChecksum == computedChecksum;
 			} catch (final SerializationException e) {
 				WorkspaceUtil.logWarning(Messages.ProjectSpaceBase_Cannot_Compute_Checksum, e);
@@ -672,11 +684,8 @@ public abstract class ProjectSpaceBase extends IdentifiableElementImpl
 				if (changePackage.eResource() == eResource()) {
 					migrateFileBasedChangePackageIntoDedicatedResource(localChangePackageUri, changePackage);
 				} else {
-					// TODO: move to FileBasedChangePackage
 					try {
-						FileUtils.copyFile(
-							new File(changePackage.getFilePath()),
-							new File(changePackage.getTempFilePath()));
+						changePackage.restore();
 					} catch (final IOException ex) {
 						WorkspaceUtil.logException(ex.getMessage(), ex);
 					}
@@ -684,6 +693,8 @@ public abstract class ProjectSpaceBase extends IdentifiableElementImpl
 			}
 		}
 
+		final boolean replayed = replayJournaledOperations();
+
 		initResourcePersister();
 		// TODO: use ObserverBug to register observers
 		commandStack.addCommandStackObserver(resourcePersister);
@@ -697,12 +708,93 @@ public abstract class ProjectSpaceBase extends IdentifiableElementImpl
 			((ProjectImpl) getProject()).setUndetachable(resourcePersister);
 		}
 
+		initChecksumTracker();
+
+		if (replayed) {
+			resourcePersister.saveDirtyResources(true);
+		}
+
 		initCompleted = true;
 
 		startChangeRecording();
 		cleanCutElements();
 	}
 
+	/**
+	 * Defers the initialization of this project space until it is used, i.e. until {@link #initIfDeferred()} is
+	 * called or its project is loaded. Loading the workspace thereby only reads the metadata of the project space.
+	 */
+	public void deferInit() {
+		if (deferredInitAdapter != null) {
+			return;
+		}
+		deferredInitAdapter = new AdapterImpl() {
+			@Override
+			public void notifyChanged(Notification msg) {
+				if (msg.getEventType() == Notification.RESOLVE
+					&& msg.getFeatureID(ProjectSpace.class) == ModelPackage.PROJECT_SPACE__PROJECT) {
+					initIfDeferred();
+				}
+			}
+		};
+		eAdapters().add(deferredInitAdapter);
+	}
+
+	/**
+	 * Whether the initialization of this project space has been deferred and is still pending.
+	 *
+	 * @return {@code true}, if the project space has not been initialized yet
+	 */
+	public boolean isInitDeferred() {
+		return deferredInitAdapter != null;
+	}
+
+	/**
+	 * Initializes this project space, if its initialization has been deferred via {@link #deferInit()} and has not
+	 * been performed yet.
+	 */
+	public void initIfDeferred() {
+		if (deferredInitAdapter == null) {
+			return;
+		}
+		// init() loads the project, which must not trigger the initialization again
+		eAdapters().remove(deferredInitAdapter);
+		deferredInitAdapter = null;
+		RunESCommand.run(new ESVoidCallable() {
+			@Override
+			public void run() {
+				init();
+			}
+		});
+	}
+
+	/**
+	 * Applies the local operations that have been saved after the last saved snapshot of the project, if automatic
+	 * saves have only saved the local change package since then.
+	 *
+	 * @return whether any operations have been replayed
+	 */
+	private boolean replayJournaledOperations() {
+		if (isTransient) {
+			return false;
+		}
+		final Optional<ProjectSnapshotMarker> marker = ProjectSnapshotMarker.forResource(getProject().eResource());
+		if (!marker.isPresent()) {
+			return false;
+		}
+		final int snapshotOperationCount = marker.get().read();
+		final int operationCount = getLocalChangePackage().size();
+		if (snapshotOperationCount < 0 || snapshotOperationCount >= operationCount) {
+			return false;
+		}
+		final List<AbstractOperation> operations = new ArrayList<AbstractOperation>();
+		for (int i = snapshotOperationCount; i < operationCount; i++) {
+			operations.add(getLocalChangePackage().get(i));
+		}
+		applyOperations(operations, false);
+		return true;
+	}
+
 	private AbstractChangePackage createChangePackage(URI localChangePackageUri, boolean initialize) {
 
 		AbstractChangePackage localChangePackage;
@@ -817,6 +909,40 @@ public abstract class ProjectSpaceBase extends IdentifiableElementImpl
 		}
 	}
 
+	private void initChecksumTracker() {
+		checksumTracker = null;
+		if (!Configuration.getClientBehavior().isCommutativeChecksumActivated()) {
+			return;
+		}
+		checksumTracker = new CommutativeChecksumTracker(getProject(),
+			Configuration.getClientBehavior().isCommutativeChecksumVerificationActivated());
+		getProject().addIdEObjectCollectionChangeObserver(checksumTracker);
+		if (getProject() instanceof ProjectImpl) {
+			((ProjectImpl) getProject()).setUndetachable(checksumTracker);
+		}
+	}
+
+	/**
+	 * Computes the checksum of the project of the same kind as the project state checksum of the given version spec,
+	 * i.e. either by serializing the project or as commutative checksum. The commutative checksum is updated
+	 * incrementally, if enabled in the client configuration, and computed over the whole project otherwise.
+	 *
+	 * @param versionSpec
+	 *            the version spec whose project state checksum is to be compared to the computed checksum
+	 * @return the checksum of the project
+	 * @throws SerializationException
+	 *             in case the project can not be serialized
+	 */
+	public long computeChecksum(PrimaryVersionSpec versionSpec) throws SerializationException {
+		if (!versionSpec.isCommutativeChecksum()) {
+			return ModelUtil.computeChecksum(getProject());
+		}
+		if (checksumTracker != null) {
+			return checksumTracker.getChecksum();
+		}
+		return CommutativeChecksum.computeChecksum(getProject());
+	}
+
 	private void initResourcePersister() {
 
 		resourcePersister = new ResourcePersister(toAPI());
@@ -938,19 +1064,47 @@ public abstract class ProjectSpaceBase extends IdentifiableElementImpl
 	}
 
 	/**
-	 * Returns the {@link ECrossReferenceAdapter}, if available.
+	 * Returns the inverse cross references of the given model element, either via the {@link ECrossReferenceAdapter},
+	 * if available, or via the inverse reference index of the project.
 	 *
 	 * @param modelElement
 	 *            the model element for which to find inverse cross references
 	 *
-	 * @return the {@link ECrossReferenceAdapter}
+	 * @return the settings referencing the given model element
 	 */
 	public Collection<Setting> findInverseCrossReferences(EObject modelElement) {
 		if (crossReferenceAdapter != null) {
 			return crossReferenceAdapter.getInverseReferences(modelElement);
 		}
 
-		return UsageCrossReferencer.find(modelElement, resourceSet);
+		return getProject().findInverseCrossReferences(modelElement);
+	}
+
+	/**
+	 * Suspends the observers of the project that react to single notifications before many operations are applied at
+	 * once. The inverse cross reference cache is dropped and inverse cross references are looked up via the project
+	 * meanwhile.
+	 */
+	void beginBulkApply() {
+		if (crossReferenceAdapter != null) {
+			getProject().eAdapters().remove(crossReferenceAdapter);
+			crossReferenceAdapter = null;
+		}
+		if (resourcePersister != null) {
+			resourcePersister.setNotificationsSuspended(true);
+		}
+	}
+
+	/**
+	 * Resumes the observers suspended by {@link #beginBulkApply()} and rebuilds the inverse cross reference cache.
+	 */
+	void endBulkApply() {
+		if (resourcePersister != null) {
+			resourcePersister.setNotificationsSuspended(false);
+		}
+		if (crossReferenceAdapter == null) {
+			initCrossReferenceAdapter();
+		}
 	}
 
 	/**
@@ -1051,7 +1205,8 @@ public abstract class ProjectSpaceBase extends IdentifiableElementImpl
 		final List<AbstractChangePackage> baseChanges = getChanges(commonAncestor, getBaseVersion());
 		final List<AbstractChangePackage> branchChanges = getChanges(commonAncestor, branchSpec);
 
-		final ChangeConflictSet conflictSet = new ConflictDetector().calculateConflicts(branchChanges,
+		final ChangeConflictSet conflictSet = new ConflictDetector(
+			Configuration.getClientBehavior().getConflictDetectionParallelism()).calculateConflicts(branchChanges,
 			baseChanges, getProject());
 
 		if (conflictResolver.resolveConflicts(getProject(), conflictSet)) {
@@ -1096,10 +1251,7 @@ public abstract class ProjectSpaceBase extends IdentifiableElementImpl
 			final ESCloseableIterable<AbstractOperation> operations = locChangePackage.operations();
 			try {
 				for (final AbstractOperation myOperation : operations.iterable()) {
-					final Set<AbstractOperation> notInvolvedInConflict = conflictSet.getNotInvolvedInConflict();
-					final List<AbstractOperation> ops = new ArrayList<AbstractOperation>(notInvolvedInConflict);
-
-					if (containsOp(ops, myOperation)) {
+					if (conflictSet.isNotInvolvedInConflict(myOperation)) {
 						acceptedMineList.add(myOperation);
 					} else if (containsOp(accceptedMineSet, myOperation)) {
 						acceptedMineList.add(myOperation);
@@ -1387,6 +1539,10 @@ public abstract class ProjectSpaceBase extends IdentifiableElementImpl
 		if (operationManager != null) {
 			operationManager.stopChangeRecording();
 		}
+		if (resourcePersister != null) {
+			// changes made meanwhile are not journaled by the local change package
+			resourcePersister.requestSnapshot();
+		}
 	}
 
 	/**
@@ -1515,6 +1671,13 @@ public abstract class ProjectSpaceBase extends IdentifiableElementImpl
 			return;
 		}
 
+		if (isInitDeferred()) {
+			eAdapters().remove(deferredInitAdapter);
+			deferredInitAdapter = null;
+			disposed = true;
+			return;
+		}
+
 		stopChangeRecording();
 
 		if (crossReferenceAdapter != null) {
@@ -1528,6 +1691,9 @@ public abstract class ProjectSpaceBase extends IdentifiableElementImpl
 
 		getProject().removeIdEObjectCollectionChangeObserver(operationManager);
 		getProject().removeIdEObjectCollectionChangeObserver(resourcePersister);
+		if (checksumTracker != null) {
+			getProject().removeIdEObjectCollectionChangeObserver(checksumTracker);
+		}
 
 		ESWorkspaceProviderImpl.getObserverBus().unregister(resourcePersister);
 		ESWorkspaceProviderImpl.getObserverBus().unregister(this, ESLoginObserver.class);
@@ -14,10 +14,8 @@ package org.eclipse.emf.emfstore.internal.client.model.impl;
 import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.lang.StringUtils;
@@ -40,6 +38,7 @@ import org.eclipse.emf.emfstore.internal.client.model.changeTracking.notificatio
 import org.eclipse.emf.emfstore.internal.client.model.impl.api.ESLocalProjectImpl;
 import org.eclipse.emf.emfstore.internal.client.model.util.WorkspaceUtil;
 import org.eclipse.emf.emfstore.internal.common.EMFStoreResource;
+import org.eclipse.emf.emfstore.internal.common.EObjectIdRegistry;
 import org.eclipse.emf.emfstore.internal.common.ESDisposable;
 import org.eclipse.emf.emfstore.internal.common.model.IdEObjectCollection;
 import org.eclipse.emf.emfstore.internal.common.model.util.IdEObjectCollectionChangeObserver;
@@ -48,6 +47,8 @@ import org.eclipse.emf.emfstore.internal.common.model.util.NotificationInfo;
 import org.eclipse.emf.emfstore.server.model.ESChangePackage;
 import org.eclipse.emf.emfstore.server.model.versionspec.ESPrimaryVersionSpec;
 
+import com.google.common.base.Optional;
+
 /**
  * Saves any registered resources upon certain types of triggers like, for instance, update and commit.
  *
@@ -72,6 +73,17 @@ public class ResourcePersister implements ESCommandObserver, IdEObjectCollection
 
 	private ESLocalProject localProject;
 
+	/**
+	 * The number of local operations contained in the last saved project, -1 if the project has not been saved yet.
+	 */
+	private int snapshotOperationCount = -1;
+
+	private int savesSinceSnapshot;
+
+	private boolean snapshotRequested;
+
+	private boolean notificationsSuspended;
+
 	/**
 	 * Constructor.
 	 *
@@ -156,19 +168,28 @@ public class ResourcePersister implements ESCommandObserver, IdEObjectCollection
 			return;
 		}
 
+		final ProjectSpace projectSpace = ESLocalProjectImpl.class.cast(localProject).toInternalAPI();
+		final Resource projectResource = projectSpace.getProject().eResource();
+		final boolean saveSnapshot = isSnapshotDue(force, projectSpace);
+
 		for (final Resource resource : resources) {
 
 			if (resource.getURI() == null || resource.getURI().toString().equals(StringUtils.EMPTY)) {
 				continue;
 			}
 
-			final ProjectSpace projectSpace = ESLocalProjectImpl.class.cast(localProject).toInternalAPI();
-			if (EMFStoreResource.class.isInstance(resource) && resource == projectSpace.getProject().eResource()) {
-				final Map<EObject, String> eObjectToIdMapping = new LinkedHashMap<EObject, String>(
-					projectSpace.getProject().getEObjectToIdMapping());
-				final Map<String, EObject> idToEObjectMapping = new LinkedHashMap<String, EObject>(
-					projectSpace.getProject().getIdToEObjectMapping());
-				EMFStoreResource.class.cast(resource).setIdToEObjectMap(idToEObjectMapping, eObjectToIdMapping);
+			if (resource == projectResource) {
+				if (!saveSnapshot) {
+					// the operations are journaled by the local change package
+					continue;
+				}
+				if (EMFStoreResource.class.isInstance(resource)) {
+					final EObjectIdRegistry idRegistry = EObjectIdRegistry.copyOf(
+						projectSpace.getProject().getEObjectToIdMapping(),
+						projectSpace.getProject().getIdToEObjectMapping());
+					EMFStoreResource.class.cast(resource).setIdToEObjectMap(idRegistry.getIdToEObjectMap(),
+						idRegistry.getEObjectToIdMap());
+				}
 			}
 
 			try {
@@ -177,6 +198,9 @@ public class ResourcePersister implements ESCommandObserver, IdEObjectCollection
 				} else {
 					ModelUtil.saveResource(resource, WorkspaceUtil.getResourceLogger());
 				}
+				if (resource == projectResource) {
+					markSnapshot(resource, projectSpace.getLocalChangePackage().size());
+				}
 			} catch (final IOException e) {
 				throw new RuntimeException(
 					MessageFormat.format(Messages.ResourcePersister_SaveFailed, resource.getURI()));
@@ -187,6 +211,56 @@ public class ResourcePersister implements ESCommandObserver, IdEObjectCollection
 		fireDirtyStateChangedNotification();
 	}
 
+	/**
+	 * Suspends the inspection of single notifications, e.g. while many operations are applied at once. Resuming marks
+	 * the resources as dirty, since any of them may have been changed meanwhile.
+	 *
+	 * @param suspended
+	 *            whether to suspend the inspection of notifications
+	 */
+	public void setNotificationsSuspended(boolean suspended) {
+		if (notificationsSuspended && !suspended) {
+			isDirty = true;
+		}
+		notificationsSuspended = suspended;
+	}
+
+	/**
+	 * Requests the whole project to be saved upon the next save, even if only the local change package would be saved
+	 * otherwise. Needs to be called whenever operations are removed from the local change package, since the journaled
+	 * operations can not be replayed onto the last saved project anymore.
+	 */
+	public void requestSnapshot() {
+		snapshotRequested = true;
+	}
+
+	private boolean isSnapshotDue(boolean force, ProjectSpace projectSpace) {
+		final int interval = Configuration.getClientBehavior().getProjectSnapshotInterval();
+		if (force || snapshotRequested || interval == 1 || snapshotOperationCount == -1) {
+			return true;
+		}
+		// operations contained in the last snapshot have been removed
+		if (projectSpace.getLocalChangePackage().size() < snapshotOperationCount) {
+			return true;
+		}
+		return ++savesSinceSnapshot >= interval;
+	}
+
+	private void markSnapshot(Resource projectResource, int operationCount) throws IOException {
+		savesSinceSnapshot = 0;
+		snapshotRequested = false;
+		snapshotOperationCount = operationCount;
+		final Optional<ProjectSnapshotMarker> marker = ProjectSnapshotMarker.forResource(projectResource);
+		if (!marker.isPresent()) {
+			return;
+		}
+		if (Configuration.getClientBehavior().getProjectSnapshotInterval() == 1) {
+			marker.get().delete();
+		} else {
+			marker.get().write(operationCount);
+		}
+	}
+
 	/**
 	 * Determine if there is resources that still need to be saved.
 	 *
@@ -223,6 +297,10 @@ public class ResourcePersister implements ESCommandObserver, IdEObjectCollection
 	 */
 	public void notify(Notification notification, IdEObjectCollection collection, EObject modelElement) {
 
+		if (notificationsSuspended) {
+			return;
+		}
+
 		// filter unwanted notifications that did not change anything in the
 		// state
 		if (filterStack.check(new NotificationInfo(notification).toAPI(), collection)) {
@@ -28,6 +28,7 @@ import org.eclipse.emf.edit.domain.EditingDomain;
 import org.eclipse.emf.emfstore.internal.client.importexport.impl.ExportProjectSpaceController;
 import org.eclipse.emf.emfstore.internal.client.importexport.impl.ExportWorkspaceController;
 import org.eclipse.emf.emfstore.internal.client.model.AdminBroker;
+import org.eclipse.emf.emfstore.internal.client.model.Configuration;
 import org.eclipse.emf.emfstore.internal.client.model.ESWorkspaceProviderImpl;
 import org.eclipse.emf.emfstore.internal.client.model.ModelFactory;
 import org.eclipse.emf.emfstore.internal.client.model.ProjectSpace;
@@ -147,8 +148,14 @@ public abstract class WorkspaceBase extends EObjectImpl implements Workspace, ES
 	@SuppressWarnings("unchecked")
 	public void init() {
 		projectToProjectSpaceMap = new LinkedHashMap<Project, ProjectSpace>();
+		final boolean lazyInit = Configuration.getClientBehavior().isLazyProjectSpaceInitActivated();
 		// initialize all projectSpaces
 		for (final ProjectSpace projectSpace : getProjectSpaces()) {
+			if (lazyInit) {
+				// only the metadata has been loaded, the project space is initialized once it is used
+				((ProjectSpaceBase) projectSpace).deferInit();
+				continue;
+			}
 			try {
 				projectSpace.init();
 				projectToProjectSpaceMap.put(projectSpace.getProject(), projectSpace);
@@ -427,7 +434,13 @@ public abstract class WorkspaceBase extends EObjectImpl implements Workspace, ES
 	 * @see org.eclipse.emf.emfstore.internal.client.model.Workspace#getProjectSpace(org.eclipse.emf.emfstore.internal.common.model.Project)
 	 */
 	public ProjectSpace getProjectSpace(Project project) throws UnkownProjectException {
-		final ProjectSpace projectSpace = projectToProjectSpaceMap.get(project);
+		ProjectSpace projectSpace = projectToProjectSpaceMap.get(project);
+		if (projectSpace == null && project != null && project.eContainer() instanceof ProjectSpace
+			&& getProjectSpaces().contains(project.eContainer())) {
+			// project spaces initialized lazily are mapped once their project is known
+			projectSpace = (ProjectSpace) project.eContainer();
+			projectToProjectSpaceMap.put(project, projectSpace);
+		}
 		if (projectSpace == null) {
 			throw new UnkownProjectException();
 		}
@@ -93,6 +93,29 @@ public class ESLocalProjectImpl extends AbstractAPIImpl<ESLocalProjectImpl, Proj
 		super(projectSpace);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Initializes the project space first, if its initialization has been deferred.
+	 *
+	 * @see org.eclipse.emf.emfstore.internal.common.api.AbstractAPIImpl#toInternalAPI()
+	 */
+	@Override
+	public ProjectSpace toInternalAPI() {
+		final ProjectSpace projectSpace = super.toInternalAPI();
+		((ProjectSpaceBase) projectSpace).initIfDeferred();
+		return projectSpace;
+	}
+
+	/**
+	 * Returns the project space without initializing it, which suffices to access its metadata.
+	 *
+	 * @return the project space
+	 */
+	private ProjectSpace getProjectSpaceMetadata() {
+		return super.toInternalAPI();
+	}
+
 	/**
 	 *
 	 * {@inheritDoc}
@@ -103,7 +126,7 @@ public class ESLocalProjectImpl extends AbstractAPIImpl<ESLocalProjectImpl, Proj
 		checkIsShared();
 		return RunESCommand.runWithResult(new Callable<ESGlobalProjectId>() {
 			public ESGlobalProjectId call() throws Exception {
-				return toInternalAPI().getProjectId().toAPI();
+				return getProjectSpaceMetadata().getProjectId().toAPI();
 			}
 		});
 	}
@@ -117,7 +140,7 @@ public class ESLocalProjectImpl extends AbstractAPIImpl<ESLocalProjectImpl, Proj
 	public String getProjectName() {
 		return RunESCommand.runWithResult(new Callable<String>() {
 			public String call() throws Exception {
-				return toInternalAPI().getProjectName();
+				return getProjectSpaceMetadata().getProjectName();
 			}
 		});
 	}
@@ -620,7 +643,7 @@ public class ESLocalProjectImpl extends AbstractAPIImpl<ESLocalProjectImpl, Proj
 	 * @see org.eclipse.emf.emfstore.client.ESLocalProject#isShared()
 	 */
 	public boolean isShared() {
-		return toInternalAPI().isShared();
+		return getProjectSpaceMetadata().isShared();
 	}
 
 	/**
@@ -632,10 +655,10 @@ public class ESLocalProjectImpl extends AbstractAPIImpl<ESLocalProjectImpl, Proj
 	public ESUsersessionImpl getUsersession() {
 		return RunESCommand.runWithResult(new Callable<ESUsersessionImpl>() {
 			public ESUsersessionImpl call() throws Exception {
-				if (toInternalAPI().getUsersession() == null) {
+				if (getProjectSpaceMetadata().getUsersession() == null) {
 					return null;
 				}
-				return toInternalAPI().getUsersession().toAPI();
+				return getProjectSpaceMetadata().getUsersession().toAPI();
 			}
 		});
 	}
@@ -650,7 +673,7 @@ public class ESLocalProjectImpl extends AbstractAPIImpl<ESLocalProjectImpl, Proj
 		checkIsShared();
 		return RunESCommand.runWithResult(new Callable<ESPrimaryVersionSpec>() {
 			public ESPrimaryVersionSpec call() throws Exception {
-				final PrimaryVersionSpec baseVersion = toInternalAPI().getBaseVersion();
+				final PrimaryVersionSpec baseVersion = getProjectSpaceMetadata().getBaseVersion();
 				return baseVersion != null ? baseVersion.toAPI() : null;
 			}
 		});
@@ -666,7 +689,7 @@ public class ESLocalProjectImpl extends AbstractAPIImpl<ESLocalProjectImpl, Proj
 		checkIsShared();
 		return RunESCommand.runWithResult(new Callable<Date>() {
 			public Date call() throws Exception {
-				return toInternalAPI().getLastUpdated();
+				return getProjectSpaceMetadata().getLastUpdated();
 			}
 		});
 	}
@@ -681,7 +704,7 @@ public class ESLocalProjectImpl extends AbstractAPIImpl<ESLocalProjectImpl, Proj
 		checkIsShared();
 		return RunESCommand.runWithResult(new Callable<List<String>>() {
 			public List<String> call() throws Exception {
-				return toInternalAPI().getOldLogMessages();
+				return getProjectSpaceMetadata().getOldLogMessages();
 			}
 		});
 	}
@@ -764,7 +787,7 @@ public class ESLocalProjectImpl extends AbstractAPIImpl<ESLocalProjectImpl, Proj
 	 * @see org.eclipse.emf.emfstore.client.ESLocalProject#hasUnsavedChanges()
 	 */
 	public boolean hasUnsavedChanges() {
-		return toInternalAPI().hasUnsavedChanges();
+		return getProjectSpaceMetadata().hasUnsavedChanges();
 	}
 
 	/**
@@ -774,7 +797,7 @@ public class ESLocalProjectImpl extends AbstractAPIImpl<ESLocalProjectImpl, Proj
 	 * @see org.eclipse.emf.emfstore.client.ESLocalProject#hasUncommitedChanges()
 	 */
 	public boolean hasUncommitedChanges() {
-		return toInternalAPI().isDirty();
+		return getProjectSpaceMetadata().isDirty();
 	}
 
 	/**
@@ -812,7 +835,7 @@ public class ESLocalProjectImpl extends AbstractAPIImpl<ESLocalProjectImpl, Proj
 	public ESLocalProjectId getLocalProjectId() {
 		return RunESCommand.runWithResult(new Callable<ESLocalProjectId>() {
 			public ESLocalProjectId call() throws Exception {
-				return new ESLocalProjectIdImpl(toInternalAPI().getIdentifier());
+				return new ESLocalProjectIdImpl(getProjectSpaceMetadata().getIdentifier());
 			}
 		});
 	}
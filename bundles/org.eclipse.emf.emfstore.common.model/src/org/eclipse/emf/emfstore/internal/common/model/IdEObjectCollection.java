@@ -11,12 +11,14 @@
  ******************************************************************************/
 package org.eclipse.emf.emfstore.internal.common.model;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature.Setting;
 import org.eclipse.emf.emfstore.common.model.ESObjectContainer;
 
 // import org.eclipse.emf.emfstore.common.model.ESModelElementId;
@@ -121,6 +123,15 @@ public interface IdEObjectCollection extends EObject, ESObjectContainer<ModelEle
 	 */
 	void deleteModelElement(EObject modelElement);
 
+	/**
+	 * Returns the settings of all cross references from elements of this collection to the given element.
+	 *
+	 * @param modelElement
+	 *            the referenced element, which does not need to be contained in the collection
+	 * @return the settings referencing the given element
+	 */
+	Collection<Setting> findInverseCrossReferences(EObject modelElement);
+
 	/**
 	 *
 	 * {@inheritDoc}
@@ -11,11 +11,11 @@
  ******************************************************************************/
 package org.eclipse.emf.emfstore.internal.common.model.impl;
 
-import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.util.EcoreUtil.Copier;
+import org.eclipse.emf.emfstore.internal.common.EObjectIdRegistry;
 import org.eclipse.emf.emfstore.internal.common.model.ModelElementId;
 import org.eclipse.emf.emfstore.internal.common.model.Project;
 
@@ -29,15 +29,16 @@ public class IdEObjectCollectionCopier extends Copier {
 	private static final long serialVersionUID = 1L;
 	private Project orgProject;
 	private ProjectImpl copiedProject;
-	private final HashMap<EObject, String> eObjectToIdMap;
-	private final HashMap<String, EObject> idToEObjectMap;
+	private final Map<EObject, String> eObjectToIdMap;
+	private final Map<String, EObject> idToEObjectMap;
 
 	/**
 	 * Default constructor.
 	 */
 	public IdEObjectCollectionCopier() {
-		eObjectToIdMap = new LinkedHashMap<EObject, String>();
-		idToEObjectMap = new LinkedHashMap<String, EObject>();
+		final EObjectIdRegistry idRegistry = new EObjectIdRegistry();
+		eObjectToIdMap = idRegistry.getEObjectToIdMap();
+		idToEObjectMap = idRegistry.getIdToEObjectMap();
 	}
 
 	@Override
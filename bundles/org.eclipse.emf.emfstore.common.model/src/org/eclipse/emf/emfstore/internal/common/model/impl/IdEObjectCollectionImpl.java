@@ -16,11 +16,11 @@ import java.text.MessageFormat;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
+import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.common.util.TreeIterator;
 import org.eclipse.emf.ecore.EClass;
@@ -35,6 +35,7 @@ import org.eclipse.emf.ecore.xmi.XMIResource;
 import org.eclipse.emf.emfstore.common.extensionpoint.ESExtensionElement;
 import org.eclipse.emf.emfstore.common.extensionpoint.ESExtensionPoint;
 import org.eclipse.emf.emfstore.common.model.ESModelElementIdGenerator;
+import org.eclipse.emf.emfstore.internal.common.EObjectIdRegistry;
 import org.eclipse.emf.emfstore.internal.common.ESDisposable;
 import org.eclipse.emf.emfstore.internal.common.model.IdEObjectCollection;
 import org.eclipse.emf.emfstore.internal.common.model.ModelElementId;
@@ -64,7 +65,7 @@ public abstract class IdEObjectCollectionImpl extends EObjectImpl implements IdE
 	 */
 	public static final String MODELELEMENTID_GENERATOR_CLASS_ATTRIBUTE = "class"; //$NON-NLS-1$
 
-	// Caches
+	// Caches, views of an EObjectIdRegistry
 	private Map<EObject, String> eObjectToIdMap;
 	private Map<String, EObject> idToEObjectMap;
 
@@ -76,6 +77,11 @@ public abstract class IdEObjectCollectionImpl extends EObjectImpl implements IdE
 
 	private boolean cachesInitialized;
 
+	/**
+	 * Index of the inverse cross references, built on first use.
+	 */
+	private InverseReferenceIndex inverseReferenceIndex;
+
 	/**
 	 * A {@link ESModelElementIdGenerator} for other plugins to register a special ID generation.
 	 */
@@ -85,11 +91,13 @@ public abstract class IdEObjectCollectionImpl extends EObjectImpl implements IdE
 	 * Constructor.
 	 */
 	public IdEObjectCollectionImpl() {
-		eObjectToIdMap = new LinkedHashMap<EObject, String>();
-		idToEObjectMap = new LinkedHashMap<String, EObject>();
+		final EObjectIdRegistry idRegistry = new EObjectIdRegistry();
+		eObjectToIdMap = idRegistry.getEObjectToIdMap();
+		idToEObjectMap = idRegistry.getIdToEObjectMap();
 
-		allocatedEObjectToIdMap = new LinkedHashMap<EObject, String>();
-		allocatedIdToEObjectMap = new LinkedHashMap<String, EObject>();
+		final EObjectIdRegistry allocatedIdRegistry = new EObjectIdRegistry();
+		allocatedEObjectToIdMap = allocatedIdRegistry.getEObjectToIdMap();
+		allocatedIdToEObjectMap = allocatedIdRegistry.getIdToEObjectMap();
 
 		initModelElementIdGenerator();
 	}
@@ -336,7 +344,7 @@ public abstract class IdEObjectCollectionImpl extends EObjectImpl implements IdE
 
 		// remove cross references
 		ModelUtil.deleteOutgoingCrossReferences(this, modelElement);
-		final Collection<Setting> crossReferences = UsageCrossReferencer.find(modelElement, this);
+		final Collection<Setting> crossReferences = findInverseCrossReferences(modelElement);
 		ModelUtil.deleteIncomingCrossReferencesToElement(modelElement, crossReferences, new LinkedHashSet<EObject>());
 
 		// remove containment
@@ -358,6 +366,86 @@ public abstract class IdEObjectCollectionImpl extends EObjectImpl implements IdE
 		}
 	}
 
+	/**
+	 *
+	 * {@inheritDoc}
+	 *
+	 * @see org.eclipse.emf.emfstore.internal.common.model.IdEObjectCollection#findInverseCrossReferences(org.eclipse.emf.ecore.EObject)
+	 */
+	public Collection<Setting> findInverseCrossReferences(EObject modelElement) {
+		if (!isInverseReferenceIndexSupported()) {
+			return UsageCrossReferencer.find(modelElement, this);
+		}
+		if (inverseReferenceIndex == null) {
+			inverseReferenceIndex = new InverseReferenceIndex();
+			for (final EObject element : ModelUtil.getAllContainedModelElements(this, false)) {
+				inverseReferenceIndex.addReferencesOf(element);
+			}
+		}
+		return inverseReferenceIndex.getInverseReferences(modelElement);
+	}
+
+	/**
+	 * Whether subclasses are informed about all changes of the collection, so that inverse cross references may be
+	 * looked up via an index, which is kept up to date by calling {@link #addToInverseReferenceIndex(EObject)},
+	 * {@link #removeFromInverseReferenceIndex(EObject)} and
+	 * {@link #updateInverseReferenceIndex(Notification, EObject)}.
+	 *
+	 * @return {@code true} if the index can be used, {@code false} if the collection has to be searched instead
+	 */
+	protected boolean isInverseReferenceIndexSupported() {
+		return false;
+	}
+
+	/**
+	 * Indexes the cross references of the given model element and all its children, which have been added to the
+	 * collection.
+	 *
+	 * @param modelElement
+	 *            the added model element
+	 */
+	protected void addToInverseReferenceIndex(EObject modelElement) {
+		if (inverseReferenceIndex == null) {
+			return;
+		}
+		inverseReferenceIndex.addReferencesOf(modelElement);
+		for (final EObject child : ModelUtil.getAllContainedModelElements(modelElement, false)) {
+			inverseReferenceIndex.addReferencesOf(child);
+		}
+	}
+
+	/**
+	 * Removes the cross references of the given model element and all its children, which have been removed from the
+	 * collection, from the index. Cross references to these elements are kept as long as they exist.
+	 *
+	 * @param modelElement
+	 *            the removed model element
+	 */
+	protected void removeFromInverseReferenceIndex(EObject modelElement) {
+		if (inverseReferenceIndex == null) {
+			return;
+		}
+		inverseReferenceIndex.removeReferencesOf(modelElement);
+		for (final EObject child : ModelUtil.getAllContainedModelElements(modelElement, false)) {
+			inverseReferenceIndex.removeReferencesOf(child);
+		}
+	}
+
+	/**
+	 * Updates the index of inverse cross references according to the given notification.
+	 *
+	 * @param notification
+	 *            a notification about a changed feature
+	 * @param modelElement
+	 *            the model element of the collection whose feature has changed
+	 */
+	protected void updateInverseReferenceIndex(Notification notification, EObject modelElement) {
+		// removed elements may still report changes, but do not reference anything from within the collection
+		if (inverseReferenceIndex != null && contains(modelElement)) {
+			inverseReferenceIndex.update(notification, modelElement);
+		}
+	}
+
 	/**
 	 * Removes the the given {@link EObject} and all its contained children from
 	 * their respective {@link XMIResource}s.
@@ -680,8 +768,10 @@ public abstract class IdEObjectCollectionImpl extends EObjectImpl implements IdE
 	 */
 	public void initMapping(Map<EObject, String> eObjectToIdMap, Map<String, EObject> idToEObjectMap) {
 		cachesInitialized = true;
-		this.eObjectToIdMap = eObjectToIdMap;
-		this.idToEObjectMap = idToEObjectMap;
+		final EObjectIdRegistry idRegistry = EObjectIdRegistry.of(eObjectToIdMap, idToEObjectMap);
+		this.eObjectToIdMap = idRegistry.getEObjectToIdMap();
+		this.idToEObjectMap = idRegistry.getIdToEObjectMap();
+		inverseReferenceIndex = null;
 	}
 
 	/**
@@ -727,6 +817,7 @@ public abstract class IdEObjectCollectionImpl extends EObjectImpl implements IdE
 		idToEObjectMap.clear();
 		clearAllocatedCaches();
 		cachesInitialized = false;
+		inverseReferenceIndex = null;
 	}
 
 	/**
@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.internal.common.model.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature.Setting;
+import org.eclipse.emf.ecore.InternalEObject;
+
+/**
+ * Maps referenced elements to the elements referencing them via cross references, so that the inverse references of
+ * an element can be looked up without scanning the whole collection.
+ * <p>
+ * The index only keeps the referencing element and the reference per entry. It is kept up to date by registering and
+ * unregistering the elements of added and removed containment trees as referencing elements, and by the notifications
+ * about changed references. Transient and derived references are not indexed, since no notifications are delivered
+ * about their changes.
+ * </p>
+ */
+public class InverseReferenceIndex {
+
+	private static final int INITIAL_CAPACITY = 2;
+
+	private final Map<EObject, Entries> index = new HashMap<EObject, Entries>();
+
+	/**
+	 * Returns the settings of all indexed cross references to the given element. A setting is contained once per
+	 * occurrence of the element in the referencing feature.
+	 *
+	 * @param referencedElement
+	 *            the referenced element
+	 * @return the settings referencing the given element
+	 */
+	public Collection<Setting> getInverseReferences(EObject referencedElement) {
+		final Entries entries = index.get(referencedElement);
+		if (entries == null) {
+			return Collections.emptyList();
+		}
+		final List<Setting> settings = new ArrayList<Setting>(entries.size);
+		for (int i = 0; i < entries.size; i++) {
+			settings.add(((InternalEObject) entries.sources[i]).eSetting(entries.references[i]));
+		}
+		return settings;
+	}
+
+	/**
+	 * Indexes all cross references of the given element.
+	 *
+	 * @param source
+	 *            the referencing element
+	 */
+	public void addReferencesOf(EObject source) {
+		for (final EReference reference : source.eClass().getEAllReferences()) {
+			if (!isIndexed(reference) || !source.eIsSet(reference)) {
+				continue;
+			}
+			final Object value = source.eGet(reference, false);
+			if (reference.isMany()) {
+				for (final Object target : (List<?>) value) {
+					add((EObject) target, source, reference);
+				}
+			} else {
+				add((EObject) value, source, reference);
+			}
+		}
+	}
+
+	/**
+	 * Removes all indexed cross references of the given element.
+	 *
+	 * @param source
+	 *            the referencing element
+	 */
+	public void removeReferencesOf(EObject source) {
+		for (final EReference reference : source.eClass().getEAllReferences()) {
+			if (!isIndexed(reference) || !source.eIsSet(reference)) {
+				continue;
+			}
+			final Object value = source.eGet(reference, false);
+			if (reference.isMany()) {
+				for (final Object target : (List<?>) value) {
+					removeAll((EObject) target, source, reference);
+				}
+			} else {
+				removeAll((EObject) value, source, reference);
+			}
+		}
+	}
+
+	/**
+	 * Updates the index according to the given notification about a changed feature of the given element.
+	 *
+	 * @param notification
+	 *            the notification
+	 * @param source
+	 *            the element whose feature has changed
+	 */
+	public void update(Notification notification, EObject source) {
+		if (!(notification.getFeature() instanceof EReference) || notification.isTouch()) {
+			return;
+		}
+		final EReference reference = (EReference) notification.getFeature();
+		if (!isIndexed(reference)) {
+			return;
+		}
+
+		switch (notification.getEventType()) {
+		case Notification.SET:
+		case Notification.UNSET:
+		case Notification.RESOLVE:
+			remove((EObject) notification.getOldValue(), source, reference);
+			add((EObject) notification.getNewValue(), source, reference);
+			break;
+		case Notification.ADD:
+			add((EObject) notification.getNewValue(), source, reference);
+			break;
+		case Notification.ADD_MANY:
+			for (final Object target : (List<?>) notification.getNewValue()) {
+				add((EObject) target, source, reference);
+			}
+			break;
+		case Notification.REMOVE:
+			remove((EObject) notification.getOldValue(), source, reference);
+			break;
+		case Notification.REMOVE_MANY:
+			for (final Object target : (List<?>) notification.getOldValue()) {
+				remove((EObject) target, source, reference);
+			}
+			break;
+		default:
+			break;
+		}
+	}
+
+	private static boolean isIndexed(EReference reference) {
+		return !reference.isContainment() && !reference.isContainer() && !reference.isTransient()
+			&& !reference.isDerived();
+	}
+
+	private void add(EObject target, EObject source, EReference reference) {
+		if (target == null) {
+			return;
+		}
+		Entries entries = index.get(target);
+		if (entries == null) {
+			entries = new Entries();
+			index.put(target, entries);
+		}
+		entries.add(source, reference);
+	}
+
+	private void remove(EObject target, EObject source, EReference reference) {
+		if (target == null) {
+			return;
+		}
+		final Entries entries = index.get(target);
+		if (entries != null && entries.remove(source, reference, false) && entries.size == 0) {
+			index.remove(target);
+		}
+	}
+
+	private void removeAll(EObject target, EObject source, EReference reference) {
+		if (target == null) {
+			return;
+		}
+		final Entries entries = index.get(target);
+		if (entries != null && entries.remove(source, reference, true) && entries.size == 0) {
+			index.remove(target);
+		}
+	}
+
+	/**
+	 * The referencing elements and references of a single referenced element, in the order they have been added.
+	 */
+	private static final class Entries {
+
+		private EObject[] sources = new EObject[INITIAL_CAPACITY];
+		private EReference[] references = new EReference[INITIAL_CAPACITY];
+		private int size;
+
+		void add(EObject source, EReference reference) {
+			if (size == sources.length) {
+				final EObject[] newSources = new EObject[size * 2];
+				final EReference[] newReferences = new EReference[size * 2];
+				System.arraycopy(sources, 0, newSources, 0, size);
+				System.arraycopy(references, 0, newReferences, 0, size);
+				sources = newSources;
+				references = newReferences;
+			}
+			sources[size] = source;
+			references[size] = reference;
+			size++;
+		}
+
+		boolean remove(EObject source, EReference reference, boolean all) {
+			int kept = 0;
+			boolean removed = false;
+			for (int i = 0; i < size; i++) {
+				if ((all || !removed) && sources[i] == source && references[i] == reference) {
+					removed = true;
+					continue;
+				}
+				sources[kept] = sources[i];
+				references[kept] = references[i];
+				kept++;
+			}
+			for (int i = kept; i < size; i++) {
+				sources[i] = null;
+				references[i] = null;
+			}
+			size = kept;
+			return removed;
+		}
+	}
+}
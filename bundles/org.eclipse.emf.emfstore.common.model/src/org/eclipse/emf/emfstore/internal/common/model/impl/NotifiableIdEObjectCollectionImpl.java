@@ -103,6 +103,7 @@ public abstract class NotifiableIdEObjectCollectionImpl extends IdEObjectCollect
 	public void modelElementAdded(final IdEObjectCollection collection, final EObject eObject) {
 		addToResource(eObject);
 		addModelElementAndChildrenToCache(eObject);
+		addToInverseReferenceIndex(eObject);
 		final EObjectChangeObserverNotificationCommand command = new EObjectChangeObserverNotificationCommand() {
 			public void run(IdEObjectCollectionChangeObserver projectChangeObserver) {
 				projectChangeObserver.modelElementAdded(collection, eObject);
@@ -215,6 +216,7 @@ public abstract class NotifiableIdEObjectCollectionImpl extends IdEObjectCollect
 	 *      org.eclipse.emf.emfstore.internal.common.model.IdEObjectCollection, org.eclipse.emf.ecore.EObject)
 	 */
 	public void notify(final Notification notification, final IdEObjectCollection project, final EObject modelElement) {
+		updateInverseReferenceIndex(notification, modelElement);
 		final EObjectChangeObserverNotificationCommand command = new EObjectChangeObserverNotificationCommand() {
 			public void run(IdEObjectCollectionChangeObserver projectChangeObserver) {
 				projectChangeObserver.notify(notification, project, modelElement);
@@ -287,6 +289,7 @@ public abstract class NotifiableIdEObjectCollectionImpl extends IdEObjectCollect
 	 */
 	public void modelElementRemoved(final IdEObjectCollection projectImpl, final EObject modelElement) {
 		removeModelElementAndChildrenFromCache(modelElement);
+		removeFromInverseReferenceIndex(modelElement);
 		final EObjectChangeObserverNotificationCommand command = new EObjectChangeObserverNotificationCommand() {
 			public void run(IdEObjectCollectionChangeObserver projectChangeObserver) {
 				projectChangeObserver.modelElementRemoved(projectImpl, modelElement);
@@ -337,4 +340,15 @@ public abstract class NotifiableIdEObjectCollectionImpl extends IdEObjectCollect
 	public EObjectChangeNotifier getChangeNotifier() {
 		return changeNotifier;
 	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @see org.eclipse.emf.emfstore.internal.common.model.impl.IdEObjectCollectionImpl#isInverseReferenceIndexSupported()
+	 */
+	@Override
+	protected boolean isInverseReferenceIndexSupported() {
+		// all changes are only reported once the change notifier has been attached
+		return changeNotifier != null;
+	}
 }
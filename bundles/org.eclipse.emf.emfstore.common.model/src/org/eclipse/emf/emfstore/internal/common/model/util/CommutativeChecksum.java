@@ -0,0 +1,260 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.internal.common.model.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EDataType;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.util.FeatureMap;
+import org.eclipse.emf.emfstore.internal.common.model.IdEObjectCollection;
+import org.eclipse.emf.emfstore.internal.common.model.ModelElementId;
+
+/**
+ * Computes an order independent checksum of an {@link IdEObjectCollection} without serializing it.
+ * <p>
+ * The checksum is the sum of a hash per model element. The hash of an element covers its ID, its class, its persisted
+ * attribute values, the IDs of the elements it references and the IDs of its children in their order, but not the
+ * contents of other elements. Therefore the checksum of a collection can be updated after a change by subtracting the
+ * hashes of the changed elements before the change and adding their hashes after the change. The order of the root
+ * elements of a collection does not influence the checksum.
+ * </p>
+ * <p>
+ * The checksum is not comparable to the checksum computed by {@link ModelUtil#computeChecksum(IdEObjectCollection)}.
+ * </p>
+ */
+public final class CommutativeChecksum {
+
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+	private static final int NULL_LENGTH = -1;
+
+	private CommutativeChecksum() {
+		// util
+	}
+
+	/**
+	 * Computes the checksum of all persisted model elements of the given collection.
+	 *
+	 * @param collection
+	 *            the collection
+	 * @return the checksum
+	 */
+	public static long computeChecksum(IdEObjectCollection collection) {
+		long checksum = 0;
+		for (final EObject element : getIncludedElements(collection)) {
+			checksum += computeElementChecksum(collection, element);
+		}
+		return checksum;
+	}
+
+	/**
+	 * Returns all elements that contribute to the checksum of the given collection, i.e. all elements contained in
+	 * the collection via persisted containment references only.
+	 *
+	 * @param collection
+	 *            the collection
+	 * @return the elements whose hashes are part of the checksum
+	 */
+	public static List<EObject> getIncludedElements(IdEObjectCollection collection) {
+		final List<EObject> result = new ArrayList<EObject>();
+		for (final EReference containment : collection.eClass().getEAllContainments()) {
+			if (containment.isTransient() || containment.isDerived()) {
+				continue;
+			}
+			for (final EObject root : getValues(collection, containment)) {
+				result.add(root);
+				final TreeIterator<EObject> iterator = root.eAllContents();
+				while (iterator.hasNext()) {
+					final EObject element = iterator.next();
+					if (element.eContainingFeature() == null || element.eContainingFeature().isTransient()) {
+						iterator.prune();
+						continue;
+					}
+					result.add(element);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Computes the sum of the hashes of the given model elements. IDs of elements that are not part of the collection
+	 * or are only contained via transient references are skipped.
+	 *
+	 * @param collection
+	 *            the collection
+	 * @param modelElementIds
+	 *            the IDs of the model elements
+	 * @return the sum of the hashes of the given model elements that are part of the collection
+	 */
+	public static long computeChecksum(IdEObjectCollection collection, Collection<ModelElementId> modelElementIds) {
+		long checksum = 0;
+		for (final ModelElementId modelElementId : modelElementIds) {
+			final EObject element = collection.getModelElement(modelElementId);
+			if (element != null && isIncluded(collection, element)) {
+				checksum += computeElementChecksum(collection, element);
+			}
+		}
+		return checksum;
+	}
+
+	/**
+	 * Whether the given element contributes to the checksum of the given collection, i.e. whether it is contained in
+	 * the collection via persisted containment references only.
+	 *
+	 * @param collection
+	 *            the collection
+	 * @param element
+	 *            the element
+	 * @return {@code true}, if the hash of the element is part of the checksum, {@code false} otherwise
+	 */
+	public static boolean isIncluded(IdEObjectCollection collection, EObject element) {
+		EObject current = element;
+		while (current != collection) {
+			final EStructuralFeature containingFeature = current.eContainingFeature();
+			if (containingFeature == null || containingFeature.isTransient()) {
+				return false;
+			}
+			current = current.eContainer();
+		}
+		return true;
+	}
+
+	/**
+	 * Computes the hash of a single model element of the given collection.
+	 *
+	 * @param collection
+	 *            the collection that assigns the IDs of the element and its referenced elements
+	 * @param element
+	 *            the element
+	 * @return the hash of the element
+	 */
+	public static long computeElementChecksum(IdEObjectCollection collection, EObject element) {
+		final EClass eClass = element.eClass();
+		long hash = FNV_OFFSET_BASIS;
+		hash = update(hash, eClass.getEPackage() == null ? null : eClass.getEPackage().getNsURI());
+		hash = update(hash, eClass.getName());
+		hash = update(hash, getId(collection, element));
+		if (element.eContainer() == collection) {
+			// roots may be held by different features of the collection
+			hash = update(hash, element.eContainingFeature().getName());
+		}
+
+		final EList<EStructuralFeature> features = eClass.getEAllStructuralFeatures();
+		for (int i = 0; i < features.size(); i++) {
+			final EStructuralFeature feature = features.get(i);
+			if (!isPersisted(feature) || !element.eIsSet(feature)) {
+				continue;
+			}
+			hash = update(hash, i);
+			if (feature.isMany()) {
+				final List<?> values = (List<?>) element.eGet(feature, false);
+				hash = update(hash, values.size());
+				for (final Object value : values) {
+					hash = updateValue(hash, collection, feature, value);
+				}
+			} else {
+				hash = updateValue(hash, collection, feature, element.eGet(feature, false));
+			}
+		}
+		return mix(hash);
+	}
+
+	private static boolean isPersisted(EStructuralFeature feature) {
+		if (feature.isTransient() || feature.isDerived()) {
+			return false;
+		}
+		return !(feature instanceof EReference) || !((EReference) feature).isContainer();
+	}
+
+	private static long updateValue(long hash, IdEObjectCollection collection, EStructuralFeature feature,
+		Object value) {
+		if (value instanceof FeatureMap.Entry) {
+			final FeatureMap.Entry entry = (FeatureMap.Entry) value;
+			return updateValue(update(hash, entry.getEStructuralFeature().getName()), collection,
+				entry.getEStructuralFeature(), entry.getValue());
+		}
+		if (value == null) {
+			return update(hash, NULL_LENGTH);
+		}
+		if (feature instanceof EReference) {
+			return update(hash, getId(collection, (EObject) value));
+		}
+		final EDataType dataType = ((EAttribute) feature).getEAttributeType();
+		return update(hash, EcoreUtil.convertToString(dataType, value));
+	}
+
+	private static List<EObject> getValues(EObject element, EReference reference) {
+		final Object value = element.eGet(reference, false);
+		if (reference.isMany()) {
+			@SuppressWarnings("unchecked")
+			final List<EObject> values = (List<EObject>) value;
+			return values;
+		}
+		return value == null ? Collections.<EObject> emptyList() : Collections.singletonList((EObject) value);
+	}
+
+	private static String getId(IdEObjectCollection collection, EObject element) {
+		final String id = collection.getEObjectToIdMapping().get(element);
+		if (id != null) {
+			return id;
+		}
+		final ModelElementId modelElementId = collection.getModelElementId(element);
+		if (modelElementId != null) {
+			return modelElementId.getId();
+		}
+		// elements outside of the collection, e.g. singletons
+		return EcoreUtil.getURI(element).toString();
+	}
+
+	private static long update(long hash, String value) {
+		if (value == null) {
+			return update(hash, NULL_LENGTH);
+		}
+		long result = update(hash, value.length());
+		for (int i = 0; i < value.length(); i++) {
+			result = (result ^ value.charAt(i)) * FNV_PRIME;
+		}
+		return result;
+	}
+
+	private static long update(long hash, int value) {
+		long result = hash;
+		for (int shift = 0; shift < 32; shift += 8) {
+			result = (result ^ value >>> shift & 0xff) * FNV_PRIME;
+		}
+		return result;
+	}
+
+	/**
+	 * Spreads the bits of a hash, so that sums of hashes of similar elements do not cancel out.
+	 */
+	private static long mix(long hash) {
+		long result = hash;
+		result ^= result >>> 33;
+		result *= 0xff51afd7ed558ccdL;
+		result ^= result >>> 33;
+		result *= 0xc4ceb9fe1a85ec53L;
+		result ^= result >>> 33;
+		return result;
+	}
+}
@@ -0,0 +1,248 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.internal.common.model.util;
+
+import java.text.MessageFormat;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.emfstore.internal.common.model.IdEObjectCollection;
+
+/**
+ * Maintains the {@link CommutativeChecksum} of a collection incrementally. The hashes of all elements are computed
+ * when the checksum is requested for the first time. Afterwards only the hashes of the elements that have been changed,
+ * added or removed since the last request are recomputed. The tracker has to be registered as observer of the
+ * collection. Changes that are not reported to the observers of a collection, such as changes via transient features
+ * that are part of a persisted feature map, are only detected by verification, which recomputes all hashes. The same
+ * holds for references that are left dangling when the referenced element is removed from the collection.
+ */
+public class CommutativeChecksumTracker implements IdEObjectCollectionChangeObserver {
+
+	private final IdEObjectCollection collection;
+	private final boolean verify;
+	private final Set<EObject> changedElements;
+	private ElementHashes elementHashes;
+	private long checksum;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param collection
+	 *            the collection whose checksum is tracked
+	 * @param verify
+	 *            whether to compare the incrementally updated checksum with the checksum computed over the whole
+	 *            collection each time it is requested
+	 */
+	public CommutativeChecksumTracker(IdEObjectCollection collection, boolean verify) {
+		this.collection = collection;
+		this.verify = verify;
+		changedElements = new HashSet<EObject>();
+	}
+
+	/**
+	 * Returns the checksum of the current state of the collection.
+	 *
+	 * @return the checksum
+	 */
+	public long getChecksum() {
+		if (elementHashes == null) {
+			initElementHashes();
+			return checksum;
+		}
+
+		for (final EObject element : changedElements) {
+			checksum -= elementHashes.remove(element);
+			if (collection.contains(element) && CommutativeChecksum.isIncluded(collection, element)) {
+				final long hash = CommutativeChecksum.computeElementChecksum(collection, element);
+				elementHashes.put(element, hash);
+				checksum += hash;
+			}
+		}
+		changedElements.clear();
+
+		if (verify) {
+			final long updatedChecksum = checksum;
+			initElementHashes();
+			if (updatedChecksum != checksum) {
+				ModelUtil.logWarning(MessageFormat.format(Messages.CommutativeChecksumTracker_ChecksumMismatch,
+					updatedChecksum, checksum));
+			}
+		}
+		return checksum;
+	}
+
+	private void initElementHashes() {
+		elementHashes = new ElementHashes();
+		checksum = 0;
+		for (final EObject element : CommutativeChecksum.getIncludedElements(collection)) {
+			final long hash = CommutativeChecksum.computeElementChecksum(collection, element);
+			elementHashes.put(element, hash);
+			checksum += hash;
+		}
+		changedElements.clear();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @see org.eclipse.emf.emfstore.internal.common.model.util.IdEObjectCollectionChangeObserver#notify(org.eclipse.emf.common.notify.Notification,
+	 *      org.eclipse.emf.emfstore.internal.common.model.IdEObjectCollection, org.eclipse.emf.ecore.EObject)
+	 */
+	public void notify(Notification notification, IdEObjectCollection collection, EObject modelElement) {
+		if (elementHashes == null) {
+			return;
+		}
+		changedElements.add(modelElement);
+		// children that are moved may become part of the collection or drop out of it
+		if (notification.getFeature() instanceof EReference
+			&& ((EReference) notification.getFeature()).isContainment()) {
+			addChangedValue(notification.getOldValue());
+			addChangedValue(notification.getNewValue());
+		}
+	}
+
+	private void addChangedValue(Object value) {
+		if (value instanceof EObject) {
+			changedElements.add((EObject) value);
+		} else if (value instanceof Collection<?>) {
+			for (final Object element : (Collection<?>) value) {
+				addChangedValue(element);
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @see org.eclipse.emf.emfstore.internal.common.model.util.IdEObjectCollectionChangeObserver#modelElementAdded(org.eclipse.emf.emfstore.internal.common.model.IdEObjectCollection,
+	 *      org.eclipse.emf.ecore.EObject)
+	 */
+	public void modelElementAdded(IdEObjectCollection collection, EObject eObject) {
+		addChangedTree(eObject);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @see org.eclipse.emf.emfstore.internal.common.model.util.IdEObjectCollectionChangeObserver#modelElementRemoved(org.eclipse.emf.emfstore.internal.common.model.IdEObjectCollection,
+	 *      org.eclipse.emf.ecore.EObject)
+	 */
+	public void modelElementRemoved(IdEObjectCollection collection, EObject eObject) {
+		// the children of a removed element are not reported separately
+		addChangedTree(eObject);
+	}
+
+	private void addChangedTree(EObject element) {
+		if (elementHashes == null) {
+			return;
+		}
+		changedElements.add(element);
+		final TreeIterator<EObject> iterator = element.eAllContents();
+		while (iterator.hasNext()) {
+			changedElements.add(iterator.next());
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @see org.eclipse.emf.emfstore.internal.common.model.util.IdEObjectCollectionChangeObserver#collectionDeleted(org.eclipse.emf.emfstore.internal.common.model.IdEObjectCollection)
+	 */
+	public void collectionDeleted(IdEObjectCollection collection) {
+		elementHashes = null;
+		changedElements.clear();
+	}
+
+	/**
+	 * Maps elements by identity to their hashes in two arrays, using open addressing.
+	 */
+	private static final class ElementHashes {
+
+		private static final int INITIAL_CAPACITY = 1024;
+
+		private Object[] elements = new Object[INITIAL_CAPACITY];
+		private long[] hashes = new long[INITIAL_CAPACITY];
+		private int size;
+
+		void put(EObject element, long hash) {
+			int index = indexOf(element);
+			if (elements[index] == null) {
+				if (2 * (size + 1) > elements.length) {
+					resize(2 * elements.length);
+					index = indexOf(element);
+				}
+				elements[index] = element;
+				size++;
+			}
+			hashes[index] = hash;
+		}
+
+		/**
+		 * Removes the given element and returns its hash, or 0 if it is not mapped.
+		 */
+		long remove(EObject element) {
+			int index = indexOf(element);
+			if (elements[index] == null) {
+				return 0;
+			}
+			final long hash = hashes[index];
+			elements[index] = null;
+			size--;
+			// shift back following entries of the same cluster
+			final int mask = elements.length - 1;
+			int next = index + 1 & mask;
+			while (elements[next] != null) {
+				final int home = slot(elements[next], mask);
+				if ((next - home & mask) >= (next - index & mask)) {
+					elements[index] = elements[next];
+					hashes[index] = hashes[next];
+					elements[next] = null;
+					index = next;
+				}
+				next = next + 1 & mask;
+			}
+			return hash;
+		}
+
+		private int indexOf(Object element) {
+			final int mask = elements.length - 1;
+			int index = slot(element, mask);
+			while (elements[index] != null && elements[index] != element) {
+				index = index + 1 & mask;
+			}
+			return index;
+		}
+
+		private static int slot(Object element, int mask) {
+			final int hash = System.identityHashCode(element) * 0x9E3779B9;
+			return (hash ^ hash >>> 16) & mask;
+		}
+
+		private void resize(int capacity) {
+			final Object[] oldElements = elements;
+			final long[] oldHashes = hashes;
+			elements = new Object[capacity];
+			hashes = new long[capacity];
+			for (int i = 0; i < oldElements.length; i++) {
+				if (oldElements[i] != null) {
+					final int index = indexOf(oldElements[i]);
+					elements[index] = oldElements[i];
+					hashes[index] = oldHashes[i];
+				}
+			}
+		}
+	}
+}
@@ -34,6 +34,8 @@ import org.eclipse.core.runtime.NullProgressMonitor;
  */
 public final class FileUtil {
 
+	private static final String TEMP_SUFFIX = ".tmp"; //$NON-NLS-1$
+
 	/**
 	 * Private constructor.
 	 */
@@ -284,6 +286,52 @@ public final class FileUtil {
 		}
 	}
 
+	/**
+	 * Renames the given {@code source} File onto the given {@code destination}, replacing the latter. In contrast to
+	 * {@link #moveAndOverwrite(File, File)} the content is not copied, so both files must reside on the same file
+	 * system.
+	 *
+	 * @param source
+	 *            the source {@link File} being renamed
+	 * @param destination
+	 *            the destination {@link File} being replaced
+	 * @throws IOException
+	 *             in case the rename fails
+	 */
+	public static void renameAndOverwrite(File source, File destination) throws IOException {
+		// renaming onto an existing file fails on some platforms
+		if (!source.renameTo(destination)) {
+			destination.delete();
+			if (!source.renameTo(destination)) {
+				throw new IOException(destination.getAbsolutePath());
+			}
+		}
+	}
+
+	/**
+	 * Replaces the content of the given {@code file} rather than rewriting it, so that an interruption never leaves a
+	 * partially written file behind. The content is written to a temporary file next to the given one, which is
+	 * synced to the disk before it is renamed onto the given file.
+	 *
+	 * @param file
+	 *            the {@link File} to be written
+	 * @param content
+	 *            the new content of the file
+	 * @throws IOException
+	 *             in case the file can not be written
+	 */
+	public static void writeAtomically(File file, byte[] content) throws IOException {
+		final File tempFile = new File(file.getPath() + TEMP_SUFFIX);
+		final FileOutputStream outputStream = new FileOutputStream(tempFile);
+		try {
+			outputStream.write(content);
+			outputStream.getFD().sync();
+		} finally {
+			outputStream.close();
+		}
+		renameAndOverwrite(tempFile, file);
+	}
+
 	/**
 	 * Creates a temporary file location and returns the absolute path to it.
 	 * The suffix of the temporary file is set to {@code .eoc}.
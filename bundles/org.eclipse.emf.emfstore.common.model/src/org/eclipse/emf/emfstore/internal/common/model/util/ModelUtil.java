@@ -62,6 +62,7 @@ import org.eclipse.emf.emfstore.common.extensionpoint.ESExtensionPointException;
 import org.eclipse.emf.emfstore.common.extensionpoint.ESPriorityComparator;
 import org.eclipse.emf.emfstore.common.model.ESSingletonIdResolver;
 import org.eclipse.emf.emfstore.internal.common.CommonUtil;
+import org.eclipse.emf.emfstore.internal.common.EObjectIdRegistry;
 import org.eclipse.emf.emfstore.internal.common.ResourceFactoryRegistry;
 import org.eclipse.emf.emfstore.internal.common.model.AssociationClassElement;
 import org.eclipse.emf.emfstore.internal.common.model.IdEObjectCollection;
@@ -860,8 +861,9 @@ public final class ModelUtil {
 		if (eObject instanceof Project && resource instanceof XMIResource) {
 			final XMIResource xmiResource = (XMIResource) resource;
 			final Project project = (Project) eObject;
-			final Map<EObject, String> eObjectToIdMap = new LinkedHashMap<EObject, String>();
-			final Map<String, EObject> idToEObjectMap = new LinkedHashMap<String, EObject>();
+			final EObjectIdRegistry idRegistry = new EObjectIdRegistry();
+			final Map<EObject, String> eObjectToIdMap = idRegistry.getEObjectToIdMap();
+			final Map<String, EObject> idToEObjectMap = idRegistry.getIdToEObjectMap();
 
 			final TreeIterator<EObject> it = project.eAllContents();
 			while (it.hasNext()) {
@@ -35,6 +35,8 @@ public class EMFStoreResource extends XMIResourceImpl {
 	public EMFStoreResource(final URI uri) {
 		super(uri);
 		setIntrinsicIDToEObjectMap(new LinkedHashMap<String, EObject>());
+		final EObjectIdRegistry idRegistry = new EObjectIdRegistry();
+		setIdToEObjectMap(idRegistry.getIdToEObjectMap(), idRegistry.getEObjectToIdMap());
 	}
 
 	/**
@@ -0,0 +1,1087 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.internal.common;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+
+import org.eclipse.emf.ecore.EObject;
+
+/**
+ * A compact registry of {@link EObject}s and their string IDs, which is accessed via two map views, one from
+ * {@link EObject}s to IDs and one from IDs to {@link EObject}s.
+ * <p>
+ * IDs generated by {@link org.eclipse.emf.ecore.util.EcoreUtil#generateUUID()} and UUIDs in their canonical string
+ * representation are stored as two {@code long}s, other IDs are kept as strings. The pairs are stored in parallel
+ * arrays in insertion order and indexed by open addressing tables, so no entry objects and no ID strings are retained.
+ * ID strings are created on demand whenever an ID is read.
+ * </p>
+ * <p>
+ * Like two separate maps, the views may be updated independently of each other. A pair is shared by both views if
+ * it is put into both of them one after the other, and dropped once it is neither indexed by its element nor by its
+ * ID. The views iterate in insertion order, except for a key whose value is replaced while its pair is shared, which
+ * moves to the end. The registry is not synchronized, concurrent reads are safe as long as there are no concurrent
+ * modifications.
+ * </p>
+ */
+public class EObjectIdRegistry {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private static final int KIND_MASK = 3;
+	private static final int KIND_EMF_UUID = 1;
+	private static final int KIND_UUID = 2;
+	private static final int KIND_OTHER = 3;
+	private static final int ELEMENT_INDEXED = 4;
+	private static final int ID_INDEXED = 8;
+
+	private static final int EMF_UUID_LENGTH = 23;
+	private static final int UUID_LENGTH = 36;
+
+	private static final char[] BASE64_DIGITS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_" //$NON-NLS-1$
+		.toCharArray();
+	private static final byte[] BASE64_VALUES = new byte[128];
+
+	static {
+		Arrays.fill(BASE64_VALUES, (byte) -1);
+		for (int i = 0; i < BASE64_DIGITS.length; i++) {
+			BASE64_VALUES[BASE64_DIGITS[i]] = (byte) i;
+		}
+	}
+
+	// pairs, in insertion order
+	private EObject[] elements;
+	private long[] mostSignificantBits;
+	private long[] leastSignificantBits;
+	private byte[] flags;
+	// only allocated if an ID can not be stored as two longs
+	private String[] otherIds;
+	private int end;
+
+	// open addressing tables holding pair index + 1, 0 marks an empty bucket
+	private int[] elementTable;
+	private int[] idTable;
+
+	private int elementCount;
+	private int idCount;
+	private int modCount;
+
+	private final Map<EObject, String> eObjectToIdMap;
+	private final Map<String, EObject> idToEObjectMap;
+
+	/**
+	 * Creates an empty registry.
+	 */
+	public EObjectIdRegistry() {
+		this(INITIAL_CAPACITY);
+	}
+
+	private EObjectIdRegistry(int capacity) {
+		allocate(Math.max(INITIAL_CAPACITY, capacity));
+		eObjectToIdMap = new EObjectToIdMap();
+		idToEObjectMap = new IdToEObjectMap();
+	}
+
+	/**
+	 * Returns a registry holding the given mappings. If the maps are the views of a registry, that registry is
+	 * returned, otherwise the mappings are copied into a new registry.
+	 *
+	 * @param eObjectToIdMap
+	 *            a map from {@link EObject}s to IDs
+	 * @param idToEObjectMap
+	 *            a map from IDs to {@link EObject}s
+	 * @return the registry
+	 */
+	public static EObjectIdRegistry of(Map<EObject, String> eObjectToIdMap, Map<String, EObject> idToEObjectMap) {
+		final EObjectIdRegistry registry = getRegistry(eObjectToIdMap, idToEObjectMap);
+		if (registry != null) {
+			return registry;
+		}
+		final EObjectIdRegistry result = new EObjectIdRegistry(eObjectToIdMap.size());
+		result.eObjectToIdMap.putAll(eObjectToIdMap);
+		result.idToEObjectMap.putAll(idToEObjectMap);
+		return result;
+	}
+
+	/**
+	 * Returns a new registry holding a copy of the given mappings.
+	 *
+	 * @param eObjectToIdMap
+	 *            a map from {@link EObject}s to IDs
+	 * @param idToEObjectMap
+	 *            a map from IDs to {@link EObject}s
+	 * @return the new registry
+	 */
+	public static EObjectIdRegistry copyOf(Map<EObject, String> eObjectToIdMap,
+		Map<String, EObject> idToEObjectMap) {
+		final EObjectIdRegistry registry = getRegistry(eObjectToIdMap, idToEObjectMap);
+		if (registry != null) {
+			return registry.copy();
+		}
+		return of(eObjectToIdMap, idToEObjectMap);
+	}
+
+	private static EObjectIdRegistry getRegistry(Map<EObject, String> eObjectToIdMap,
+		Map<String, EObject> idToEObjectMap) {
+		if (eObjectToIdMap instanceof EObjectIdRegistry.EObjectToIdMap
+			&& idToEObjectMap instanceof EObjectIdRegistry.IdToEObjectMap) {
+			final EObjectIdRegistry registry = ((EObjectIdRegistry.EObjectToIdMap) eObjectToIdMap).getRegistry();
+			if (registry == ((EObjectIdRegistry.IdToEObjectMap) idToEObjectMap).getRegistry()) {
+				return registry;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the live view of the registry that maps {@link EObject}s to their IDs.
+	 *
+	 * @return the map from {@link EObject}s to IDs
+	 */
+	public Map<EObject, String> getEObjectToIdMap() {
+		return eObjectToIdMap;
+	}
+
+	/**
+	 * Returns the live view of the registry that maps IDs to their {@link EObject}s.
+	 *
+	 * @return the map from IDs to {@link EObject}s
+	 */
+	public Map<String, EObject> getIdToEObjectMap() {
+		return idToEObjectMap;
+	}
+
+	/**
+	 * Copies the registry. The copy is independent of this registry.
+	 *
+	 * @return the copy
+	 */
+	public EObjectIdRegistry copy() {
+		final EObjectIdRegistry copy = new EObjectIdRegistry(INITIAL_CAPACITY);
+		copy.elements = elements.clone();
+		copy.mostSignificantBits = mostSignificantBits.clone();
+		copy.leastSignificantBits = leastSignificantBits.clone();
+		copy.flags = flags.clone();
+		copy.otherIds = otherIds == null ? null : otherIds.clone();
+		copy.end = end;
+		copy.elementTable = elementTable.clone();
+		copy.idTable = idTable.clone();
+		copy.elementCount = elementCount;
+		copy.idCount = idCount;
+		return copy;
+	}
+
+	private void allocate(int capacity) {
+		elements = new EObject[capacity];
+		mostSignificantBits = new long[capacity];
+		leastSignificantBits = new long[capacity];
+		flags = new byte[capacity];
+		otherIds = null;
+		end = 0;
+		elementTable = new int[tableSize(capacity)];
+		idTable = new int[tableSize(capacity)];
+	}
+
+	private static int tableSize(int capacity) {
+		int size = INITIAL_CAPACITY;
+		while (size < capacity * 2) {
+			size <<= 1;
+		}
+		return size;
+	}
+
+	private void clearElements() {
+		if (idCount == 0) {
+			allocate(INITIAL_CAPACITY);
+		} else {
+			for (int pair = 0; pair < end; pair++) {
+				if ((flags[pair] & ELEMENT_INDEXED) != 0) {
+					flags[pair] &= ~ELEMENT_INDEXED;
+					releaseIfUnused(pair);
+				}
+			}
+			Arrays.fill(elementTable, 0);
+		}
+		elementCount = 0;
+		modCount++;
+	}
+
+	private void clearIds() {
+		if (elementCount == 0) {
+			allocate(INITIAL_CAPACITY);
+		} else {
+			for (int pair = 0; pair < end; pair++) {
+				if ((flags[pair] & ID_INDEXED) != 0) {
+					flags[pair] &= ~ID_INDEXED;
+					releaseIfUnused(pair);
+				}
+			}
+			Arrays.fill(idTable, 0);
+		}
+		idCount = 0;
+		modCount++;
+	}
+
+	// pairs
+
+	private int addPair(EObject element, String id, int kind, long most, long least) {
+		if (end == elements.length) {
+			resize();
+		}
+		final int pair = end++;
+		elements[pair] = element;
+		mostSignificantBits[pair] = most;
+		leastSignificantBits[pair] = least;
+		flags[pair] = (byte) kind;
+		if (kind == KIND_OTHER) {
+			if (otherIds == null) {
+				otherIds = new String[elements.length];
+			}
+			otherIds[pair] = id;
+		}
+		return pair;
+	}
+
+	private void setId(int pair, String id, int kind, long most, long least) {
+		mostSignificantBits[pair] = most;
+		leastSignificantBits[pair] = least;
+		flags[pair] = (byte) (flags[pair] & ~KIND_MASK | kind);
+		if (kind == KIND_OTHER) {
+			if (otherIds == null) {
+				otherIds = new String[elements.length];
+			}
+			otherIds[pair] = id;
+		} else if (otherIds != null) {
+			otherIds[pair] = null;
+		}
+	}
+
+	private void releaseIfUnused(int pair) {
+		if ((flags[pair] & (ELEMENT_INDEXED | ID_INDEXED)) == 0) {
+			elements[pair] = null;
+			flags[pair] = 0;
+			if (otherIds != null) {
+				otherIds[pair] = null;
+			}
+		}
+	}
+
+	private void resize() {
+		int used = 0;
+		for (int pair = 0; pair < end; pair++) {
+			if (flags[pair] != 0) {
+				used++;
+			}
+		}
+		final int capacity = used < elements.length / 2 ? elements.length : elements.length * 2;
+
+		final EObject[] oldElements = elements;
+		final long[] oldMost = mostSignificantBits;
+		final long[] oldLeast = leastSignificantBits;
+		final byte[] oldFlags = flags;
+		final String[] oldOtherIds = otherIds;
+		final int oldEnd = end;
+		allocate(capacity);
+
+		for (int pair = 0; pair < oldEnd; pair++) {
+			if (oldFlags[pair] == 0) {
+				continue;
+			}
+			final int kind = oldFlags[pair] & KIND_MASK;
+			final int newPair = addPair(oldElements[pair], kind == KIND_OTHER ? oldOtherIds[pair] : null, kind,
+				oldMost[pair], oldLeast[pair]);
+			flags[newPair] = oldFlags[pair];
+			if ((oldFlags[pair] & ELEMENT_INDEXED) != 0) {
+				insert(elementTable, elementHash(oldElements[pair]), newPair);
+			}
+			if ((oldFlags[pair] & ID_INDEXED) != 0) {
+				insert(idTable, pairIdHash(newPair), newPair);
+			}
+		}
+	}
+
+	// element index
+
+	private static int mix(int hash) {
+		final int h = hash * 0x9E3779B9;
+		return h ^ h >>> 16;
+	}
+
+	private static int elementHash(Object element) {
+		return mix(System.identityHashCode(element));
+	}
+
+	private int findElement(Object element) {
+		if (element == null) {
+			return -1;
+		}
+		final int mask = elementTable.length - 1;
+		for (int bucket = elementHash(element) & mask;; bucket = bucket + 1 & mask) {
+			final int entry = elementTable[bucket];
+			if (entry == 0) {
+				return -1;
+			}
+			if (elements[entry - 1] == element) {
+				return entry - 1;
+			}
+		}
+	}
+
+	private void indexElement(int pair) {
+		flags[pair] |= ELEMENT_INDEXED;
+		elementCount++;
+		insert(elementTable, elementHash(elements[pair]), pair);
+		if (elementCount * 2 > elementTable.length) {
+			elementTable = rehash(elementTable, true);
+		}
+	}
+
+	private void unindexElement(int pair) {
+		delete(elementTable, pair, true);
+		flags[pair] &= ~ELEMENT_INDEXED;
+		elementCount--;
+		releaseIfUnused(pair);
+	}
+
+	// ID index
+
+	private static int kindOf(String id) {
+		if (isEmfUuid(id)) {
+			return KIND_EMF_UUID;
+		}
+		if (isUuid(id)) {
+			return KIND_UUID;
+		}
+		return KIND_OTHER;
+	}
+
+	private static int idHash(int kind, long most, long least, String id) {
+		if (kind == KIND_OTHER) {
+			return mix(id == null ? 0 : id.hashCode());
+		}
+		final long bits = most ^ least;
+		return mix((int) (bits ^ bits >>> 32) + kind);
+	}
+
+	private int pairIdHash(int pair) {
+		final int kind = flags[pair] & KIND_MASK;
+		return idHash(kind, mostSignificantBits[pair], leastSignificantBits[pair],
+			kind == KIND_OTHER ? otherIds[pair] : null);
+	}
+
+	private boolean hasId(int pair, int kind, long most, long least, String id) {
+		if ((flags[pair] & KIND_MASK) != kind) {
+			return false;
+		}
+		if (kind == KIND_OTHER) {
+			return id == null ? otherIds[pair] == null : id.equals(otherIds[pair]);
+		}
+		return mostSignificantBits[pair] == most && leastSignificantBits[pair] == least;
+	}
+
+	private int findId(Object key) {
+		if (key != null && !(key instanceof String)) {
+			return -1;
+		}
+		final String id = (String) key;
+		final int kind = id == null ? KIND_OTHER : kindOf(id);
+		final long most = getMostSignificantBits(kind, id);
+		final long least = getLeastSignificantBits(kind, id);
+		return findId(kind, most, least, id);
+	}
+
+	private int findId(int kind, long most, long least, String id) {
+		final int mask = idTable.length - 1;
+		for (int bucket = idHash(kind, most, least, id) & mask;; bucket = bucket + 1 & mask) {
+			final int entry = idTable[bucket];
+			if (entry == 0) {
+				return -1;
+			}
+			if (hasId(entry - 1, kind, most, least, id)) {
+				return entry - 1;
+			}
+		}
+	}
+
+	private void indexId(int pair) {
+		flags[pair] |= ID_INDEXED;
+		idCount++;
+		insert(idTable, pairIdHash(pair), pair);
+		if (idCount * 2 > idTable.length) {
+			idTable = rehash(idTable, false);
+		}
+	}
+
+	private void unindexId(int pair) {
+		delete(idTable, pair, false);
+		flags[pair] &= ~ID_INDEXED;
+		idCount--;
+		releaseIfUnused(pair);
+	}
+
+	private String getId(int pair) {
+		final int kind = flags[pair] & KIND_MASK;
+		if (kind == KIND_EMF_UUID) {
+			return toEmfUuid(mostSignificantBits[pair], leastSignificantBits[pair]);
+		}
+		if (kind == KIND_UUID) {
+			return new UUID(mostSignificantBits[pair], leastSignificantBits[pair]).toString();
+		}
+		return otherIds[pair];
+	}
+
+	// open addressing with linear probing
+
+	private static void insert(int[] table, int hash, int pair) {
+		final int mask = table.length - 1;
+		int bucket = hash & mask;
+		while (table[bucket] != 0) {
+			bucket = bucket + 1 & mask;
+		}
+		table[bucket] = pair + 1;
+	}
+
+	private int[] rehash(int[] table, boolean byElement) {
+		final int[] result = new int[table.length * 2];
+		for (final int entry : table) {
+			if (entry != 0) {
+				insert(result, byElement ? elementHash(elements[entry - 1]) : pairIdHash(entry - 1), entry - 1);
+			}
+		}
+		return result;
+	}
+
+	private void delete(int[] table, int pair, boolean byElement) {
+		final int mask = table.length - 1;
+		int bucket = (byElement ? elementHash(elements[pair]) : pairIdHash(pair)) & mask;
+		while (table[bucket] != pair + 1) {
+			bucket = bucket + 1 & mask;
+		}
+		// shift back the following entries of the cluster, so no tombstones are needed
+		int hole = bucket;
+		for (int next = hole + 1 & mask; table[next] != 0; next = next + 1 & mask) {
+			final int entry = table[next];
+			final int home = (byElement ? elementHash(elements[entry - 1]) : pairIdHash(entry - 1)) & mask;
+			if ((next - home & mask) >= (next - hole & mask)) {
+				table[hole] = entry;
+				hole = next;
+			}
+		}
+		table[hole] = 0;
+	}
+
+	// modifications via the views
+
+	private String putElement(EObject element, String id) {
+		if (element == null) {
+			throw new IllegalArgumentException();
+		}
+		final int kind = id == null ? KIND_OTHER : kindOf(id);
+		final long most = getMostSignificantBits(kind, id);
+		final long least = getLeastSignificantBits(kind, id);
+		modCount++;
+
+		final int pair = findElement(element);
+		if (pair != -1) {
+			final String oldId = getId(pair);
+			if (hasId(pair, kind, most, least, id)) {
+				return oldId;
+			}
+			if ((flags[pair] & ID_INDEXED) == 0) {
+				setId(pair, id, kind, most, least);
+				return oldId;
+			}
+			unindexElement(pair);
+			indexElement(reusePair(element, id, kind, most, least, true));
+			return oldId;
+		}
+		indexElement(reusePair(element, id, kind, most, least, true));
+		return null;
+	}
+
+	private EObject putId(String id, EObject element) {
+		if (element == null) {
+			throw new IllegalArgumentException();
+		}
+		final int kind = id == null ? KIND_OTHER : kindOf(id);
+		final long most = getMostSignificantBits(kind, id);
+		final long least = getLeastSignificantBits(kind, id);
+		modCount++;
+
+		final int pair = findId(kind, most, least, id);
+		if (pair != -1) {
+			final EObject oldElement = elements[pair];
+			if (oldElement == element) {
+				return oldElement;
+			}
+			if ((flags[pair] & ELEMENT_INDEXED) == 0) {
+				elements[pair] = element;
+				return oldElement;
+			}
+			unindexId(pair);
+			indexId(reusePair(element, id, kind, most, least, false));
+			return oldElement;
+		}
+		indexId(reusePair(element, id, kind, most, least, false));
+		return null;
+	}
+
+	/**
+	 * Returns a pair of the given element and ID that is not yet indexed the given way. The last pair is shared if it
+	 * has just been indexed the other way, any other pair is not, since the new key has to be iterated last.
+	 */
+	private int reusePair(EObject element, String id, int kind, long most, long least, boolean byElement) {
+		final int pair = end - 1;
+		final int otherIndexFlag = byElement ? ID_INDEXED : ELEMENT_INDEXED;
+		if (pair != -1 && (flags[pair] & (ELEMENT_INDEXED | ID_INDEXED)) == otherIndexFlag
+			&& elements[pair] == element && hasId(pair, kind, most, least, id)) {
+			return pair;
+		}
+		return addPair(element, id, kind, most, least);
+	}
+
+	private String removeElement(Object element) {
+		final int pair = findElement(element);
+		if (pair == -1) {
+			return null;
+		}
+		modCount++;
+		final String id = getId(pair);
+		unindexElement(pair);
+		return id;
+	}
+
+	private EObject removeId(Object id) {
+		final int pair = findId(id);
+		if (pair == -1) {
+			return null;
+		}
+		modCount++;
+		final EObject element = elements[pair];
+		unindexId(pair);
+		return element;
+	}
+
+	// ID encoding
+
+	private static long getMostSignificantBits(int kind, String id) {
+		if (kind == KIND_EMF_UUID) {
+			long bits = 0;
+			for (int i = 1; i <= 10; i++) {
+				bits = bits << 6 | BASE64_VALUES[id.charAt(i)];
+			}
+			return bits << 4 | BASE64_VALUES[id.charAt(11)] >>> 2;
+		}
+		if (kind == KIND_UUID) {
+			return parseHex(id, 0, 18);
+		}
+		return 0;
+	}
+
+	private static long getLeastSignificantBits(int kind, String id) {
+		if (kind == KIND_EMF_UUID) {
+			long bits = BASE64_VALUES[id.charAt(11)] & 3;
+			for (int i = 12; i <= 21; i++) {
+				bits = bits << 6 | BASE64_VALUES[id.charAt(i)];
+			}
+			return bits << 2 | BASE64_VALUES[id.charAt(22)] >>> 4;
+		}
+		if (kind == KIND_UUID) {
+			return parseHex(id, 19, UUID_LENGTH);
+		}
+		return 0;
+	}
+
+	private static long parseHex(String id, int from, int to) {
+		long bits = 0;
+		for (int i = from; i < to; i++) {
+			final char c = id.charAt(i);
+			if (c != '-') {
+				bits = bits << 4 | (c <= '9' ? c - '0' : c - 'a' + 10);
+			}
+		}
+		return bits;
+	}
+
+	private static boolean isEmfUuid(String id) {
+		if (id.length() != EMF_UUID_LENGTH || id.charAt(0) != '_') {
+			return false;
+		}
+		for (int i = 1; i < EMF_UUID_LENGTH; i++) {
+			final char c = id.charAt(i);
+			if (c >= BASE64_VALUES.length || BASE64_VALUES[c] == -1) {
+				return false;
+			}
+		}
+		// the last digit only encodes two bits
+		return (BASE64_VALUES[id.charAt(EMF_UUID_LENGTH - 1)] & 15) == 0;
+	}
+
+	private static boolean isUuid(String id) {
+		if (id.length() != UUID_LENGTH) {
+			return false;
+		}
+		for (int i = 0; i < UUID_LENGTH; i++) {
+			final char c = id.charAt(i);
+			if (i == 8 || i == 13 || i == 18 || i == 23) {
+				if (c != '-') {
+					return false;
+				}
+			} else if (!(c >= '0' && c <= '9' || c >= 'a' && c <= 'f')) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static String toEmfUuid(long most, long least) {
+		final char[] chars = new char[EMF_UUID_LENGTH];
+		chars[0] = '_';
+		for (int i = 1; i <= 10; i++) {
+			chars[i] = BASE64_DIGITS[(int) (most >>> 64 - 6 * i) & 63];
+		}
+		chars[11] = BASE64_DIGITS[(int) ((most & 15) << 2 | least >>> 62)];
+		for (int i = 12; i <= 21; i++) {
+			chars[i] = BASE64_DIGITS[(int) (least >>> 62 - 6 * (i - 11)) & 63];
+		}
+		chars[22] = BASE64_DIGITS[(int) (least & 3) << 4];
+		return new String(chars);
+	}
+
+	/**
+	 * Iterates the pairs that are indexed the given way, in insertion order.
+	 */
+	private abstract class PairIterator<T> implements Iterator<T> {
+
+		private final int indexFlag;
+		private int next;
+		private int current = -1;
+		private int expectedModCount = modCount;
+
+		PairIterator(int indexFlag) {
+			this.indexFlag = indexFlag;
+			next = advance(0);
+		}
+
+		private int advance(int from) {
+			int pair = from;
+			while (pair < end && (flags[pair] & indexFlag) == 0) {
+				pair++;
+			}
+			return pair;
+		}
+
+		public boolean hasNext() {
+			return next < end;
+		}
+
+		public T next() {
+			if (expectedModCount != modCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (next >= end) {
+				throw new NoSuchElementException();
+			}
+			current = next;
+			next = advance(next + 1);
+			return get(current);
+		}
+
+		public void remove() {
+			if (current == -1) {
+				throw new IllegalStateException();
+			}
+			if (expectedModCount != modCount) {
+				throw new ConcurrentModificationException();
+			}
+			// removal never moves pairs
+			if (indexFlag == ELEMENT_INDEXED) {
+				unindexElement(current);
+			} else {
+				unindexId(current);
+			}
+			modCount++;
+			expectedModCount = modCount;
+			current = -1;
+		}
+
+		protected abstract T get(int pair);
+	}
+
+	/**
+	 * An entry of a view, which reflects the pair at the time it has been iterated.
+	 */
+	private static final class IdEntry<K, V> implements Map.Entry<K, V> {
+
+		private final K key;
+		private final V value;
+
+		IdEntry(K key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		public K getKey() {
+			return key;
+		}
+
+		public V getValue() {
+			return value;
+		}
+
+		public V setValue(V value) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (!(object instanceof Map.Entry<?, ?>)) {
+				return false;
+			}
+			final Map.Entry<?, ?> entry = (Map.Entry<?, ?>) object;
+			return (key == null ? entry.getKey() == null : key.equals(entry.getKey()))
+				&& (value == null ? entry.getValue() == null : value.equals(entry.getValue()));
+		}
+
+		@Override
+		public int hashCode() {
+			return (key == null ? 0 : key.hashCode()) ^ (value == null ? 0 : value.hashCode());
+		}
+
+		@Override
+		public String toString() {
+			return key + "=" + value; //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * The view from {@link EObject}s to IDs.
+	 */
+	private final class EObjectToIdMap extends AbstractMap<EObject, String> {
+
+		private Set<EObject> keySet;
+		private Collection<String> values;
+		private Set<Map.Entry<EObject, String>> entrySet;
+
+		EObjectIdRegistry getRegistry() {
+			return EObjectIdRegistry.this;
+		}
+
+		@Override
+		public int size() {
+			return elementCount;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return findElement(key) != -1;
+		}
+
+		@Override
+		public boolean containsValue(Object value) {
+			final int pair = findId(value);
+			if (pair != -1 && (flags[pair] & ELEMENT_INDEXED) != 0) {
+				return true;
+			}
+			return super.containsValue(value);
+		}
+
+		@Override
+		public String get(Object key) {
+			final int pair = findElement(key);
+			return pair == -1 ? null : getId(pair);
+		}
+
+		@Override
+		public String put(EObject key, String value) {
+			return putElement(key, value);
+		}
+
+		@Override
+		public String remove(Object key) {
+			return removeElement(key);
+		}
+
+		@Override
+		public void clear() {
+			clearElements();
+		}
+
+		@Override
+		public Set<EObject> keySet() {
+			if (keySet == null) {
+				keySet = new AbstractSet<EObject>() {
+					@Override
+					public Iterator<EObject> iterator() {
+						return new PairIterator<EObject>(ELEMENT_INDEXED) {
+							@Override
+							protected EObject get(int pair) {
+								return elements[pair];
+							}
+						};
+					}
+
+					@Override
+					public int size() {
+						return elementCount;
+					}
+
+					@Override
+					public boolean contains(Object object) {
+						return containsKey(object);
+					}
+
+					@Override
+					public boolean remove(Object object) {
+						if (!containsKey(object)) {
+							return false;
+						}
+						removeElement(object);
+						return true;
+					}
+
+					@Override
+					public void clear() {
+						EObjectToIdMap.this.clear();
+					}
+				};
+			}
+			return keySet;
+		}
+
+		@Override
+		public Collection<String> values() {
+			if (values == null) {
+				values = new AbstractCollection<String>() {
+					@Override
+					public Iterator<String> iterator() {
+						return new PairIterator<String>(ELEMENT_INDEXED) {
+							@Override
+							protected String get(int pair) {
+								return getId(pair);
+							}
+						};
+					}
+
+					@Override
+					public int size() {
+						return elementCount;
+					}
+
+					@Override
+					public boolean contains(Object object) {
+						return containsValue(object);
+					}
+
+					@Override
+					public void clear() {
+						EObjectToIdMap.this.clear();
+					}
+				};
+			}
+			return values;
+		}
+
+		@Override
+		public Set<Map.Entry<EObject, String>> entrySet() {
+			if (entrySet == null) {
+				entrySet = new AbstractSet<Map.Entry<EObject, String>>() {
+					@Override
+					public Iterator<Map.Entry<EObject, String>> iterator() {
+						return new PairIterator<Map.Entry<EObject, String>>(ELEMENT_INDEXED) {
+							@Override
+							protected Map.Entry<EObject, String> get(int pair) {
+								return new IdEntry<EObject, String>(elements[pair], getId(pair));
+							}
+						};
+					}
+
+					@Override
+					public int size() {
+						return elementCount;
+					}
+
+					@Override
+					public void clear() {
+						EObjectToIdMap.this.clear();
+					}
+				};
+			}
+			return entrySet;
+		}
+	}
+
+	/**
+	 * The view from IDs to {@link EObject}s.
+	 */
+	private final class IdToEObjectMap extends AbstractMap<String, EObject> {
+
+		private Set<String> keySet;
+		private Collection<EObject> values;
+		private Set<Map.Entry<String, EObject>> entrySet;
+
+		EObjectIdRegistry getRegistry() {
+			return EObjectIdRegistry.this;
+		}
+
+		@Override
+		public int size() {
+			return idCount;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return findId(key) != -1;
+		}
+
+		@Override
+		public boolean containsValue(Object value) {
+			final int pair = findElement(value);
+			if (pair != -1 && (flags[pair] & ID_INDEXED) != 0) {
+				return true;
+			}
+			return super.containsValue(value);
+		}
+
+		@Override
+		public EObject get(Object key) {
+			final int pair = findId(key);
+			return pair == -1 ? null : elements[pair];
+		}
+
+		@Override
+		public EObject put(String key, EObject value) {
+			return putId(key, value);
+		}
+
+		@Override
+		public EObject remove(Object key) {
+			return removeId(key);
+		}
+
+		@Override
+		public void clear() {
+			clearIds();
+		}
+
+		@Override
+		public Set<String> keySet() {
+			if (keySet == null) {
+				keySet = new AbstractSet<String>() {
+					@Override
+					public Iterator<String> iterator() {
+						return new PairIterator<String>(ID_INDEXED) {
+							@Override
+							protected String get(int pair) {
+								return getId(pair);
+							}
+						};
+					}
+
+					@Override
+					public int size() {
+						return idCount;
+					}
+
+					@Override
+					public boolean contains(Object object) {
+						return containsKey(object);
+					}
+
+					@Override
+					public boolean remove(Object object) {
+						if (!containsKey(object)) {
+							return false;
+						}
+						removeId(object);
+						return true;
+					}
+
+					@Override
+					public void clear() {
+						IdToEObjectMap.this.clear();
+					}
+				};
+			}
+			return keySet;
+		}
+
+		@Override
+		public Collection<EObject> values() {
+			if (values == null) {
+				values = new AbstractCollection<EObject>() {
+					@Override
+					public Iterator<EObject> iterator() {
+						return new PairIterator<EObject>(ID_INDEXED) {
+							@Override
+							protected EObject get(int pair) {
+								return elements[pair];
+							}
+						};
+					}
+
+					@Override
+					public int size() {
+						return idCount;
+					}
+
+					@Override
+					public boolean contains(Object object) {
+						return containsValue(object);
+					}
+
+					@Override
+					public void clear() {
+						IdToEObjectMap.this.clear();
+					}
+				};
+			}
+			return values;
+		}
+
+		@Override
+		public Set<Map.Entry<String, EObject>> entrySet() {
+			if (entrySet == null) {
+				entrySet = new AbstractSet<Map.Entry<String, EObject>>() {
+					@Override
+					public Iterator<Map.Entry<String, EObject>> iterator() {
+						return new PairIterator<Map.Entry<String, EObject>>(ID_INDEXED) {
+							@Override
+							protected Map.Entry<String, EObject> get(int pair) {
+								return new IdEntry<String, EObject>(getId(pair), elements[pair]);
+							}
+						};
+					}
+
+					@Override
+					public int size() {
+						return idCount;
+					}
+
+					@Override
+					public void clear() {
+						IdToEObjectMap.this.clear();
+					}
+				};
+			}
+			return entrySet;
+		}
+	}
+}
@@ -63,7 +63,7 @@ public abstract class AbstractAPIImpl<API, INTERNAL extends APIDelegate<API>>
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + (toInternalAPI() == null ? 0 : toInternalAPI().hashCode());
+		result = prime * result + (internal == null ? 0 : internal.hashCode());
 		return result;
 	}
 
@@ -85,11 +85,11 @@ public abstract class AbstractAPIImpl<API, INTERNAL extends APIDelegate<API>>
 		}
 		@SuppressWarnings("unchecked")
 		final AbstractAPIImpl<API, APIDelegate<API>> other = (AbstractAPIImpl<API, APIDelegate<API>>) obj;
-		if (toInternalAPI() == null) {
-			if (other.toInternalAPI() != null) {
+		if (internal == null) {
+			if (other.internal != null) {
 				return false;
 			}
-		} else if (!toInternalAPI().equals(other.toInternalAPI())) {
+		} else if (!internal.equals(other.internal)) {
 			return false;
 		}
 		return true;
@@ -53,6 +53,7 @@ public class PrimaryVersionSpecItemProvider extends VersionSpecItemProvider {
 
 			addIdentifierPropertyDescriptor(object);
 			addProjectStateChecksumPropertyDescriptor(object);
+			addCommutativeChecksumPropertyDescriptor(object);
 		}
 		return itemPropertyDescriptors;
 	}
@@ -90,6 +91,23 @@ public class PrimaryVersionSpecItemProvider extends VersionSpecItemProvider {
 				ItemPropertyDescriptor.INTEGRAL_VALUE_IMAGE, null, null));
 	}
 
+	/**
+	 * This adds a property descriptor for the Commutative Checksum feature.
+	 * <!-- begin-user-doc -->
+	 * <!-- end-user-doc -->
+	 *
+	 * @generated
+	 */
+	protected void addCommutativeChecksumPropertyDescriptor(Object object) {
+		itemPropertyDescriptors
+			.add(createItemPropertyDescriptor(((ComposeableAdapterFactory) adapterFactory).getRootAdapterFactory(),
+				getResourceLocator(), getString("_UI_PrimaryVersionSpec_commutativeChecksum_feature"), //$NON-NLS-1$
+				getString("_UI_PropertyDescriptor_description", "_UI_PrimaryVersionSpec_commutativeChecksum_feature", //$NON-NLS-1$ //$NON-NLS-2$
+					"_UI_PrimaryVersionSpec_type"), //$NON-NLS-1$
+				VersioningPackage.Literals.PRIMARY_VERSION_SPEC__COMMUTATIVE_CHECKSUM, true, false, false,
+				ItemPropertyDescriptor.BOOLEAN_VALUE_IMAGE, null, null));
+	}
+
 	/**
 	 * This returns PrimaryVersionSpec.gif.
 	 * <!-- begin-user-doc --> <!--
@@ -131,6 +149,7 @@ public class PrimaryVersionSpecItemProvider extends VersionSpecItemProvider {
 		switch (notification.getFeatureID(PrimaryVersionSpec.class)) {
 		case VersioningPackage.PRIMARY_VERSION_SPEC__IDENTIFIER:
 		case VersioningPackage.PRIMARY_VERSION_SPEC__PROJECT_STATE_CHECKSUM:
+		case VersioningPackage.PRIMARY_VERSION_SPEC__COMMUTATIVE_CHECKSUM:
 			fireNotifyChanged(new ViewerNotification(notification, notification.getNotifier(), false, true));
 			return;
 		}
@@ -11,9 +11,11 @@
 package org.eclipse.emf.emfstore.internal.server.model.versioning;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.emfstore.internal.common.api.APIDelegate;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AbstractOperation;
 import org.eclipse.emf.emfstore.server.model.ESChangePackage;
 
 /**
@@ -122,6 +124,17 @@ public interface FileBasedChangePackage extends AbstractChangePackage, APIDelega
 	 */
 	String getTempFilePath();
 
+	/**
+	 * Restores the temporary file to the state of the last save, discarding all operations that have not been saved.
+	 * If the last save has been completed, both files are truncated to the operations saved. Otherwise, the temporary
+	 * file is replaced by a copy of the saved file.
+	 *
+	 * @throws IOException in case the files can not be restored
+	 *
+	 * @generated NOT
+	 */
+	void restore() throws IOException;
+
 	/**
 	 * Moves this change package.
 	 *
@@ -133,4 +146,18 @@ public interface FileBasedChangePackage extends AbstractChangePackage, APIDelega
 	 */
 	void move(String newFilePath) throws IOException;
 
+	/**
+	 * Returns the operations within the given range. Each operation is read on its own, so only the requested
+	 * operations are parsed.
+	 *
+	 * @param fromIndex
+	 *            the index of the first operation, inclusive
+	 * @param toIndex
+	 *            the index of the last operation, exclusive
+	 * @return the operations within the given range
+	 *
+	 * @generated NOT
+	 */
+	List<AbstractOperation> get(int fromIndex, int toIndex);
+
 } // FileBasedChangePackage
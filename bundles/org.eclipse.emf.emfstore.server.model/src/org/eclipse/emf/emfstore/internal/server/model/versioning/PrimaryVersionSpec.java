@@ -29,6 +29,9 @@ import org.eclipse.emf.emfstore.server.model.versionspec.ESPrimaryVersionSpec;
  *          <li>
  *          {@link org.eclipse.emf.emfstore.internal.server.model.versioning.PrimaryVersionSpec#getProjectStateChecksum
  *          <em>Project State Checksum</em>}</li>
+ *          <li>
+ *          {@link org.eclipse.emf.emfstore.internal.server.model.versioning.PrimaryVersionSpec#isCommutativeChecksum
+ *          <em>Commutative Checksum</em>}</li>
  *          </ul>
  *
  * @see org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningPackage#getPrimaryVersionSpec()
@@ -98,4 +101,34 @@ public interface PrimaryVersionSpec
 	 */
 	void setProjectStateChecksum(long value);
 
+	/**
+	 * Returns the value of the '<em><b>Commutative Checksum</b></em>' attribute.
+	 * <!-- begin-user-doc -->
+	 * <p>
+	 * Whether the project state checksum has been computed as commutative checksum rather than by serializing the
+	 * project state, so that a client computes the same kind of checksum when comparing it.
+	 * </p>
+	 * <!-- end-user-doc -->
+	 *
+	 * @return the value of the '<em>Commutative Checksum</em>' attribute.
+	 * @see #setCommutativeChecksum(boolean)
+	 * @see org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningPackage#getPrimaryVersionSpec_CommutativeChecksum()
+	 * @model
+	 * @generated
+	 */
+	boolean isCommutativeChecksum();
+
+	/**
+	 * Sets the value of the '
+	 * {@link org.eclipse.emf.emfstore.internal.server.model.versioning.PrimaryVersionSpec#isCommutativeChecksum
+	 * <em>Commutative Checksum</em>}' attribute.
+	 * <!-- begin-user-doc -->
+	 * <!-- end-user-doc -->
+	 *
+	 * @param value the new value of the '<em>Commutative Checksum</em>' attribute.
+	 * @see #isCommutativeChecksum()
+	 * @generated
+	 */
+	void setCommutativeChecksum(boolean value);
+
 } // PrimaryVersionSpec
\ No newline at end of file
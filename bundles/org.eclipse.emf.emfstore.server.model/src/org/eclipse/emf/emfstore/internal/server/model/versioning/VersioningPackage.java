@@ -216,6 +216,16 @@ public interface VersioningPackage extends EPackage {
 	 */
 	int PRIMARY_VERSION_SPEC__PROJECT_STATE_CHECKSUM = VERSION_SPEC_FEATURE_COUNT + 1;
 
+	/**
+	 * The feature id for the '<em><b>Commutative Checksum</b></em>' attribute.
+	 * <!-- begin-user-doc -->
+	 * <!-- end-user-doc -->
+	 *
+	 * @generated
+	 * @ordered
+	 */
+	int PRIMARY_VERSION_SPEC__COMMUTATIVE_CHECKSUM = VERSION_SPEC_FEATURE_COUNT + 2;
+
 	/**
 	 * The number of structural features of the '<em>Primary Version Spec</em>' class.
 	 * <!-- begin-user-doc --> <!-- end-user-doc -->
@@ -223,7 +233,7 @@ public interface VersioningPackage extends EPackage {
 	 * @generated
 	 * @ordered
 	 */
-	int PRIMARY_VERSION_SPEC_FEATURE_COUNT = VERSION_SPEC_FEATURE_COUNT + 2;
+	int PRIMARY_VERSION_SPEC_FEATURE_COUNT = VERSION_SPEC_FEATURE_COUNT + 3;
 
 	/**
 	 * The meta object id for the '
@@ -1381,6 +1391,20 @@ public interface VersioningPackage extends EPackage {
 	 */
 	EAttribute getPrimaryVersionSpec_ProjectStateChecksum();
 
+	/**
+	 * Returns the meta object for the attribute '
+	 * {@link org.eclipse.emf.emfstore.internal.server.model.versioning.PrimaryVersionSpec#isCommutativeChecksum
+	 * <em>Commutative Checksum</em>}'.
+	 * <!-- begin-user-doc -->
+	 * <!-- end-user-doc -->
+	 *
+	 * @return the meta object for the attribute '<em>Commutative Checksum</em>'.
+	 * @see org.eclipse.emf.emfstore.internal.server.model.versioning.PrimaryVersionSpec#isCommutativeChecksum()
+	 * @see #getPrimaryVersionSpec()
+	 * @generated
+	 */
+	EAttribute getPrimaryVersionSpec_CommutativeChecksum();
+
 	/**
 	 * Returns the meta object for class '{@link org.eclipse.emf.emfstore.internal.server.model.versioning.VersionSpec
 	 * <em>Version Spec</em>}'.
@@ -2377,6 +2401,16 @@ public interface VersioningPackage extends EPackage {
 		EAttribute PRIMARY_VERSION_SPEC__PROJECT_STATE_CHECKSUM = eINSTANCE
 			.getPrimaryVersionSpec_ProjectStateChecksum();
 
+		/**
+		 * The meta object literal for the '<em><b>Commutative Checksum</b></em>' attribute feature.
+		 * <!-- begin-user-doc -->
+		 * <!-- end-user-doc -->
+		 *
+		 * @generated
+		 */
+		EAttribute PRIMARY_VERSION_SPEC__COMMUTATIVE_CHECKSUM = eINSTANCE
+			.getPrimaryVersionSpec_CommutativeChecksum();
+
 		/**
 		 * The meta object literal for the '
 		 * {@link org.eclipse.emf.emfstore.internal.server.model.versioning.impl.VersionSpecImpl <em>Version Spec</em>}'
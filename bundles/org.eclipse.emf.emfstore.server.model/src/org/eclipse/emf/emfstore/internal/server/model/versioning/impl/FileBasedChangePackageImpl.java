@@ -11,19 +11,19 @@
  ******************************************************************************/
 package org.eclipse.emf.emfstore.internal.server.model.versioning.impl;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.commons.io.input.ReversedLinesFileReader;
 import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.common.notify.NotificationChain;
 import org.eclipse.emf.common.util.EList;
@@ -52,16 +52,18 @@ import org.eclipse.emf.emfstore.internal.server.model.versioning.OperationProxy;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningFactory;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningPackage;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.impl.persistent.ChangePackageContainer;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.impl.persistent.ChangePackageManifest;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.impl.persistent.Direction;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.impl.persistent.FileBasedOperationIterable;
-import org.eclipse.emf.emfstore.internal.server.model.versioning.impl.persistent.OperationEmitter;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.impl.persistent.OperationBuffer;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.impl.persistent.OperationIndex;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.impl.persistent.OperationParser;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.impl.persistent.XmlTags;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AbstractOperation;
 import org.eclipse.emf.emfstore.server.ESCloseableIterable;
 import org.eclipse.emf.emfstore.server.model.ESChangePackage;
 
 import com.google.common.base.Optional;
-import com.google.common.collect.Iterables;
 import com.google.common.io.Closeables;
 
 /**
@@ -111,6 +113,18 @@ public class FileBasedChangePackageImpl extends EObjectImpl implements FileBased
 	// FIXME we also have a constant for this on the client side
 	private static final String OPERATION_FILE_SUFFIX = ".eoc"; //$NON-NLS-1$
 
+	/**
+	 * @generated NOT
+	 */
+	private static final byte[] SUB_OPERATIONS_END_TAG = XmlTags.SUB_OPERATIONS_END_TAG.getBytes();
+
+	/**
+	 * Suffix of the file an operations file is copied to before replacing it.
+	 *
+	 * @generated NOT
+	 */
+	private static final String SAVE_SUFFIX = ".save"; //$NON-NLS-1$
+
 	/**
 	 * Index of an operations file tuple consisting of the actual and the temporary file.
 	 */
@@ -173,8 +187,34 @@ public class FileBasedChangePackageImpl extends EObjectImpl implements FileBased
 	 */
 	protected EList<OperationProxy> operationProxies;
 
-	private int leafSize;
-	private int size;
+	/**
+	 * The index of the temporary operations file, the temporary operations file itself, kept open for appending and
+	 * reading single operations, and the parser for single operations. Access is guarded by this change package.
+	 *
+	 * @generated NOT
+	 */
+	private OperationIndex operationIndex;
+	private RandomAccessFile operationsFile;
+	private String operationsFilePath;
+	private OperationParser operationParser;
+	private final OperationBuffer operationBuffer = new OperationBuffer();
+
+	/**
+	 * The number of leading bytes the temporary operations file has in common with the operations file it has last
+	 * been saved to, or -1 if unknown. Since operations are appended, only the bytes following these need to be saved.
+	 *
+	 * @generated NOT
+	 */
+	private long savedLength = -1;
+	private String savedFilePath;
+
+	/**
+	 * The operations file whose manifest has been deleted since the temporary operations file has been changed within
+	 * the bytes it shares with the operations file, or <code>null</code>.
+	 *
+	 * @generated NOT
+	 */
+	private String invalidatedManifestPath;
 
 	/**
 	 * <!-- begin-user-doc -->
@@ -504,41 +544,34 @@ public class FileBasedChangePackageImpl extends EObjectImpl implements FileBased
 	 * @see org.eclipse.emf.emfstore.internal.server.model.versioning.AbstractChangePackage#add(org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AbstractOperation)
 	 * @generated NOT
 	 */
-	public void add(AbstractOperation op) {
+	public synchronized void add(AbstractOperation op) {
 
-		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 		final Resource resource = createVirtualResource();
 		resource.getContents().add(op);
 
-		Optional<RandomAccessFile> maybeRandomAccessFile = Optional.absent();
-
 		try {
-			outputStream.write(asBytes(XmlTags.OPERATIONS_START_TAG + XmlTags.NEWLINE));
+			operationBuffer.reset();
+			operationBuffer.write(asBytes(XmlTags.OPERATIONS_START_TAG + XmlTags.NEWLINE));
+			final int headerLength = operationBuffer.size();
 
 			final XMLHelperImpl helper = new XMLHelperImpl((XMLResource) resource);
 			final XMLSaveImpl save = new XMLSaveImpl(helper);
-			save.save((XMLResource) resource, outputStream, resourceOptions());
-			// resource.save(outputStream, resourceOptions());
-
-			outputStream.write(asBytes(XmlTags.OPERATIONS_END_TAG + XmlTags.NEWLINE));
-
-			final RandomAccessFile randomAccessFile = new RandomAccessFile(getTempFilePath(), "rw"); //$NON-NLS-1$
-			maybeRandomAccessFile = Optional.of(randomAccessFile);
-			randomAccessFile.skipBytes((int) (randomAccessFile.length() - asBytes(XmlTags.CHANGE_PACKAGE_END).length));
-			randomAccessFile.write(outputStream.toByteArray());
-			randomAccessFile.write(asBytes(XmlTags.CHANGE_PACKAGE_END));
+			save.save((XMLResource) resource, operationBuffer, resourceOptions());
+			final int length = operationBuffer.size() - headerLength;
+
+			operationBuffer.write(asBytes(XmlTags.OPERATIONS_END_TAG + XmlTags.NEWLINE));
+			operationBuffer.write(asBytes(XmlTags.CHANGE_PACKAGE_END));
+
+			final OperationIndex index = getOperationIndex();
+			final RandomAccessFile randomAccessFile = getOperationsFile();
+			final long start = randomAccessFile.length() - asBytes(XmlTags.CHANGE_PACKAGE_END).length;
+			invalidateManifest(start);
+			operationBuffer.writeTo(randomAccessFile, start);
+			savedLength = Math.min(savedLength, start);
+			index.append(start, start + headerLength, length, operationBuffer.count(SUB_OPERATIONS_END_TAG));
 		} catch (final IOException e) {
 			// ESException not available
 			throw new IllegalStateException(e);
-		} finally {
-			try {
-				outputStream.close();
-				if (maybeRandomAccessFile.isPresent()) {
-					maybeRandomAccessFile.get().close();
-				}
-			} catch (final IOException ex) {
-				ModelUtil.logException(ex);
-			}
 		}
 	}
 
@@ -649,9 +682,13 @@ public class FileBasedChangePackageImpl extends EObjectImpl implements FileBased
 	 * @see org.eclipse.emf.emfstore.internal.server.model.versioning.AbstractChangePackage#size()
 	 * @generated NOT
 	 */
-	public int size() {
-		computeSize();
-		return size;
+	public synchronized int size() {
+		try {
+			return getOperationIndex().size();
+		} catch (final IOException ex) {
+			// ESException not available
+			throw new IllegalStateException(ex);
+		}
 	}
 
 	/**
@@ -671,8 +708,7 @@ public class FileBasedChangePackageImpl extends EObjectImpl implements FileBased
 	 * @generated NOT
 	 */
 	public boolean isEmpty() {
-		computeSize();
-		return size == 0;
+		return size() == 0;
 	}
 
 	/**
@@ -681,46 +717,29 @@ public class FileBasedChangePackageImpl extends EObjectImpl implements FileBased
 	 * @see org.eclipse.emf.emfstore.internal.server.model.versioning.AbstractChangePackage#removeAtEnd(int)
 	 * @generated NOT
 	 */
-	public List<AbstractOperation> removeAtEnd(int n) {
+	public synchronized List<AbstractOperation> removeAtEnd(int n) {
 		final List<AbstractOperation> ops = new ArrayList<AbstractOperation>();
-		final Optional<ReversedLinesFileReader> maybeReversedReader = Optional.absent();
-		RandomAccessFile raf = null;
-		OperationEmitter operationEmitter = null;
-
 		try {
-			operationEmitter = new OperationEmitter(Direction.Backward, new File(getTempFilePath()));
-			int counter = n;
-			AbstractOperation operation;
-			final Optional<AbstractOperation> maybeOperation = operationEmitter.tryEmit();
-
-			while (counter > 0 && maybeOperation.isPresent()) {
-				operation = maybeOperation.get();
-				ops.add(operation);
-				counter -= 1;
+			final OperationIndex index = getOperationIndex();
+			final int first = Math.max(0, index.size() - n);
+			for (int i = index.size() - 1; i >= first; i--) {
+				ops.add(readOperation(i));
+			}
+			if (first < index.size()) {
+				final RandomAccessFile randomAccessFile = getOperationsFile();
+				final long start = index.getStart(first);
+				final byte[] bytes = asBytes(XmlTags.CHANGE_PACKAGE_END);
+				invalidateManifest(start);
+				randomAccessFile.seek(start);
+				randomAccessFile.write(bytes);
+				randomAccessFile.setLength(start + bytes.length);
+				index.truncate(first);
+				savedLength = Math.min(savedLength, start);
 			}
-
-			raf = new RandomAccessFile(getTempFilePath(), "rw"); //$NON-NLS-1$
-			final long skip = operationEmitter.getOffset();
-			raf.seek(skip);
-			final byte[] bytes = asBytes(XmlTags.NEWLINE + XmlTags.CHANGE_PACKAGE_END);
-			raf.write(bytes);
-			raf.setLength(skip + bytes.length);
-
 			return ops;
-
 		} catch (final IOException ex) {
 			// ESException not available
 			throw new IllegalStateException(ex);
-		} finally {
-			try {
-				Closeables.close(raf, true);
-				Closeables.close(operationEmitter, true);
-				if (maybeReversedReader.isPresent()) {
-					Closeables.close(maybeReversedReader.get(), true);
-				}
-			} catch (final IOException ex) {
-				ModelUtil.logException(ex);
-			}
 		}
 	}
 
@@ -730,26 +749,19 @@ public class FileBasedChangePackageImpl extends EObjectImpl implements FileBased
 	 * @see org.eclipse.emf.emfstore.internal.server.model.versioning.AbstractChangePackage#clear()
 	 * @generated NOT
 	 */
-	public void clear() {
-		Optional<RandomAccessFile> maybeRandomAccessFile = Optional.absent();
+	public synchronized void clear() {
 		try {
-			final RandomAccessFile randomAccessFile = new RandomAccessFile(getTempFilePath(), "rw"); //$NON-NLS-1$
-			maybeRandomAccessFile = Optional.of(randomAccessFile);
+			final RandomAccessFile randomAccessFile = getOperationsFile();
+			invalidateManifest(0);
 			randomAccessFile.seek(0);
 			randomAccessFile.write(asBytes(EMPTY_CHANGE_PACKAGE));
 			randomAccessFile.setLength(EMPTY_CHANGE_PACKAGE.length());
+			getOperationIndex();
+			savedLength = Math.min(savedLength, 0);
 		} catch (final FileNotFoundException ex) {
 			throw new RuntimeException(ex);
 		} catch (final IOException ex) {
 			throw new RuntimeException(ex);
-		} finally {
-			if (maybeRandomAccessFile.isPresent()) {
-				try {
-					maybeRandomAccessFile.get().close();
-				} catch (final IOException ex) {
-					ModelUtil.logException(ex);
-				}
-			}
 		}
 	}
 
@@ -759,14 +771,17 @@ public class FileBasedChangePackageImpl extends EObjectImpl implements FileBased
 	 * @see org.eclipse.emf.emfstore.internal.server.model.versioning.AbstractChangePackage#attachToProjectSpace(org.eclipse.emf.emfstore.internal.server.model.versioning.impl.persistent.ChangePackageContainer)
 	 * @generated NOT
 	 */
-	public void attachToProjectSpace(ChangePackageContainer changePackageContainer) {
+	public synchronized void attachToProjectSpace(ChangePackageContainer changePackageContainer) {
 		final URI changePackageUri = changePackageContainer.getChangePackageUri();
 		final String operationFileString = changePackageUri.toFileString();
 		final File tempOperationFile = new File(operationFileString + FILE_OP_INDEX + TEMP_SUFFIX);
 		final File thisFile = new File(getTempFilePath());
 		try {
+			closeOperationsFile();
 			FileUtil.copyFile(thisFile, tempOperationFile);
 			thisFile.delete();
+			OperationIndex.getIndexFile(thisFile).delete();
+			ChangePackageManifest.delete(new File(operationFileString + FILE_OP_INDEX));
 			setFilePath(operationFileString + FILE_OP_INDEX);
 			changePackageContainer.setChangePackage(this);
 		} catch (final IOException ex) {
@@ -778,11 +793,14 @@ public class FileBasedChangePackageImpl extends EObjectImpl implements FileBased
 	/**
 	 * @generated NOT
 	 */
-	public void delete() {
+	public synchronized void delete() {
 		final File opFile = new File(getFilePath());
 		final File tempOpFile = new File(getTempFilePath());
+		closeOperationsFile();
+		ChangePackageManifest.delete(opFile);
 		opFile.delete();
 		tempOpFile.delete();
+		OperationIndex.getIndexFile(tempOpFile).delete();
 		if (eResource() != null) {
 			try {
 				eResource().delete(null);
@@ -798,41 +816,87 @@ public class FileBasedChangePackageImpl extends EObjectImpl implements FileBased
 	 * @see org.eclipse.emf.emfstore.internal.server.model.versioning.AbstractChangePackage#leafSize()
 	 * @generated NOT
 	 */
-	public int leafSize() {
-		computeSize();
-		return size + leafSize;
-	}
-
-	private void computeSize() {
-		Optional<ReversedLinesFileReader> maybeReversedReader = Optional.absent();
-		int size = 0;
-		int leafSize = 0;
+	public synchronized int leafSize() {
 		try {
-			final ReversedLinesFileReader reversedReader = new ReversedLinesFileReader(new File(getTempFilePath()));
-			maybeReversedReader = Optional.of(reversedReader);
-			String line;
-			while ((line = reversedReader.readLine()) != null) {
-				if (line.contains(XmlTags.OPERATIONS_END_TAG)) {
-					size += 1;
-				} else if (line.contains(XmlTags.SUB_OPERATIONS_END_TAG)) {
-					leafSize += 1;
-				}
-			}
+			final OperationIndex index = getOperationIndex();
+			return index.size() + index.leafSize();
 		} catch (final IOException ex) {
 			// ESException not available
 			throw new IllegalStateException(ex);
-		} finally {
-			if (maybeReversedReader.isPresent()) {
-				try {
-					maybeReversedReader.get().close();
-				} catch (final IOException ex) {
-					ModelUtil.logException(ex);
-				}
+		}
+	}
+
+	/**
+	 * Returns the index of the temporary operations file. The index is rebuilt if the file has been changed by
+	 * other means than this change package.
+	 *
+	 * @generated NOT
+	 */
+	private OperationIndex getOperationIndex() throws IOException {
+		if (!getTempFilePath().equals(operationsFilePath)) {
+			closeOperationsFile();
+			operationsFilePath = getTempFilePath();
+		}
+		if (operationIndex == null || !operationIndex.isUpToDate()) {
+			if (operationIndex != null) {
+				operationIndex.close();
+			}
+			operationIndex = OperationIndex.load(new File(operationsFilePath));
+			// the file may have been changed since it has been saved
+			savedLength = -1;
+			if (!operationIndex.isPersisted()) {
+				operationIndex.persist();
 			}
 		}
+		return operationIndex;
+	}
 
-		this.leafSize = leafSize;
-		this.size = size;
+	/**
+	 * @generated NOT
+	 */
+	private RandomAccessFile getOperationsFile() throws IOException {
+		if (!getTempFilePath().equals(operationsFilePath)) {
+			closeOperationsFile();
+			operationsFilePath = getTempFilePath();
+		}
+		if (operationsFile == null) {
+			operationsFile = new RandomAccessFile(operationsFilePath, "rw"); //$NON-NLS-1$
+		}
+		return operationsFile;
+	}
+
+	/**
+	 * Closes the operations file and the index, which both will be reopened on demand.
+	 *
+	 * @generated NOT
+	 */
+	private void closeOperationsFile() {
+		try {
+			Closeables.close(operationsFile, true);
+			Closeables.close(operationIndex, true);
+		} catch (final IOException ex) {
+			// cannot happen since exceptions are swallowed
+			ModelUtil.logException(ex);
+		}
+		operationsFile = null;
+		operationIndex = null;
+		operationsFilePath = null;
+	}
+
+	/**
+	 * @generated NOT
+	 */
+	private AbstractOperation readOperation(int index) throws IOException {
+		final OperationIndex operationIndex = getOperationIndex();
+		if (operationParser == null) {
+			operationParser = new OperationParser();
+		}
+		final Optional<AbstractOperation> operation = operationParser.parse(getOperationsFile(),
+			operationIndex.getOffset(index), operationIndex.getLength(index));
+		if (!operation.isPresent()) {
+			throw new IllegalStateException("No operation found at index " + index); //$NON-NLS-1$
+		}
+		return operation.get();
 	}
 
 	/**
@@ -841,9 +905,12 @@ public class FileBasedChangePackageImpl extends EObjectImpl implements FileBased
 	 * @see org.eclipse.emf.emfstore.internal.server.model.versioning.FileBasedChangePackage#initialize(java.lang.String)
 	 * @generated NOT
 	 */
-	public void initialize(String filePath) {
+	public synchronized void initialize(String filePath) {
+		closeOperationsFile();
 		setFilePath(filePath);
+		ChangePackageManifest.delete(new File(filePath));
 		initializeEmptyChangePackage();
+		OperationIndex.getIndexFile(new File(getTempFilePath())).delete();
 	}
 
 	/**
@@ -921,13 +988,39 @@ public class FileBasedChangePackageImpl extends EObjectImpl implements FileBased
 	 * @see org.eclipse.emf.emfstore.internal.server.model.versioning.FileBasedChangePackage#get(int)
 	 * @generated NOT
 	 */
-	public AbstractOperation get(int index) {
-		final ESCloseableIterable<AbstractOperation> operations = operations();
+	public synchronized AbstractOperation get(int index) {
 		try {
-			final Iterable<AbstractOperation> iterable = operations.iterable();
-			return Iterables.get(iterable, index);
-		} finally {
-			operations.close();
+			final OperationIndex operationIndex = getOperationIndex();
+			if (index < 0 || index >= operationIndex.size()) {
+				throw new IndexOutOfBoundsException(String.valueOf(index));
+			}
+			return readOperation(index);
+		} catch (final IOException ex) {
+			// ESException not available
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @see org.eclipse.emf.emfstore.internal.server.model.versioning.FileBasedChangePackage#get(int, int)
+	 * @generated NOT
+	 */
+	public synchronized List<AbstractOperation> get(int fromIndex, int toIndex) {
+		try {
+			final OperationIndex operationIndex = getOperationIndex();
+			if (fromIndex < 0 || toIndex > operationIndex.size() || fromIndex > toIndex) {
+				throw new IndexOutOfBoundsException(fromIndex + ", " + toIndex); //$NON-NLS-1$
+			}
+			final List<AbstractOperation> operations = new ArrayList<AbstractOperation>(toIndex - fromIndex);
+			for (int i = fromIndex; i < toIndex; i++) {
+				operations.add(readOperation(i));
+			}
+			return operations;
+		} catch (final IOException ex) {
+			// ESException not available
+			throw new IllegalStateException(ex);
 		}
 	}
 
@@ -959,10 +1052,135 @@ public class FileBasedChangePackageImpl extends EObjectImpl implements FileBased
 	 * @see org.eclipse.emf.emfstore.internal.server.model.versioning.AbstractChangePackage#save()
 	 * @generated NOT
 	 */
-	public void save() throws IOException {
+	public synchronized void save() throws IOException {
 		final File tempFile = new File(getTempFilePath());
 		final File filePath = new File(getFilePath());
-		FileUtil.copyFile(tempFile, filePath);
+		// may detect that the temporary file has been changed by other means and reset the saved length
+		final int operationCount = getOperationIndex().size();
+		final long length = tempFile.length();
+		if (savedLength < 0 || !getFilePath().equals(savedFilePath) || filePath.length() < savedLength
+			|| length < savedLength) {
+			// write a complete copy next to the operations file, so it is replaced at once
+			ChangePackageManifest.delete(filePath);
+			final File saveFile = new File(getFilePath() + SAVE_SUFFIX);
+			transfer(tempFile, saveFile, 0, length);
+			FileUtil.renameAndOverwrite(saveFile, filePath);
+		} else {
+			// only save the operations that have been added since the last save
+			transfer(tempFile, filePath, savedLength, length);
+		}
+		savedLength = Math.max(0, length - asBytes(XmlTags.CHANGE_PACKAGE_END).length);
+		savedFilePath = getFilePath();
+		ChangePackageManifest.write(filePath, savedLength, operationCount);
+		invalidatedManifestPath = null;
+	}
+
+	/**
+	 * Copies the bytes of the given source file starting at the given position to the same position of the given
+	 * target file, which is truncated to the given length and forced to the storage device afterwards.
+	 *
+	 * @generated NOT
+	 */
+	private static void transfer(File source, File target, long position, long length) throws IOException {
+		final FileInputStream inputStream = new FileInputStream(source);
+		final RandomAccessFile outputFile = new RandomAccessFile(target, "rw"); //$NON-NLS-1$
+		try {
+			final FileChannel sourceChannel = inputStream.getChannel();
+			final FileChannel targetChannel = outputFile.getChannel();
+			long current = position;
+			while (current < length) {
+				current += sourceChannel.transferTo(current, length - current, targetChannel.position(current));
+			}
+			targetChannel.truncate(length);
+			targetChannel.force(true);
+		} finally {
+			outputFile.close();
+			inputStream.close();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @see org.eclipse.emf.emfstore.internal.server.model.versioning.FileBasedChangePackage#restore()
+	 * @generated NOT
+	 */
+	public synchronized void restore() throws IOException {
+		final File filePath = new File(getFilePath());
+		final File tempFile = new File(getTempFilePath());
+		final Optional<ChangePackageManifest> manifest = ChangePackageManifest.read(filePath);
+		if (manifest.isPresent() && restore(filePath, tempFile, manifest.get())) {
+			return;
+		}
+		closeOperationsFile();
+		FileUtil.copyFile(filePath, tempFile);
+	}
+
+	/**
+	 * Restores the saved state described by the given manifest by truncating both files to the bytes they share.
+	 *
+	 * @return <code>true</code> if the files have been restored, <code>false</code> if the operations file has to be
+	 *         copied instead
+	 * @generated NOT
+	 */
+	private boolean restore(File filePath, File tempFile, ChangePackageManifest manifest) throws IOException {
+		final byte[] endTag = asBytes(XmlTags.CHANGE_PACKAGE_END);
+		final long savedEnd = manifest.getSavedLength();
+		final int savedCount = manifest.getOperationCount();
+		if (filePath.length() < savedEnd || tempFile.length() < savedEnd) {
+			return false;
+		}
+		final OperationIndex index = getOperationIndex();
+		if (index.size() < savedCount || index.size() > savedCount && index.getStart(savedCount) != savedEnd) {
+			return false;
+		}
+		if (!manifest.describes(filePath)) {
+			// a save has been interrupted after it has started to append to the operations file
+			truncate(filePath, savedEnd, endTag);
+			ChangePackageManifest.write(filePath, savedEnd, savedCount);
+		}
+		if (tempFile.length() != savedEnd + endTag.length || index.size() != savedCount) {
+			// discard the operations that have not been saved
+			final RandomAccessFile randomAccessFile = getOperationsFile();
+			randomAccessFile.seek(savedEnd);
+			randomAccessFile.write(endTag);
+			randomAccessFile.setLength(savedEnd + endTag.length);
+			index.truncate(savedCount);
+		}
+		savedLength = savedEnd;
+		savedFilePath = getFilePath();
+		invalidatedManifestPath = null;
+		return true;
+	}
+
+	/**
+	 * @generated NOT
+	 */
+	private static void truncate(File file, long position, byte[] endTag) throws IOException {
+		final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw"); //$NON-NLS-1$
+		try {
+			randomAccessFile.seek(position);
+			randomAccessFile.write(endTag);
+			randomAccessFile.setLength(position + endTag.length);
+			randomAccessFile.getChannel().force(true);
+		} finally {
+			randomAccessFile.close();
+		}
+	}
+
+	/**
+	 * Deletes the manifest of the operations file before the temporary operations file is changed at the given
+	 * position, unless the position follows the bytes both files share according to the manifest.
+	 *
+	 * @generated NOT
+	 */
+	private void invalidateManifest(long position) {
+		if (position >= savedLength && getFilePath().equals(savedFilePath)
+			|| getFilePath().equals(invalidatedManifestPath)) {
+			return;
+		}
+		ChangePackageManifest.delete(new File(getFilePath()));
+		invalidatedManifestPath = getFilePath();
 	}
 
 	/**
@@ -972,7 +1190,7 @@ public class FileBasedChangePackageImpl extends EObjectImpl implements FileBased
 	 * @see org.eclipse.emf.emfstore.internal.server.model.versioning.FileBasedChangePackage#move(java.lang.String)
 	 * @generated NOT
 	 */
-	public void move(String newFilePath) throws IOException {
+	public synchronized void move(String newFilePath) throws IOException {
 		if (newFilePath == null) {
 			throw new IOException();
 		}
@@ -985,6 +1203,7 @@ public class FileBasedChangePackageImpl extends EObjectImpl implements FileBased
 		final File targetTempFile = new File(getTempFilePath(newFilePath));
 		final File targetFilePath = new File(newFilePath);
 
+		closeOperationsFile();
 		FileUtil.moveAndOverwrite(currentTempFile, targetTempFile);
 		try {
 			FileUtil.moveAndOverwrite(currentFilePath, targetFilePath);
@@ -995,6 +1214,25 @@ public class FileBasedChangePackageImpl extends EObjectImpl implements FileBased
 			throw ex;
 		}
 
+		// the index stays valid since moving preserves the modification date
+		final File currentIndexFile = OperationIndex.getIndexFile(currentTempFile);
+		if (currentIndexFile.exists()) {
+			try {
+				FileUtil.moveAndOverwrite(currentIndexFile, OperationIndex.getIndexFile(targetTempFile));
+			} catch (final IOException ex) {
+				currentIndexFile.delete();
+			}
+		}
+
+		final File currentManifestFile = ChangePackageManifest.getManifestFile(currentFilePath);
+		if (currentManifestFile.exists()) {
+			try {
+				FileUtil.moveAndOverwrite(currentManifestFile, ChangePackageManifest.getManifestFile(targetFilePath));
+			} catch (final IOException ex) {
+				currentManifestFile.delete();
+			}
+		}
+
 		// all is fine, set the new file path
 		setFilePath(newFilePath);
 	}
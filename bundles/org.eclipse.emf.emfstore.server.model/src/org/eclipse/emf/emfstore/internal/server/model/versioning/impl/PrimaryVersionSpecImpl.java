@@ -29,6 +29,9 @@ import org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningPacka
  * <li>
  * {@link org.eclipse.emf.emfstore.internal.server.model.versioning.impl.PrimaryVersionSpecImpl#getProjectStateChecksum
  * <em>Project State Checksum</em>}</li>
+ * <li>
+ * {@link org.eclipse.emf.emfstore.internal.server.model.versioning.impl.PrimaryVersionSpecImpl#isCommutativeChecksum
+ * <em>Commutative Checksum</em>}</li>
  * </ul>
  *
  * @generated
@@ -82,6 +85,28 @@ public class PrimaryVersionSpecImpl extends VersionSpecImpl implements PrimaryVe
 	 */
 	protected long projectStateChecksum = PROJECT_STATE_CHECKSUM_EDEFAULT;
 
+	/**
+	 * The default value of the '{@link #isCommutativeChecksum() <em>Commutative Checksum</em>}' attribute.
+	 * <!-- begin-user-doc -->
+	 * <!-- end-user-doc -->
+	 *
+	 * @see #isCommutativeChecksum()
+	 * @generated
+	 * @ordered
+	 */
+	protected static final boolean COMMUTATIVE_CHECKSUM_EDEFAULT = false;
+
+	/**
+	 * The cached value of the '{@link #isCommutativeChecksum() <em>Commutative Checksum</em>}' attribute.
+	 * <!-- begin-user-doc -->
+	 * <!-- end-user-doc -->
+	 *
+	 * @see #isCommutativeChecksum()
+	 * @generated
+	 * @ordered
+	 */
+	protected boolean commutativeChecksum = COMMUTATIVE_CHECKSUM_EDEFAULT;
+
 	/**
 	 * <!-- begin-user-doc --> <!-- end-user-doc -->
 	 *
@@ -150,6 +175,32 @@ public class PrimaryVersionSpecImpl extends VersionSpecImpl implements PrimaryVe
 		}
 	}
 
+	/**
+	 * <!-- begin-user-doc -->
+	 * <!-- end-user-doc -->
+	 *
+	 * @generated
+	 */
+	public boolean isCommutativeChecksum() {
+		return commutativeChecksum;
+	}
+
+	/**
+	 * <!-- begin-user-doc -->
+	 * <!-- end-user-doc -->
+	 *
+	 * @generated
+	 */
+	public void setCommutativeChecksum(boolean newCommutativeChecksum) {
+		final boolean oldCommutativeChecksum = commutativeChecksum;
+		commutativeChecksum = newCommutativeChecksum;
+		if (eNotificationRequired()) {
+			eNotify(new ENotificationImpl(this, Notification.SET,
+				VersioningPackage.PRIMARY_VERSION_SPEC__COMMUTATIVE_CHECKSUM, oldCommutativeChecksum,
+				commutativeChecksum));
+		}
+	}
+
 	/**
 	 * <!-- begin-user-doc --> <!-- end-user-doc -->
 	 *
@@ -162,6 +213,8 @@ public class PrimaryVersionSpecImpl extends VersionSpecImpl implements PrimaryVe
 			return getIdentifier();
 		case VersioningPackage.PRIMARY_VERSION_SPEC__PROJECT_STATE_CHECKSUM:
 			return getProjectStateChecksum();
+		case VersioningPackage.PRIMARY_VERSION_SPEC__COMMUTATIVE_CHECKSUM:
+			return isCommutativeChecksum();
 		}
 		return super.eGet(featureID, resolve, coreType);
 	}
@@ -180,6 +233,9 @@ public class PrimaryVersionSpecImpl extends VersionSpecImpl implements PrimaryVe
 		case VersioningPackage.PRIMARY_VERSION_SPEC__PROJECT_STATE_CHECKSUM:
 			setProjectStateChecksum((Long) newValue);
 			return;
+		case VersioningPackage.PRIMARY_VERSION_SPEC__COMMUTATIVE_CHECKSUM:
+			setCommutativeChecksum((Boolean) newValue);
+			return;
 		}
 		super.eSet(featureID, newValue);
 	}
@@ -198,6 +254,9 @@ public class PrimaryVersionSpecImpl extends VersionSpecImpl implements PrimaryVe
 		case VersioningPackage.PRIMARY_VERSION_SPEC__PROJECT_STATE_CHECKSUM:
 			setProjectStateChecksum(PROJECT_STATE_CHECKSUM_EDEFAULT);
 			return;
+		case VersioningPackage.PRIMARY_VERSION_SPEC__COMMUTATIVE_CHECKSUM:
+			setCommutativeChecksum(COMMUTATIVE_CHECKSUM_EDEFAULT);
+			return;
 		}
 		super.eUnset(featureID);
 	}
@@ -214,6 +273,8 @@ public class PrimaryVersionSpecImpl extends VersionSpecImpl implements PrimaryVe
 			return identifier != IDENTIFIER_EDEFAULT;
 		case VersioningPackage.PRIMARY_VERSION_SPEC__PROJECT_STATE_CHECKSUM:
 			return projectStateChecksum != PROJECT_STATE_CHECKSUM_EDEFAULT;
+		case VersioningPackage.PRIMARY_VERSION_SPEC__COMMUTATIVE_CHECKSUM:
+			return commutativeChecksum != COMMUTATIVE_CHECKSUM_EDEFAULT;
 		}
 		return super.eIsSet(featureID);
 	}
@@ -234,6 +295,8 @@ public class PrimaryVersionSpecImpl extends VersionSpecImpl implements PrimaryVe
 		result.append(identifier);
 		result.append(", projectStateChecksum: "); //$NON-NLS-1$
 		result.append(projectStateChecksum);
+		result.append(", commutativeChecksum: "); //$NON-NLS-1$
+		result.append(commutativeChecksum);
 		result.append(')');
 		return result.toString();
 	}
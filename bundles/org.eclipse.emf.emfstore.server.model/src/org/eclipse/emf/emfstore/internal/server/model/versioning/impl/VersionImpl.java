@@ -14,10 +14,10 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.lang.ref.SoftReference;
 import java.util.Collection;
-import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 
+import org.eclipse.emf.common.notify.Adapter;
 import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.common.notify.NotificationChain;
 import org.eclipse.emf.common.util.BasicEMap;
@@ -38,6 +38,7 @@ import org.eclipse.emf.ecore.xmi.XMIResource;
 import org.eclipse.emf.emfstore.common.ESResourceSetProvider;
 import org.eclipse.emf.emfstore.common.extensionpoint.ESExtensionPoint;
 import org.eclipse.emf.emfstore.common.extensionpoint.ESPriorityComparator;
+import org.eclipse.emf.emfstore.internal.common.EObjectIdRegistry;
 import org.eclipse.emf.emfstore.internal.common.ResourceFactoryRegistry;
 import org.eclipse.emf.emfstore.internal.common.model.Project;
 import org.eclipse.emf.emfstore.internal.common.model.impl.ProjectImpl;
@@ -48,6 +49,7 @@ import org.eclipse.emf.emfstore.internal.server.model.versioning.PrimaryVersionS
 import org.eclipse.emf.emfstore.internal.server.model.versioning.TagVersionSpec;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.Version;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningPackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.util.VersionResourceListener;
 
 /**
  * <!-- begin-user-doc --> An implementation of the model object ' <em><b>Version</b></em>'. <!-- end-user-doc -->
@@ -962,10 +964,11 @@ public class VersionImpl extends EObjectImpl implements Version {
 
 	/**
 	 * Returns a resource containing the associated project state. If a resource is not in memory one will be loaded.
+	 * Concurrent readers of the same version therefore have to wait for each other.
 	 *
 	 * @return the resource
 	 */
-	private Resource getProjectStateResource() {
+	private synchronized Resource getProjectStateResource() {
 		Resource result = projectStateResource.get();
 		if (projectStateResource.get() == null || !projectStateResource.get().isLoaded()) {
 			try {
@@ -990,6 +993,7 @@ public class VersionImpl extends EObjectImpl implements Version {
 			addResourceToResourceSet(result);
 		}
 
+		notifyResourceAccessed(result);
 		return result;
 	}
 
@@ -1001,23 +1005,25 @@ public class VersionImpl extends EObjectImpl implements Version {
 			final EMap<EObject, String> eObjectToIdMap = loadIdsFromResourceForEObjects(allContainedModelElements,
 				(XMIResource) resource);
 
-			// create reverse mapping
-			final Map<String, EObject> idToEObjectMap = new LinkedHashMap<String, EObject>(eObjectToIdMap.size());
-
+			// create both mappings
+			final EObjectIdRegistry idRegistry = new EObjectIdRegistry();
 			for (final Map.Entry<EObject, String> entry : eObjectToIdMap.entrySet()) {
-				idToEObjectMap.put(entry.getValue(), entry.getKey());
+				idRegistry.getEObjectToIdMap().put(entry.getKey(), entry.getValue());
+				idRegistry.getIdToEObjectMap().put(entry.getValue(), entry.getKey());
 			}
 
-			project.initMapping(eObjectToIdMap.map(), idToEObjectMap);
+			project.initMapping(idRegistry.getEObjectToIdMap(), idRegistry.getIdToEObjectMap());
 		}
 	}
 
 	/**
 	 * Returns a resource containing the associated ChangePackage. If a resource is not in memory one will be loaded.
+	 * The log message of this version is set on a loaded change package before it is handed out, since readers must
+	 * not modify it.
 	 *
 	 * @return the resource
 	 */
-	private Resource getChangePackageResource() {
+	private synchronized Resource getChangePackageResource() {
 		Resource result = changePackageResource.get();
 		if (changePackageResource.get() == null || !changePackageResource.get().isLoaded()) {
 			try {
@@ -1028,6 +1034,12 @@ public class VersionImpl extends EObjectImpl implements Version {
 					ModelUtil.logException(e);
 				}
 			}
+
+			if (result != null && result.getContents().size() > 0 && getLogMessage() != null) {
+				final AbstractChangePackage changePackage = (AbstractChangePackage) result.getContents().get(0);
+				changePackage.setLogMessage(ModelUtil.clone(getLogMessage()));
+			}
+
 			setChangeResource(result);
 		}
 
@@ -1036,9 +1048,25 @@ public class VersionImpl extends EObjectImpl implements Version {
 			addResourceToResourceSet(result);
 		}
 
+		notifyResourceAccessed(result);
 		return result;
 	}
 
+	/**
+	 * Informs the {@link VersionResourceListener}s registered at the resource set of this version about the access of
+	 * the given resource.
+	 */
+	private void notifyResourceAccessed(Resource resource) {
+		if (resource == null || eResource() == null || eResource().getResourceSet() == null) {
+			return;
+		}
+		for (final Adapter adapter : eResource().getResourceSet().eAdapters()) {
+			if (adapter instanceof VersionResourceListener) {
+				((VersionResourceListener) adapter).resourceAccessed(this, resource);
+			}
+		}
+	}
+
 	/**
 	 * Loads a resource for the given URI.
 	 *
@@ -408,6 +408,16 @@ public class VersioningPackageImpl extends EPackageImpl implements VersioningPac
 		return (EAttribute) primaryVersionSpecEClass.getEStructuralFeatures().get(1);
 	}
 
+	/**
+	 * <!-- begin-user-doc -->
+	 * <!-- end-user-doc -->
+	 *
+	 * @generated
+	 */
+	public EAttribute getPrimaryVersionSpec_CommutativeChecksum() {
+		return (EAttribute) primaryVersionSpecEClass.getEStructuralFeatures().get(2);
+	}
+
 	/**
 	 * <!-- begin-user-doc --> <!-- end-user-doc -->
 	 *
@@ -1113,6 +1123,7 @@ public class VersioningPackageImpl extends EPackageImpl implements VersioningPac
 		primaryVersionSpecEClass = createEClass(PRIMARY_VERSION_SPEC);
 		createEAttribute(primaryVersionSpecEClass, PRIMARY_VERSION_SPEC__IDENTIFIER);
 		createEAttribute(primaryVersionSpecEClass, PRIMARY_VERSION_SPEC__PROJECT_STATE_CHECKSUM);
+		createEAttribute(primaryVersionSpecEClass, PRIMARY_VERSION_SPEC__COMMUTATIVE_CHECKSUM);
 
 		versionSpecEClass = createEClass(VERSION_SPEC);
 		createEAttribute(versionSpecEClass, VERSION_SPEC__BRANCH);
@@ -1282,6 +1293,9 @@ public class VersioningPackageImpl extends EPackageImpl implements VersioningPac
 		initEAttribute(getPrimaryVersionSpec_ProjectStateChecksum(), ecorePackage.getELong(), "projectStateChecksum", //$NON-NLS-1$
 			null, 0, 1, PrimaryVersionSpec.class, !IS_TRANSIENT, !IS_VOLATILE, IS_CHANGEABLE, !IS_UNSETTABLE, !IS_ID,
 			IS_UNIQUE, !IS_DERIVED, IS_ORDERED);
+		initEAttribute(getPrimaryVersionSpec_CommutativeChecksum(), ecorePackage.getEBoolean(), "commutativeChecksum", //$NON-NLS-1$
+			null, 0, 1, PrimaryVersionSpec.class, !IS_TRANSIENT, !IS_VOLATILE, IS_CHANGEABLE, !IS_UNSETTABLE, !IS_ID,
+			IS_UNIQUE, !IS_DERIVED, IS_ORDERED);
 
 		initEClass(versionSpecEClass, VersionSpec.class, "VersionSpec", IS_ABSTRACT, !IS_INTERFACE, //$NON-NLS-1$
 			IS_GENERATED_INSTANCE_CLASS);
@@ -12,25 +12,16 @@
  ******************************************************************************/
 package org.eclipse.emf.emfstore.internal.server.model.versioning.impl.persistent;
 
-import java.io.BufferedReader;
 import java.io.Closeable;
-import java.io.DataInput;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.PipedOutputStream;
 import java.io.RandomAccessFile;
-import java.nio.channels.Channels;
-import java.util.ArrayList;
-import java.util.List;
 
-import org.apache.commons.io.input.ReversedLinesFileReader;
 import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
 
 /**
- * Abstract super class for implementing types which emit operations when given an {@link ReadLineCapable} type.
+ * Abstract super class for implementing types which emit the operations of an operations file, one after the other
+ * in the order given by the {@link OperationIndex} of the file.
  *
  */
 public abstract class AbstractOperationEmitter implements Closeable {
@@ -39,11 +30,9 @@ public abstract class AbstractOperationEmitter implements Closeable {
 
 	private final File operationsFile;
 
-	private ReadLineCapable reader;
-	private final List<Long> forwardOffsets = new ArrayList<Long>();
-	private final List<Long> backwardsOffsets = new ArrayList<Long>();
+	private RandomAccessFile operationsRandomAccessFile;
+	private final OperationIndex index;
 	private int currentOpIndex;
-	private long startOffset;
 	private boolean isClosed;
 
 	/**
@@ -57,9 +46,8 @@ public abstract class AbstractOperationEmitter implements Closeable {
 	public AbstractOperationEmitter(Direction direction, File file) {
 		this.direction = direction;
 		operationsFile = file;
-		determineOperationOffsets();
-		currentOpIndex = direction == Direction.Forward ? 0 : backwardsOffsets.size() - 1;
-		initReader();
+		index = loadIndex(file);
+		currentOpIndex = direction == Direction.Forward ? 0 : index.size() - 1;
 	}
 
 	/**
@@ -69,197 +57,47 @@ public abstract class AbstractOperationEmitter implements Closeable {
 		return direction;
 	}
 
-	private void determineOperationOffsets() {
+	private static OperationIndex loadIndex(File file) {
 		try {
-			final RandomAccessFile randomAccessFile = new RandomAccessFile(operationsFile, "r"); //$NON-NLS-1$
-			final InputStream inputStream = Channels.newInputStream(randomAccessFile.getChannel());
-			final InputStreamReader inputStreamReader = new InputStreamReader(inputStream);
-			final BufferedReader bufferedReader = new BufferedReader(inputStreamReader);
-
-			long filePointer = 0;
-			try {
-				String line;
-				while ((line = bufferedReader.readLine()) != null) {
-					filePointer += line.getBytes().length;
-					final long filePointerAfterReadline = randomAccessFile.getFilePointer();
-					randomAccessFile.seek(filePointer);
-					int byteAfterLine = randomAccessFile.read();
-					/*
-					 * Line is terminated by either:
-					 * \r\n
-					 * \r
-					 * \n
-					 */
-					if (byteAfterLine == '\r') {
-						filePointer += 1;
-						byteAfterLine = randomAccessFile.read();
-					}
-					if (byteAfterLine == '\n') {
-						filePointer += 1;
-					}
-					randomAccessFile.seek(filePointerAfterReadline);
-
-					if (line.contains(XmlTags.CHANGE_PACKAGE_START)) {
-						startOffset = filePointer;
-					} else if (line.contains(XmlTags.OPERATIONS_START_TAG)) {
-						forwardOffsets.add(filePointer);
-					} else if (line.contains(XmlTags.OPERATIONS_END_TAG)) {
-						backwardsOffsets.add(filePointer);
-					}
-				}
-			} finally {
-				bufferedReader.close();
-				randomAccessFile.close();
-			}
-		} catch (final IOException ex) {
-			ModelUtil.logException(ex);
-		}
-	}
-
-	private void initReader() {
-		try {
-			if (getDirection() == Direction.Forward) {
-				reader = ReadLineCapable.INSTANCE.create(new BufferedReader(new FileReader(operationsFile)));
-			} else {
-				reader = ReadLineCapable.INSTANCE.create(new ReversedLinesFileReader(operationsFile));
-			}
+			return OperationIndex.load(file);
 		} catch (final IOException ex) {
 			ModelUtil.logException(ex);
+			return OperationIndex.empty(file);
 		}
 	}
 
 	/**
-	 * Returns the current offset.
+	 * Advances to the next operation in reading direction.
 	 *
-	 * @return the current offset
+	 * @return the index of the next operation or -1 if there are no more operations
 	 */
-	public long getOffset() {
-		if (currentOpIndex < 0) {
-			return startOffset;
+	protected final int nextOperation() {
+		final int next = currentOpIndex;
+		if (next < 0 || next >= index.size()) {
+			return -1;
 		}
-		return backwardsOffsets.get(currentOpIndex);
-	}
-
-	/**
-	 * Since an XML Resource needs exactly one root object, we have to write a dummy object to the stream.
-	 *
-	 * @param pos the {@link PipedOutputStream}
-	 * @throws IOException in case there is a problem during write
-	 */
-	private static void writeDummyResourceToStream(PipedOutputStream pos) throws IOException {
-		pos.write(XmlTags.XML_RESOURCE_WITH_EOBJECT.getBytes());
+		currentOpIndex += getDirection() == Direction.Forward ? 1 : -1;
+		return next;
 	}
 
 	/**
-	 * Reads the file in forward direction and writes read lines to the given stream.
-	 *
-	 * @param pos the output stream
+	 * @return the index of the operations file
 	 */
-	protected final void readForward(PipedOutputStream pos) {
-		try {
-			boolean operationsFound = false;
-			boolean withinOperationsElement = false;
-			final boolean isForwardDir = getDirection() == Direction.Forward;
-			final String closingTag = getClosingTag(isForwardDir);
-			String line = reader.readLine();
-			while (line != null && !line.contains(closingTag)) {
-				if (line.contains(getOpeningTag(isForwardDir))) {
-					withinOperationsElement = true;
-				} else if (withinOperationsElement) {
-					operationsFound = true;
-					pos.write(line.getBytes());
-				}
-				line = reader.readLine();
-			}
-			if (line != null) {
-				withinOperationsElement = false;
-			}
-			if (!operationsFound) {
-				writeDummyResourceToStream(pos);
-			}
-		} catch (final IOException ex) {
-			ModelUtil.logException(ex);
-		} finally {
-			try {
-				pos.close();
-			} catch (final IOException ex) {
-				ModelUtil.logException(ex);
-			}
-		}
-	}
-
-	private void readForward(DataInput reader, PipedOutputStream pos) {
-		try {
-			boolean operationsFound = false;
-			boolean withinOperationsElement = true;
-			final String closingTag = getClosingTag(true);
-			String line = reader.readLine();
-			while (line != null && !line.contains(closingTag)) {
-				if (line.contains(getOpeningTag(true))) {
-					withinOperationsElement = true;
-				} else if (withinOperationsElement && line.length() > 0) {
-					operationsFound = true;
-					pos.write(line.getBytes());
-				}
-				line = reader.readLine();
-			}
-
-			if (!operationsFound) {
-				writeDummyResourceToStream(pos);
-			}
-		} catch (final IOException ex) {
-			ModelUtil.logException(ex);
-		} finally {
-			try {
-				pos.close();
-			} catch (final IOException ex) {
-				ModelUtil.logException(ex);
-			}
-		}
+	protected final OperationIndex getIndex() {
+		return index;
 	}
 
 	/**
-	 * Reads the file in backward direction and writes read lines to the given stream.
+	 * Returns the operations file opened for reading. The file is kept open until the emitter is closed.
 	 *
-	 * @param pos the output strea,
+	 * @return the operations file
+	 * @throws IOException in case the operations file can not be opened
 	 */
-	protected final void readBackward(PipedOutputStream pos) {
-
-		if (currentOpIndex < 0) {
-			try {
-				writeDummyResourceToStream(pos);
-				pos.close();
-			} catch (final IOException ex) {
-				ModelUtil.logException(ex);
-			}
-			return;
+	protected final RandomAccessFile getOperationsFile() throws IOException {
+		if (operationsRandomAccessFile == null) {
+			operationsRandomAccessFile = new RandomAccessFile(operationsFile, "r"); //$NON-NLS-1$
 		}
-
-		final long offset = forwardOffsets.get(currentOpIndex);
-		currentOpIndex -= 1;
-
-		RandomAccessFile raf = null;
-		try {
-			raf = new RandomAccessFile(operationsFile, "r"); //$NON-NLS-1$
-			raf.skipBytes((int) offset);
-			readForward(raf, pos);
-		} catch (final IOException ex) {
-			ModelUtil.logException(ex);
-		} finally {
-			try {
-				raf.close();
-			} catch (final IOException ex) {
-				ModelUtil.logException(ex);
-			}
-		}
-	}
-
-	private String getClosingTag(boolean isForward) {
-		return isForward ? XmlTags.OPERATIONS_END_TAG : XmlTags.OPERATIONS_START_TAG;
-	}
-
-	private String getOpeningTag(boolean isForward) {
-		return isForward ? XmlTags.OPERATIONS_START_TAG : XmlTags.OPERATIONS_END_TAG;
+		return operationsRandomAccessFile;
 	}
 
 	/**
@@ -268,7 +106,9 @@ public abstract class AbstractOperationEmitter implements Closeable {
 	public void close() {
 		setClosed(true);
 		try {
-			reader.close();
+			if (operationsRandomAccessFile != null) {
+				operationsRandomAccessFile.close();
+			}
 		} catch (final IOException ex) {
 			ModelUtil.logException(ex);
 		}
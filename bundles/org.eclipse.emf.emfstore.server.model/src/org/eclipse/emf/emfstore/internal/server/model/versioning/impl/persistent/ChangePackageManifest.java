@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.internal.server.model.versioning.impl.persistent;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+
+import org.eclipse.emf.emfstore.internal.common.model.util.FileUtil;
+
+import com.google.common.base.Optional;
+
+/**
+ * Describes the last save of a file based change package. Operations are appended to the temporary operations file
+ * and saving only appends the operations added since the last save to the operations file. Both files therefore share
+ * the bytes preceding the end tag of the change package as of the last save. The manifest records the offset of this
+ * end tag together with the number of operations saved, so that the temporary operations file can be restored to the
+ * saved state by truncating it instead of copying the operations file.
+ * <p>
+ * The manifest is replaced atomically after the operations file has been written, which makes writing it the commit
+ * point of a save. The length and the modification date of the operations file are recorded as well, so that an
+ * operations file which has been changed after the manifest has been written, e.g. by an interrupted save, is
+ * detected. The manifest must be deleted before either file is changed within the shared bytes.
+ * </p>
+ */
+public final class ChangePackageManifest {
+
+	/**
+	 * Suffix of the manifest file of an operations file.
+	 */
+	public static final String MANIFEST_SUFFIX = ".manifest"; //$NON-NLS-1$
+
+	private static final String SEPARATOR = " "; //$NON-NLS-1$
+
+	private final long savedLength;
+	private final int operationCount;
+	private final long fileLength;
+	private final long lastModified;
+
+	private ChangePackageManifest(long savedLength, int operationCount, long fileLength, long lastModified) {
+		this.savedLength = savedLength;
+		this.operationCount = operationCount;
+		this.fileLength = fileLength;
+		this.lastModified = lastModified;
+	}
+
+	/**
+	 * Returns the manifest file of the given operations file.
+	 *
+	 * @param operationsFile
+	 *            the operations file
+	 * @return the manifest file
+	 */
+	public static File getManifestFile(File operationsFile) {
+		return new File(operationsFile.getPath() + MANIFEST_SUFFIX);
+	}
+
+	/**
+	 * Reads the manifest of the given operations file.
+	 *
+	 * @param operationsFile
+	 *            the operations file
+	 * @return the manifest, or absent if there is no readable manifest
+	 */
+	public static Optional<ChangePackageManifest> read(File operationsFile) {
+		final File manifestFile = getManifestFile(operationsFile);
+		if (!manifestFile.exists()) {
+			return Optional.absent();
+		}
+		try {
+			final BufferedReader reader = new BufferedReader(new FileReader(manifestFile));
+			try {
+				final String line = reader.readLine();
+				if (line == null) {
+					return Optional.absent();
+				}
+				final String[] values = line.trim().split(SEPARATOR);
+				if (values.length != 4) {
+					return Optional.absent();
+				}
+				return Optional.of(new ChangePackageManifest(Long.parseLong(values[0]), Integer.parseInt(values[1]),
+					Long.parseLong(values[2]), Long.parseLong(values[3])));
+			} finally {
+				reader.close();
+			}
+		} catch (final IOException ex) {
+			return Optional.absent();
+		} catch (final NumberFormatException ex) {
+			return Optional.absent();
+		}
+	}
+
+	/**
+	 * Atomically replaces the manifest of the given operations file, which has just been saved.
+	 *
+	 * @param operationsFile
+	 *            the operations file
+	 * @param savedLength
+	 *            the offset of the end tag of the change package within the operations file
+	 * @param operationCount
+	 *            the number of operations contained in the operations file
+	 * @throws IOException
+	 *             in case the manifest can not be written
+	 */
+	public static void write(File operationsFile, long savedLength, int operationCount) throws IOException {
+		final String content = savedLength + SEPARATOR + operationCount + SEPARATOR + operationsFile.length()
+			+ SEPARATOR + operationsFile.lastModified();
+		FileUtil.writeAtomically(getManifestFile(operationsFile), content.getBytes("US-ASCII")); //$NON-NLS-1$
+	}
+
+	/**
+	 * Deletes the manifest of the given operations file, if any.
+	 *
+	 * @param operationsFile
+	 *            the operations file
+	 */
+	public static void delete(File operationsFile) {
+		getManifestFile(operationsFile).delete();
+	}
+
+	/**
+	 * @return the offset of the end tag of the change package as of the last save
+	 */
+	public long getSavedLength() {
+		return savedLength;
+	}
+
+	/**
+	 * @return the number of operations as of the last save
+	 */
+	public int getOperationCount() {
+		return operationCount;
+	}
+
+	/**
+	 * Whether the given operations file has not been changed since the manifest has been written.
+	 *
+	 * @param operationsFile
+	 *            the operations file
+	 * @return <code>true</code> if the operations file is unchanged, <code>false</code> otherwise
+	 */
+	public boolean describes(File operationsFile) {
+		return operationsFile.length() == fileLength && operationsFile.lastModified() == lastModified;
+	}
+}
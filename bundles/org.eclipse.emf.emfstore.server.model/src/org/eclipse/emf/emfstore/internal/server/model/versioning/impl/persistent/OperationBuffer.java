@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.internal.server.model.versioning.impl.persistent;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+
+/**
+ * A reusable buffer holding the serialized form of a single operation. In contrast to
+ * {@link ByteArrayOutputStream#toByteArray()}, the content can be read and written without copying it.
+ */
+public class OperationBuffer extends ByteArrayOutputStream {
+
+	private static final int INITIAL_SIZE = 4096;
+
+	/**
+	 * Constructor.
+	 */
+	public OperationBuffer() {
+		super(INITIAL_SIZE);
+	}
+
+	/**
+	 * Replaces the content of the buffer with the given range of the given file.
+	 *
+	 * @param file
+	 *            the file to read from
+	 * @param offset
+	 *            the offset of the first byte to be read
+	 * @param length
+	 *            the number of bytes to be read
+	 * @throws IOException
+	 *             in case reading from the file fails
+	 */
+	public void readFrom(RandomAccessFile file, long offset, int length) throws IOException {
+		if (buf.length < length) {
+			buf = new byte[Math.max(length, buf.length * 2)];
+		}
+		file.seek(offset);
+		file.readFully(buf, 0, length);
+		count = length;
+	}
+
+	/**
+	 * Writes the content of the buffer to the given file.
+	 *
+	 * @param file
+	 *            the file to write to
+	 * @param offset
+	 *            the offset at which the content is written
+	 * @throws IOException
+	 *             in case writing to the file fails
+	 */
+	public void writeTo(RandomAccessFile file, long offset) throws IOException {
+		file.seek(offset);
+		file.write(buf, 0, count);
+	}
+
+	/**
+	 * Counts the occurrences of the given sequence of bytes within the buffer.
+	 *
+	 * @param sequence
+	 *            the sequence of bytes
+	 * @return the number of non-overlapping occurrences
+	 */
+	public int count(byte[] sequence) {
+		int occurrences = 0;
+		int from = 0;
+		int index;
+		while ((index = indexOf(buf, from, count, sequence)) != -1) {
+			occurrences++;
+			from = index + sequence.length;
+		}
+		return occurrences;
+	}
+
+	/**
+	 * Whether the buffer contains nothing but whitespace.
+	 *
+	 * @return <code>true</code> if the buffer is blank, <code>false</code> otherwise
+	 */
+	public boolean isBlank() {
+		for (int i = 0; i < count; i++) {
+			if (!Character.isWhitespace(buf[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns a stream reading the current content of the buffer. The stream must not be used after the buffer has
+	 * been modified.
+	 *
+	 * @return the stream
+	 */
+	public InputStream toInputStream() {
+		return new ByteArrayInputStream(buf, 0, count);
+	}
+
+	/**
+	 * Returns the index of the first occurrence of the given sequence within the first {@code length} bytes of the
+	 * given array.
+	 *
+	 * @param bytes
+	 *            the array to be searched
+	 * @param length
+	 *            the number of bytes to be searched
+	 * @param sequence
+	 *            the sequence to search for
+	 * @return the index of the first occurrence or -1 if the sequence does not occur
+	 */
+	static int indexOf(byte[] bytes, int length, byte[] sequence) {
+		return indexOf(bytes, 0, length, sequence);
+	}
+
+	private static int indexOf(byte[] bytes, int from, int length, byte[] sequence) {
+		outer: for (int i = from; i <= length - sequence.length; i++) {
+			for (int j = 0; j < sequence.length; j++) {
+				if (bytes[i + j] != sequence[j]) {
+					continue outer;
+				}
+			}
+			return i;
+		}
+		return -1;
+	}
+}
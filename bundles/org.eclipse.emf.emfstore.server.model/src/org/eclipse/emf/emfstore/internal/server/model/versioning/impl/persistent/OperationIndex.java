@@ -0,0 +1,452 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.internal.server.model.versioning.impl.persistent;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+
+/**
+ * Index of the top-level operations contained in an operations file. For every operation the index records where
+ * its element starts, the offset and length of its serialized form and the number of its sub-operations.
+ * <p>
+ * The index is kept in a sidecar file next to the operations file. Besides the entries, the sidecar records the
+ * length and the modification date of the operations file it describes, so an index that has become stale because
+ * the operations file has been changed by other means is detected and rebuilt by scanning the operations file.
+ * </p>
+ */
+public final class OperationIndex implements Closeable {
+
+	/**
+	 * Suffix of the sidecar file holding the index of an operations file.
+	 */
+	public static final String INDEX_FILE_SUFFIX = ".idx"; //$NON-NLS-1$
+
+	private static final int MAGIC = 0x45534F49;
+	private static final int FORMAT_VERSION = 1;
+	private static final int HEADER_SIZE = 24;
+	private static final int FILE_STATE_POSITION = 8;
+	private static final int ENTRY_SIZE = 20;
+	private static final int INITIAL_CAPACITY = 64;
+	private static final int CHUNK_SIZE = 8192;
+
+	private static final byte[] OPERATIONS_START_TAG = XmlTags.OPERATIONS_START_TAG.getBytes();
+	private static final byte[] OPERATIONS_END_TAG = XmlTags.OPERATIONS_END_TAG.getBytes();
+	private static final byte[] SUB_OPERATIONS_END_TAG = XmlTags.SUB_OPERATIONS_END_TAG.getBytes();
+
+	private final File operationsFile;
+	private long fileLength;
+	private long lastModified;
+	private boolean persisted;
+	private RandomAccessFile indexFile;
+	private final ByteBuffer scratch = ByteBuffer.allocate(ENTRY_SIZE);
+
+	private int size;
+	private int leafSize;
+	private long[] starts = new long[INITIAL_CAPACITY];
+	private int[] headerLengths = new int[INITIAL_CAPACITY];
+	private int[] lengths = new int[INITIAL_CAPACITY];
+	private int[] leafCounts = new int[INITIAL_CAPACITY];
+
+	private OperationIndex(File operationsFile) {
+		this.operationsFile = operationsFile;
+	}
+
+	/**
+	 * Returns the index of the given operations file. The index is read from the sidecar file if it is up to date,
+	 * otherwise it is built by scanning the operations file. In the latter case, the sidecar file is not written,
+	 * see {@link #persist()}.
+	 *
+	 * @param operationsFile
+	 *            the operations file
+	 * @return the index
+	 * @throws IOException
+	 *             in case the operations file can not be read
+	 */
+	public static OperationIndex load(File operationsFile) throws IOException {
+		final OperationIndex index = new OperationIndex(operationsFile);
+		if (index.read()) {
+			return index;
+		}
+		index.scan();
+		return index;
+	}
+
+	/**
+	 * Returns an empty index for the given operations file. The index is neither read from nor written to the
+	 * sidecar file.
+	 *
+	 * @param operationsFile
+	 *            the operations file
+	 * @return the empty index
+	 */
+	public static OperationIndex empty(File operationsFile) {
+		return new OperationIndex(operationsFile);
+	}
+
+	/**
+	 * Returns the sidecar file holding the index of the given operations file.
+	 *
+	 * @param operationsFile
+	 *            the operations file
+	 * @return the sidecar file
+	 */
+	public static File getIndexFile(File operationsFile) {
+		return new File(operationsFile.getPath() + INDEX_FILE_SUFFIX);
+	}
+
+	/**
+	 * @return the number of indexed operations
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return the total number of sub-operations of all indexed operations
+	 */
+	public int leafSize() {
+		return leafSize;
+	}
+
+	/**
+	 * Returns the offset at which the element of the operation with the given index starts, i.e. the offset of the
+	 * line containing the operations start tag.
+	 *
+	 * @param index
+	 *            the index of the operation
+	 * @return the offset of the element
+	 */
+	public long getStart(int index) {
+		checkIndex(index);
+		return starts[index];
+	}
+
+	/**
+	 * Returns the offset of the serialized form of the operation with the given index.
+	 *
+	 * @param index
+	 *            the index of the operation
+	 * @return the offset of the serialized operation
+	 */
+	public long getOffset(int index) {
+		checkIndex(index);
+		return starts[index] + headerLengths[index];
+	}
+
+	/**
+	 * Returns the length of the serialized form of the operation with the given index.
+	 *
+	 * @param index
+	 *            the index of the operation
+	 * @return the length of the serialized operation in bytes
+	 */
+	public int getLength(int index) {
+		checkIndex(index);
+		return lengths[index];
+	}
+
+	/**
+	 * Whether the index still describes the operations file, i.e. whether the operations file has not been changed
+	 * since the index has been built or updated.
+	 *
+	 * @return <code>true</code> if the index is up to date, <code>false</code> otherwise
+	 */
+	public boolean isUpToDate() {
+		return operationsFile.length() == fileLength && operationsFile.lastModified() == lastModified;
+	}
+
+	/**
+	 * Adds an operation that has been appended to the operations file and appends its entry to the sidecar file.
+	 *
+	 * @param start
+	 *            the offset of the line containing the operations start tag
+	 * @param offset
+	 *            the offset of the serialized operation
+	 * @param length
+	 *            the length of the serialized operation
+	 * @param leafCount
+	 *            the number of sub-operations of the operation
+	 * @throws IOException
+	 *             in case writing the sidecar file fails
+	 */
+	public void append(long start, long offset, int length, int leafCount) throws IOException {
+		add(start, (int) (offset - start), length, leafCount);
+		updateFileState();
+		if (!persisted) {
+			persist();
+			return;
+		}
+		final RandomAccessFile file = getIndexRandomAccessFile();
+		scratch.clear();
+		scratch.putLong(start).putInt((int) (offset - start)).putInt(length).putInt(leafCount);
+		file.seek(HEADER_SIZE + (long) (size - 1) * ENTRY_SIZE);
+		file.write(scratch.array(), 0, scratch.position());
+		writeFileState(file);
+	}
+
+	/**
+	 * Removes all operations starting with the given index after the operations file has been truncated
+	 * accordingly.
+	 *
+	 * @param index
+	 *            the index of the first operation to be removed
+	 * @throws IOException
+	 *             in case writing the sidecar file fails
+	 */
+	public void truncate(int index) throws IOException {
+		for (int i = index; i < size; i++) {
+			leafSize -= leafCounts[i];
+		}
+		size = Math.min(size, index);
+		updateFileState();
+		if (!persisted) {
+			persist();
+			return;
+		}
+		final RandomAccessFile file = getIndexRandomAccessFile();
+		file.setLength(HEADER_SIZE + (long) size * ENTRY_SIZE);
+		writeFileState(file);
+	}
+
+	/**
+	 * Writes the complete index to the sidecar file.
+	 *
+	 * @throws IOException
+	 *             in case writing the sidecar file fails
+	 */
+	public void persist() throws IOException {
+		close();
+		final DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(
+			new FileOutputStream(getIndexFile(operationsFile))));
+		try {
+			outputStream.writeInt(MAGIC);
+			outputStream.writeInt(FORMAT_VERSION);
+			outputStream.writeLong(fileLength);
+			outputStream.writeLong(lastModified);
+			for (int i = 0; i < size; i++) {
+				outputStream.writeLong(starts[i]);
+				outputStream.writeInt(headerLengths[i]);
+				outputStream.writeInt(lengths[i]);
+				outputStream.writeInt(leafCounts[i]);
+			}
+		} finally {
+			outputStream.close();
+		}
+		persisted = true;
+	}
+
+	/**
+	 * Whether the index has been written to the sidecar file.
+	 *
+	 * @return <code>true</code> if the sidecar file is in sync with the index, <code>false</code> otherwise
+	 */
+	public boolean isPersisted() {
+		return persisted;
+	}
+
+	/**
+	 * Closes the sidecar file, if it has been opened for appending entries.
+	 *
+	 * @throws IOException
+	 *             in case closing the sidecar file fails
+	 */
+	public void close() throws IOException {
+		if (indexFile != null) {
+			try {
+				indexFile.close();
+			} finally {
+				indexFile = null;
+			}
+		}
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException(String.valueOf(index));
+		}
+	}
+
+	private RandomAccessFile getIndexRandomAccessFile() throws IOException {
+		if (indexFile == null) {
+			indexFile = new RandomAccessFile(getIndexFile(operationsFile), "rw"); //$NON-NLS-1$
+		}
+		return indexFile;
+	}
+
+	private void updateFileState() {
+		fileLength = operationsFile.length();
+		lastModified = operationsFile.lastModified();
+	}
+
+	private void writeFileState(RandomAccessFile file) throws IOException {
+		scratch.clear();
+		scratch.putLong(fileLength).putLong(lastModified);
+		file.seek(FILE_STATE_POSITION);
+		file.write(scratch.array(), 0, scratch.position());
+	}
+
+	private void add(long start, int headerLength, int length, int leafCount) {
+		if (size == starts.length) {
+			final int capacity = size * 2;
+			final long[] newStarts = new long[capacity];
+			final int[] newHeaderLengths = new int[capacity];
+			final int[] newLengths = new int[capacity];
+			final int[] newLeafCounts = new int[capacity];
+			System.arraycopy(starts, 0, newStarts, 0, size);
+			System.arraycopy(headerLengths, 0, newHeaderLengths, 0, size);
+			System.arraycopy(lengths, 0, newLengths, 0, size);
+			System.arraycopy(leafCounts, 0, newLeafCounts, 0, size);
+			starts = newStarts;
+			headerLengths = newHeaderLengths;
+			lengths = newLengths;
+			leafCounts = newLeafCounts;
+		}
+		starts[size] = start;
+		headerLengths[size] = headerLength;
+		lengths[size] = length;
+		leafCounts[size] = leafCount;
+		leafSize += leafCount;
+		size++;
+	}
+
+	/**
+	 * Reads the sidecar file.
+	 *
+	 * @return <code>true</code> if the sidecar file exists and describes the current state of the operations file
+	 */
+	private boolean read() {
+		final File file = getIndexFile(operationsFile);
+		if (!file.exists()) {
+			return false;
+		}
+		try {
+			final DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			try {
+				if (inputStream.readInt() != MAGIC || inputStream.readInt() != FORMAT_VERSION) {
+					return false;
+				}
+				fileLength = inputStream.readLong();
+				lastModified = inputStream.readLong();
+				if (!isUpToDate()) {
+					return false;
+				}
+				final long entries = (file.length() - HEADER_SIZE) / ENTRY_SIZE;
+				for (long i = 0; i < entries; i++) {
+					add(inputStream.readLong(), inputStream.readInt(), inputStream.readInt(), inputStream.readInt());
+				}
+			} finally {
+				inputStream.close();
+			}
+		} catch (final IOException ex) {
+			return false;
+		}
+		persisted = true;
+		return true;
+	}
+
+	/**
+	 * Builds the index by scanning the operations file line by line on byte level. A line is terminated by either
+	 * \r\n, \r or \n.
+	 */
+	private void scan() throws IOException {
+		size = 0;
+		leafSize = 0;
+		updateFileState();
+		final InputStream inputStream = new FileInputStream(operationsFile);
+		try {
+			final LineScanner scanner = new LineScanner();
+			final byte[] chunk = new byte[CHUNK_SIZE];
+			int read;
+			while ((read = inputStream.read(chunk)) != -1) {
+				scanner.scan(chunk, read);
+			}
+			scanner.finish();
+		} finally {
+			inputStream.close();
+		}
+	}
+
+	/**
+	 * Splits the operations file into lines and records the operations.
+	 */
+	private final class LineScanner {
+
+		private byte[] line = new byte[CHUNK_SIZE];
+		private int lineLength;
+		private long lineStart;
+		private long filePointer;
+		private boolean pendingCarriageReturn;
+
+		private long operationStart = -1;
+		private long operationOffset;
+		private int operationLeafCount;
+
+		void scan(byte[] chunk, int length) {
+			for (int i = 0; i < length; i++, filePointer++) {
+				final byte b = chunk[i];
+				if (pendingCarriageReturn) {
+					pendingCarriageReturn = false;
+					if (b == '\n') {
+						endLine(filePointer + 1);
+						continue;
+					}
+					endLine(filePointer);
+				}
+				if (b == '\r') {
+					pendingCarriageReturn = true;
+				} else if (b == '\n') {
+					endLine(filePointer + 1);
+				} else {
+					if (lineLength == line.length) {
+						final byte[] grownLine = new byte[line.length * 2];
+						System.arraycopy(line, 0, grownLine, 0, lineLength);
+						line = grownLine;
+					}
+					line[lineLength++] = b;
+				}
+			}
+		}
+
+		void finish() {
+			if (pendingCarriageReturn || lineLength > 0) {
+				endLine(filePointer);
+			}
+		}
+
+		private void endLine(long nextLineStart) {
+			if (operationStart == -1) {
+				if (OperationBuffer.indexOf(line, lineLength, OPERATIONS_START_TAG) != -1) {
+					operationStart = lineStart;
+					operationOffset = nextLineStart;
+					operationLeafCount = 0;
+				}
+			} else if (OperationBuffer.indexOf(line, lineLength, OPERATIONS_END_TAG) != -1) {
+				add(operationStart, (int) (operationOffset - operationStart),
+					(int) (lineStart - operationOffset), operationLeafCount);
+				operationStart = -1;
+			} else if (OperationBuffer.indexOf(line, lineLength, SUB_OPERATIONS_END_TAG) != -1) {
+				operationLeafCount++;
+			}
+			lineLength = 0;
+			lineStart = nextLineStart;
+		}
+	}
+}
@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.internal.server.model.versioning.impl.persistent;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl;
+import org.eclipse.emf.ecore.xmi.impl.XMLHelperImpl;
+import org.eclipse.emf.ecore.xmi.impl.XMLLoadImpl;
+import org.eclipse.emf.ecore.xmi.impl.XMLParserPoolImpl;
+import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AbstractOperation;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.Maps;
+
+/**
+ * Parses single {@link AbstractOperation}s stored in an operations file. The buffer holding the serialized
+ * operation as well as the resource the operation is loaded into are reused across operations and the
+ * parsers are taken from a shared pool. Instances are not thread-safe.
+ */
+public class OperationParser {
+
+	private static final URI VIRTUAL_URI = URI.createURI("virtualResource.xmi"); //$NON-NLS-1$
+
+	private static final XMLParserPoolImpl PARSER_POOL = new XMLParserPoolImpl(true);
+
+	private static Map<Object, Object> loadOptions;
+
+	private final OperationBuffer buffer = new OperationBuffer();
+	private final XMIResourceImpl resource;
+
+	/**
+	 * Constructor.
+	 */
+	public OperationParser() {
+		final ResourceSet resourceSet = new ResourceSetImpl();
+		resource = new XMIResourceImpl(VIRTUAL_URI);
+		resource.setIntrinsicIDToEObjectMap(Maps.<String, EObject> newLinkedHashMap());
+		resourceSet.getResources().add(resource);
+	}
+
+	/**
+	 * Reads the given range of the given operations file and parses it.
+	 *
+	 * @param file
+	 *            the operations file
+	 * @param offset
+	 *            the offset of the serialized operation, see {@link OperationIndex#getOffset(int)}
+	 * @param length
+	 *            the length of the serialized operation, see {@link OperationIndex#getLength(int)}
+	 * @return the parsed operation, if the range contains an operation
+	 * @throws IOException
+	 *             in case reading or parsing fails
+	 */
+	public Optional<AbstractOperation> parse(RandomAccessFile file, long offset, int length) throws IOException {
+		buffer.readFrom(file, offset, length);
+		if (buffer.isBlank()) {
+			return Optional.absent();
+		}
+
+		final EObject deserializedObject = deserialize();
+		if (AbstractOperation.class.isInstance(deserializedObject)) {
+			return Optional.of(AbstractOperation.class.cast(deserializedObject));
+		}
+		return Optional.absent();
+	}
+
+	private EObject deserialize() throws IOException {
+		try {
+			final XMLLoadImpl xmlLoadImpl = new XMLLoadImpl(new XMLHelperImpl(resource));
+			xmlLoadImpl.load(resource, buffer.toInputStream(), getLoadOptions());
+			if (resource.getContents().isEmpty()) {
+				return null;
+			}
+			return resource.getContents().get(0);
+		} finally {
+			resource.getContents().clear();
+			resource.getIntrinsicIDToEObjectMap().clear();
+			resource.getEObjectToIDMap().clear();
+			resource.getIDToEObjectMap().clear();
+			resource.getErrors().clear();
+			resource.getWarnings().clear();
+		}
+	}
+
+	/**
+	 * The load options of {@link ModelUtil#getResourceLoadOptions()} plus the shared parser pool. The name to
+	 * feature map is omitted since it would be modified during loading while the options serve as key of the
+	 * pooled parsers.
+	 */
+	private static synchronized Map<Object, Object> getLoadOptions() {
+		if (loadOptions == null) {
+			final Map<Object, Object> options = new LinkedHashMap<Object, Object>(
+				ModelUtil.getResourceLoadOptions());
+			options.remove(XMLResource.OPTION_USE_XML_NAME_TO_FEATURE_MAP);
+			options.put(XMLResource.OPTION_USE_PARSER_POOL, PARSER_POOL);
+			loadOptions = options;
+		}
+		return loadOptions;
+	}
+}
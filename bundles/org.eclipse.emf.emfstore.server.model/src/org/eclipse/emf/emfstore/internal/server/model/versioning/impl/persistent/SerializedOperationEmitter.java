@@ -11,15 +11,21 @@
  ******************************************************************************/
 package org.eclipse.emf.emfstore.internal.server.model.versioning.impl.persistent;
 
+import java.io.BufferedReader;
+import java.io.DataInput;
 import java.io.File;
+import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
+import java.io.RandomAccessFile;
 import java.util.Scanner;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
+import org.apache.commons.io.input.ReversedLinesFileReader;
+import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AbstractOperation;
 
 import com.google.common.base.Optional;
@@ -33,6 +39,8 @@ import com.google.common.base.Optional;
 public class SerializedOperationEmitter extends AbstractOperationEmitter {
 
 	private final ExecutorService executorService;
+	private final File operationsFile;
+	private ReadLineCapable reader;
 
 	/**
 	 * Constructor.
@@ -44,6 +52,7 @@ public class SerializedOperationEmitter extends AbstractOperationEmitter {
 	 */
 	public SerializedOperationEmitter(Direction direction, File file) {
 		super(direction, file);
+		operationsFile = file;
 		executorService = Executors.newCachedThreadPool();
 	}
 
@@ -88,6 +97,153 @@ public class SerializedOperationEmitter extends AbstractOperationEmitter {
 		}
 	}
 
+	private void initReader() {
+		try {
+			if (getDirection() == Direction.Forward) {
+				reader = ReadLineCapable.INSTANCE.create(new BufferedReader(new FileReader(operationsFile)));
+			} else {
+				reader = ReadLineCapable.INSTANCE.create(new ReversedLinesFileReader(operationsFile));
+			}
+		} catch (final IOException ex) {
+			ModelUtil.logException(ex);
+		}
+	}
+
+	/**
+	 * Since an XML Resource needs exactly one root object, we have to write a dummy object to the stream.
+	 *
+	 * @param pos the {@link PipedOutputStream}
+	 * @throws IOException in case there is a problem during write
+	 */
+	private static void writeDummyResourceToStream(PipedOutputStream pos) throws IOException {
+		pos.write(XmlTags.XML_RESOURCE_WITH_EOBJECT.getBytes());
+	}
+
+	/**
+	 * Reads the file in forward direction and writes read lines to the given stream.
+	 *
+	 * @param pos the output stream
+	 */
+	private void readForward(PipedOutputStream pos) {
+		if (reader == null) {
+			initReader();
+		}
+		try {
+			boolean operationsFound = false;
+			boolean withinOperationsElement = false;
+			final boolean isForwardDir = getDirection() == Direction.Forward;
+			final String closingTag = getClosingTag(isForwardDir);
+			String line = reader.readLine();
+			while (line != null && !line.contains(closingTag)) {
+				if (line.contains(getOpeningTag(isForwardDir))) {
+					withinOperationsElement = true;
+				} else if (withinOperationsElement) {
+					operationsFound = true;
+					pos.write(line.getBytes());
+				}
+				line = reader.readLine();
+			}
+			if (!operationsFound) {
+				writeDummyResourceToStream(pos);
+			}
+		} catch (final IOException ex) {
+			ModelUtil.logException(ex);
+		} finally {
+			try {
+				pos.close();
+			} catch (final IOException ex) {
+				ModelUtil.logException(ex);
+			}
+		}
+	}
+
+	private void readForward(DataInput reader, PipedOutputStream pos) {
+		try {
+			boolean operationsFound = false;
+			boolean withinOperationsElement = true;
+			final String closingTag = getClosingTag(true);
+			String line = reader.readLine();
+			while (line != null && !line.contains(closingTag)) {
+				if (line.contains(getOpeningTag(true))) {
+					withinOperationsElement = true;
+				} else if (withinOperationsElement && line.length() > 0) {
+					operationsFound = true;
+					pos.write(line.getBytes());
+				}
+				line = reader.readLine();
+			}
+
+			if (!operationsFound) {
+				writeDummyResourceToStream(pos);
+			}
+		} catch (final IOException ex) {
+			ModelUtil.logException(ex);
+		} finally {
+			try {
+				pos.close();
+			} catch (final IOException ex) {
+				ModelUtil.logException(ex);
+			}
+		}
+	}
+
+	/**
+	 * Reads the next operation in backward direction, as located by the index, and writes its lines to the given
+	 * stream.
+	 *
+	 * @param pos the output stream
+	 */
+	private void readBackward(PipedOutputStream pos) {
+		final int next = nextOperation();
+		if (next < 0) {
+			try {
+				writeDummyResourceToStream(pos);
+				pos.close();
+			} catch (final IOException ex) {
+				ModelUtil.logException(ex);
+			}
+			return;
+		}
+
+		try {
+			final RandomAccessFile raf = getOperationsFile();
+			raf.seek(getIndex().getOffset(next));
+			readForward(raf, pos);
+		} catch (final IOException ex) {
+			ModelUtil.logException(ex);
+			try {
+				pos.close();
+			} catch (final IOException closeEx) {
+				ModelUtil.logException(closeEx);
+			}
+		}
+	}
+
+	private static String getClosingTag(boolean isForward) {
+		return isForward ? XmlTags.OPERATIONS_END_TAG : XmlTags.OPERATIONS_START_TAG;
+	}
+
+	private static String getOpeningTag(boolean isForward) {
+		return isForward ? XmlTags.OPERATIONS_START_TAG : XmlTags.OPERATIONS_END_TAG;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @see org.eclipse.emf.emfstore.internal.server.model.versioning.impl.persistent.AbstractOperationEmitter#close()
+	 */
+	@Override
+	public void close() {
+		super.close();
+		if (reader != null) {
+			try {
+				reader.close();
+			} catch (final IOException ex) {
+				ModelUtil.logException(ex);
+			}
+		}
+	}
+
 	private static String convertStreamToString(InputStream inputStream) {
 		final Scanner scanner = new Scanner(inputStream);
 		scanner.useDelimiter("\\A"); //$NON-NLS-1$
@@ -14,8 +14,6 @@ package org.eclipse.emf.emfstore.internal.server.model.versioning.operations.uti
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
-import java.io.IOException;
-import java.io.LineNumberReader;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -80,21 +78,26 @@ public final class ChangePackageSplittingIterator implements Iterator<ChangePack
 	}
 
 	private void init() {
-		LineNumberReader lineNumberReader = null;
+		FileReader reader = null;
 		try {
-			lineNumberReader = new LineNumberReader(new FileReader(new File(changePackage.getTempFilePath())));
-			lineNumberReader.skip(Long.MAX_VALUE);
-			final int lines = lineNumberReader.getLineNumber() + 1;
+			reader = new FileReader(new File(changePackage.getTempFilePath()));
+			// count lines the same way they are read, since receivers rely on the fragment count
+			final LineIterator lineIterator = new LineIterator(reader);
+			int lines = 0;
+			while (lineIterator.hasNext()) {
+				lineIterator.next();
+				lines++;
+			}
 			count = lines / changePackageFragmentSize;
 			if (lines % changePackageFragmentSize != 0) {
 				count += 1;
 			}
+			// an empty change package is still sent as a single, empty fragment
+			count = Math.max(1, count);
 		} catch (final FileNotFoundException ex) {
 			throw new IllegalStateException(ex);
-		} catch (final IOException ex) {
-			throw new IllegalStateException(ex);
 		} finally {
-			IOUtils.closeQuietly(lineNumberReader);
+			IOUtils.closeQuietly(reader);
 		}
 		isInitialized = true;
 	}
@@ -103,7 +106,7 @@ public final class ChangePackageSplittingIterator implements Iterator<ChangePack
 		final int changePackageFragmentSize) {
 
 		int readLines = 0;
-		FileReader reader;
+		FileReader reader = null;
 		final List<String> lines = new ArrayList<String>();
 
 		try {
@@ -127,6 +130,8 @@ public final class ChangePackageSplittingIterator implements Iterator<ChangePack
 
 		} catch (final FileNotFoundException ex) {
 			throw new IllegalStateException(ex);
+		} finally {
+			IOUtils.closeQuietly(reader);
 		}
 
 		return lines;
@@ -14,9 +14,12 @@ package org.eclipse.emf.emfstore.internal.server.model.versioning.operations.uti
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.emfstore.internal.common.model.ModelElementId;
 import org.eclipse.emf.emfstore.internal.common.model.util.FileUtil;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.AbstractChangePackage;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.ChangePackage;
@@ -141,6 +144,27 @@ public final class ChangePackageUtil {
 		return count;
 	}
 
+	/**
+	 * Collects the IDs of all model elements that are involved in any operation of the given change package. The
+	 * elements whose contents are changed by applying the change package are a subset of them.
+	 *
+	 * @param changePackage
+	 *            the change package
+	 * @return the IDs of the involved model elements
+	 */
+	public static Set<ModelElementId> getInvolvedModelElements(AbstractChangePackage changePackage) {
+		final Set<ModelElementId> result = new LinkedHashSet<ModelElementId>();
+		final ESCloseableIterable<AbstractOperation> operations = changePackage.operations();
+		try {
+			for (final AbstractOperation operation : operations.iterable()) {
+				result.addAll(operation.getAllInvolvedModelElements());
+			}
+		} finally {
+			operations.close();
+		}
+		return result;
+	}
+
 	private static int getSize(CompositeOperation compositeOperation) {
 		int ret = 0;
 		final EList<AbstractOperation> subOperations = compositeOperation.getSubOperations();
@@ -0,0 +1,227 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.internal.server.model.versioning.operations.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.emf.emfstore.internal.common.model.ModelElementId;
+import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.AbstractChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AbstractOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.CompositeOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.ContainmentType;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.CreateDeleteOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.FeatureOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.MultiAttributeMoveOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.MultiReferenceMoveOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.SingleReferenceOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.UnsetType;
+
+/**
+ * Compacts a stream of operations window by window, so that only a window of operations is kept in memory at a time.
+ * Within each window, the operations are canonized by the {@link OperationsCanonizer}, i.e. changes of the same
+ * attribute are folded, attribute changes are folded into creates and deletes of their element and neighbouring
+ * creates and deletes of the same element cancel out. Additionally, changes of the same single valued
+ * non-containment reference are folded and subsequent moves of the same value within the same list are merged.
+ * <p>
+ * Folding stops at creates, deletes and composite operations, so that each remaining operation still touches the same
+ * elements and features as the operations it replaces. Conflict detection therefore reports the same conflicts for
+ * the compacted operations, except for changes that cancel out completely.
+ * </p>
+ * Contract: project.apply(operations) = project.apply(compactedOperations)
+ */
+public class OperationsCompactor {
+
+	/**
+	 * The default number of operations that are compacted at once.
+	 */
+	public static final int DEFAULT_WINDOW_SIZE = 1000;
+
+	private final int windowSize;
+	private int operationCount;
+	private int compactedOperationCount;
+
+	/**
+	 * Creates a compactor with the {@link #DEFAULT_WINDOW_SIZE}.
+	 */
+	public OperationsCompactor() {
+		this(DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * Creates a compactor.
+	 *
+	 * @param windowSize
+	 *            the number of operations that are compacted at once
+	 */
+	public OperationsCompactor(int windowSize) {
+		this.windowSize = Math.max(1, windowSize);
+	}
+
+	/**
+	 * Compacts the given operations and adds copies of the compacted operations to the given change package.
+	 *
+	 * @param operations
+	 *            the operations to be compacted, which are not changed
+	 * @param target
+	 *            the change package to which the compacted operations are added
+	 */
+	public void compact(Iterable<AbstractOperation> operations, AbstractChangePackage target) {
+		final List<AbstractOperation> window = new ArrayList<AbstractOperation>(windowSize);
+		for (final AbstractOperation operation : operations) {
+			window.add(ModelUtil.clone(operation));
+			operationCount++;
+			if (window.size() == windowSize) {
+				flush(window, target);
+			}
+		}
+		flush(window, target);
+	}
+
+	private void flush(List<AbstractOperation> window, AbstractChangePackage target) {
+		if (window.isEmpty()) {
+			return;
+		}
+		compact(window);
+		compactedOperationCount += window.size();
+		target.addAll(window);
+		window.clear();
+	}
+
+	/**
+	 * Compacts the given list of operations in place.
+	 *
+	 * @param operations
+	 *            a list of operations ordered by creation time
+	 */
+	public static void compact(List<AbstractOperation> operations) {
+		OperationsCanonizer.canonize(operations);
+		foldSingleReferences(operations);
+		foldMoves(operations);
+	}
+
+	private static void foldSingleReferences(List<AbstractOperation> operations) {
+
+		for (int i = 0; i < operations.size(); i++) {
+
+			if (!isFoldable(operations.get(i))) {
+				continue;
+			}
+			final SingleReferenceOperation opLeft = (SingleReferenceOperation) operations.get(i);
+
+			for (int j = i + 1; j < operations.size(); j++) {
+
+				final AbstractOperation opRight = operations.get(j);
+
+				if (opRight instanceof CreateDeleteOperation || opRight instanceof CompositeOperation) {
+					break;
+				}
+
+				if (isSameFeature(opLeft, opRight)) {
+					if (!isFoldable(opRight)) {
+						break;
+					}
+					// merge opRight into opLeft
+					opLeft.setNewValue(ModelUtil.clone(((SingleReferenceOperation) opRight).getNewValue()));
+					operations.remove(j);
+					j--;
+				}
+			}
+
+			// if the remaining opLeft is a noop, remove it altogether
+			if (isEqual(opLeft.getOldValue(), opLeft.getNewValue())) {
+				operations.remove(i);
+				i--;
+			}
+		}
+	}
+
+	private static boolean isFoldable(AbstractOperation operation) {
+		if (!(operation instanceof SingleReferenceOperation)) {
+			return false;
+		}
+		// intermediate values of containments and opposites are changed as well
+		final SingleReferenceOperation referenceOperation = (SingleReferenceOperation) operation;
+		return !referenceOperation.isBidirectional()
+			&& referenceOperation.getContainmentType() == ContainmentType.NONE
+			&& referenceOperation.getUnset() == UnsetType.NONE;
+	}
+
+	private static void foldMoves(List<AbstractOperation> operations) {
+
+		for (int i = 0; i < operations.size() - 1; i++) {
+
+			final AbstractOperation opLeft = operations.get(i);
+			final AbstractOperation opRight = operations.get(i + 1);
+
+			if (!isSameFeature(opLeft, opRight)) {
+				continue;
+			}
+
+			if (opLeft instanceof MultiReferenceMoveOperation && opRight instanceof MultiReferenceMoveOperation) {
+				final MultiReferenceMoveOperation moveLeft = (MultiReferenceMoveOperation) opLeft;
+				final MultiReferenceMoveOperation moveRight = (MultiReferenceMoveOperation) opRight;
+				if (isEqual(moveLeft.getReferencedModelElementId(), moveRight.getReferencedModelElementId())
+					&& moveLeft.getNewIndex() == moveRight.getOldIndex()) {
+					moveLeft.setNewIndex(moveRight.getNewIndex());
+					operations.remove(i + 1);
+					if (moveLeft.getOldIndex() == moveLeft.getNewIndex()) {
+						operations.remove(i);
+					}
+					i = Math.max(-1, i - 2); // reexamine the preceding index
+				}
+			} else if (opLeft instanceof MultiAttributeMoveOperation
+				&& opRight instanceof MultiAttributeMoveOperation) {
+				final MultiAttributeMoveOperation moveLeft = (MultiAttributeMoveOperation) opLeft;
+				final MultiAttributeMoveOperation moveRight = (MultiAttributeMoveOperation) opRight;
+				if (moveLeft.getReferencedValue() != null
+					&& moveLeft.getReferencedValue().equals(moveRight.getReferencedValue())
+					&& moveLeft.getNewIndex() == moveRight.getOldIndex()) {
+					moveLeft.setNewIndex(moveRight.getNewIndex());
+					operations.remove(i + 1);
+					if (moveLeft.getOldIndex() == moveLeft.getNewIndex()) {
+						operations.remove(i);
+					}
+					i = Math.max(-1, i - 2); // reexamine the preceding index
+				}
+			}
+		}
+	}
+
+	private static boolean isSameFeature(AbstractOperation operation, AbstractOperation otherOperation) {
+		if (!(operation instanceof FeatureOperation) || !(otherOperation instanceof FeatureOperation)) {
+			return false;
+		}
+		return isEqual(operation.getModelElementId(), otherOperation.getModelElementId())
+			&& ((FeatureOperation) operation).getFeatureName() != null
+			&& ((FeatureOperation) operation).getFeatureName().equals(
+				((FeatureOperation) otherOperation).getFeatureName());
+	}
+
+	private static boolean isEqual(ModelElementId id, ModelElementId otherId) {
+		return id == null ? otherId == null : id.equals(otherId);
+	}
+
+	/**
+	 * @return the number of operations that have been compacted so far
+	 */
+	public int getOperationCount() {
+		return operationCount;
+	}
+
+	/**
+	 * @return the number of operations that remained after compacting
+	 */
+	public int getCompactedOperationCount() {
+		return compactedOperationCount;
+	}
+}
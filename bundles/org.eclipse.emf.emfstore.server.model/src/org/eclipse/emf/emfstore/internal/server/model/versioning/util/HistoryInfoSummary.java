@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.internal.server.model.versioning.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.emf.emfstore.internal.common.model.ModelElementId;
+import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.HistoryInfo;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.VersionProperty;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningFactory;
+
+/**
+ * Helper class for the summaries of change packages and the continuation tokens that are attached to the
+ * {@link HistoryInfo}s of a history page as version properties.
+ */
+public final class HistoryInfoSummary {
+
+	/**
+	 * The name of the property holding the number of operations of a change package.
+	 */
+	public static final String OPERATION_COUNT = "summary.operationCount"; //$NON-NLS-1$
+
+	/**
+	 * The name of the property holding the IDs of the model elements involved in a change package, at most
+	 * {@link #MAX_INVOLVED_MODEL_ELEMENTS} of them.
+	 */
+	public static final String INVOLVED_MODEL_ELEMENTS = "summary.involvedModelElements"; //$NON-NLS-1$
+
+	/**
+	 * The name of the property holding the number of model elements involved in a change package.
+	 */
+	public static final String INVOLVED_MODEL_ELEMENT_COUNT = "summary.involvedModelElementCount"; //$NON-NLS-1$
+
+	/**
+	 * The maximum number of IDs of involved model elements attached to a history info, so that the summary stays small
+	 * for large change packages.
+	 */
+	public static final int MAX_INVOLVED_MODEL_ELEMENTS = 100;
+
+	/**
+	 * The name of the property holding the token to request the next page with.
+	 */
+	public static final String CONTINUATION_TOKEN = "page.continuationToken"; //$NON-NLS-1$
+
+	private static final String SEPARATOR = ","; //$NON-NLS-1$
+
+	private HistoryInfoSummary() {
+	}
+
+	/**
+	 * Attaches the summary of a change package to the given history info.
+	 *
+	 * @param historyInfo
+	 *            the history info
+	 * @param operationCount
+	 *            the number of operations of the change package
+	 * @param involvedModelElements
+	 *            the IDs of the model elements involved in the change package, of which only the first
+	 *            {@link #MAX_INVOLVED_MODEL_ELEMENTS} are attached
+	 */
+	public static void setSummary(HistoryInfo historyInfo, int operationCount,
+		Collection<ModelElementId> involvedModelElements) {
+		final StringBuilder ids = new StringBuilder();
+		int count = 0;
+		for (final ModelElementId modelElementId : involvedModelElements) {
+			if (count == MAX_INVOLVED_MODEL_ELEMENTS) {
+				break;
+			}
+			if (count > 0) {
+				ids.append(SEPARATOR);
+			}
+			ids.append(modelElementId.getId());
+			count++;
+		}
+		setProperty(historyInfo, OPERATION_COUNT, Integer.toString(operationCount));
+		setProperty(historyInfo, INVOLVED_MODEL_ELEMENT_COUNT, Integer.toString(involvedModelElements.size()));
+		setProperty(historyInfo, INVOLVED_MODEL_ELEMENTS, ids.toString());
+	}
+
+	/**
+	 * Whether a summary of the change package is attached to the given history info.
+	 *
+	 * @param historyInfo
+	 *            the history info
+	 * @return {@code true}, if a summary is attached
+	 */
+	public static boolean hasSummary(HistoryInfo historyInfo) {
+		return getProperty(historyInfo, OPERATION_COUNT) != null;
+	}
+
+	/**
+	 * Returns the number of operations of the summarized change package.
+	 *
+	 * @param historyInfo
+	 *            the history info
+	 * @return the number of operations or -1, if no summary is attached
+	 */
+	public static int getOperationCount(HistoryInfo historyInfo) {
+		final String value = getProperty(historyInfo, OPERATION_COUNT);
+		if (value == null) {
+			return -1;
+		}
+		return Integer.parseInt(value);
+	}
+
+	/**
+	 * Returns the number of model elements involved in the summarized change package.
+	 *
+	 * @param historyInfo
+	 *            the history info
+	 * @return the number of involved model elements or -1, if no summary is attached
+	 */
+	public static int getInvolvedModelElementCount(HistoryInfo historyInfo) {
+		final String value = getProperty(historyInfo, INVOLVED_MODEL_ELEMENT_COUNT);
+		if (value == null) {
+			return -1;
+		}
+		return Integer.parseInt(value);
+	}
+
+	/**
+	 * Returns the IDs of the model elements involved in the summarized change package. At most
+	 * {@link #MAX_INVOLVED_MODEL_ELEMENTS} IDs are attached, see {@link #getInvolvedModelElementCount(HistoryInfo)}
+	 * for the total number.
+	 *
+	 * @param historyInfo
+	 *            the history info
+	 * @return the IDs of the involved model elements, empty if no summary is attached
+	 */
+	public static List<ModelElementId> getInvolvedModelElements(HistoryInfo historyInfo) {
+		final List<ModelElementId> result = new ArrayList<ModelElementId>();
+		final String value = getProperty(historyInfo, INVOLVED_MODEL_ELEMENTS);
+		if (value == null || value.length() == 0) {
+			return result;
+		}
+		for (final String id : value.split(SEPARATOR)) {
+			result.add(ModelUtil.createModelElementId(id));
+		}
+		return result;
+	}
+
+	/**
+	 * Attaches the token to request the next page with to the given history info, which should be the last one of
+	 * its page.
+	 *
+	 * @param historyInfo
+	 *            the history info
+	 * @param continuationToken
+	 *            the token
+	 */
+	public static void setContinuationToken(HistoryInfo historyInfo, String continuationToken) {
+		setProperty(historyInfo, CONTINUATION_TOKEN, continuationToken);
+	}
+
+	/**
+	 * Returns the token to request the page following the given one with.
+	 *
+	 * @param page
+	 *            the history infos of a page
+	 * @return the token or {@code null}, if the given page is the last one
+	 */
+	public static String getContinuationToken(List<HistoryInfo> page) {
+		if (page.isEmpty()) {
+			return null;
+		}
+		return getProperty(page.get(page.size() - 1), CONTINUATION_TOKEN);
+	}
+
+	private static String getProperty(HistoryInfo historyInfo, String name) {
+		for (final VersionProperty property : historyInfo.getVersionProperties()) {
+			if (name.equals(property.getName())) {
+				return property.getValue();
+			}
+		}
+		return null;
+	}
+
+	private static void setProperty(HistoryInfo historyInfo, String name, String value) {
+		for (final VersionProperty property : historyInfo.getVersionProperties()) {
+			if (name.equals(property.getName())) {
+				property.setValue(value);
+				return;
+			}
+		}
+		final VersionProperty property = VersioningFactory.eINSTANCE.createVersionProperty();
+		property.setName(name);
+		property.setValue(value);
+		historyInfo.getVersionProperties().add(property);
+	}
+}
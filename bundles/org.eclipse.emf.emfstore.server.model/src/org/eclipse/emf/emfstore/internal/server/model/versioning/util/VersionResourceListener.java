@@ -0,0 +1,33 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.internal.server.model.versioning.util;
+
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.Version;
+
+/**
+ * Listener that is informed whenever the project state or the change package resource of a {@link Version} is
+ * accessed. Listeners are registered as adapters of the resource set containing the versions.
+ */
+public interface VersionResourceListener extends Adapter {
+
+	/**
+	 * Called after the project state or the change package resource of a version has been accessed. The resource may
+	 * have been loaded by this access.
+	 *
+	 * @param version
+	 *            the version owning the resource
+	 * @param resource
+	 *            the accessed resource
+	 */
+	void resourceAccessed(Version version, Resource resource);
+}
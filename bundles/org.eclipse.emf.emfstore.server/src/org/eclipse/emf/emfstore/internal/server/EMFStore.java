@@ -229,6 +229,30 @@ public interface EMFStore extends EMFStoreInterface {
 	List<HistoryInfo> getHistoryInfo(SessionId sessionId, ProjectId projectId, HistoryQuery<?> historyQuery)
 		throws ESException;
 
+	/**
+	 * Get a page of history information from the server. The versions described by the {@link HistoryQuery} are
+	 * returned in pages of the given size. Instead of the change packages, the history information carries
+	 * summaries of them, if the query includes change packages, see
+	 * {@link org.eclipse.emf.emfstore.internal.server.model.versioning.util.HistoryInfoSummary HistoryInfoSummary}.
+	 * Change packages can be fetched on demand via {@link #getChanges(SessionId, ProjectId, VersionSpec, VersionSpec)}.
+	 *
+	 * @param sessionId
+	 *            the session id
+	 * @param projectId
+	 *            the project id
+	 * @param historyQuery
+	 *            the historyQuery
+	 * @param continuationToken
+	 *            the continuation token of the previous page or an empty string to fetch the first page
+	 * @param pageSize
+	 *            the maximum number of history information to return
+	 * @return list of history information, the last entry carries the continuation token if there are further pages
+	 * @throws ESException
+	 *             if any error in the EmfStore occurs
+	 */
+	List<HistoryInfo> getHistoryInfoPage(SessionId sessionId, ProjectId projectId, HistoryQuery<?> historyQuery,
+		String continuationToken, int pageSize) throws ESException;
+
 	/**
 	 * Adds a tag to a version of the specified project.
 	 *
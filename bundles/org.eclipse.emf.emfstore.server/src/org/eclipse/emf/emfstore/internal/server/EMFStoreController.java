@@ -47,10 +47,12 @@ import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
 import org.eclipse.emf.emfstore.internal.server.accesscontrol.AccessControl;
 import org.eclipse.emf.emfstore.internal.server.connection.ConnectionHandler;
 import org.eclipse.emf.emfstore.internal.server.connection.xmlrpc.XmlRpcAdminConnectionHandler;
+import org.eclipse.emf.emfstore.internal.server.connection.xmlrpc.XmlRpcBinaryConnectionHandler;
 import org.eclipse.emf.emfstore.internal.server.connection.xmlrpc.XmlRpcConnectionHandler;
 import org.eclipse.emf.emfstore.internal.server.core.AdminEmfStoreImpl;
 import org.eclipse.emf.emfstore.internal.server.core.EMFStoreImpl;
 import org.eclipse.emf.emfstore.internal.server.core.MonitorProvider;
+import org.eclipse.emf.emfstore.internal.server.core.ResourceResidencyManager;
 import org.eclipse.emf.emfstore.internal.server.core.helper.EPackageHelper;
 import org.eclipse.emf.emfstore.internal.server.core.helper.ResourceHelper;
 import org.eclipse.emf.emfstore.internal.server.exceptions.FatalESException;
@@ -66,6 +68,7 @@ import org.eclipse.emf.emfstore.internal.server.model.versioning.BranchInfo;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.VersionSpec;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningFactory;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.Versions;
+import org.eclipse.emf.emfstore.internal.server.startup.EmfStoreValidator;
 import org.eclipse.emf.emfstore.internal.server.startup.MigrationManager;
 import org.eclipse.emf.emfstore.internal.server.startup.PostStartupListener;
 import org.eclipse.emf.emfstore.internal.server.startup.ServerHrefMigrator;
@@ -172,6 +175,10 @@ public class EMFStoreController implements IApplication, Runnable {
 
 		initializeBranchesIfRequired(serverSpace);
 
+		if (ServerConfiguration.isValidationEnabled() && !ServerConfiguration.isValidationInBackground()) {
+			createValidator().validate(ServerConfiguration.getValidationLevel());
+		}
+
 		handleStartupListener();
 
 		accessControl = initAccessControl(serverSpace);
@@ -188,6 +195,10 @@ public class EMFStoreController implements IApplication, Runnable {
 		handlePostStartupListener();
 		registerShutdownHook();
 
+		if (ServerConfiguration.isValidationEnabled() && ServerConfiguration.isValidationInBackground()) {
+			startBackgroundValidation();
+		}
+
 		if (ServerConfiguration.isUserPasswordMigrationRequired()) {
 			performDummyLogin();
 		}
@@ -209,6 +220,32 @@ public class EMFStoreController implements IApplication, Runnable {
 		getAccessControl().getLoginService().verifyUser("", "", clientVersionInfo.toAPI()); //$NON-NLS-1$//$NON-NLS-2$
 	}
 
+	private EmfStoreValidator createValidator() {
+		final EmfStoreValidator validator = new EmfStoreValidator(serverSpace);
+		validator.setExcludedProjects(ServerConfiguration.getValidationExcludedProjects());
+		validator.setThreads(ServerConfiguration.getValidationThreads());
+		if (ServerConfiguration.isValidationIncremental()) {
+			validator.setMarkerFile(new File(ServerConfiguration.getServerHome() + EmfStoreValidator.MARKER_FILE_NAME));
+		}
+		return validator;
+	}
+
+	private void startBackgroundValidation() {
+		final EmfStoreValidator validator = createValidator();
+		final Thread thread = new Thread(new Runnable() {
+			public void run() {
+				try {
+					validator.validate(ServerConfiguration.getValidationLevel());
+				} catch (final FatalESException e) {
+					ModelUtil.logWarning(Messages.EMFStoreController_Validation_Failed, e);
+				}
+			}
+		}, "EMFStore Validation"); //$NON-NLS-1$
+		thread.setDaemon(true);
+		ModelUtil.logInfo(Messages.EMFStoreController_Validation_Started_In_Background);
+		thread.start();
+	}
+
 	private void registerShutdownHook() {
 		Runtime.getRuntime().addShutdownHook(new Thread() {
 			@Override
@@ -379,6 +416,12 @@ public class EMFStoreController implements IApplication, Runnable {
 			xmlRpcConnectionHander.init(emfStore, accessControl);
 			connectionHandlers.add(xmlRpcConnectionHander);
 
+			if (ServerConfiguration.isBinaryTransportEnabled()) {
+				final XmlRpcBinaryConnectionHandler xmlRpcBinaryConnectionHandler = new XmlRpcBinaryConnectionHandler();
+				xmlRpcBinaryConnectionHandler.init(emfStore, accessControl);
+				connectionHandlers.add(xmlRpcBinaryConnectionHandler);
+			}
+
 			final XmlRpcAdminConnectionHandler xmlRpcAdminConnectionHander = new XmlRpcAdminConnectionHandler();
 			xmlRpcAdminConnectionHander.init(adminEmfStore, accessControl);
 			connectionHandlers.add(xmlRpcAdminConnectionHander);
@@ -457,6 +500,8 @@ public class EMFStoreController implements IApplication, Runnable {
 			}
 		}
 
+		ResourceResidencyManager.getInstance().install(resourceSet);
+
 		return result;
 	}
 
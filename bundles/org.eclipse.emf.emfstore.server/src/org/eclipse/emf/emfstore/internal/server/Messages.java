@@ -53,8 +53,15 @@ public final class Messages extends NLS {
 	public static String EMFStoreController_Server_Was_Stopped;
 	public static String EMFStoreController_Stopping_All_ConnectionHandlers;
 	public static String EMFStoreController_Stopping_ConnectionHandler;
+	public static String EMFStoreController_Validation_Failed;
+	public static String EMFStoreController_Validation_Started_In_Background;
 	public static String EMFStoreController_Waiting_For_Termination_Interrupted;
 	public static String ServerConfiguration_Default_Checksum_Behavior;
+	public static String ServerConfiguration_Invalid_Max_Chunk_Size;
+	public static String ServerConfiguration_Invalid_ProjectState_Cache_Size;
+	public static String ServerConfiguration_Invalid_Resource_Residency_Size;
+	public static String ServerConfiguration_Invalid_Validation_Level;
+	public static String ServerConfiguration_Invalid_Validation_Threads;
 	public static String ServerConfiguration_No_Location_Provider;
 	public static String ServerConfiguration_No_WebServer_Provider;
 	static {
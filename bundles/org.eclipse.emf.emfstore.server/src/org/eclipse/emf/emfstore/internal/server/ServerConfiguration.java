@@ -13,6 +13,7 @@
 package org.eclipse.emf.emfstore.internal.server;
 
 import java.io.File;
+import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -82,6 +83,26 @@ public final class ServerConfiguration {
 	 */
 	public static final String XML_RPC_PORT_DEFAULT = "8080"; //$NON-NLS-1$
 
+	/**
+	 * Option for enabling the XML RPC interface that transfers EObjects in a binary format.
+	 */
+	public static final String XML_RPC_BINARY = "emfstore.connection.xmlrpc.binary"; //$NON-NLS-1$
+
+	/**
+	 * Default value for the binary XML RPC interface.
+	 */
+	public static final String XML_RPC_BINARY_DEFAULT = Boolean.TRUE.toString();
+
+	/**
+	 * Option for compressing EObjects sent via the binary XML RPC interface.
+	 */
+	public static final String XML_RPC_BINARY_COMPRESSION = "emfstore.connection.xmlrpc.binary.compression"; //$NON-NLS-1$
+
+	/**
+	 * Default value for the compression of EObjects sent via the binary XML RPC interface.
+	 */
+	public static final String XML_RPC_BINARY_COMPRESSION_DEFAULT = Boolean.FALSE.toString();
+
 	/**
 	 * Default name of server keystore file.
 	 */
@@ -168,6 +189,82 @@ public final class ServerConfiguration {
 	 */
 	public static final String PROJECTSPACE_VERSION_PERSISTENCE_DEFAULT = PROJECTSTATE_VERSION_PERSISTENCE_EVERYXVERSIONS;
 
+	/**
+	 * Property for the maximum number of bytes the server may use for caching project states that have been
+	 * reconstructed from change packages. Use 0 to disable the cache.
+	 */
+	public static final String PROJECTSTATE_CACHE_SIZE = "emfstore.persistence.projectstate.cache.size"; //$NON-NLS-1$
+
+	/**
+	 * Default value for the project state cache size (= 64 MB).
+	 */
+	public static final String PROJECTSTATE_CACHE_SIZE_DEFAULT = "67108864"; //$NON-NLS-1$
+
+	/**
+	 * Property for the maximum number of bytes the project state and change package resources of versions may occupy
+	 * before the least recently used ones are unloaded. Use 0 to keep resources loaded as long as the memory permits.
+	 */
+	public static final String RESOURCE_RESIDENCY_SIZE = "emfstore.persistence.resources.residency.size"; //$NON-NLS-1$
+
+	/**
+	 * Default value for the resource residency size (= disabled).
+	 */
+	public static final String RESOURCE_RESIDENCY_SIZE_DEFAULT = "0"; //$NON-NLS-1$
+
+	/**
+	 * Property for enabling in-place commits. If enabled, the changes of a commit onto the head of a branch are applied
+	 * directly to the project state of the head version instead of to a copy of it, as long as the persistence policy
+	 * does not require to keep the old project state.
+	 */
+	public static final String PROJECTSTATE_COMMIT_IN_PLACE = "emfstore.persistence.projectstate.commitinplace"; //$NON-NLS-1$
+
+	/**
+	 * Default value for in-place commits.
+	 */
+	public static final String PROJECTSTATE_COMMIT_IN_PLACE_DEFAULT = Boolean.FALSE.toString();
+
+	/**
+	 * Property for computing an order independent checksum over the model elements of a project state instead of
+	 * serializing it. The checksum of a new version is derived from the checksum of its base version where possible.
+	 * The kind of checksum is recorded with the version spec of each version, so that clients compute the same kind.
+	 */
+	public static final String CHECKSUM_COMMUTATIVE = "emfstore.checksum.commutative"; //$NON-NLS-1$
+
+	/**
+	 * Default value for commutative checksums.
+	 */
+	public static final String CHECKSUM_COMMUTATIVE_DEFAULT = Boolean.FALSE.toString();
+
+	/**
+	 * Property for verifying derived commutative checksums against a checksum computed over the whole project state.
+	 */
+	public static final String CHECKSUM_COMMUTATIVE_VERIFY = "emfstore.checksum.commutative.verify"; //$NON-NLS-1$
+
+	/**
+	 * Default value for the verification of commutative checksums.
+	 */
+	public static final String CHECKSUM_COMMUTATIVE_VERIFY_DEFAULT = Boolean.FALSE.toString();
+
+	/**
+	 * Property for rebuilding the indices that map model elements to the versions changing them at startup.
+	 */
+	public static final String HISTORY_ELEMENT_INDEX_REBUILD = "emfstore.history.elementindex.rebuild"; //$NON-NLS-1$
+
+	/**
+	 * Default value for rebuilding model element indices.
+	 */
+	public static final String HISTORY_ELEMENT_INDEX_REBUILD_DEFAULT = Boolean.FALSE.toString();
+
+	/**
+	 * Property for the largest chunk size, in bytes, clients may request for file transfers.
+	 */
+	public static final String FILE_TRANSFER_MAX_CHUNK_SIZE = "emfstore.filetransfer.chunksize.max"; //$NON-NLS-1$
+
+	/**
+	 * Default value for the largest chunk size of file transfers (= 16 MB).
+	 */
+	public static final String FILE_TRANSFER_MAX_CHUNK_SIZE_DEFAULT = "16777216"; //$NON-NLS-1$
+
 	/**
 	 * Property for timeout time of a user session.
 	 */
@@ -257,8 +354,64 @@ public final class ServerConfiguration {
 	/**
 	 * Property to validate server on start up.
 	 */
+	public static final String VALIDATION = "emfstore.validation"; //$NON-NLS-1$
+
+	/**
+	 * Default value for {@link #VALIDATION}.
+	 */
+	public static final String VALIDATION_DEFAULT = Boolean.FALSE.toString();
+
+	/**
+	 * Property for the level of the validation on start up, a bitwise combination of the options of the
+	 * {@link org.eclipse.emf.emfstore.internal.server.startup.EmfStoreValidator EmfStoreValidator}.
+	 */
+	public static final String VALIDATION_LEVEL = "emfstore.validation.level"; //$NON-NLS-1$
+
+	/**
+	 * Default value for {@link #VALIDATION_LEVEL}.
+	 */
+	public static final String VALIDATION_LEVEL_DEFAULT = "7"; //$NON-NLS-1$
+
+	/**
+	 * Property for the IDs of the projects to be excluded from the validation.
+	 */
+	public static final String VALIDATION_PROJECT_EXCLUDE = "emfstore.validation.exclude"; //$NON-NLS-1$
+
+	/**
+	 * Default value for {@link #VALIDATION_PROJECT_EXCLUDE}.
+	 */
 	public static final String VALIDATION_PROJECT_EXCLUDE_DEFAULT = ""; //$NON-NLS-1$
 
+	/**
+	 * Property for the number of projects to be validated in parallel. Use 0 for the number of available processors.
+	 */
+	public static final String VALIDATION_THREADS = "emfstore.validation.threads"; //$NON-NLS-1$
+
+	/**
+	 * Default value for {@link #VALIDATION_THREADS}.
+	 */
+	public static final String VALIDATION_THREADS_DEFAULT = "0"; //$NON-NLS-1$
+
+	/**
+	 * Property for validating only the versions that have been added since the last successful validation.
+	 */
+	public static final String VALIDATION_INCREMENTAL = "emfstore.validation.incremental"; //$NON-NLS-1$
+
+	/**
+	 * Default value for {@link #VALIDATION_INCREMENTAL}.
+	 */
+	public static final String VALIDATION_INCREMENTAL_DEFAULT = Boolean.TRUE.toString();
+
+	/**
+	 * Property for running the validation in the background once the server has been started, instead of before.
+	 */
+	public static final String VALIDATION_BACKGROUND = "emfstore.validation.background"; //$NON-NLS-1$
+
+	/**
+	 * Default value for {@link #VALIDATION_BACKGROUND}.
+	 */
+	public static final String VALIDATION_BACKGROUND_DEFAULT = Boolean.TRUE.toString();
+
 	/**
 	 * Property for loading startup listeners from extension point.
 	 */
@@ -763,6 +916,197 @@ public final class ServerConfiguration {
 		return saveProjectStateOnTag;
 	}
 
+	/**
+	 * Returns the maximum number of bytes to be used for caching reconstructed project states.
+	 *
+	 * @return the byte budget of the project state cache, a value less than or equal to zero disables the cache
+	 */
+	public static long getProjectStateCacheSize() {
+		final String size = getProperties().getProperty(PROJECTSTATE_CACHE_SIZE, PROJECTSTATE_CACHE_SIZE_DEFAULT);
+		try {
+			return Long.parseLong(size.trim());
+		} catch (final NumberFormatException e) {
+			ModelUtil.logWarning(MessageFormat.format(Messages.ServerConfiguration_Invalid_ProjectState_Cache_Size,
+				size, PROJECTSTATE_CACHE_SIZE_DEFAULT));
+			return Long.parseLong(PROJECTSTATE_CACHE_SIZE_DEFAULT);
+		}
+	}
+
+	/**
+	 * Returns the maximum number of bytes the loaded project state and change package resources of versions may
+	 * occupy.
+	 *
+	 * @return the byte budget of the loaded version resources, a value less than or equal to zero disables unloading
+	 */
+	public static long getResourceResidencySize() {
+		final String size = getProperties().getProperty(RESOURCE_RESIDENCY_SIZE, RESOURCE_RESIDENCY_SIZE_DEFAULT);
+		try {
+			return Long.parseLong(size.trim());
+		} catch (final NumberFormatException e) {
+			ModelUtil.logWarning(MessageFormat.format(Messages.ServerConfiguration_Invalid_Resource_Residency_Size,
+				size, RESOURCE_RESIDENCY_SIZE_DEFAULT));
+			return Long.parseLong(RESOURCE_RESIDENCY_SIZE_DEFAULT);
+		}
+	}
+
+	/**
+	 * Returns the largest chunk size clients may request for file transfers.
+	 *
+	 * @return the largest chunk size, in bytes
+	 */
+	public static int getFileTransferMaxChunkSize() {
+		final String size = getProperties().getProperty(FILE_TRANSFER_MAX_CHUNK_SIZE,
+			FILE_TRANSFER_MAX_CHUNK_SIZE_DEFAULT);
+		try {
+			return Integer.parseInt(size.trim());
+		} catch (final NumberFormatException e) {
+			ModelUtil.logWarning(MessageFormat.format(Messages.ServerConfiguration_Invalid_Max_Chunk_Size,
+				size, FILE_TRANSFER_MAX_CHUNK_SIZE_DEFAULT));
+			return Integer.parseInt(FILE_TRANSFER_MAX_CHUNK_SIZE_DEFAULT);
+		}
+	}
+
+	/**
+	 * Whether commits onto the head of a branch may modify the project state of the head version in place.
+	 *
+	 * @return <code>true</code> if in-place commits are enabled, <code>false</code> otherwise
+	 */
+	public static boolean isCommitInPlaceEnabled() {
+		return Boolean.parseBoolean(getProperties().getProperty(PROJECTSTATE_COMMIT_IN_PLACE,
+			PROJECTSTATE_COMMIT_IN_PLACE_DEFAULT).trim());
+	}
+
+	/**
+	 * Whether the checksum of project states is computed as an order independent sum over its model elements.
+	 *
+	 * @return <code>true</code> if commutative checksums are enabled, <code>false</code> otherwise
+	 */
+	public static boolean isCommutativeChecksumEnabled() {
+		return Boolean.parseBoolean(getProperties().getProperty(CHECKSUM_COMMUTATIVE,
+			CHECKSUM_COMMUTATIVE_DEFAULT).trim());
+	}
+
+	/**
+	 * Whether derived commutative checksums are verified against a checksum computed over the whole project state.
+	 *
+	 * @return <code>true</code> if the verification is enabled, <code>false</code> otherwise
+	 */
+	public static boolean isCommutativeChecksumVerificationEnabled() {
+		return Boolean.parseBoolean(getProperties().getProperty(CHECKSUM_COMMUTATIVE_VERIFY,
+			CHECKSUM_COMMUTATIVE_VERIFY_DEFAULT).trim());
+	}
+
+	/**
+	 * Whether the indices that map model elements to the versions changing them should be rebuilt from the change
+	 * packages of all versions at startup.
+	 *
+	 * @return <code>true</code> if the indices should be rebuilt, <code>false</code> otherwise
+	 */
+	public static boolean isModelElementIndexRebuildRequested() {
+		return Boolean.parseBoolean(getProperties().getProperty(HISTORY_ELEMENT_INDEX_REBUILD,
+			HISTORY_ELEMENT_INDEX_REBUILD_DEFAULT).trim());
+	}
+
+	/**
+	 * Whether the server space should be validated on start up.
+	 *
+	 * @return <code>true</code> if the validation is enabled, <code>false</code> otherwise
+	 */
+	public static boolean isValidationEnabled() {
+		return Boolean.parseBoolean(getProperties().getProperty(VALIDATION, VALIDATION_DEFAULT).trim());
+	}
+
+	/**
+	 * Returns the level of the validation on start up.
+	 *
+	 * @return a bitwise combination of the options of the
+	 *         {@link org.eclipse.emf.emfstore.internal.server.startup.EmfStoreValidator EmfStoreValidator}
+	 */
+	public static int getValidationLevel() {
+		final String level = getProperties().getProperty(VALIDATION_LEVEL, VALIDATION_LEVEL_DEFAULT);
+		try {
+			return Integer.parseInt(level.trim());
+		} catch (final NumberFormatException e) {
+			ModelUtil.logWarning(MessageFormat.format(Messages.ServerConfiguration_Invalid_Validation_Level,
+				level, VALIDATION_LEVEL_DEFAULT));
+			return Integer.parseInt(VALIDATION_LEVEL_DEFAULT);
+		}
+	}
+
+	/**
+	 * Returns the IDs of the projects to be excluded from the validation.
+	 *
+	 * @return the project IDs
+	 */
+	public static List<String> getValidationExcludedProjects() {
+		final List<String> result = new ArrayList<String>();
+		for (final String projectId : getSplittedProperty(VALIDATION_PROJECT_EXCLUDE,
+			VALIDATION_PROJECT_EXCLUDE_DEFAULT)) {
+			if (projectId.length() > 0) {
+				result.add(projectId);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the number of projects to be validated in parallel.
+	 *
+	 * @return the number of threads
+	 */
+	public static int getValidationThreads() {
+		final String threads = getProperties().getProperty(VALIDATION_THREADS, VALIDATION_THREADS_DEFAULT);
+		int result;
+		try {
+			result = Integer.parseInt(threads.trim());
+		} catch (final NumberFormatException e) {
+			ModelUtil.logWarning(MessageFormat.format(Messages.ServerConfiguration_Invalid_Validation_Threads,
+				threads, VALIDATION_THREADS_DEFAULT));
+			result = Integer.parseInt(VALIDATION_THREADS_DEFAULT);
+		}
+		return result < 1 ? Runtime.getRuntime().availableProcessors() : result;
+	}
+
+	/**
+	 * Whether the validation should skip the versions that have been validated successfully before.
+	 *
+	 * @return <code>true</code> if the validation is incremental, <code>false</code> otherwise
+	 */
+	public static boolean isValidationIncremental() {
+		return Boolean.parseBoolean(getProperties().getProperty(VALIDATION_INCREMENTAL,
+			VALIDATION_INCREMENTAL_DEFAULT).trim());
+	}
+
+	/**
+	 * Whether the validation should run in the background once the server has been started.
+	 *
+	 * @return <code>true</code> if the validation runs in the background, <code>false</code> if it runs before the
+	 *         server accepts connections
+	 */
+	public static boolean isValidationInBackground() {
+		return Boolean.parseBoolean(getProperties().getProperty(VALIDATION_BACKGROUND,
+			VALIDATION_BACKGROUND_DEFAULT).trim());
+	}
+
+	/**
+	 * Whether the XML RPC interface that transfers EObjects in a binary format should be offered to clients.
+	 *
+	 * @return <code>true</code> if the binary interface is enabled, <code>false</code> otherwise
+	 */
+	public static boolean isBinaryTransportEnabled() {
+		return Boolean.parseBoolean(getProperties().getProperty(XML_RPC_BINARY, XML_RPC_BINARY_DEFAULT).trim());
+	}
+
+	/**
+	 * Whether EObjects sent via the binary XML RPC interface should be compressed.
+	 *
+	 * @return <code>true</code> if the binary payload is compressed, <code>false</code> otherwise
+	 */
+	public static boolean isBinaryTransportCompressionEnabled() {
+		return Boolean.parseBoolean(getProperties().getProperty(XML_RPC_BINARY_COMPRESSION,
+			XML_RPC_BINARY_COMPRESSION_DEFAULT).trim());
+	}
+
 	/**
 	 * Sets {@link #isUserPasswordMigrationRequired()} to <code>true</code>.
 	 */
@@ -85,6 +85,7 @@ public class DefaultESAuthorizationService implements ESAuthorizationService {
 			MethodId.GETPROJECT,
 			MethodId.GETEMFPROPERTIES,
 			MethodId.GETHISTORYINFO,
+			MethodId.GETHISTORYINFOPAGE,
 			MethodId.GETCHANGES,
 			MethodId.RESOLVEVERSIONSPEC,
 			MethodId.DOWNLOADFILECHUNK,
@@ -12,15 +12,18 @@
  ******************************************************************************/
 package org.eclipse.emf.emfstore.internal.server.conflictDetection;
 
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.emf.emfstore.internal.common.api.APIDelegate;
 import org.eclipse.emf.emfstore.internal.common.model.ModelElementIdToEObjectMapping;
 import org.eclipse.emf.emfstore.internal.server.impl.api.ESConflictSetImpl;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.AbstractChangePackage;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.ChangePackage;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AbstractOperation;
+import org.eclipse.emf.emfstore.server.ESCloseableIterable;
 import org.eclipse.emf.emfstore.server.ESConflictSet;
 
 /**
@@ -36,7 +39,9 @@ public class ChangeConflictSet implements APIDelegate<ESConflictSet> {
 	private final ModelElementIdToEObjectMapping idToEObjectMapping;
 	private ESConflictSetImpl apiImpl;
 	private final Set<ConflictBucket> conflictBuckets;
-	private final Set<AbstractOperation> notInvolvedInConflict;
+	private Set<AbstractOperation> notInvolvedInConflict;
+	private Set<AbstractOperation> involvedInConflict;
+	private Set<String> involvedInConflictIds;
 	private final List<AbstractChangePackage> leftChanges;
 	private final List<AbstractChangePackage> rightChanges;
 
@@ -67,6 +72,25 @@ public class ChangeConflictSet implements APIDelegate<ESConflictSet> {
 		this.rightChanges = rightChanges;
 	}
 
+	/**
+	 * Constructor. The operations not involved in any conflict are read from the left changes on demand.
+	 *
+	 * @param conflictBuckets
+	 *            a set of conflict candidates
+	 * @param idToEObjectMapping
+	 *            a mapping from IDs to EObjects and vice versa.<br/>
+	 *            Contains all IDs of model elements involved in the {@link ChangePackage}s
+	 *            as well as those contained by the project in the ProjectSpace
+	 * @param leftChanges
+	 *            a list of {@link ChangePackage}s representing one side of the conflict
+	 * @param rightChanges
+	 *            a list of {@link ChangePackage}s representing the other side of the conflict
+	 */
+	public ChangeConflictSet(Set<ConflictBucket> conflictBuckets, ModelElementIdToEObjectMapping idToEObjectMapping,
+		List<AbstractChangePackage> leftChanges, List<AbstractChangePackage> rightChanges) {
+		this(conflictBuckets, null, idToEObjectMapping, leftChanges, rightChanges);
+	}
+
 	/**
 	 * Returns the mapping from IDs to EObjects and vice versa.<br/>
 	 * The mapping contains all IDs of model elements involved in the {@link ChangePackage}s
@@ -102,14 +126,68 @@ public class ChangeConflictSet implements APIDelegate<ESConflictSet> {
 	}
 
 	/**
-	 * Returns a set of operations not involved in any conflict.
+	 * Returns a set of operations not involved in any conflict. Unless given on construction, the operations are read
+	 * from the left changes on the first call, so prefer {@link #isNotInvolvedInConflict(AbstractOperation)} while
+	 * iterating the left changes anyway.
 	 *
 	 * @return a set of operations not involved in any conflict
 	 */
 	public Set<AbstractOperation> getNotInvolvedInConflict() {
+		if (notInvolvedInConflict == null) {
+			final Set<AbstractOperation> operations = new LinkedHashSet<AbstractOperation>();
+			for (final AbstractChangePackage changePackage : leftChanges) {
+				final ESCloseableIterable<AbstractOperation> leftOperations = changePackage.operations();
+				try {
+					for (final AbstractOperation operation : leftOperations.iterable()) {
+						if (isNotInvolvedInConflict(operation)) {
+							operations.add(operation);
+						}
+					}
+				} finally {
+					leftOperations.close();
+				}
+			}
+			notInvolvedInConflict = operations;
+		}
 		return notInvolvedInConflict;
 	}
 
+	/**
+	 * Whether the given operation of the left changes is not involved in any conflict. Operations are matched by
+	 * their identifier, so the operation may also be a copy read from a file based change package. Operations without
+	 * an identifier are compared structurally.
+	 *
+	 * @param operation
+	 *            an operation of the left changes
+	 * @return {@code true}, if the operation is not involved in any conflict
+	 */
+	public boolean isNotInvolvedInConflict(AbstractOperation operation) {
+		if (involvedInConflict == null) {
+			involvedInConflict = new LinkedHashSet<AbstractOperation>();
+			involvedInConflictIds = new LinkedHashSet<String>();
+			for (final ConflictBucket conflictBucket : conflictBuckets) {
+				for (final AbstractOperation myOperation : conflictBucket.getMyOperations()) {
+					involvedInConflict.add(myOperation);
+					if (myOperation.getIdentifier() != null) {
+						involvedInConflictIds.add(myOperation.getIdentifier());
+					}
+				}
+			}
+		}
+		if (involvedInConflict.contains(operation)) {
+			return false;
+		}
+		if (operation.getIdentifier() != null) {
+			return !involvedInConflictIds.contains(operation.getIdentifier());
+		}
+		for (final AbstractOperation myOperation : involvedInConflict) {
+			if (EcoreUtil.equals(myOperation, operation)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Returns a set of conflict candidates.
 	 *
@@ -35,18 +35,16 @@ import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.Abst
  */
 public class ConflictBucketCandidate {
 
-	private final Set<AbstractOperation> myOperations;
-	private final Set<AbstractOperation> theirOperations;
-	private final Map<AbstractOperation, Integer> operationToPriorityMap;
+	// created on demand, since most candidates only serve to link reservations during the scan
+	private Set<AbstractOperation> myOperations;
+	private Set<AbstractOperation> theirOperations;
+	private Map<AbstractOperation, Integer> operationToPriorityMap;
 	private ConflictBucketCandidate parentConflictBucketCandidate;
 
 	/**
 	 * Default constructor.
 	 */
 	public ConflictBucketCandidate() {
-		myOperations = new LinkedHashSet<AbstractOperation>();
-		theirOperations = new LinkedHashSet<AbstractOperation>();
-		operationToPriorityMap = new LinkedHashMap<AbstractOperation, Integer>();
 	}
 
 	/**
@@ -60,11 +58,11 @@ public class ConflictBucketCandidate {
 		if (operation == null) {
 			return;
 		}
-		operationToPriorityMap.put(operation, priority);
+		getOperationToPriorityMap().put(operation, priority);
 		if (isMyOperation) {
-			myOperations.add(operation);
+			getMyOperations().add(operation);
 		} else {
-			theirOperations.add(operation);
+			getTheirOperations().add(operation);
 		}
 	}
 
@@ -79,9 +77,13 @@ public class ConflictBucketCandidate {
 			return;
 		}
 
-		myOperations.addAll(otherBucket.getMyOperations());
-		theirOperations.addAll(otherBucket.getTheirOperations());
-		operationToPriorityMap.putAll(otherBucket.operationToPriorityMap);
+		if (otherBucket.operationToPriorityMap == null) {
+			return;
+		}
+
+		getMyOperations().addAll(otherBucket.getMyOperations());
+		getTheirOperations().addAll(otherBucket.getTheirOperations());
+		getOperationToPriorityMap().putAll(otherBucket.operationToPriorityMap);
 	}
 
 	/**
@@ -127,20 +129,23 @@ public class ConflictBucketCandidate {
 	 * @return the size of the bucket in the total number of involved operations
 	 */
 	public int size() {
-		return theirOperations.size() + myOperations.size();
+		return getTheirOperations().size() + getMyOperations().size();
 	}
 
 	/**
 	 * @return true, if the set is conflicting, that is my and their operations are not empty
 	 */
 	public boolean isConflicting() {
-		return theirOperations.size() > 0 && myOperations.size() > 0;
+		return getTheirOperations().size() > 0 && getMyOperations().size() > 0;
 	}
 
 	/**
 	 * @return my operations
 	 */
 	public Set<AbstractOperation> getMyOperations() {
+		if (myOperations == null) {
+			myOperations = new LinkedHashSet<AbstractOperation>();
+		}
 		return myOperations;
 	}
 
@@ -148,9 +153,19 @@ public class ConflictBucketCandidate {
 	 * @return their operations
 	 */
 	public Set<AbstractOperation> getTheirOperations() {
+		if (theirOperations == null) {
+			theirOperations = new LinkedHashSet<AbstractOperation>();
+		}
 		return theirOperations;
 	}
 
+	private Map<AbstractOperation, Integer> getOperationToPriorityMap() {
+		if (operationToPriorityMap == null) {
+			operationToPriorityMap = new LinkedHashMap<AbstractOperation, Integer>();
+		}
+		return operationToPriorityMap;
+	}
+
 	/**
 	 * Calculate a set of conflict buckets from this candidate bucket. The result set may be empty if no conflicts are
 	 * found within
@@ -168,7 +183,7 @@ public class ConflictBucketCandidate {
 
 		// if the bucket is not conflicting (empty my or their) just add all my operations to non conflicting set
 		if (!isConflicting()) {
-			myOperationsNonConflictingOperations.addAll(myOperations);
+			myOperationsNonConflictingOperations.addAll(getMyOperations());
 			return conflictBucketsSet;
 		}
 
@@ -183,7 +198,7 @@ public class ConflictBucketCandidate {
 			Integer maxPriority = -1;
 			AbstractOperation maxOperation = null;
 			for (final AbstractOperation myOperation : conflictBucket.getMyOperations()) {
-				final Integer currentPrio = operationToPriorityMap.get(myOperation);
+				final Integer currentPrio = getOperationToPriorityMap().get(myOperation);
 				if (currentPrio > maxPriority) {
 					maxPriority = currentPrio;
 					maxOperation = myOperation;
@@ -196,7 +211,7 @@ public class ConflictBucketCandidate {
 			Integer maxPriority = -1;
 			AbstractOperation maxOperation = null;
 			for (final AbstractOperation theirOperation : conflictBucket.getTheirOperations()) {
-				final Integer currentPrio = operationToPriorityMap.get(theirOperation);
+				final Integer currentPrio = getOperationToPriorityMap().get(theirOperation);
 				if (currentPrio > maxPriority) {
 					maxPriority = currentPrio;
 					maxOperation = theirOperation;
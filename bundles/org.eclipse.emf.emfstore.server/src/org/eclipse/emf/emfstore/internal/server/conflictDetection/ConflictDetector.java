@@ -12,8 +12,11 @@
 package org.eclipse.emf.emfstore.internal.server.conflictDetection;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.emf.emfstore.internal.common.model.ModelElementIdToEObjectMapping;
@@ -30,10 +33,33 @@ import org.eclipse.emf.emfstore.server.ESCloseableIterable;
  */
 public class ConflictDetector {
 
+	/**
+	 * The number of operations below which all operations are scanned on the calling thread.
+	 */
+	private static final int PARTITIONING_THRESHOLD = 1000;
+
+	private static final int MINE = 1;
+	private static final int THEIRS = 2;
+
+	private final int parallelism;
+
 	/**
 	 * Constructor.
 	 */
 	public ConflictDetector() {
+		this(1);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param parallelism
+	 *            the number of threads used to scan the operations for conflicts. With a value greater than 1, the
+	 *            reservations of the operations are partitioned by the IDs of the model elements and scanned in
+	 *            parallel, if there are enough operations. The result is the same as the one of a serial scan.
+	 */
+	public ConflictDetector(int parallelism) {
+		this.parallelism = Math.max(1, parallelism);
 	}
 
 	/**
@@ -58,6 +84,12 @@ public class ConflictDetector {
 
 	/**
 	 * Calculates a {@link ChangeConflictSet} based on opposing {@link ChangePackage}s.
+	 * <p>
+	 * The operations of the change packages are streamed twice. The first pass only scans the reservations of the
+	 * operations, the second one collects those operations that actually end up in a conflict and is skipped if
+	 * there are no conflicts at all. Operations not involved in any conflict are never kept in memory, but re-read
+	 * from the change packages on demand by the returned {@link ChangeConflictSet}.
+	 * </p>
 	 *
 	 * @param myChangePackages
 	 *            a list of {@link ChangePackage}s
@@ -69,66 +101,154 @@ public class ConflictDetector {
 	 */
 	public ChangeConflictSet calculateConflicts(List<AbstractChangePackage> myChangePackages,
 		List<AbstractChangePackage> theirChangePackages, ModelElementIdToEObjectMapping idToEObjectMapping) {
-		final Set<ConflictBucketCandidate> conflictCandidateBuckets = calculateConflictCandidateBuckets(
-			myChangePackages,
-			theirChangePackages, idToEObjectMapping);
-		final Set<AbstractOperation> notInvolvedInConflict = new LinkedHashSet<AbstractOperation>();
-		final Set<ConflictBucket> conflictBuckets = calculateConflictBucketsFromConflictCandidateBuckets(
-			conflictCandidateBuckets, notInvolvedInConflict);
-		return new ChangeConflictSet(conflictBuckets, notInvolvedInConflict, idToEObjectMapping, myChangePackages,
-			theirChangePackages);
+
+		final List<ConflictBucketCandidate> candidates = new ArrayList<ConflictBucketCandidate>();
+		final int myOperationCount = scanConflictBucketCandidates(myChangePackages, theirChangePackages,
+			idToEObjectMapping, candidates);
+		final BitSet conflictingOperations = getConflictingOperations(candidates, myOperationCount);
+
+		final Set<ConflictBucket> conflictBuckets;
+		if (conflictingOperations.isEmpty()) {
+			conflictBuckets = new LinkedHashSet<ConflictBucket>();
+		} else {
+			final List<ConflictBucketCandidate> conflictCandidates = new ArrayList<ConflictBucketCandidate>();
+			final int myOperationsEnd = collectConflictingOperations(myChangePackages, true, 0, candidates,
+				conflictingOperations, conflictCandidates);
+			collectConflictingOperations(theirChangePackages, false, myOperationsEnd, candidates,
+				conflictingOperations, conflictCandidates);
+			conflictBuckets = calculateConflictBucketsFromConflictCandidateBuckets(
+				ReservationToConflictBucketCandidateMap.groupByRootConflictBucketCandidate(conflictCandidates),
+				new LinkedHashSet<AbstractOperation>());
+		}
+		return new ChangeConflictSet(conflictBuckets, idToEObjectMapping, myChangePackages, theirChangePackages);
 	}
 
 	/**
-	 * Calculate a set of conflict candidate buckets from a list of my and their change packages.
+	 * Scans the reservations of my and their operations into linked conflict bucket candidates, which do not
+	 * contain any operations.
 	 *
-	 * @param myChangePackages their operations in a list of change packages
-	 * @param theirChangePackages their operations in a list of change packages
-	 * @return a set of buckets with potentially conflicting operations
+	 * @param candidates
+	 *            the list the candidates are added to, in the order of their operations
+	 * @return the number of my operations
 	 */
-	private Set<ConflictBucketCandidate> calculateConflictCandidateBuckets(
-		List<AbstractChangePackage> myChangePackages,
-		List<AbstractChangePackage> theirChangePackages, ModelElementIdToEObjectMapping idToEObjectMapping) {
+	private int scanConflictBucketCandidates(List<AbstractChangePackage> myChangePackages,
+		List<AbstractChangePackage> theirChangePackages, final ModelElementIdToEObjectMapping idToEObjectMapping,
+		List<ConflictBucketCandidate> candidates) {
 
-		final List<AbstractOperation> myOperations = flattenChangepackages(myChangePackages);
-		final List<AbstractOperation> theirOperations = flattenChangepackages(theirChangePackages);
+		if (parallelism > 1 && size(myChangePackages) + size(theirChangePackages) >= PARTITIONING_THRESHOLD) {
+			final PartitionedReservationScanner scanner = new PartitionedReservationScanner(parallelism,
+				idToEObjectMapping);
+			try {
+				final OperationScanner operationScanner = new OperationScanner() {
+					public ConflictBucketCandidate scan(AbstractOperation operation) {
+						return scanner.scanOperationReservations(operation);
+					}
+				};
+				final int myOperationCount = scan(myChangePackages, operationScanner, candidates);
+				scan(theirChangePackages, operationScanner, candidates);
+				scanner.finish();
+				return myOperationCount;
+			} finally {
+				scanner.dispose();
+			}
+		}
 
-		return calculateConflictCandidateBuckets(idToEObjectMapping, myOperations, theirOperations);
+		final ReservationToConflictBucketCandidateMap conflictMap = new ReservationToConflictBucketCandidateMap();
+		final OperationScanner operationScanner = new OperationScanner() {
+			public ConflictBucketCandidate scan(AbstractOperation operation) {
+				return conflictMap.scanOperationReservations(operation, idToEObjectMapping);
+			}
+		};
+		final int myOperationCount = scan(myChangePackages, operationScanner, candidates);
+		scan(theirChangePackages, operationScanner, candidates);
+		return myOperationCount;
 	}
 
-	private Set<ConflictBucketCandidate> calculateConflictCandidateBuckets(
-		ModelElementIdToEObjectMapping idToEObjectMapping,
-		List<AbstractOperation> myOperations, List<AbstractOperation> theirOperations) {
+	private static int scan(List<AbstractChangePackage> changePackages, OperationScanner operationScanner,
+		List<ConflictBucketCandidate> candidates) {
+		int count = 0;
+		for (final AbstractChangePackage changePackage : changePackages) {
+			final ESCloseableIterable<AbstractOperation> operations = changePackage.operations();
+			try {
+				for (final AbstractOperation operation : operations.iterable()) {
+					candidates.add(operationScanner.scan(operation));
+					count++;
+				}
+			} finally {
+				operations.close();
+			}
+		}
+		return count;
+	}
 
-		final ReservationToConflictBucketCandidateMap conflictMap = new ReservationToConflictBucketCandidateMap();
+	private static int size(List<AbstractChangePackage> changePackages) {
+		int size = 0;
+		for (final AbstractChangePackage changePackage : changePackages) {
+			size += changePackage.size();
+		}
+		return size;
+	}
 
-		int counter = 0;
-		for (final AbstractOperation myOperation : myOperations) {
-			conflictMap.scanOperationReservations(myOperation, counter, idToEObjectMapping, true);
-			counter++;
+	/**
+	 * Determines the operations whose candidates belong to a bucket containing both my and their operations.
+	 *
+	 * @param candidates
+	 *            the linked candidates of all operations, my operations first
+	 * @param myOperationCount
+	 *            the number of my operations
+	 * @return the indices of the conflicting operations
+	 */
+	private static BitSet getConflictingOperations(List<ConflictBucketCandidate> candidates, int myOperationCount) {
+		final Map<ConflictBucketCandidate, Integer> rootToSides = new IdentityHashMap<ConflictBucketCandidate, Integer>();
+		for (int i = 0; i < candidates.size(); i++) {
+			final ConflictBucketCandidate root = candidates.get(i).getRootConflictBucketCandidate();
+			final Integer sides = rootToSides.get(root);
+			final int side = i < myOperationCount ? MINE : THEIRS;
+			rootToSides.put(root, sides == null ? side : sides | side);
 		}
 
-		for (final AbstractOperation theirOperation : theirOperations) {
-			conflictMap.scanOperationReservations(theirOperation, counter, idToEObjectMapping, false);
-			counter++;
+		final BitSet conflictingOperations = new BitSet(candidates.size());
+		for (int i = 0; i < candidates.size(); i++) {
+			if (rootToSides.get(candidates.get(i).getRootConflictBucketCandidate()) == (MINE | THEIRS)) {
+				conflictingOperations.set(i);
+			}
 		}
-		return conflictMap.getConflictBucketCandidates();
+		return conflictingOperations;
 	}
 
-	// TODO: LCP, List return type
-	private List<AbstractOperation> flattenChangepackages(List<AbstractChangePackage> changePackages) {
-		final List<AbstractOperation> operations = new ArrayList<AbstractOperation>();
+	/**
+	 * Re-reads the given change packages and adds the conflicting operations to their candidates.
+	 *
+	 * @return the index of the first operation after the given change packages
+	 */
+	private static int collectConflictingOperations(List<AbstractChangePackage> changePackages,
+		boolean isMyOperation, int firstIndex, List<ConflictBucketCandidate> candidates,
+		BitSet conflictingOperations, List<ConflictBucketCandidate> conflictCandidates) {
+
+		int index = firstIndex;
 		for (final AbstractChangePackage changePackage : changePackages) {
-			final ESCloseableIterable<AbstractOperation> changePackageOperations = changePackage.operations();
+			final ESCloseableIterable<AbstractOperation> operations = changePackage.operations();
 			try {
-				for (final AbstractOperation operation : changePackageOperations.iterable()) {
-					operations.add(operation);
+				for (final AbstractOperation operation : operations.iterable()) {
+					if (conflictingOperations.get(index)) {
+						final ConflictBucketCandidate candidate = candidates.get(index);
+						candidate.addOperation(operation, isMyOperation, index);
+						conflictCandidates.add(candidate);
+					}
+					index++;
 				}
 			} finally {
-				changePackageOperations.close();
+				operations.close();
 			}
 		}
-		return operations;
+		return index;
+	}
+
+	/**
+	 * Scans a single operation into a conflict bucket candidate.
+	 */
+	private interface OperationScanner {
+		ConflictBucketCandidate scan(AbstractOperation operation);
 	}
 
 	/**
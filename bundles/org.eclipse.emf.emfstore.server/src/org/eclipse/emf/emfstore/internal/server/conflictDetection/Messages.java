@@ -22,6 +22,8 @@ import org.eclipse.osgi.util.NLS;
 public final class Messages extends NLS {
 	private static final String BUNDLE_NAME = "org.eclipse.emf.emfstore.internal.server.conflictDetection.messages"; //$NON-NLS-1$
 	public static String ModelElementIdToEObjectMappingImpl_CreateDeleteOp_NullKey;
+	public static String PartitionedReservationScanner_Failed;
+	public static String PartitionedReservationScanner_Interrupted;
 	public static String ReservationSet_IllegalReservation_SameFeatureAmbigousOpposite;
 	public static String ReservationToConflictBucketCandidateMap_Illegal_Reservation_With_And_Without_Opposite;
 	public static String ReservationToConflictBucketCandidateMap_Key_Is_Null;
@@ -0,0 +1,268 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.internal.server.conflictDetection;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.emfstore.internal.common.model.ModelElementId;
+import org.eclipse.emf.emfstore.internal.common.model.ModelElementIdToEObjectMapping;
+import org.eclipse.emf.emfstore.internal.common.model.impl.ESModelElementIdToEObjectMappingImpl;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AbstractOperation;
+
+/**
+ * Scans operations into {@link ConflictBucketCandidate}s on several threads. The candidates are linked in the same way
+ * as if all operations were scanned into a single {@link ReservationToConflictBucketCandidateMap}.
+ * <p>
+ * Operations are processed in batches. The reservations of the operations of a batch are extracted in parallel and
+ * then joined into one {@link ReservationToConflictBucketCandidateMap} per partition, where the partition of a
+ * reservation is determined by the hash of the ID of the reserved model element. Since reservations of different model
+ * elements never interfere, every partition finds exactly those merges of the serial scan that are caused by its model
+ * elements. Finally, the merges of all partitions are combined and every candidate is attached to the candidate of the
+ * last operation of its bucket, just like the serial scan does.
+ * </p>
+ */
+public class PartitionedReservationScanner {
+
+	private static final int BATCH_SIZE = 4096;
+
+	private final int parallelism;
+	private final ModelElementIdToEObjectMapping idToEObjectMapping;
+	private final ExecutorService executor;
+	private final ReservationToConflictBucketCandidateMap extractor;
+	private final List<Partition> partitions;
+	private final List<ConflictBucketCandidate> candidates;
+	private final List<AbstractOperation> batch;
+	private final int[] firstVisits;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param parallelism
+	 *            the number of threads as well as the number of partitions
+	 * @param idToEObjectMapping
+	 *            a mapping from IDs to model elements containing all involved model elements
+	 */
+	public PartitionedReservationScanner(int parallelism, ModelElementIdToEObjectMapping idToEObjectMapping) {
+		this.parallelism = parallelism;
+		this.idToEObjectMapping = new SynchronizedMapping(idToEObjectMapping);
+		executor = Executors.newFixedThreadPool(parallelism, new ThreadFactory() {
+			private int count;
+
+			public synchronized Thread newThread(Runnable runnable) {
+				final Thread thread = new Thread(runnable, "EMFStore Conflict Detection " + ++count); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		extractor = new ReservationToConflictBucketCandidateMap();
+		partitions = new ArrayList<Partition>(parallelism);
+		for (int i = 0; i < parallelism; i++) {
+			partitions.add(new Partition(i, parallelism));
+		}
+		candidates = new ArrayList<ConflictBucketCandidate>();
+		batch = new ArrayList<AbstractOperation>(BATCH_SIZE);
+		firstVisits = new int[BATCH_SIZE];
+	}
+
+	/**
+	 * Scans the given operation without keeping a reference to it beyond the current batch. The returned conflict
+	 * bucket candidate contains no operations and is linked with the candidates of conflicting operations once
+	 * {@link #finish()} has returned.
+	 *
+	 * @param operation
+	 *            the operation to be scanned
+	 * @return the conflict bucket candidate of the operation
+	 */
+	public ConflictBucketCandidate scanOperationReservations(AbstractOperation operation) {
+		// map entries have to be registered in order, since later operations depend on them
+		firstVisits[batch.size()] = extractor.registerMapEntries(operation, idToEObjectMapping);
+		batch.add(operation);
+		final ConflictBucketCandidate candidate = new ConflictBucketCandidate();
+		candidates.add(candidate);
+		if (batch.size() == BATCH_SIZE) {
+			scanBatch();
+		}
+		return candidate;
+	}
+
+	/**
+	 * Scans the remaining operations and links the conflict bucket candidates of all scanned operations.
+	 */
+	public void finish() {
+		scanBatch();
+		link();
+	}
+
+	/**
+	 * Stops the threads of this scanner.
+	 */
+	public void dispose() {
+		executor.shutdownNow();
+	}
+
+	private void scanBatch() {
+		final int batchStart = candidates.size() - batch.size();
+		final ReservationSet[] reservationSets = new ReservationSet[batch.size()];
+
+		final List<Callable<Void>> extractions = new ArrayList<Callable<Void>>(parallelism);
+		final int chunkSize = (batch.size() + parallelism - 1) / parallelism;
+		for (int chunkStart = 0; chunkStart < batch.size(); chunkStart += chunkSize) {
+			final int from = chunkStart;
+			final int to = Math.min(chunkStart + chunkSize, batch.size());
+			extractions.add(new Callable<Void>() {
+				public Void call() {
+					for (int i = from; i < to; i++) {
+						reservationSets[i] = extractor.extractReservations(batch.get(i), firstVisits[i],
+							idToEObjectMapping);
+					}
+					return null;
+				}
+			});
+		}
+		invokeAll(executor, extractions);
+
+		final List<Callable<Void>> joins = new ArrayList<Callable<Void>>(parallelism);
+		for (final Partition partition : partitions) {
+			joins.add(new Callable<Void>() {
+				public Void call() {
+					for (int i = 0; i < reservationSets.length; i++) {
+						partition.join(batchStart + i, reservationSets[i]);
+					}
+					return null;
+				}
+			});
+		}
+		invokeAll(executor, joins);
+		batch.clear();
+	}
+
+	private void link() {
+		final int[] parents = new int[candidates.size()];
+		for (int i = 0; i < parents.length; i++) {
+			parents[i] = i;
+		}
+		for (final Partition partition : partitions) {
+			for (final Map.Entry<ConflictBucketCandidate, Integer> entry : partition.operationIndices.entrySet()) {
+				final Integer rootIndex = partition.operationIndices.get(
+					entry.getKey().getRootConflictBucketCandidate());
+				union(parents, entry.getValue(), rootIndex);
+			}
+		}
+
+		// the serial scan always makes the candidate of the latest operation the root of a bucket
+		final int[] lastOperations = new int[parents.length];
+		for (int i = 0; i < parents.length; i++) {
+			lastOperations[find(parents, i)] = i;
+		}
+		for (int i = 0; i < parents.length; i++) {
+			final int lastOperation = lastOperations[find(parents, i)];
+			if (lastOperation != i) {
+				candidates.get(i).setParentConflictBucketCandidate(candidates.get(lastOperation));
+			}
+		}
+	}
+
+	private static int find(int[] parents, int index) {
+		int current = index;
+		while (parents[current] != current) {
+			parents[current] = parents[parents[current]];
+			current = parents[current];
+		}
+		return current;
+	}
+
+	private static void union(int[] parents, int first, int second) {
+		final int firstRoot = find(parents, first);
+		final int secondRoot = find(parents, second);
+		if (firstRoot != secondRoot) {
+			parents[firstRoot] = secondRoot;
+		}
+	}
+
+	private static void invokeAll(ExecutorService executor, List<Callable<Void>> tasks) {
+		try {
+			for (final Future<Void> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (final InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(Messages.PartitionedReservationScanner_Interrupted);
+		} catch (final ExecutionException ex) {
+			if (ex.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ex.getCause();
+			} else if (ex.getCause() instanceof Error) {
+				throw (Error) ex.getCause();
+			}
+			final IllegalStateException exception = new IllegalStateException(
+				Messages.PartitionedReservationScanner_Failed);
+			exception.initCause(ex.getCause());
+			throw exception;
+		}
+	}
+
+	/**
+	 * The reservations of the model elements of one partition. Every operation reserving such a model element gets a
+	 * conflict bucket candidate of its own within the partition, which is only used to track the merges.
+	 */
+	private static final class Partition {
+
+		private final ReservationToConflictBucketCandidateMap reservations;
+		private final Map<ConflictBucketCandidate, Integer> operationIndices;
+
+		Partition(int partition, int partitionCount) {
+			reservations = new ReservationToConflictBucketCandidateMap(partition, partitionCount);
+			operationIndices = new IdentityHashMap<ConflictBucketCandidate, Integer>();
+		}
+
+		void join(int operationIndex, ReservationSet reservationSet) {
+			if (!reservations.touchesPartition(reservationSet)) {
+				return;
+			}
+			final ConflictBucketCandidate candidate = new ConflictBucketCandidate();
+			operationIndices.put(candidate, operationIndex);
+			reservations.joinReservationSet(reservationSet, candidate);
+		}
+	}
+
+	/**
+	 * Serializes the access to a mapping, since resolving model elements might not be thread-safe.
+	 */
+	private static final class SynchronizedMapping implements ModelElementIdToEObjectMapping {
+
+		private final ModelElementIdToEObjectMapping delegate;
+
+		SynchronizedMapping(ModelElementIdToEObjectMapping delegate) {
+			this.delegate = delegate;
+		}
+
+		public synchronized EObject get(ModelElementId modelElementId) {
+			return delegate.get(modelElementId);
+		}
+
+		public synchronized ESModelElementIdToEObjectMappingImpl toAPI() {
+			return delegate.toAPI();
+		}
+
+		public synchronized ESModelElementIdToEObjectMappingImpl createAPI() {
+			return delegate.createAPI();
+		}
+	}
+}
@@ -18,12 +18,15 @@ import static org.eclipse.emf.emfstore.internal.server.model.versioning.operatio
 import static org.eclipse.emf.emfstore.internal.server.model.versioning.operations.util.OperationUtil.isMultiRefSet;
 
 import java.text.MessageFormat;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.emfstore.internal.common.ExtensionRegistry;
@@ -50,7 +53,11 @@ public class ReservationToConflictBucketCandidateMap {
 	private static ReservationSetModifier reservationSetModifier = initCustomReservationSetModifier();
 	private final ReservationSet reservationToConflictMap;
 	private final Set<ConflictBucketCandidate> conflictBucketCandidates;
-	private final Map<String, Integer> idToKeyHashCode;
+	// key hash codes of created map entries by the visit number of the creating operation
+	private final Map<String, SortedMap<Integer, Integer>> idToKeyHashCodes;
+	private final int partition;
+	private final int partitionCount;
+	private int nextVisit;
 
 	private static ReservationSetModifier initCustomReservationSetModifier() {
 
@@ -71,17 +78,77 @@ public class ReservationToConflictBucketCandidateMap {
 	 * Default constructor.
 	 */
 	public ReservationToConflictBucketCandidateMap() {
+		this(0, 1);
+	}
+
+	/**
+	 * Constructor for a map that only tracks the reservations of those model elements whose ID hashes to the given
+	 * partition. Reservations of other model elements are ignored when joining a {@link ReservationSet}.
+	 *
+	 * @param partition
+	 *            the partition of this map
+	 * @param partitionCount
+	 *            the total number of partitions
+	 */
+	ReservationToConflictBucketCandidateMap(int partition, int partitionCount) {
 		reservationToConflictMap = new ReservationSet();
 		conflictBucketCandidates = new LinkedHashSet<ConflictBucketCandidate>();
-		idToKeyHashCode = new LinkedHashMap<String, Integer>();
+		idToKeyHashCodes = new LinkedHashMap<String, SortedMap<Integer, Integer>>();
+		this.partition = partition;
+		this.partitionCount = partitionCount;
+	}
 
+	/**
+	 * Returns the partition the given model element belongs to.
+	 *
+	 * @param modelElement
+	 *            the ID of a model element
+	 * @param partitionCount
+	 *            the total number of partitions
+	 * @return the partition of the model element
+	 */
+	private static int getPartition(String modelElement, int partitionCount) {
+		return (modelElement.hashCode() & Integer.MAX_VALUE) % partitionCount;
 	}
 
-	private void joinReservationSet(ReservationSet reservationSet,
+	private boolean isInPartition(String modelElement) {
+		return partitionCount == 1 || getPartition(modelElement, partitionCount) == partition;
+	}
+
+	/**
+	 * Whether the given reservation set reserves any model element of the partition of this map.
+	 *
+	 * @param reservationSet
+	 *            the reservation set
+	 * @return {@code true}, if joining the reservation set would affect this map, {@code false} otherwise
+	 */
+	boolean touchesPartition(ReservationSet reservationSet) {
+		for (final String modelElement : reservationSet.getAllModelElements()) {
+			if (isInPartition(modelElement)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Joins the given reservation set into this map and merges the given conflict bucket candidate with all
+	 * candidates holding a conflicting reservation.
+	 *
+	 * @param reservationSet
+	 *            the reservations of a single operation
+	 * @param currentConflictBucketCandidate
+	 *            the conflict bucket candidate of the operation
+	 */
+	void joinReservationSet(ReservationSet reservationSet,
 		ConflictBucketCandidate currentConflictBucketCandidate) {
 		final Set<String> modelElements = reservationSet.getAllModelElements();
 		// iterate incoming reservation set
 		for (final String modelElement : modelElements) {
+			// reservations of different model elements never interfere with each other
+			if (!isInPartition(modelElement)) {
+				continue;
+			}
 			// handle full reservations
 			if (reservationSet.hasFullReservation(modelElement)
 				|| reservationToConflictMap.hasFullReservation(modelElement)) {
@@ -207,56 +274,139 @@ public class ReservationToConflictBucketCandidateMap {
 	public void scanOperationReservations(AbstractOperation operation, int priority,
 		ModelElementIdToEObjectMapping idToEObjectMapping, boolean isMyOperation) {
 
-		ReservationSet reservationSet = extractReservationFromOperation(operation, new ReservationSet(),
-			idToEObjectMapping);
-		reservationSet = addCustomReservations(operation, reservationSet, idToEObjectMapping);
+		final int firstVisit = registerMapEntries(operation, idToEObjectMapping);
+		final ReservationSet reservationSet = extractReservations(operation, firstVisit, idToEObjectMapping);
 		final ConflictBucketCandidate conflictBucketCandidate = new ConflictBucketCandidate();
 		conflictBucketCandidates.add(conflictBucketCandidate);
 		conflictBucketCandidate.addOperation(operation, isMyOperation, priority);
 		joinReservationSet(reservationSet, conflictBucketCandidate);
 	}
 
+	/**
+	 * Scans the given {@link AbstractOperation} into the reservation set without keeping a reference to it. The
+	 * returned conflict bucket candidate is linked with the candidates of conflicting operations, but contains no
+	 * operations.
+	 *
+	 * @param operation
+	 *            the operation to be scanned
+	 * @param idToEObjectMapping
+	 *            a mapping from IDs to model elements containing all involved model elements
+	 * @return the conflict bucket candidate of the operation
+	 */
+	ConflictBucketCandidate scanOperationReservations(AbstractOperation operation,
+		ModelElementIdToEObjectMapping idToEObjectMapping) {
+
+		final int firstVisit = registerMapEntries(operation, idToEObjectMapping);
+		final ReservationSet reservationSet = extractReservations(operation, firstVisit, idToEObjectMapping);
+		final ConflictBucketCandidate conflictBucketCandidate = new ConflictBucketCandidate();
+		joinReservationSet(reservationSet, conflictBucketCandidate);
+		return conflictBucketCandidate;
+	}
+
 	private ReservationSet addCustomReservations(AbstractOperation operation, ReservationSet reservationSet,
 		ModelElementIdToEObjectMapping idToEObjectMapping) {
-		return reservationSetModifier.addCustomReservation(operation, reservationSet, idToEObjectMapping);
+		// custom modifiers are not required to be thread-safe
+		synchronized (reservationSetModifier) {
+			return reservationSetModifier.addCustomReservation(operation, reservationSet, idToEObjectMapping);
+		}
+	}
+
+	/**
+	 * Registers the map entries created by the given operation. Every (sub-)operation is assigned a visit number in
+	 * the order in which the operations are scanned, and a map entry is only known as created to those operations
+	 * being visited after the operation that created it. This method must be called for all operations in order
+	 * before their reservations are extracted.
+	 *
+	 * @param operation
+	 *            the operation
+	 * @param idToEObjectMapping
+	 *            a mapping from IDs to model elements containing all involved model elements
+	 * @return the visit number of the given operation, to be passed to
+	 *         {@link #extractReservations(AbstractOperation, int, ModelElementIdToEObjectMapping)}
+	 */
+	int registerMapEntries(AbstractOperation operation, ModelElementIdToEObjectMapping idToEObjectMapping) {
+		final int firstVisit = nextVisit;
+		nextVisit = registerMapEntries(operation, firstVisit, idToEObjectMapping);
+		return firstVisit;
 	}
 
-	private ReservationSet extractReservationFromOperation(final AbstractOperation operation,
+	private int registerMapEntries(AbstractOperation operation, int visit,
+		ModelElementIdToEObjectMapping idToEObjectMapping) {
+		int nextVisit = visit + 1;
+		if (operation instanceof CompositeOperation) {
+			for (final AbstractOperation subOperation : ((CompositeOperation) operation).getSubOperations()) {
+				nextVisit = registerMapEntries(subOperation, nextVisit, idToEObjectMapping);
+			}
+		} else if (operation instanceof CreateDeleteOperation) {
+			final CreateDeleteOperation createDeleteOperation = (CreateDeleteOperation) operation;
+			if (!createDeleteOperation.isDelete()) {
+				// check for map entries
+				for (final EObject eObject : createDeleteOperation.getEObjectToIdMap().keySet()) {
+					if (!isMapEntry(eObject)) {
+						continue;
+					}
+					handleMapEntry((Entry<?, ?>) eObject, createDeleteOperation, idToEObjectMapping, visit);
+				}
+			}
+			for (final AbstractOperation subOperation : createDeleteOperation.getSubOperations()) {
+				nextVisit = registerMapEntries(subOperation, nextVisit, idToEObjectMapping);
+			}
+		}
+		return nextVisit;
+	}
+
+	/**
+	 * Extracts the reservations of the given operation. As long as no map entries are registered concurrently, this
+	 * method may be called from several threads at once.
+	 *
+	 * @param operation
+	 *            the operation
+	 * @param firstVisit
+	 *            the visit number of the operation as returned by
+	 *            {@link #registerMapEntries(AbstractOperation, ModelElementIdToEObjectMapping)}
+	 * @param idToEObjectMapping
+	 *            a mapping from IDs to model elements containing all involved model elements
+	 * @return the reservations of the operation
+	 */
+	ReservationSet extractReservations(AbstractOperation operation, int firstVisit,
+		ModelElementIdToEObjectMapping idToEObjectMapping) {
+		final ReservationSet reservationSet = new ReservationSet();
+		extractReservationFromOperation(operation, firstVisit, reservationSet, idToEObjectMapping);
+		return addCustomReservations(operation, reservationSet, idToEObjectMapping);
+	}
+
+	private int extractReservationFromOperation(final AbstractOperation operation, int visit,
 		ReservationSet reservationSet, ModelElementIdToEObjectMapping idToEObjectMapping) {
 
+		int nextVisit = visit + 1;
 		if (operation instanceof CompositeOperation) {
 			final CompositeOperation compositeOperation = (CompositeOperation) operation;
 			for (final AbstractOperation subOperation : compositeOperation.getSubOperations()) {
-				extractReservationFromOperation(subOperation, reservationSet, idToEObjectMapping);
+				nextVisit = extractReservationFromOperation(subOperation, nextVisit, reservationSet,
+					idToEObjectMapping);
 			}
-			return reservationSet;
+			return nextVisit;
 		} else if (operation instanceof CreateDeleteOperation) {
 
-			// add full reservations only for delete operations and their deleted elements
+			// add full reservations only for delete operations and their deleted elements,
+			// map entries of create operations have already been registered
 			final CreateDeleteOperation createDeleteOperation = (CreateDeleteOperation) operation;
 			if (createDeleteOperation.isDelete()) {
 				// handle containment tree
 				for (final ModelElementId modelElementId : createDeleteOperation.getEObjectToIdMap().values()) {
 					reservationSet.addFullReservation(modelElementId.getId());
 				}
-			} else {
-				// check for map entries
-				for (final EObject eObject : createDeleteOperation.getEObjectToIdMap().keySet()) {
-					if (!isMapEntry(eObject)) {
-						continue;
-					}
-					handleMapEntry((Entry<?, ?>) eObject, createDeleteOperation, idToEObjectMapping);
-				}
 			}
 
 			// handle suboperations
 			for (final AbstractOperation subOperation : createDeleteOperation.getSubOperations()) {
-				extractReservationFromOperation(subOperation, reservationSet, idToEObjectMapping);
+				nextVisit = extractReservationFromOperation(subOperation, nextVisit, reservationSet,
+					idToEObjectMapping);
 			}
-			return reservationSet;
+			return nextVisit;
 		} else if (operation instanceof FeatureOperation) {
-			handleFeatureOperation(operation, reservationSet, idToEObjectMapping);
-			return reservationSet;
+			handleFeatureOperation(operation, visit, reservationSet, idToEObjectMapping);
+			return nextVisit;
 		}
 		throw new IllegalStateException(Messages.ReservationToConflictBucketCandidateMap_Unknown_Operation
 			+ operation.getClass().getCanonicalName());
@@ -267,11 +417,11 @@ public class ReservationToConflictBucketCandidateMap {
 	}
 
 	private void handleMapEntry(final Map.Entry<?, ?> mapEntry, CreateDeleteOperation createDeleteOperation,
-		ModelElementIdToEObjectMapping idToEObjectMapping) {
+		ModelElementIdToEObjectMapping idToEObjectMapping, int visit) {
 		final String mapEntryId = createDeleteOperation.getEObjectToIdMap().get(mapEntry).getId();
 
 		if (mapEntry.getKey() != null) {
-			idToKeyHashCode.put(mapEntryId, new Integer(mapEntry.getKey().hashCode()));
+			putKeyHashCode(mapEntryId, mapEntry.getKey().hashCode(), visit);
 			return;
 		}
 
@@ -287,7 +437,7 @@ public class ReservationToConflictBucketCandidateMap {
 				final ModelElementId otherId = iterator.next();
 				final EObject key = idToEObjectMapping.get(otherId);
 				if (key != null) {
-					idToKeyHashCode.put(mapEntryId, new Integer(key.hashCode()));
+					putKeyHashCode(mapEntryId, key.hashCode(), visit);
 				} else {
 					ModelUtil.logWarning(Messages.ReservationToConflictBucketCandidateMap_Key_Is_Null);
 				}
@@ -299,6 +449,15 @@ public class ReservationToConflictBucketCandidateMap {
 		}
 	}
 
+	private void putKeyHashCode(String mapEntryId, int hashCode, int visit) {
+		SortedMap<Integer, Integer> keyHashCodes = idToKeyHashCodes.get(mapEntryId);
+		if (keyHashCodes == null) {
+			keyHashCodes = new TreeMap<Integer, Integer>();
+			idToKeyHashCodes.put(mapEntryId, keyHashCodes);
+		}
+		keyHashCodes.put(visit, new Integer(hashCode));
+	}
+
 	/**
 	 * Tries to find the operation that set's the key attribute of a map entry.
 	 *
@@ -320,7 +479,7 @@ public class ReservationToConflictBucketCandidateMap {
 		return null;
 	}
 
-	private void handleFeatureOperation(AbstractOperation operation, ReservationSet reservationSet,
+	private void handleFeatureOperation(AbstractOperation operation, int visit, ReservationSet reservationSet,
 		ModelElementIdToEObjectMapping idToEObjectMapping) {
 		final FeatureOperation featureOperation = (FeatureOperation) operation;
 		final String modelElementId = featureOperation.getModelElementId().getId();
@@ -348,8 +507,8 @@ public class ReservationToConflictBucketCandidateMap {
 
 				Integer hashCode = null;
 
-				if (isCreatedMapEntry(otherModelElement)) {
-					hashCode = getKeyHashCode(otherModelElement);
+				if (isCreatedMapEntry(otherModelElement, visit)) {
+					hashCode = getKeyHashCode(otherModelElement, visit);
 				} else if (isMapEntry(idToEObjectMapping.get(otherModelElement))) {
 					hashCode = getKeyHashCode(idToEObjectMapping, otherModelElement);
 				}
@@ -373,12 +532,21 @@ public class ReservationToConflictBucketCandidateMap {
 		return null;
 	}
 
-	private Integer getKeyHashCode(ModelElementId keyId) {
-		return idToKeyHashCode.get(keyId);
+	private Integer getKeyHashCode(ModelElementId keyId, int visit) {
+		final SortedMap<Integer, Integer> keyHashCodes = getKeyHashCodesBefore(keyId, visit);
+		return keyHashCodes.get(keyHashCodes.lastKey());
 	}
 
-	private boolean isCreatedMapEntry(ModelElementId modelElementId) {
-		return idToKeyHashCode.containsKey(modelElementId.getId());
+	private boolean isCreatedMapEntry(ModelElementId modelElementId, int visit) {
+		return !getKeyHashCodesBefore(modelElementId, visit).isEmpty();
+	}
+
+	private SortedMap<Integer, Integer> getKeyHashCodesBefore(ModelElementId modelElementId, int visit) {
+		final SortedMap<Integer, Integer> keyHashCodes = idToKeyHashCodes.get(modelElementId.getId());
+		if (keyHashCodes == null) {
+			return new TreeMap<Integer, Integer>();
+		}
+		return keyHashCodes.headMap(visit);
 	}
 
 	/**
@@ -387,6 +555,18 @@ public class ReservationToConflictBucketCandidateMap {
 	 * @return a set of conflict bucket candidates
 	 */
 	public Set<ConflictBucketCandidate> getConflictBucketCandidates() {
+		return groupByRootConflictBucketCandidate(conflictBucketCandidates);
+	}
+
+	/**
+	 * Merges the given conflict bucket candidates into their root candidates.
+	 *
+	 * @param conflictBucketCandidates
+	 *            the conflict bucket candidates in the order of their operations
+	 * @return the root candidates, in the order of their first operation
+	 */
+	static Set<ConflictBucketCandidate> groupByRootConflictBucketCandidate(
+		Collection<ConflictBucketCandidate> conflictBucketCandidates) {
 		final Map<ConflictBucketCandidate, Set<ConflictBucketCandidate>> rootToBucketMergeSetMap = new LinkedHashMap<ConflictBucketCandidate, Set<ConflictBucketCandidate>>();
 		for (final ConflictBucketCandidate candidate : conflictBucketCandidates) {
 			final ConflictBucketCandidate root = candidate.getRootConflictBucketCandidate();
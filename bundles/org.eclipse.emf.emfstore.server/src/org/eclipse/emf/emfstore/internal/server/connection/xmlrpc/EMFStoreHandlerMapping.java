@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.internal.server.connection.xmlrpc;
+
+import org.apache.xmlrpc.XmlRpcException;
+import org.apache.xmlrpc.XmlRpcHandler;
+import org.apache.xmlrpc.server.PropertyHandlerMapping;
+import org.eclipse.emf.emfstore.internal.server.connection.xmlrpc.util.EObjectTypeFactory;
+
+/**
+ * Handler mapping of the built-in web server. Since the handler of a request is looked up by the thread that also
+ * writes the response, the mapping decides whether the EObjects of the response are written in the binary format,
+ * depending on the interface that has been called.
+ */
+public class EMFStoreHandlerMapping extends PropertyHandlerMapping {
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @see org.apache.xmlrpc.server.AbstractReflectiveHandlerMapping#getHandler(java.lang.String)
+	 */
+	@Override
+	public XmlRpcHandler getHandler(String pHandlerName) throws XmlRpcException {
+		EObjectTypeFactory.setBinaryResponse(XmlRpcBinaryConnectionHandler.isBinaryInterfaceMethod(pHandlerName));
+		return super.getHandler(pHandlerName);
+	}
+}
@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.internal.server.connection.xmlrpc;
+
+import org.eclipse.emf.emfstore.internal.server.connection.xmlrpc.util.BinaryEObjectSerializer;
+
+/**
+ * Connection Handler for the XML RPC EMFStore interface that transfers EObjects in the binary format of the
+ * {@link BinaryEObjectSerializer} rather than as XMI. The interface is registered next to the one of the
+ * {@link XmlRpcConnectionHandler}, hence clients can detect whether a server supports the binary transport by
+ * logging in via this interface.
+ */
+public class XmlRpcBinaryConnectionHandler extends XmlRpcConnectionHandler {
+
+	/**
+	 * String interface identifier.
+	 */
+	public static final String EMFSTORE_BINARY = "EmfStoreBinary"; //$NON-NLS-1$
+
+	private static final String NAME = "XML RPC Binary Connection Handler"; //$NON-NLS-1$
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @see org.eclipse.emf.emfstore.internal.server.connection.xmlrpc.XmlRpcConnectionHandler#getInterfaceName()
+	 */
+	@Override
+	protected String getInterfaceName() {
+		return EMFSTORE_BINARY;
+	}
+
+	/**
+	 * Whether the given method name addresses the binary interface.
+	 *
+	 * @param methodName
+	 *            the fully qualified name of the called method
+	 * @return <code>true</code> if the method belongs to the binary interface, <code>false</code> otherwise
+	 */
+	public static boolean isBinaryInterfaceMethod(String methodName) {
+		return methodName != null && methodName.startsWith(EMFSTORE_BINARY + '.');
+	}
+}
@@ -19,6 +19,7 @@ import org.apache.xmlrpc.server.XmlRpcServer;
 import org.apache.xmlrpc.server.XmlRpcServerConfigImpl;
 import org.apache.xmlrpc.webserver.WebServer;
 import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
+import org.eclipse.emf.emfstore.internal.server.ServerConfiguration;
 import org.eclipse.emf.emfstore.internal.server.connection.xmlrpc.util.EObjectTypeConverterFactory;
 import org.eclipse.emf.emfstore.internal.server.connection.xmlrpc.util.EObjectTypeFactory;
 import org.eclipse.emf.emfstore.server.ESXmlRpcWebServerProvider;
@@ -59,11 +60,12 @@ public final class XmlRpcBuiltinWebServer implements ESXmlRpcWebServerProvider {
 			ModelUtil.logInfo(Messages.XmlRpcBuiltinWebServer_ServerStarted + port);
 
 			final XmlRpcServer xmlRpcServer = webServer.getXmlRpcServer();
-			xmlRpcServer.setTypeFactory(new EObjectTypeFactory(xmlRpcServer));
+			xmlRpcServer.setTypeFactory(new EObjectTypeFactory(xmlRpcServer, false,
+				ServerConfiguration.isBinaryTransportCompressionEnabled()));
 			final EObjectTypeConverterFactory pFactory = new EObjectTypeConverterFactory();
 			xmlRpcServer.setTypeConverterFactory(pFactory);
 
-			final PropertyHandlerMapping phm = new PropertyHandlerMapping();
+			final PropertyHandlerMapping phm = new EMFStoreHandlerMapping();
 
 			phm.setVoidMethodEnabled(true);
 			phm.setTypeConverterFactory(pFactory);
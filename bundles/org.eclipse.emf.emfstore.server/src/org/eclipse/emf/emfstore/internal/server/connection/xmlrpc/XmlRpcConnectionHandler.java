@@ -54,7 +54,16 @@ public class XmlRpcConnectionHandler implements ConnectionHandler<EMFStore> {
 		XmlRpcConnectionHandler.accessControl = accessControl;
 		final ESXmlRpcWebServerProvider webServer = XmlRpcWebserverManager.getInstance();
 		webServer.initServer();
-		webServer.addHandler(EMFSTORE, XmlRpcEmfStoreImpl.class);
+		webServer.addHandler(getInterfaceName(), XmlRpcEmfStoreImpl.class);
+	}
+
+	/**
+	 * Returns the name of the interface the EMFStore is registered with at the web server.
+	 *
+	 * @return the interface name
+	 */
+	protected String getInterfaceName() {
+		return EMFSTORE;
 	}
 
 	/**
@@ -83,7 +92,7 @@ public class XmlRpcConnectionHandler implements ConnectionHandler<EMFStore> {
 	 */
 	public void stop() {
 		final ESXmlRpcWebServerProvider webserverManager = XmlRpcWebserverManager.getInstance();
-		if (!webserverManager.removeHandler(EMFSTORE)) {
+		if (!webserverManager.removeHandler(getInterfaceName())) {
 			webserverManager.stopServer();
 		}
 	}
@@ -218,6 +218,14 @@ public class XmlRpcEmfStoreImpl implements EMFStore {
 		return getEmfStore().getHistoryInfo(sessionId, projectId, historyQuery);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<HistoryInfo> getHistoryInfoPage(SessionId sessionId, ProjectId projectId,
+		HistoryQuery<?> historyQuery, String continuationToken, int pageSize) throws ESException {
+		return getEmfStore().getHistoryInfoPage(sessionId, projectId, historyQuery, continuationToken, pageSize);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.internal.server.connection.xmlrpc.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.xmlrpc.XmlRpcException;
+import org.apache.xmlrpc.parser.ByteArrayParser;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.emfstore.internal.common.EObjectIdRegistry;
+import org.eclipse.emf.emfstore.internal.common.model.IdEObjectCollection;
+import org.eclipse.emf.emfstore.internal.common.model.ModelFactory;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.FileBasedChangePackage;
+
+/**
+ * Parser for EObjects written by the {@link BinaryEObjectSerializer}.
+ */
+public class BinaryEObjectDeserializer extends ByteArrayParser {
+
+	@Override
+	public Object getResult() throws XmlRpcException {
+		final byte[] res = (byte[]) super.getResult();
+		try {
+			return load(new ByteArrayInputStream(res));
+		} catch (final IOException e) {
+			throw new XmlRpcException(Messages.EObjectDeserializer_ParsingFailed + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Reads an {@link EObject} in the binary transport format from the given stream.
+	 *
+	 * @param inputStream
+	 *            the stream to read from
+	 * @return the read object, which is not contained in any resource
+	 * @throws IOException
+	 *             in case reading from the stream fails or the stream is not in the binary transport format
+	 */
+	public static EObject load(InputStream inputStream) throws IOException {
+		final int format = inputStream.read();
+		InputStream source = inputStream;
+		if (format == BinaryEObjectSerializer.COMPRESSED) {
+			source = new GZIPInputStream(inputStream);
+		} else if (format != BinaryEObjectSerializer.UNCOMPRESSED) {
+			throw new IOException(Messages.BinaryEObjectDeserializer_UnknownFormat + format);
+		}
+
+		final BinaryResourceImpl.EObjectInputStream reader = new BinaryResourceImpl.EObjectInputStream(source,
+			new HashMap<Object, Object>());
+		final EObject result = reader.loadEObject();
+
+		if (result instanceof FileBasedChangePackage) {
+			throw new IllegalStateException(Messages.EObjectDeserializer_NoFileBasedChangePackageAllowed);
+		} else if (result instanceof IdEObjectCollection) {
+			readIds(reader, (IdEObjectCollection) result);
+		}
+
+		EcoreUtil.resolveAll(result);
+		return result;
+	}
+
+	private static void readIds(BinaryResourceImpl.EObjectInputStream reader, IdEObjectCollection collection)
+		throws IOException {
+		final EObjectIdRegistry idRegistry = new EObjectIdRegistry();
+		final Map<EObject, String> eObjectToIdMap = idRegistry.getEObjectToIdMap();
+		final Map<String, EObject> idToEObjectMap = idRegistry.getIdToEObjectMap();
+
+		final TreeIterator<EObject> iterator = collection.eAllContents();
+		while (iterator.hasNext()) {
+			final EObject modelElement = iterator.next();
+			String modelElementId = reader.readString();
+			if (modelElementId == null) {
+				// create random ID for generic types, won't get serialized
+				// anyway
+				modelElementId = ModelFactory.eINSTANCE.createModelElementId().getId();
+			}
+			eObjectToIdMap.put(modelElement, modelElementId);
+			idToEObjectMap.put(modelElementId, modelElement);
+		}
+
+		collection.initMapping(eObjectToIdMap, idToEObjectMap);
+	}
+}
@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.internal.server.connection.xmlrpc.util;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.ws.commons.util.Base64;
+import org.apache.ws.commons.util.Base64.Encoder;
+import org.apache.ws.commons.util.Base64.EncoderOutputStream;
+import org.apache.xmlrpc.serializer.TypeSerializerImpl;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl.EObjectOutputStream.Check;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.emfstore.internal.common.model.IdEObjectCollection;
+import org.eclipse.emf.emfstore.internal.common.model.ModelElementId;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.FileBasedChangePackage;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+
+/**
+ * Serializer for EObjects that uses the EMF binary format instead of XMI. The object is written directly from its
+ * containment tree, i.e. neither a copy of the object nor an intermediate resource is created. Since the binary
+ * format does not carry the IDs of an {@link IdEObjectCollection}, the IDs of all contained elements are appended in
+ * containment order. The payload may optionally be compressed.
+ */
+public class BinaryEObjectSerializer extends TypeSerializerImpl {
+
+	/**
+	 * Binary EObject Tag for parsing.
+	 */
+	public static final String BINARY_EOBJECT_TAG = "BinaryEObject"; //$NON-NLS-1$
+	private static final String EX_BINARY_EOBJECT_TAG = "ex:" + BINARY_EOBJECT_TAG; //$NON-NLS-1$
+
+	/**
+	 * Marks an uncompressed payload.
+	 */
+	static final int UNCOMPRESSED = 0;
+
+	/**
+	 * Marks a GZIP compressed payload.
+	 */
+	static final int COMPRESSED = 1;
+
+	private final boolean compressed;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param compressed
+	 *            whether the payload should be compressed
+	 */
+	public BinaryEObjectSerializer(boolean compressed) {
+		this.compressed = compressed;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void write(ContentHandler pHandler, Object pObject) throws SAXException {
+		pHandler.startElement(StringUtils.EMPTY, VALUE_TAG, VALUE_TAG, ZERO_ATTRIBUTES);
+		pHandler.startElement(StringUtils.EMPTY, BINARY_EOBJECT_TAG, EX_BINARY_EOBJECT_TAG, ZERO_ATTRIBUTES);
+		final char[] buffer = new char[1024];
+		final Encoder encoder = new Base64.SAXEncoder(buffer, 0, null, pHandler);
+		try {
+			final OutputStream ostream = new BufferedOutputStream(new EncoderOutputStream(encoder));
+			try {
+				save((EObject) pObject, ostream, compressed);
+			} finally {
+				ostream.close();
+			}
+		} catch (final Base64.SAXIOException e) {
+			throw e.getSAXException();
+		} catch (final IOException e) {
+			throw new SAXException(e);
+		}
+		pHandler.endElement(StringUtils.EMPTY, BINARY_EOBJECT_TAG, EX_BINARY_EOBJECT_TAG);
+		pHandler.endElement(StringUtils.EMPTY, VALUE_TAG, VALUE_TAG);
+	}
+
+	/**
+	 * Writes the given {@link EObject} in the binary transport format to the given stream.
+	 *
+	 * @param eObject
+	 *            the object to be written
+	 * @param outputStream
+	 *            the stream to write to, which will not be closed
+	 * @param compressed
+	 *            whether the payload should be compressed
+	 * @throws IOException
+	 *             in case writing to the stream fails
+	 */
+	public static void save(EObject eObject, OutputStream outputStream, boolean compressed) throws IOException {
+		EObject object = eObject;
+		if (object instanceof FileBasedChangePackage) {
+			object = FileBasedChangePackage.class.cast(object).toInMemoryChangePackage();
+		}
+
+		outputStream.write(compressed ? COMPRESSED : UNCOMPRESSED);
+		GZIPOutputStream gzipStream = null;
+		OutputStream target = outputStream;
+		if (compressed) {
+			gzipStream = new GZIPOutputStream(outputStream);
+			target = gzipStream;
+		}
+
+		final EObjectWriter writer = new EObjectWriter(target, object);
+		writer.saveEObject((InternalEObject) object, Check.NOTHING);
+		if (object instanceof IdEObjectCollection) {
+			writeIds(writer, (IdEObjectCollection) object);
+		}
+		writer.flush();
+
+		if (gzipStream != null) {
+			gzipStream.finish();
+		}
+	}
+
+	private static void writeIds(EObjectWriter writer, IdEObjectCollection collection) throws IOException {
+		final TreeIterator<EObject> iterator = collection.eAllContents();
+		while (iterator.hasNext()) {
+			final ModelElementId modelElementId = collection.getModelElementId(iterator.next());
+			writer.writeString(modelElementId == null ? null : modelElementId.getId());
+		}
+	}
+
+	/**
+	 * Output stream that treats the resource of the written object as the current resource, so references within
+	 * the written containment tree are written as object references rather than as proxies. References leaving the
+	 * tree are written as proxies, like XMI does.
+	 */
+	private static final class EObjectWriter extends BinaryResourceImpl.EObjectOutputStream {
+
+		private final EObject root;
+
+		EObjectWriter(OutputStream outputStream, EObject root) throws IOException {
+			super(outputStream, new HashMap<Object, Object>());
+			this.root = root;
+			resource = root.eResource();
+		}
+
+		@Override
+		public void saveEObject(InternalEObject internalEObject, Check check) throws IOException {
+			if (check != Check.RESOURCE || internalEObject == null || resource == null
+				|| EcoreUtil.isAncestor(root, internalEObject)) {
+				super.saveEObject(internalEObject, check);
+				return;
+			}
+			final Resource currentResource = resource;
+			resource = null;
+			try {
+				super.saveEObject(internalEObject, check);
+			} finally {
+				resource = currentResource;
+			}
+		}
+	}
+}
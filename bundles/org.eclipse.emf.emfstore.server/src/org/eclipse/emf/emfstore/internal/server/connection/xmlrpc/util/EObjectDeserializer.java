@@ -17,7 +17,6 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.apache.xmlrpc.XmlRpcException;
@@ -29,6 +28,7 @@ import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
 import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.emf.ecore.xmi.XMIResource;
 import org.eclipse.emf.emfstore.internal.common.CommonUtil;
+import org.eclipse.emf.emfstore.internal.common.EObjectIdRegistry;
 import org.eclipse.emf.emfstore.internal.common.model.IdEObjectCollection;
 import org.eclipse.emf.emfstore.internal.common.model.ModelFactory;
 import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
@@ -94,8 +94,9 @@ public class EObjectDeserializer extends ByteArrayParser {
 			throw new IllegalStateException(Messages.EObjectDeserializer_NoFileBasedChangePackageAllowed);
 		} else if (result instanceof IdEObjectCollection) {
 			final IdEObjectCollection collection = (IdEObjectCollection) result;
-			final Map<EObject, String> eObjectToIdMap = new LinkedHashMap<EObject, String>();
-			final Map<String, EObject> idToEObjectMap = new LinkedHashMap<String, EObject>();
+			final EObjectIdRegistry idRegistry = new EObjectIdRegistry();
+			final Map<EObject, String> eObjectToIdMap = idRegistry.getEObjectToIdMap();
+			final Map<String, EObject> idToEObjectMap = idRegistry.getIdToEObjectMap();
 
 			for (final EObject modelElement : collection.getAllModelElements()) {
 				String modelElementId = res.getID(modelElement);
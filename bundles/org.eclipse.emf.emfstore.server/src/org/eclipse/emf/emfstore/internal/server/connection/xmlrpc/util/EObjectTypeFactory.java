@@ -29,6 +29,11 @@ import org.xml.sax.SAXException;
  */
 public class EObjectTypeFactory extends TypeFactoryImpl {
 
+	private static final ThreadLocal<Boolean> BINARY_RESPONSE = new ThreadLocal<Boolean>();
+
+	private final boolean binary;
+	private final boolean compressed;
+
 	/**
 	 * Default constructor.
 	 *
@@ -36,7 +41,35 @@ public class EObjectTypeFactory extends TypeFactoryImpl {
 	 *            XML RPC controller.
 	 */
 	public EObjectTypeFactory(XmlRpcController pController) {
+		this(pController, false, false);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param pController
+	 *            XML RPC controller.
+	 * @param binary
+	 *            whether EObjects should always be written with the {@link BinaryEObjectSerializer}
+	 * @param compressed
+	 *            whether EObjects written with the {@link BinaryEObjectSerializer} should be compressed
+	 */
+	public EObjectTypeFactory(XmlRpcController pController, boolean binary, boolean compressed) {
 		super(pController);
+		this.binary = binary;
+		this.compressed = compressed;
+	}
+
+	/**
+	 * Sets whether the EObjects of the response to the request that is currently processed by the calling thread
+	 * should be written with the {@link BinaryEObjectSerializer}. Requests and responses are processed by the same
+	 * thread, hence the server sets this flag per request, depending on the handler the request is directed to.
+	 *
+	 * @param binaryResponse
+	 *            whether the response should use the binary format
+	 */
+	public static void setBinaryResponse(boolean binaryResponse) {
+		BINARY_RESPONSE.set(binaryResponse);
 	}
 
 	/**
@@ -48,6 +81,9 @@ public class EObjectTypeFactory extends TypeFactoryImpl {
 		if (EObjectSerializer.EOBJECT_TAG.equals(pLocalName)) {
 			return new EObjectDeserializer();
 		}
+		if (BinaryEObjectSerializer.BINARY_EOBJECT_TAG.equals(pLocalName)) {
+			return new BinaryEObjectDeserializer();
+		}
 		if (FileTransferInformationSerializer.FTI_TAG.equals(pLocalName)) {
 			return new FileTransferInformationParser();
 		}
@@ -64,6 +100,9 @@ public class EObjectTypeFactory extends TypeFactoryImpl {
 	@Override
 	public TypeSerializer getSerializer(XmlRpcStreamConfig pConfig, Object pObject) throws SAXException {
 		if (pObject instanceof EObject) {
+			if (binary || Boolean.TRUE.equals(BINARY_RESPONSE.get())) {
+				return new BinaryEObjectSerializer(compressed);
+			}
 			return new EObjectSerializer();
 		}
 		if (pObject instanceof FileTransferInformation || pObject instanceof FileChunk) {
@@ -131,6 +131,15 @@ public abstract class AbstractEmfstoreInterface {
 		return MonitorProvider.getInstance().getMonitor();
 	}
 
+	/**
+	 * Returns the provider of the project and server space locks which should be used when operating on a project.
+	 *
+	 * @return the monitor provider
+	 */
+	protected MonitorProvider getMonitorProvider() {
+		return MonitorProvider.getInstance();
+	}
+
 	/**
 	 * Returns the authorizationControl.
 	 *
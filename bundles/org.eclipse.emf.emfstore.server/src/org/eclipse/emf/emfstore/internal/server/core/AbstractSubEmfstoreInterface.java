@@ -85,7 +85,8 @@ public abstract class AbstractSubEmfstoreInterface {
 	}
 
 	/**
-	 * Returns the serverspace. Please always use a monitor ({@link #getMonitor()}) when operating on the serverspace.
+	 * Returns the serverspace. Please always use a monitor ({@link #getMonitor()}) or the project locks of the
+	 * {@link #getMonitorProvider() monitor provider} when operating on the serverspace.
 	 *
 	 * @return serverspace
 	 */
@@ -102,6 +103,15 @@ public abstract class AbstractSubEmfstoreInterface {
 		return parentInterface.getMonitor();
 	}
 
+	/**
+	 * Returns the provider of the project and server space locks which should be used when operating on a project.
+	 *
+	 * @return the monitor provider
+	 */
+	protected MonitorProvider getMonitorProvider() {
+		return parentInterface.getMonitorProvider();
+	}
+
 	/**
 	 * Returns the authorizationControl.
 	 *
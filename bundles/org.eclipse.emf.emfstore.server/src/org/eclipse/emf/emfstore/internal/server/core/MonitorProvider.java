@@ -13,9 +13,21 @@ package org.eclipse.emf.emfstore.internal.server.core;
 
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.eclipse.emf.emfstore.internal.server.model.ProjectId;
 
 /**
  * Holds the monitor objects for synchronizing the access on the server space. It's implemented as a singleton.
+ * <p>
+ * Besides the plain monitors, the provider manages a two-level lock hierarchy for the server space: a server space lock
+ * that is acquired exclusively only by mutations of the server space itself, such as creating or deleting a project,
+ * and one read/write lock per project. Locks must always be acquired in that order, i.e. the server space lock before
+ * any project lock, and the main monitor (see {@link #getMonitor()}) last. A thread holding a read lock must never try
+ * to acquire the corresponding write lock.
+ * </p>
  *
  * @author wesendon
  */
@@ -41,6 +53,8 @@ public final class MonitorProvider {
 
 	private final Object monitor;
 	private final HashMap<String, Object> monitors;
+	private final ReadWriteLock serverSpaceLock;
+	private final Map<String, ReadWriteLock> projectLocks;
 
 	/**
 	 * Private constructor.
@@ -49,6 +63,8 @@ public final class MonitorProvider {
 		monitors = new LinkedHashMap<String, Object>();
 		monitor = new Object();
 		monitors.put(MAIN_MONITOR, monitor);
+		serverSpaceLock = new ReentrantReadWriteLock();
+		projectLocks = new HashMap<String, ReadWriteLock>();
 	}
 
 	/**
@@ -87,4 +103,123 @@ public final class MonitorProvider {
 		}
 		return monitors.remove(namespace) != null;
 	}
+
+	/**
+	 * Returns the lock guarding the server space itself, i.e. the list of projects.
+	 *
+	 * @return the server space lock
+	 */
+	public ReadWriteLock getServerSpaceLock() {
+		return serverSpaceLock;
+	}
+
+	/**
+	 * Returns the read/write lock of the project with the given ID. The lock is created on first request.
+	 *
+	 * @param projectId
+	 *            the ID of the project
+	 * @return the lock of the project
+	 */
+	public synchronized ReadWriteLock getProjectLock(ProjectId projectId) {
+		ReadWriteLock lock = projectLocks.get(projectId.getId());
+		if (lock == null) {
+			lock = new ReentrantReadWriteLock();
+			projectLocks.put(projectId.getId(), lock);
+		}
+		return lock;
+	}
+
+	/**
+	 * Removes the lock of the project with the given ID. Must only be called while holding the write lock of the server
+	 * space, since otherwise a concurrent caller might still wait on the removed lock.
+	 *
+	 * @param projectId
+	 *            the ID of the project
+	 */
+	public synchronized void removeProjectLock(ProjectId projectId) {
+		projectLocks.remove(projectId.getId());
+	}
+
+	/**
+	 * Acquires shared access to the project with the given ID. Other readers of the same project as well as readers and
+	 * writers of other projects may proceed concurrently.
+	 *
+	 * @param projectId
+	 *            the ID of the project
+	 */
+	public void acquireProjectReadLock(ProjectId projectId) {
+		acquireProjectLock(projectId, false);
+	}
+
+	/**
+	 * Releases a lock that has been acquired via {@link #acquireProjectReadLock(ProjectId)}.
+	 *
+	 * @param projectId
+	 *            the ID of the project
+	 */
+	public void releaseProjectReadLock(ProjectId projectId) {
+		releaseProjectLock(projectId, false);
+	}
+
+	/**
+	 * Acquires exclusive access to the project with the given ID. Readers and writers of other projects may proceed
+	 * concurrently.
+	 *
+	 * @param projectId
+	 *            the ID of the project
+	 */
+	public void acquireProjectWriteLock(ProjectId projectId) {
+		acquireProjectLock(projectId, true);
+	}
+
+	/**
+	 * Releases a lock that has been acquired via {@link #acquireProjectWriteLock(ProjectId)}.
+	 *
+	 * @param projectId
+	 *            the ID of the project
+	 */
+	public void releaseProjectWriteLock(ProjectId projectId) {
+		releaseProjectLock(projectId, true);
+	}
+
+	/**
+	 * Turns a lock that has been acquired via {@link #acquireProjectWriteLock(ProjectId)} into a lock as acquired via
+	 * {@link #acquireProjectReadLock(ProjectId)}, without letting another writer in between. The lock has to be
+	 * released via {@link #releaseProjectReadLock(ProjectId)} afterwards.
+	 *
+	 * @param projectId
+	 *            the ID of the project
+	 */
+	public void downgradeProjectWriteLock(ProjectId projectId) {
+		acquireProjectLock(projectId, false);
+		releaseProjectLock(projectId, true);
+	}
+
+	private void acquireProjectLock(ProjectId projectId, boolean exclusive) {
+		serverSpaceLock.readLock().lock();
+		try {
+			final ReadWriteLock projectLock = getProjectLock(projectId);
+			if (exclusive) {
+				projectLock.writeLock().lock();
+			} else {
+				projectLock.readLock().lock();
+			}
+		} catch (final RuntimeException e) {
+			serverSpaceLock.readLock().unlock();
+			throw e;
+		}
+	}
+
+	private void releaseProjectLock(ProjectId projectId, boolean exclusive) {
+		try {
+			final ReadWriteLock projectLock = getProjectLock(projectId);
+			if (exclusive) {
+				projectLock.writeLock().unlock();
+			} else {
+				projectLock.readLock().unlock();
+			}
+		} finally {
+			serverSpaceLock.readLock().unlock();
+		}
+	}
 }
@@ -0,0 +1,273 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.internal.server.core;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.emfstore.internal.common.model.Project;
+import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
+import org.eclipse.emf.emfstore.internal.server.ServerConfiguration;
+import org.eclipse.emf.emfstore.internal.server.model.ProjectId;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.PrimaryVersionSpec;
+
+/**
+ * A bounded cache of project states that have been materialized by applying change packages onto a persisted project
+ * state. The cache is organized as a single least recently used list across all projects and is limited by the byte
+ * budget returned by {@link ServerConfiguration#getProjectStateCacheSize()}. Since the memory actually occupied by a
+ * project state can not be measured cheaply, the size of an entry is estimated by the number of contained model
+ * elements.
+ * <p>
+ * Cached project states are shared between callers and therefore must be treated as read-only. Callers that intend to
+ * modify a state or to attach it to a resource have to work on a copy.
+ * </p>
+ * It's implemented as a singleton.
+ */
+public final class ProjectStateCache {
+
+	/**
+	 * The estimated number of bytes occupied by a single model element of a cached project state, including its
+	 * feature values and the ID mapping.
+	 */
+	public static final int ESTIMATED_BYTES_PER_ELEMENT = 1024;
+
+	/**
+	 * Initializes the singleton instance statically.
+	 */
+	private static class SingletonHolder {
+		public static final ProjectStateCache INSTANCE = new ProjectStateCache(
+			ServerConfiguration.getProjectStateCacheSize());
+	}
+
+	/**
+	 * Returns the singleton instance of the project state cache.
+	 *
+	 * @return the singleton instance
+	 */
+	public static ProjectStateCache getInstance() {
+		return SingletonHolder.INSTANCE;
+	}
+
+	private final long maxBytes;
+	private final LinkedHashMap<Key, Entry> entries;
+	private long currentBytes;
+	private long hits;
+	private long misses;
+	private long evictions;
+
+	/**
+	 * Creates a cache with the given byte budget. The server itself uses the shared instance returned by
+	 * {@link #getInstance()}.
+	 *
+	 * @param maxBytes
+	 *            the byte budget of the cache, a value less than or equal to zero disables the cache
+	 */
+	public ProjectStateCache(long maxBytes) {
+		this.maxBytes = maxBytes;
+		// access order, the eldest entry is the least recently used one
+		entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true);
+	}
+
+	/**
+	 * Whether the cache may hold any project state at all.
+	 *
+	 * @return <code>true</code> if the cache is enabled, <code>false</code> otherwise
+	 */
+	public boolean isEnabled() {
+		return maxBytes > 0;
+	}
+
+	/**
+	 * Returns the cached project state of the given version.
+	 *
+	 * @param projectId
+	 *            the ID of the project
+	 * @param versionSpec
+	 *            the version of the requested state
+	 * @return the cached, read-only project state or <code>null</code> if the state is not cached
+	 */
+	public synchronized Project get(ProjectId projectId, PrimaryVersionSpec versionSpec) {
+		if (!isEnabled()) {
+			return null;
+		}
+		final Entry entry = entries.get(new Key(projectId, versionSpec));
+		if (entry == null) {
+			misses++;
+			return null;
+		}
+		hits++;
+		return entry.project;
+	}
+
+	/**
+	 * Adds the project state of the given version to the cache. Least recently used states are evicted until the
+	 * state fits into the byte budget. States that exceed the whole budget are not cached at all.
+	 *
+	 * @param projectId
+	 *            the ID of the project
+	 * @param versionSpec
+	 *            the version of the state
+	 * @param project
+	 *            the project state, which must not be modified afterwards
+	 */
+	public void put(ProjectId projectId, PrimaryVersionSpec versionSpec, Project project) {
+		if (!isEnabled()) {
+			return;
+		}
+		// estimate outside of the monitor, counting is linear in the size of the project
+		final long size = estimateSize(project);
+		if (size > maxBytes) {
+			return;
+		}
+		synchronized (this) {
+			final Entry previous = entries.put(new Key(projectId, ModelUtil.clone(versionSpec)),
+				new Entry(project, size));
+			if (previous != null) {
+				currentBytes -= previous.size;
+			}
+			currentBytes += size;
+			evict();
+		}
+	}
+
+	/**
+	 * Removes all cached states of the given project.
+	 *
+	 * @param projectId
+	 *            the ID of the project
+	 */
+	public synchronized void removeAll(ProjectId projectId) {
+		final Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+		while (iterator.hasNext()) {
+			final Map.Entry<Key, Entry> next = iterator.next();
+			if (next.getKey().projectId.equals(projectId.getId())) {
+				currentBytes -= next.getValue().size;
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * Removes all cached states and resets the metrics.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		currentBytes = 0;
+		hits = 0;
+		misses = 0;
+		evictions = 0;
+	}
+
+	private void evict() {
+		final Iterator<Entry> iterator = entries.values().iterator();
+		while (currentBytes > maxBytes && iterator.hasNext()) {
+			currentBytes -= iterator.next().size;
+			iterator.remove();
+			evictions++;
+		}
+	}
+
+	private static long estimateSize(Project project) {
+		long elements = 1;
+		final TreeIterator<EObject> iterator = project.eAllContents();
+		while (iterator.hasNext()) {
+			iterator.next();
+			elements++;
+		}
+		elements += project.getCutElements().size();
+		return elements * ESTIMATED_BYTES_PER_ELEMENT;
+	}
+
+	/**
+	 * @return the number of lookups that could be answered by the cache
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return the number of lookups that could not be answered by the cache
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return the number of states that have been evicted in order to stay within the byte budget
+	 */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * @return the estimated number of bytes currently occupied by cached states
+	 */
+	public synchronized long getSize() {
+		return currentBytes;
+	}
+
+	/**
+	 * @return the number of cached states
+	 */
+	public synchronized int getEntryCount() {
+		return entries.size();
+	}
+
+	/**
+	 * Identifies a project state by project and version. The hash code of {@link PrimaryVersionSpec} is not suited
+	 * for hashing, therefore it is computed here.
+	 */
+	private static final class Key {
+
+		private final String projectId;
+		private final PrimaryVersionSpec versionSpec;
+
+		Key(ProjectId projectId, PrimaryVersionSpec versionSpec) {
+			this.projectId = projectId.getId();
+			this.versionSpec = versionSpec;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			final Key other = (Key) obj;
+			return projectId.equals(other.projectId) && versionSpec.equals(other.versionSpec);
+		}
+
+		@Override
+		public int hashCode() {
+			final String branch = versionSpec.getBranch();
+			int result = projectId.hashCode();
+			result = 31 * result + versionSpec.getIdentifier();
+			result = 31 * result + (branch == null ? 0 : branch.hashCode());
+			return result;
+		}
+	}
+
+	/**
+	 * A cached project state together with its estimated size.
+	 */
+	private static final class Entry {
+
+		private final Project project;
+		private final long size;
+
+		Entry(Project project, long size) {
+			this.project = project;
+			this.size = size;
+		}
+	}
+}
@@ -0,0 +1,315 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.internal.server.core;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
+import org.eclipse.emf.emfstore.internal.server.ServerConfiguration;
+import org.eclipse.emf.emfstore.internal.server.model.ProjectHistory;
+import org.eclipse.emf.emfstore.internal.server.model.ProjectId;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.Version;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.util.VersionResourceListener;
+
+/**
+ * Limits the memory occupied by the project state and change package resources of versions. Versions load these
+ * resources on demand and keep them as long as the memory permits. Once installed on the resource set of the server
+ * space, the manager tracks the accesses of these resources in a single least recently used list across all projects.
+ * If the estimated size of the tracked resources exceeds the byte budget returned by
+ * {@link ServerConfiguration#getResourceResidencySize()}, the least recently used resources are unloaded. Versions
+ * load unloaded resources again when they are accessed the next time.
+ * <p>
+ * A resource is only unloaded if its project is not in use, i.e. if the write lock of the project can be acquired
+ * without waiting. Resources of projects that are in use stay loaded until a later access exceeds the budget again.
+ * As for the {@link ProjectStateCache}, the size of a resource is estimated by the number of contained elements.
+ * </p>
+ * It's implemented as a singleton.
+ */
+public final class ResourceResidencyManager extends AdapterImpl implements VersionResourceListener {
+
+	/**
+	 * The estimated number of bytes occupied by a single element of a loaded resource.
+	 */
+	public static final int ESTIMATED_BYTES_PER_ELEMENT = ProjectStateCache.ESTIMATED_BYTES_PER_ELEMENT;
+
+	/**
+	 * Initializes the singleton instance statically.
+	 */
+	private static class SingletonHolder {
+		public static final ResourceResidencyManager INSTANCE = new ResourceResidencyManager(
+			ServerConfiguration.getResourceResidencySize(), MonitorProvider.getInstance());
+	}
+
+	/**
+	 * Returns the singleton instance of the resource residency manager.
+	 *
+	 * @return the singleton instance
+	 */
+	public static ResourceResidencyManager getInstance() {
+		return SingletonHolder.INSTANCE;
+	}
+
+	private final long maxBytes;
+	private final MonitorProvider monitorProvider;
+	private final LinkedHashMap<Resource, Entry> entries;
+	private long currentBytes;
+	private long loads;
+	private long hits;
+	private long evictions;
+	private long deferredEvictions;
+
+	/**
+	 * Creates a manager with the given byte budget. The server itself uses the shared instance returned by
+	 * {@link #getInstance()}.
+	 *
+	 * @param maxBytes
+	 *            the byte budget of the loaded resources, a value less than or equal to zero disables unloading
+	 * @param monitorProvider
+	 *            the provider of the project locks
+	 */
+	public ResourceResidencyManager(long maxBytes, MonitorProvider monitorProvider) {
+		this.maxBytes = maxBytes;
+		this.monitorProvider = monitorProvider;
+		// access order, the eldest entry is the least recently used one
+		entries = new LinkedHashMap<Resource, Entry>(16, 0.75f, true);
+	}
+
+	/**
+	 * Whether the manager unloads resources at all.
+	 *
+	 * @return <code>true</code> if the manager is enabled, <code>false</code> otherwise
+	 */
+	public boolean isEnabled() {
+		return maxBytes > 0;
+	}
+
+	/**
+	 * Registers the manager at the given resource set, which contains the versions whose resources are to be managed.
+	 * Does nothing if the manager is disabled.
+	 *
+	 * @param resourceSet
+	 *            the resource set of the server space
+	 */
+	public void install(ResourceSet resourceSet) {
+		if (isEnabled() && !resourceSet.eAdapters().contains(this)) {
+			resourceSet.eAdapters().add(this);
+		}
+	}
+
+	/**
+	 * Returns an object which stays usable after the lock of its project has been released. Once the lock is released,
+	 * the manager may unload the resource of the given object, which turns the object and its children into proxies.
+	 * Hence, objects which are handed out to clients must be copies if the manager is enabled.
+	 *
+	 * @param object
+	 *            the object contained in a resource of a version, may be <code>null</code>
+	 * @param <T> the type of the object
+	 * @return a copy of the object if the manager is enabled, the object itself otherwise
+	 */
+	public <T extends EObject> T detach(T object) {
+		if (!isEnabled() || object == null) {
+			return object;
+		}
+		return ModelUtil.clone(object);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @see org.eclipse.emf.emfstore.internal.server.model.versioning.util.VersionResourceListener#resourceAccessed(org.eclipse.emf.emfstore.internal.server.model.versioning.Version,
+	 *      org.eclipse.emf.ecore.resource.Resource)
+	 */
+	public void resourceAccessed(Version version, Resource resource) {
+		if (!isEnabled() || !resource.isLoaded() || !(version.eContainer() instanceof ProjectHistory)) {
+			return;
+		}
+		synchronized (this) {
+			if (entries.get(resource) != null) {
+				hits++;
+				return;
+			}
+		}
+		// estimate outside of the monitor, counting is linear in the size of the resource
+		final long size = estimateSize(resource);
+		final ProjectId projectId = ((ProjectHistory) version.eContainer()).getProjectId();
+		synchronized (this) {
+			if (entries.get(resource) != null) {
+				hits++;
+				return;
+			}
+			entries.put(resource, new Entry(ModelUtil.clone(projectId), size));
+			currentBytes += size;
+			loads++;
+			evict(resource);
+		}
+	}
+
+	/**
+	 * Stops tracking the resources of the given project without unloading them.
+	 *
+	 * @param projectId
+	 *            the ID of the project
+	 */
+	public synchronized void removeAll(ProjectId projectId) {
+		final Iterator<Entry> iterator = entries.values().iterator();
+		while (iterator.hasNext()) {
+			final Entry next = iterator.next();
+			if (next.projectId.equals(projectId)) {
+				currentBytes -= next.size;
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * Stops tracking all resources without unloading them and resets the metrics.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		currentBytes = 0;
+		loads = 0;
+		hits = 0;
+		evictions = 0;
+		deferredEvictions = 0;
+	}
+
+	private void evict(Resource accessedResource) {
+		if (currentBytes <= maxBytes) {
+			return;
+		}
+		final ReentrantReadWriteLock serverSpaceLock = (ReentrantReadWriteLock) monitorProvider.getServerSpaceLock();
+		if (serverSpaceLock.isWriteLockedByCurrentThread() || !serverSpaceLock.readLock().tryLock()) {
+			deferredEvictions++;
+			return;
+		}
+		try {
+			final Iterator<Map.Entry<Resource, Entry>> iterator = entries.entrySet().iterator();
+			while (currentBytes > maxBytes && iterator.hasNext()) {
+				final Map.Entry<Resource, Entry> next = iterator.next();
+				final Resource resource = next.getKey();
+				if (resource == accessedResource) {
+					continue;
+				}
+				if (!resource.isLoaded()) {
+					// unloaded by someone else
+					currentBytes -= next.getValue().size;
+					iterator.remove();
+				} else if (unload(resource, next.getValue().projectId)) {
+					currentBytes -= next.getValue().size;
+					iterator.remove();
+					evictions++;
+				} else {
+					deferredEvictions++;
+				}
+			}
+		} finally {
+			serverSpaceLock.readLock().unlock();
+		}
+	}
+
+	private boolean unload(Resource resource, ProjectId projectId) {
+		final ReentrantReadWriteLock projectLock = (ReentrantReadWriteLock) monitorProvider.getProjectLock(projectId);
+		// the current thread might still use resources of a project it has locked for writing
+		if (projectLock.isWriteLockedByCurrentThread()) {
+			return false;
+		}
+		final Lock writeLock = projectLock.writeLock();
+		if (!writeLock.tryLock()) {
+			return false;
+		}
+		try {
+			resource.unload();
+			// the version loads a new resource upon the next access, so the empty one is not needed anymore
+			final ResourceSet resourceSet = resource.getResourceSet();
+			if (resourceSet != null) {
+				resourceSet.getResources().remove(resource);
+			}
+			return true;
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	private static long estimateSize(Resource resource) {
+		long elements = 0;
+		final TreeIterator<EObject> iterator = resource.getAllContents();
+		while (iterator.hasNext()) {
+			iterator.next();
+			elements++;
+		}
+		return Math.max(1, elements) * ESTIMATED_BYTES_PER_ELEMENT;
+	}
+
+	/**
+	 * @return the number of resources that have been tracked after being loaded
+	 */
+	public synchronized long getLoads() {
+		return loads;
+	}
+
+	/**
+	 * @return the number of accesses of resources that have already been tracked
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return the number of resources that have been unloaded in order to stay within the byte budget
+	 */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * @return the number of times a resource could not be unloaded because its project was in use
+	 */
+	public synchronized long getDeferredEvictions() {
+		return deferredEvictions;
+	}
+
+	/**
+	 * @return the estimated number of bytes currently occupied by tracked resources
+	 */
+	public synchronized long getSize() {
+		return currentBytes;
+	}
+
+	/**
+	 * @return the number of tracked resources
+	 */
+	public synchronized int getEntryCount() {
+		return entries.size();
+	}
+
+	/**
+	 * The project of a tracked resource together with the estimated size of the resource.
+	 */
+	private static final class Entry {
+
+		private final ProjectId projectId;
+		private final long size;
+
+		Entry(ProjectId projectId, long size) {
+			this.projectId = projectId;
+			this.size = size;
+		}
+	}
+}
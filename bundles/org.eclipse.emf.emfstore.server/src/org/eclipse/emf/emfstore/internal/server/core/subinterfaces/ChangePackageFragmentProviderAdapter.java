@@ -11,6 +11,7 @@
  ******************************************************************************/
 package org.eclipse.emf.emfstore.internal.server.core.subinterfaces;
 
+import java.util.BitSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -26,6 +27,10 @@ import org.eclipse.emf.emfstore.server.exceptions.ESException;
 /**
  * Adapter that is supposed to be attached to a session and split incoming complete change packages
  * into single fragments.
+ * <p>
+ * Clients may request several fragments of a change package at the same time, hence fragments may be served in any
+ * order. The fragments of a change package are discarded once all of them have been served.
+ * </p>
  *
  * @author emueller
  *
@@ -33,6 +38,7 @@ import org.eclipse.emf.emfstore.server.exceptions.ESException;
 public class ChangePackageFragmentProviderAdapter extends AdapterImpl {
 
 	private final Map<String, Map<Integer, List<String>>> proxyIdToChangePackageFragments = new LinkedHashMap<String, Map<Integer, List<String>>>();
+	private final Map<String, BitSet> proxyIdToServedFragments = new LinkedHashMap<String, BitSet>();
 
 	/**
 	 * Splits the given change package into fragments and stores them.
@@ -43,7 +49,7 @@ public class ChangePackageFragmentProviderAdapter extends AdapterImpl {
 	 * @param changePackage
 	 *            the change package to be splitted
 	 */
-	public void addAsFragments(String proxyId, FileBasedChangePackage changePackage) {
+	public synchronized void addAsFragments(String proxyId, FileBasedChangePackage changePackage) {
 
 		final Iterator<ChangePackageEnvelope> envelopes = ChangePackageUtil.splitChangePackage(
 			changePackage,
@@ -74,7 +80,7 @@ public class ChangePackageFragmentProviderAdapter extends AdapterImpl {
 	 * @return the fragment
 	 * @throws ESException in case no fragments for the given proxy ID are present
 	 */
-	public List<String> getFragment(String proxyId, int fragmentIndex) throws ESException {
+	public synchronized List<String> getFragment(String proxyId, int fragmentIndex) throws ESException {
 		final Map<Integer, List<String>> fragments = proxyIdToChangePackageFragments.get(proxyId);
 		if (fragments == null) {
 			throw new ESException(Messages.ChangePackageFragmentProviderAdapter_NoFragmentsFound);
@@ -89,7 +95,7 @@ public class ChangePackageFragmentProviderAdapter extends AdapterImpl {
 	 *            the ID identifying the list of change package fragments
 	 * @return the number of available fragments
 	 */
-	public int getFragmentSize(String proxyId) {
+	public synchronized int getFragmentSize(String proxyId) {
 		final Map<Integer, List<String>> map = proxyIdToChangePackageFragments.get(proxyId);
 		if (map == null) {
 			return -1;
@@ -103,8 +109,34 @@ public class ChangePackageFragmentProviderAdapter extends AdapterImpl {
 	 * @param proxyId
 	 *            identifies the change package fragments to be removed
 	 */
-	public void markAsConsumed(String proxyId) {
+	public synchronized void markAsConsumed(String proxyId) {
 		proxyIdToChangePackageFragments.remove(proxyId);
+		proxyIdToServedFragments.remove(proxyId);
+	}
+
+	/**
+	 * Records that the fragment with the given index has been served and removes the fragments that belong to the given
+	 * ID once all of them have been served.
+	 *
+	 * @param proxyId
+	 *            identifies the change package fragments
+	 * @param fragmentIndex
+	 *            the index of the served fragment
+	 */
+	public synchronized void markAsServed(String proxyId, int fragmentIndex) {
+		final Map<Integer, List<String>> map = proxyIdToChangePackageFragments.get(proxyId);
+		if (map == null) {
+			return;
+		}
+		BitSet servedFragments = proxyIdToServedFragments.get(proxyId);
+		if (servedFragments == null) {
+			servedFragments = new BitSet(map.size());
+			proxyIdToServedFragments.put(proxyId, servedFragments);
+		}
+		servedFragments.set(fragmentIndex);
+		if (servedFragments.cardinality() >= map.size()) {
+			markAsConsumed(proxyId);
+		}
 	}
 
 }
@@ -15,6 +15,7 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.text.MessageFormat;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,6 +24,7 @@ import org.eclipse.emf.common.notify.impl.AdapterImpl;
 import org.eclipse.emf.emfstore.internal.common.model.util.FileUtil;
 import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.ChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.ChangePackageEnvelope;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.FileBasedChangePackage;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningFactory;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AbstractOperation;
@@ -33,6 +35,11 @@ import com.google.common.base.Optional;
 
 /**
  * Adapter that is meant to be attached to a session and stores all change package fragments.
+ * <p>
+ * Clients may upload several fragments of a change package at the same time, hence fragments may arrive in any order.
+ * Fragments are appended to the change package in the order of their fragment index; fragments arriving early are kept
+ * until all of their predecessors have been appended.
+ * </p>
  *
  * @author emueller
  *
@@ -40,11 +47,11 @@ import com.google.common.base.Optional;
 public class ChangePackageFragmentUploadAdapter extends AdapterImpl {
 
 	// maps proxy ID to file-based change package
-	private final Map<String, File> proxyIdToChangePackageFragments = new LinkedHashMap<String, File>();
+	private final Map<String, PendingChangePackage> proxyIdToChangePackageFragments = new LinkedHashMap<String, PendingChangePackage>();
 	private final Map<String, File> proxyIdToCompletedChangePackages = new LinkedHashMap<String, File>();
 
 	/**
-	 * Adds a single fragment.
+	 * Adds a single fragment, which is appended after all fragments added before.
 	 *
 	 * @param proxyId
 	 *            the ID identifying the list of fragments this fragment belongs to
@@ -52,12 +59,49 @@ public class ChangePackageFragmentUploadAdapter extends AdapterImpl {
 	 *            the actual fragment to be added
 	 * @throws ESException in case the fragment could not be added
 	 */
-	public void addFragment(String proxyId, List<String> fragment) throws ESException {
-		File file = proxyIdToChangePackageFragments.get(proxyId);
-		if (file == null) {
-			file = new File(FileUtil.createLocationForTemporaryChangePackage() + ".temp"); //$NON-NLS-1$
-			proxyIdToChangePackageFragments.put(proxyId, file);
+	public synchronized void addFragment(String proxyId, List<String> fragment) throws ESException {
+		final PendingChangePackage changePackage = getPendingChangePackage(proxyId);
+		append(changePackage.file, fragment);
+		changePackage.nextFragmentIndex++;
+	}
+
+	/**
+	 * Adds the fragment contained in the given envelope. Fragments may be added in any order.
+	 *
+	 * @param proxyId
+	 *            the ID identifying the list of fragments this fragment belongs to
+	 * @param envelope
+	 *            the envelope containing the fragment along with its index and the overall number of fragments
+	 * @return {@code true} if all fragments of the change package have been added, {@code false} otherwise
+	 * @throws ESException in case the fragment could not be added
+	 */
+	public synchronized boolean addFragment(String proxyId, ChangePackageEnvelope envelope) throws ESException {
+		final PendingChangePackage changePackage = getPendingChangePackage(proxyId);
+		if (envelope.getFragmentIndex() < changePackage.nextFragmentIndex
+			|| changePackage.earlyFragments.containsKey(envelope.getFragmentIndex())) {
+			throw new ESException(MessageFormat.format(
+				Messages.ChangePackageFragmentUploadAdapter_DuplicateFragment, envelope.getFragmentIndex(), proxyId));
+		}
+		changePackage.earlyFragments.put(envelope.getFragmentIndex(), envelope.getFragment());
+		List<String> fragment;
+		while ((fragment = changePackage.earlyFragments.remove(changePackage.nextFragmentIndex)) != null) {
+			append(changePackage.file, fragment);
+			changePackage.nextFragmentIndex++;
+		}
+		return changePackage.nextFragmentIndex >= envelope.getFragmentCount();
+	}
+
+	private PendingChangePackage getPendingChangePackage(String proxyId) {
+		PendingChangePackage changePackage = proxyIdToChangePackageFragments.get(proxyId);
+		if (changePackage == null) {
+			changePackage = new PendingChangePackage(
+				new File(FileUtil.createLocationForTemporaryChangePackage() + ".temp")); //$NON-NLS-1$
+			proxyIdToChangePackageFragments.put(proxyId, changePackage);
 		}
+		return changePackage;
+	}
+
+	private static void append(File file, List<String> fragment) throws ESException {
 		FileWriter writer = null;
 		try {
 			writer = new FileWriter(file, true);
@@ -84,9 +128,9 @@ public class ChangePackageFragmentUploadAdapter extends AdapterImpl {
 	 *            the ID of the set of change package fragments that is supposed to be completed
 	 * @throws ESException in case
 	 */
-	public void markAsComplete(String proxyId) throws ESException {
+	public synchronized void markAsComplete(String proxyId) throws ESException {
 		final File possiblyCompletedChangePackage = proxyIdToCompletedChangePackages.get(proxyId);
-		final File fileBasedChangePackage = proxyIdToChangePackageFragments.get(proxyId);
+		final PendingChangePackage fileBasedChangePackage = proxyIdToChangePackageFragments.get(proxyId);
 
 		if (possiblyCompletedChangePackage != null) {
 			throw new ESException(Messages.ChangePackageFragmentUploadAdapter_ChangePackageAlreadyComplete);
@@ -98,7 +142,7 @@ public class ChangePackageFragmentUploadAdapter extends AdapterImpl {
 					Messages.ChangePackageFragmentUploadAdapter_NoChangePackageFragmentsFound, proxyId));
 		}
 
-		proxyIdToCompletedChangePackages.put(proxyId, fileBasedChangePackage);
+		proxyIdToCompletedChangePackages.put(proxyId, fileBasedChangePackage.file);
 		proxyIdToChangePackageFragments.remove(proxyId);
 	}
 
@@ -111,7 +155,7 @@ public class ChangePackageFragmentUploadAdapter extends AdapterImpl {
 	 *            will be created
 	 * @return the aggregated {@link ChangePackage} as an {@link Optional}
 	 */
-	public Optional<ChangePackage> convertFileBasedToInMemoryChangePackage(String proxyId) {
+	public synchronized Optional<ChangePackage> convertFileBasedToInMemoryChangePackage(String proxyId) {
 		final File file = proxyIdToCompletedChangePackages.get(proxyId);
 		if (file == null) {
 			return Optional.absent();
@@ -141,7 +185,7 @@ public class ChangePackageFragmentUploadAdapter extends AdapterImpl {
 	 * @param proxyId the ID that identifies the {@link FileBasedChangePackage}
 	 * @return the file based change package as an {@link Optional}
 	 */
-	public Optional<FileBasedChangePackage> getFileBasedChangePackage(String proxyId) {
+	public synchronized Optional<FileBasedChangePackage> getFileBasedChangePackage(String proxyId) {
 		final File file = proxyIdToCompletedChangePackages.get(proxyId);
 		if (file == null) {
 			return Optional.absent();
@@ -165,7 +209,21 @@ public class ChangePackageFragmentUploadAdapter extends AdapterImpl {
 	 * @param proxyId
 	 *            the ID of the change package proxy
 	 */
-	public void clearCompleted(final String proxyId) {
+	public synchronized void clearCompleted(final String proxyId) {
 		proxyIdToCompletedChangePackages.remove(proxyId);
 	}
+
+	/**
+	 * The file a change package is uploaded to, along with the fragments that can not be appended yet.
+	 */
+	private static final class PendingChangePackage {
+
+		private final File file;
+		private final Map<Integer, List<String>> earlyFragments = new HashMap<Integer, List<String>>();
+		private int nextFragmentIndex;
+
+		PendingChangePackage(File file) {
+			this.file = file;
+		}
+	}
 }
\ No newline at end of file
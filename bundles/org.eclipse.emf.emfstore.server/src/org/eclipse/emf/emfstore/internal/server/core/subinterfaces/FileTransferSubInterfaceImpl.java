@@ -16,7 +16,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.text.MessageFormat;
 
-import org.eclipse.emf.emfstore.internal.common.model.util.FileUtil;
+import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
 import org.eclipse.emf.emfstore.internal.server.ServerConfiguration;
 import org.eclipse.emf.emfstore.internal.server.core.AbstractEmfstoreInterface;
 import org.eclipse.emf.emfstore.internal.server.core.AbstractSubEmfstoreInterface;
@@ -24,8 +24,9 @@ import org.eclipse.emf.emfstore.internal.server.core.MonitorProvider;
 import org.eclipse.emf.emfstore.internal.server.exceptions.FatalESException;
 import org.eclipse.emf.emfstore.internal.server.exceptions.FileTransferException;
 import org.eclipse.emf.emfstore.internal.server.exceptions.InvalidInputException;
+import org.eclipse.emf.emfstore.internal.server.filetransfer.ChunkedFileTransfer;
+import org.eclipse.emf.emfstore.internal.server.filetransfer.ContentAddressedFileStore;
 import org.eclipse.emf.emfstore.internal.server.filetransfer.FileChunk;
-import org.eclipse.emf.emfstore.internal.server.filetransfer.FilePartitionerUtil;
 import org.eclipse.emf.emfstore.internal.server.filetransfer.FileTransferInformation;
 import org.eclipse.emf.emfstore.internal.server.model.FileIdentifier;
 import org.eclipse.emf.emfstore.internal.server.model.ProjectId;
@@ -57,12 +58,22 @@ public class FileTransferSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 	 */
 	public static final String FILE_NAME_DELIMITER = "_"; //$NON-NLS-1$
 
+	/**
+	 * The extension of the files within the attachment folder that link an attachment to its content in the
+	 * {@link ContentAddressedFileStore}.
+	 */
+	public static final String LINK_FILE_EXTENSION = ".sha256"; //$NON-NLS-1$
+
+	private final ContentAddressedFileStore fileStore;
+
 	/**
 	 * @param parentInterface the parent interface
 	 * @throws FatalESException if any fatal error occurs
 	 */
 	public FileTransferSubInterfaceImpl(AbstractEmfstoreInterface parentInterface) throws FatalESException {
 		super(parentInterface);
+		fileStore = new ContentAddressedFileStore(
+			new File(ServerConfiguration.getServerHome() + ContentAddressedFileStore.STORE_FOLDER));
 	}
 
 	/**
@@ -78,6 +89,7 @@ public class FileTransferSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 	public FileChunk downloadFileChunk(ProjectId projectId, FileTransferInformation fileInformation)
 		throws FileTransferException, InvalidInputException {
 		sanityCheckObjects(projectId, fileInformation);
+		checkChunkSize(fileInformation);
 
 		// check if folders exist, otherwise create
 		createDirectories(projectId);
@@ -90,7 +102,7 @@ public class FileTransferSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 			return null;
 		}
 
-		return FilePartitionerUtil.readChunk(file, fileInformation);
+		return ChunkedFileTransfer.readChunk(file, fileInformation);
 	}
 
 	/**
@@ -104,16 +116,52 @@ public class FileTransferSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 		synchronized (MonitorProvider.getInstance().getMonitor(FILELOAD)) {
 			final File cachedFile = getCachedFile(fileIdentifier, projectId);
 			cachedFile.delete();
+			try {
+				fileStore.unlink(getLinkFile(fileIdentifier, projectId));
+			} catch (final IOException e) {
+				ModelUtil.logException(e);
+			}
+		}
+	}
+
+	/**
+	 * Removes all attachments of the given project, thereby releasing their contents in the file store.
+	 *
+	 * @param projectId the ID of the deleted project
+	 */
+	public void deleteAttachments(ProjectId projectId) {
+		final File[] linkFiles = new File(getProjectAttachmentFolder(projectId)).listFiles();
+		if (linkFiles == null) {
+			return;
+		}
+		synchronized (MonitorProvider.getInstance().getMonitor(FILELOAD)) {
+			for (final File linkFile : linkFiles) {
+				if (linkFile.getName().endsWith(LINK_FILE_EXTENSION)) {
+					try {
+						fileStore.unlink(linkFile);
+					} catch (final IOException e) {
+						ModelUtil.logException(e);
+					}
+				}
+			}
 		}
 	}
 
 	/**
 	 * Writes a chunk to the file linked to the fileInformation in the fileChunk. If the data in the file chunk is null,
-	 * this is treated as a request for a file version.
+	 * this is treated as a query preceding the upload: if another attachment of the same project already refers to
+	 * content with the hash given by the file information, the file is linked to that content and the returned file
+	 * information is marked complete. Otherwise, the returned file information carries the chunk number an interrupted
+	 * upload of the file should be resumed with.
+	 * <p>
+	 * Uploaded files are added to the server's {@link ContentAddressedFileStore}, so that identical contents are only
+	 * stored once, even across projects. A hash alone does not prove that the client knows the content, hence it is
+	 * never linked to content that only other projects refer to.
+	 * </p>
 	 *
 	 * @param fileChunk contains data and information about the file attachment, file version and chunk number
 	 * @param projectId project id
-	 * @return fileInformation containing the (new) file version
+	 * @return fileInformation containing the (new) file version, or the chunk number to resume the upload with
 	 * @throws FileTransferException if any error occurs writing to the file
 	 * @throws InvalidInputException thrown if one of the parameters is null
 	 */
@@ -121,39 +169,94 @@ public class FileTransferSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 	public FileTransferInformation uploadFileChunk(ProjectId projectId, FileChunk fileChunk)
 		throws FileTransferException, InvalidInputException {
 		sanityCheckObjects(projectId, fileChunk);
-		synchronized (MonitorProvider.getInstance().getMonitor(FILELOAD)) {
-			// check if folders exist, otherwise create
-			createDirectories(projectId);
-			final FileTransferInformation fileInfo = fileChunk.getFileInformation();
+		final FileTransferInformation fileInfo = fileChunk.getFileInformation();
+		checkChunkSize(fileInfo);
+		// check if folders exist, otherwise create
+		createDirectories(projectId);
+
+		if (fileChunk.getData() == null) {
+			if (linkToStoredContent(projectId, fileInfo)) {
+				fileInfo.setComplete(true);
+				return fileInfo;
+			}
+			fileInfo.setChunkNumber(
+				ChunkedFileTransfer.getResumeChunkNumber(getTempFile(fileInfo, projectId), fileInfo));
+			return fileInfo;
+		}
 
-			// retrieve location for the temp file
-			File tmpFile;
+		// retrieve location for the temp file
+		File tmpFile;
+		try {
+			if (fileChunk.getChunkNumber() == 0) {
+				tmpFile = getTempFile(fileInfo, projectId);
+			} else {
+				tmpFile = findFileInTemp(fileInfo, projectId);
+			}
+		} catch (final FileNotFoundException e) {
+			throw new FileTransferException(
+				Messages.FileTransferSubInterfaceImpl_File_Inaccessible, e);
+		}
+		tmpFile.getParentFile().mkdirs();
+		// chunks of different files are written concurrently
+		ChunkedFileTransfer.writeChunk(tmpFile, fileChunk);
+		// move file from temp folder to the file store if last file chunk is received
+		if (fileChunk.isLast()) {
 			try {
-				if (fileChunk.getChunkNumber() == 0) {
-					tmpFile = getTempFile(fileInfo, projectId);
-				} else {
-					tmpFile = findFileInTemp(fileInfo, projectId);
+				// the hash announced by the client is not trusted
+				final String hash = ContentAddressedFileStore.computeHash(tmpFile);
+				synchronized (MonitorProvider.getInstance().getMonitor(FILELOAD)) {
+					final FileIdentifier fileIdentifier = fileInfo.getFileIdentifier();
+					fileStore.add(tmpFile, hash, getLinkFile(fileIdentifier, projectId));
+					// drop the attachment file of an older server version, which would hide the link
+					getCachedFile(fileIdentifier, projectId).delete();
 				}
-			} catch (final FileNotFoundException e) {
-				throw new FileTransferException(
-					Messages.FileTransferSubInterfaceImpl_File_Inaccessible, e);
+				fileInfo.setContentHash(hash);
+			} catch (final IOException e) {
+				throw new FileTransferException(Messages.FileTransferSubInterfaceImpl_Move_Failed, e);
 			}
-			tmpFile.getParentFile().mkdirs();
-			// file reslicer for reslicing temp file
-			FilePartitionerUtil.writeChunk(tmpFile, fileChunk);
-			// move file from temp folder to attachment folder if last file chunk is received
-			if (fileChunk.isLast()) {
-				try {
-					// retrieve final location for file
-					final File attachmentFile = getCachedFile(fileInfo.getFileIdentifier(), projectId);
-
-					FileUtil.copyFile(tmpFile, attachmentFile);
-					tmpFile.delete();
-				} catch (final IOException e) {
-					throw new FileTransferException(Messages.FileTransferSubInterfaceImpl_Move_Failed, e);
+		}
+		return fileInfo;
+	}
+
+	private boolean linkToStoredContent(ProjectId projectId, FileTransferInformation fileInfo)
+		throws FileTransferException {
+		final String hash = fileInfo.getContentHash();
+		if (!ContentAddressedFileStore.isValidHash(hash)) {
+			return false;
+		}
+		synchronized (MonitorProvider.getInstance().getMonitor(FILELOAD)) {
+			try {
+				final FileIdentifier fileIdentifier = fileInfo.getFileIdentifier();
+				if (!isLinkedWithinProject(projectId, hash)
+					|| !fileStore.link(hash, getLinkFile(fileIdentifier, projectId))) {
+					return false;
 				}
+				getCachedFile(fileIdentifier, projectId).delete();
+				return true;
+			} catch (final IOException e) {
+				throw new FileTransferException(Messages.FileTransferSubInterfaceImpl_Move_Failed, e);
 			}
-			return fileInfo;
+		}
+	}
+
+	private boolean isLinkedWithinProject(ProjectId projectId, String hash) throws IOException {
+		final File[] linkFiles = new File(getProjectAttachmentFolder(projectId)).listFiles();
+		if (linkFiles == null) {
+			return false;
+		}
+		for (final File linkFile : linkFiles) {
+			if (linkFile.getName().endsWith(LINK_FILE_EXTENSION) && hash.equals(fileStore.getLinkedHash(linkFile))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void checkChunkSize(FileTransferInformation fileInfo) throws FileTransferException {
+		final int maxChunkSize = ServerConfiguration.getFileTransferMaxChunkSize();
+		if (fileInfo.getChunkSize() > maxChunkSize) {
+			throw new FileTransferException(MessageFormat.format(
+				Messages.FileTransferSubInterfaceImpl_Chunk_Size_Exceeded, fileInfo.getChunkSize(), maxChunkSize));
 		}
 	}
 
@@ -178,6 +281,18 @@ public class FileTransferSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 	}
 
 	private File findFile(FileTransferInformation fileInfo, ProjectId projectId) throws FileNotFoundException {
+		final File storedFile;
+		try {
+			storedFile = fileStore.resolve(getLinkFile(fileInfo.getFileIdentifier(), projectId));
+		} catch (final IOException e) {
+			final FileNotFoundException exception = new FileNotFoundException(e.getMessage());
+			exception.initCause(e);
+			throw exception;
+		}
+		if (storedFile != null) {
+			return storedFile;
+		}
+		// attachments uploaded to older server versions are not part of the file store
 		final File file = getCachedFile(fileInfo.getFileIdentifier(), projectId);
 		if (file.exists()) {
 			return file;
@@ -197,6 +312,11 @@ public class FileTransferSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 			getProjectAttachmentFolder(projectId) + File.separator + constructFileName(fileIdentifier));
 	}
 
+	private File getLinkFile(FileIdentifier fileIdentifier, ProjectId projectId) {
+		return new File(getProjectAttachmentFolder(projectId) + File.separator + constructFileName(fileIdentifier)
+			+ LINK_FILE_EXTENSION);
+	}
+
 	private String constructFileName(FileIdentifier fileIdentifier) {
 		return fileIdentifier.getIdentifier();
 	}
@@ -11,14 +11,17 @@
  ******************************************************************************/
 package org.eclipse.emf.emfstore.internal.server.core.subinterfaces;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -52,6 +55,8 @@ import org.eclipse.emf.emfstore.internal.server.model.versioning.VersionSpec;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningFactory;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.Versions;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AbstractOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.util.ChangePackageUtil;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.util.HistoryInfoSummary;
 import org.eclipse.emf.emfstore.server.ESCloseableIterable;
 import org.eclipse.emf.emfstore.server.ESServerURIUtil;
 import org.eclipse.emf.emfstore.server.auth.ESMethod;
@@ -66,6 +71,8 @@ import org.eclipse.emf.emfstore.server.exceptions.ESException;
  */
 public class HistorySubInterfaceImpl extends AbstractSubEmfstoreInterface {
 
+	private final Map<String, ModelElementVersionIndex> modelElementVersionIndices;
+
 	/**
 	 * Default constructor.
 	 *
@@ -76,11 +83,51 @@ public class HistorySubInterfaceImpl extends AbstractSubEmfstoreInterface {
 	 */
 	public HistorySubInterfaceImpl(AbstractEmfstoreInterface parentInterface) throws FatalESException {
 		super(parentInterface);
+		modelElementVersionIndices = new HashMap<String, ModelElementVersionIndex>();
 	}
 
 	@Override
 	protected void initSubInterface() throws FatalESException {
 		super.initSubInterface();
+		if (ServerConfiguration.isModelElementIndexRebuildRequested()) {
+			for (final ProjectHistory projectHistory : getServerSpace().getProjects()) {
+				getModelElementVersionIndex(projectHistory).rebuild();
+			}
+		}
+	}
+
+	/**
+	 * Returns the index used to answer history queries for model elements of the given project. The index is created
+	 * if necessary.
+	 *
+	 * @param projectHistory
+	 *            the project history
+	 * @return the index
+	 */
+	synchronized ModelElementVersionIndex getModelElementVersionIndex(ProjectHistory projectHistory) {
+		final ProjectId projectId = projectHistory.getProjectId();
+		ModelElementVersionIndex index = modelElementVersionIndices.get(projectId.getId());
+		if (index == null) {
+			index = new ModelElementVersionIndex(projectHistory, new File(getResourceHelper().getProjectFolder(
+				projectId), ModelElementVersionIndex.FILE_NAME));
+			modelElementVersionIndices.put(projectId.getId(), index);
+		}
+		return index;
+	}
+
+	/**
+	 * Removes the index of the given project and deletes its file.
+	 *
+	 * @param projectId
+	 *            the ID of the project
+	 */
+	synchronized void removeModelElementVersionIndex(ProjectId projectId) {
+		final ModelElementVersionIndex index = modelElementVersionIndices.remove(projectId.getId());
+		if (index != null) {
+			index.delete();
+		} else {
+			new File(getResourceHelper().getProjectFolder(projectId), ModelElementVersionIndex.FILE_NAME).delete();
+		}
 	}
 
 	/**
@@ -100,7 +147,8 @@ public class HistorySubInterfaceImpl extends AbstractSubEmfstoreInterface {
 		throws ESException {
 
 		sanityCheckObjects(projectId, versionSpec, tag);
-		synchronized (getMonitor()) {
+		getMonitorProvider().acquireProjectWriteLock(projectId);
+		try {
 			final Version version = getSubInterface(VersionSubInterfaceImpl.class).getVersion(projectId, versionSpec);
 			// stamp branch instead of throwing an exception
 			tag.setBranch(versionSpec.getBranch());
@@ -111,6 +159,7 @@ public class HistorySubInterfaceImpl extends AbstractSubEmfstoreInterface {
 			} catch (final FatalESException e) {
 				throw new StorageException(StorageException.NOSAVE);
 			}
+			getVersionSpecIndex(projectId).tagAdded(version, tag);
 
 			if (ServerConfiguration.createProjectStateOnTag()) {
 				final URI projectStateURI = ESServerURIUtil.createProjectStateURI(projectId, version.getPrimarySpec());
@@ -118,13 +167,16 @@ public class HistorySubInterfaceImpl extends AbstractSubEmfstoreInterface {
 					/* the project state is existing, just return */
 					return;
 				}
-				final Project projectState = ProjectSubInterfaceImpl.getProjectFromVersion(version);
+				// the reconstructed state may be shared by the project state cache, persist a copy
+				final Project projectState = ModelUtil.clone(ProjectSubInterfaceImpl.getProjectFromVersion(version));
 				try {
 					getResourceHelper().createResourceForProject(projectState, versionSpec, projectId);
 				} catch (final FatalESException e) {
 					throw new StorageException(StorageException.NOSAVE);
 				}
 			}
+		} finally {
+			getMonitorProvider().releaseProjectWriteLock(projectId);
 		}
 	}
 
@@ -144,7 +196,8 @@ public class HistorySubInterfaceImpl extends AbstractSubEmfstoreInterface {
 	public void removeTag(ProjectId projectId, PrimaryVersionSpec versionSpec, TagVersionSpec tag)
 		throws ESException {
 		sanityCheckObjects(projectId, versionSpec, tag);
-		synchronized (getMonitor()) {
+		getMonitorProvider().acquireProjectWriteLock(projectId);
+		try {
 			/* remove tag */
 			final Version version = getSubInterface(VersionSubInterfaceImpl.class).getVersion(projectId, versionSpec);
 			final Iterator<TagVersionSpec> iterator = version.getTagSpecs().iterator();
@@ -158,6 +211,7 @@ public class HistorySubInterfaceImpl extends AbstractSubEmfstoreInterface {
 			} catch (final FatalESException e) {
 				throw new StorageException(StorageException.NOSAVE);
 			}
+			getVersionSpecIndex(projectId).tagRemoved(version, tag);
 
 			/* delete project state if necessary */
 			if (ServerConfiguration.createProjectStateOnTag()) {
@@ -171,6 +225,8 @@ public class HistorySubInterfaceImpl extends AbstractSubEmfstoreInterface {
 					getResourceHelper().deleteProjectState(version, projectId);
 				}
 			}
+		} finally {
+			getMonitorProvider().releaseProjectWriteLock(projectId);
 		}
 	}
 
@@ -187,7 +243,8 @@ public class HistorySubInterfaceImpl extends AbstractSubEmfstoreInterface {
 	@ESMethod(MethodId.GETHISTORYINFO)
 	public List<HistoryInfo> getHistoryInfo(ProjectId projectId, HistoryQuery<?> historyQuery) throws ESException {
 		sanityCheckObjects(projectId, historyQuery);
-		synchronized (getMonitor()) {
+		getSubInterface(ProjectSubInterfaceImpl.class).acquireResolvedProjectReadLock(projectId);
+		try {
 
 			// TODO LCP model element query disabled
 			if (historyQuery instanceof ModelElementQuery) {
@@ -206,7 +263,106 @@ public class HistorySubInterfaceImpl extends AbstractSubEmfstoreInterface {
 
 			}
 			return Collections.emptyList();
+		} finally {
+			getMonitorProvider().releaseProjectReadLock(projectId);
+		}
+	}
+
+	/**
+	 * Returns a page of history information for the given project. In contrast to
+	 * {@link #getHistoryInfo(ProjectId, HistoryQuery)} change packages are never included. If the query asks for
+	 * them, a summary of each change package is attached instead, see {@link HistoryInfoSummary}.
+	 *
+	 * @param projectId
+	 *            the {@link ProjectId} of the project whose history should be fetched
+	 * @param historyQuery
+	 *            the history query
+	 * @param continuationToken
+	 *            the token attached to the last {@link HistoryInfo} of the previous page or an empty string to fetch
+	 *            the first page
+	 * @param pageSize
+	 *            the maximum number of {@link HistoryInfo}s to return
+	 * @return a list containing {@link HistoryInfo} about the project, whose last entry carries the continuation
+	 *         token, if there are further pages
+	 * @throws ESException in case an error occurs while fetching the history
+	 */
+	@ESMethod(MethodId.GETHISTORYINFOPAGE)
+	public List<HistoryInfo> getHistoryInfoPage(ProjectId projectId, HistoryQuery<?> historyQuery,
+		String continuationToken, int pageSize) throws ESException {
+		sanityCheckObjects(projectId, historyQuery);
+		if (pageSize < 1) {
+			throw new InvalidInputException();
+		}
+		getSubInterface(ProjectSubInterfaceImpl.class).acquireResolvedProjectReadLock(projectId);
+		try {
+			List<Version> versions;
+			List<ModelElementId> modelElementIds = null;
+			if (historyQuery instanceof ModelElementQuery) {
+				versions = filterMEQueryVersions(projectId, (ModelElementQuery) historyQuery);
+				modelElementIds = ((ModelElementQuery) historyQuery).getModelElements();
+			} else if (historyQuery instanceof RangeQuery) {
+				versions = handleRangeQuery(projectId, (RangeQuery<?>) historyQuery);
+			} else if (historyQuery instanceof PathQuery) {
+				versions = handlePathQuery(projectId, (PathQuery) historyQuery);
+			} else {
+				versions = Collections.emptyList();
+			}
+
+			final int start = getPageStart(versions, continuationToken);
+			final int end = Math.min(versions.size(), start + pageSize);
+			final List<HistoryInfo> result = new ArrayList<HistoryInfo>();
+			for (final Version version : versions.subList(start, end)) {
+				final HistoryInfo historyInfo = createHistoryInfo(projectId, version, false);
+				if (historyQuery.isIncludeChangePackages() && version.getChanges() != null) {
+					setSummary(historyInfo, version.getChanges(), modelElementIds);
+				}
+				result.add(historyInfo);
+			}
+			if (end < versions.size()) {
+				HistoryInfoSummary.setContinuationToken(result.get(result.size() - 1),
+					Integer.toString(versions.get(end - 1).getPrimarySpec().getIdentifier()));
+			}
+			return result;
+		} finally {
+			getMonitorProvider().releaseProjectReadLock(projectId);
+		}
+	}
+
+	/**
+	 * Returns the index of the first version of the page, i.e. the index after the version the token refers to.
+	 */
+	private int getPageStart(List<Version> versions, String continuationToken) throws InvalidInputException {
+		if (continuationToken == null || continuationToken.length() == 0) {
+			return 0;
+		}
+		int identifier;
+		try {
+			identifier = Integer.parseInt(continuationToken);
+		} catch (final NumberFormatException e) {
+			throw new InvalidInputException(Messages.HistorySubInterfaceImpl_InvalidContinuationToken);
 		}
+		for (int i = 0; i < versions.size(); i++) {
+			if (versions.get(i).getPrimarySpec().getIdentifier() == identifier) {
+				return i + 1;
+			}
+		}
+		throw new InvalidInputException(Messages.HistorySubInterfaceImpl_InvalidContinuationToken);
+	}
+
+	private void setSummary(HistoryInfo historyInfo, AbstractChangePackage changePackage,
+		List<ModelElementId> modelElementIds) {
+		if (modelElementIds == null) {
+			HistoryInfoSummary.setSummary(historyInfo, changePackage.size(),
+				ChangePackageUtil.getInvolvedModelElements(changePackage));
+			return;
+		}
+		final List<AbstractOperation> operations = filterOperationsForSelectedElements(modelElementIds,
+			changePackage);
+		final Set<ModelElementId> involvedModelElements = new LinkedHashSet<ModelElementId>();
+		for (final AbstractOperation operation : operations) {
+			involvedModelElements.addAll(operation.getAllInvolvedModelElements());
+		}
+		HistoryInfoSummary.setSummary(historyInfo, operations.size(), involvedModelElements);
 	}
 
 	private List<Version> handleRangeQuery(ProjectId projectId, RangeQuery<?> query) throws ESException {
@@ -247,60 +403,27 @@ public class HistorySubInterfaceImpl extends AbstractSubEmfstoreInterface {
 	}
 
 	private List<HistoryInfo> handleMEQuery(ProjectId projectId, ModelElementQuery query) throws ESException {
-		final List<Version> relevantVersions = filterVersions(
-			handleRangeQuery(projectId, query),
-			query.getModelElements());
-		final List<HistoryInfo> historyInfos = versionToHistoryInfo(
-			projectId,
-			relevantVersions,
-			query.isIncludeChangePackages());
-		final List<HistoryInfo> filteredHistoryInfos = new ArrayList<HistoryInfo>();
-
-		for (final HistoryInfo historyInfo : historyInfos) {
-			final HistoryInfo clonedHistoryInfo = ModelUtil.clone(historyInfo);
-			final List<AbstractOperation> ops = filterOperationsForSelectedElements(
-				query.getModelElements(),
-				clonedHistoryInfo);
-
-			if (historyInfo.getChangePackage() != null) {
+		final List<HistoryInfo> historyInfos = new ArrayList<HistoryInfo>();
+		for (final Version version : filterMEQueryVersions(projectId, query)) {
+			final HistoryInfo historyInfo = createHistoryInfo(projectId, version, false);
+			// only copy the operations involving the queried elements
+			if (query.isIncludeChangePackages() && version.getChanges() != null) {
 				final ChangePackage newChangePackage = VersioningFactory.eINSTANCE.createChangePackage();
-				newChangePackage.getOperations().addAll(ops);
-				newChangePackage.setLogMessage(historyInfo.getChangePackage().getLogMessage());
-				clonedHistoryInfo.setChangePackage(newChangePackage);
+				newChangePackage.getOperations().addAll(ModelUtil.clone(
+					filterOperationsForSelectedElements(query.getModelElements(), version.getChanges())));
+				newChangePackage.setLogMessage(ModelUtil.clone(version.getChanges().getLogMessage()));
+				historyInfo.setChangePackage(newChangePackage);
 			}
-			filteredHistoryInfos.add(clonedHistoryInfo);
+			historyInfos.add(historyInfo);
 		}
-		return filteredHistoryInfos;
+		return historyInfos;
 	}
 
-	// TODO LCP combine with op filtering
-	private List<Version> filterVersions(List<Version> inRange, List<ModelElementId> modelElements) {
-		final ArrayList<Version> result = new ArrayList<Version>();
-		for (final Version version : inRange) {
-			// special case for initial version
-			if (version.getPrimarySpec() != null && version.getPrimarySpec().getIdentifier() == 0) {
-				if (version.getProjectState() != null) {
-					for (final ModelElementId id : modelElements) {
-						if (version.getProjectState().contains(id)) {
-							result.add(version);
-							break;
-						}
-					}
-				}
-			}
-			if (version.getChanges() == null) {
-				continue;
-			}
-
-			final Set<ModelElementId> involvedModelElements = getAllInvolvedModelElements(version.getChanges());
-			for (final ModelElementId id : modelElements) {
-				if (involvedModelElements.contains(id)) {
-					result.add(version);
-					break;
-				}
-			}
-		}
-		return result;
+	private List<Version> filterMEQueryVersions(ProjectId projectId, ModelElementQuery query) throws ESException {
+		final ProjectHistory projectHistory = getSubInterface(ProjectSubInterfaceImpl.class).getProject(projectId);
+		return getModelElementVersionIndex(projectHistory).filterVersions(
+			handleRangeQuery(projectId, query),
+			query.getModelElements());
 	}
 
 	/**
@@ -437,19 +560,17 @@ public class HistorySubInterfaceImpl extends AbstractSubEmfstoreInterface {
 		return result;
 	}
 
-	// TODO LCP
 	private List<AbstractOperation> filterOperationsForSelectedElements(List<ModelElementId> ids,
-		HistoryInfo historyInfo) {
+		AbstractChangePackage changePackage) {
 		final List<AbstractOperation> ops = new ArrayList<AbstractOperation>();
-		if (historyInfo.getChangePackage() == null) {
-			return ops;
-		}
-		final ESCloseableIterable<AbstractOperation> operations = historyInfo.getChangePackage().operations();
+		final ESCloseableIterable<AbstractOperation> operations = changePackage.operations();
 		try {
 			for (final AbstractOperation operation : operations.iterable()) {
+				final Set<ModelElementId> involvedModelElements = operation.getAllInvolvedModelElements();
 				for (final ModelElementId id : ids) {
-					if (operation.getAllInvolvedModelElements().contains(id)) {
+					if (involvedModelElements.contains(id)) {
 						ops.add(operation);
+						break;
 					}
 				}
 			}
@@ -528,6 +649,11 @@ public class HistorySubInterfaceImpl extends AbstractSubEmfstoreInterface {
 		return result;
 	}
 
+	private VersionSpecIndex getVersionSpecIndex(ProjectId projectId) throws ESException {
+		final ProjectHistory projectHistory = getSubInterface(ProjectSubInterfaceImpl.class).getProject(projectId);
+		return getSubInterface(VersionSubInterfaceImpl.class).getVersionSpecIndex(projectHistory);
+	}
+
 	/**
 	 * Sorts versions based on the primary version spec.
 	 *
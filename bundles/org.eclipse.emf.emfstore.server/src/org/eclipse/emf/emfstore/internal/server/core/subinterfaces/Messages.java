@@ -25,6 +25,7 @@ public final class Messages extends NLS {
 	public static String ChangePackageFragmentProviderAdapter_NoFragmentsFound;
 	public static String ChangePackageFragmentUploadAdapter_SplittingFailed;
 	public static String ChangePackageFragmentUploadAdapter_ChangePackageAlreadyComplete;
+	public static String ChangePackageFragmentUploadAdapter_DuplicateFragment;
 	public static String ChangePackageFragmentUploadAdapter_NoChangePackageFragmentsFound;
 	public static String EMFStorePropertiesSubInterfaceImpl_Project_Does_Not_Exist;
 	public static String EMFStorePropertiesSubInterfaceImpl_Properties_Not_Set;
@@ -32,11 +33,15 @@ public final class Messages extends NLS {
 	public static String EPackageSubInterfaceImpl_Registration_Success_2;
 	public static String EPackageSubInterfaceImpl_RegistrationFailed_AlreadyRegistered;
 	public static String EPackageSubInterfaceImpl_RegistrationFailed_Persistence;
+	public static String FileTransferSubInterfaceImpl_Chunk_Size_Exceeded;
 	public static String FileTransferSubInterfaceImpl_File_Inaccessible;
 	public static String FileTransferSubInterfaceImpl_Locate_Cache_Failed;
 	public static String FileTransferSubInterfaceImpl_Locate_Tmp_Failed;
 	public static String FileTransferSubInterfaceImpl_Move_Failed;
+	public static String HistorySubInterfaceImpl_InvalidContinuationToken;
 	public static String HistorySubInterfaceImpl_InvalidVersionSpec;
+	public static String ModelElementVersionIndex_ReadFailed;
+	public static String ModelElementVersionIndex_WriteFailed;
 	public static String ProjectPropertiesSubInterfaceImpl_Property_Not_Set;
 	public static String ProjectPropertiesSubInterfaceImpl_User_Does_Not_Exist;
 	public static String ProjectSubInterfaceImpl_Null;
@@ -55,12 +60,14 @@ public final class Messages extends NLS {
 	public static String VersionSubInterfaceImpl_Invalid_Source_Or_Target;
 	public static String VersionSubInterfaceImpl_InvalidBranchOrVersion;
 	public static String VersionSubInterfaceImpl_InvalidPath;
+	public static String VersionSubInterfaceImpl_DerivedChecksumMismatch;
 	public static String VersionSubInterfaceImpl_InvalidVersionRequested;
 	public static String VersionSubInterfaceImpl_NextVersionInvalid;
 	public static String VersionSubInterfaceImpl_NoAncestorFound;
 	public static String VersionSubInterfaceImpl_NoBranchInfo;
 	public static String VersionSubInterfaceImpl_NoSourceNorTarget;
 	public static String VersionSubInterfaceImpl_PrimaryVersionNotFound;
+	public static String VersionSubInterfaceImpl_RevertInPlaceCommitFailed;
 	public static String VersionSubInterfaceImpl_ShuttingServerDown;
 	public static String VersionSubInterfaceImpl_TagVersionNotFound;
 	public static String VersionSubInterfaceImpl_TargetBranchCombination_Invalid;
@@ -0,0 +1,377 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.internal.server.core.subinterfaces;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.emfstore.internal.common.model.ModelElementId;
+import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
+import org.eclipse.emf.emfstore.internal.server.model.ProjectHistory;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.AbstractChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.Version;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.util.ChangePackageUtil;
+
+/**
+ * Persistent index of a {@link ProjectHistory} that maps the IDs of model elements to the numbers of the versions
+ * whose changes involve them, so that history queries for model elements only need to load the change packages of
+ * matching versions.
+ * <p>
+ * The index is stored as a file of records, one per version, that are appended whenever a version is indexed. A
+ * record that has been written partially, e.g. because the server has been killed, is discarded when the file is
+ * read. Versions that are not covered by the file, e.g. versions created by an older server, are indexed from their
+ * change packages when they are queried for the first time. The initial version is indexed by the elements of its
+ * project state.
+ * </p>
+ */
+public class ModelElementVersionIndex {
+
+	/**
+	 * The name of the index file within the project folder.
+	 */
+	public static final String FILE_NAME = "elementindex"; //$NON-NLS-1$
+
+	private static final int MAGIC = 0x45534549;
+	private static final int FORMAT_VERSION = 1;
+
+	private final ProjectHistory projectHistory;
+	private final File file;
+
+	private final Map<String, VersionNumbers> versionsById;
+	private final BitSet indexedVersions;
+	private boolean loaded;
+	private boolean writable;
+
+	/**
+	 * Creates the index for the given project history. The index file is read lazily.
+	 *
+	 * @param projectHistory
+	 *            the project history to be indexed
+	 * @param file
+	 *            the file the index is stored in
+	 */
+	public ModelElementVersionIndex(ProjectHistory projectHistory, File file) {
+		this.projectHistory = projectHistory;
+		this.file = file;
+		versionsById = new HashMap<String, VersionNumbers>();
+		indexedVersions = new BitSet();
+	}
+
+	/**
+	 * Adds a version that has been appended to the project history.
+	 *
+	 * @param version
+	 *            the new version
+	 * @param changePackage
+	 *            the changes of the new version
+	 */
+	public synchronized void versionAdded(Version version, AbstractChangePackage changePackage) {
+		load();
+		final int versionNumber = version.getPrimarySpec().getIdentifier();
+		if (!indexedVersions.get(versionNumber)) {
+			final List<String> ids = toIds(ChangePackageUtil.getInvolvedModelElements(changePackage));
+			index(versionNumber, ids);
+			append(Collections.<Integer, Collection<String>> singletonMap(versionNumber, ids));
+		}
+	}
+
+	/**
+	 * Returns the given versions whose changes involve at least one of the given model elements, in their given
+	 * order. Versions that have not been indexed yet are indexed first.
+	 *
+	 * @param versions
+	 *            the versions to be filtered
+	 * @param modelElementIds
+	 *            the IDs of the model elements
+	 * @return the versions touching any of the given model elements
+	 */
+	public synchronized List<Version> filterVersions(List<Version> versions,
+		Collection<ModelElementId> modelElementIds) {
+		load();
+		final Map<Integer, Collection<String>> records = new LinkedHashMap<Integer, Collection<String>>();
+		for (final Version version : versions) {
+			final int versionNumber = version.getPrimarySpec().getIdentifier();
+			if (!indexedVersions.get(versionNumber)) {
+				final Set<String> ids = getInvolvedIds(version);
+				index(versionNumber, ids);
+				records.put(versionNumber, ids);
+			}
+		}
+		append(records);
+
+		final BitSet matchingVersions = new BitSet();
+		for (final ModelElementId modelElementId : modelElementIds) {
+			final VersionNumbers numbers = versionsById.get(modelElementId.getId());
+			if (numbers != null) {
+				numbers.addTo(matchingVersions);
+			}
+		}
+		final List<Version> result = new ArrayList<Version>();
+		for (final Version version : versions) {
+			if (matchingVersions.get(version.getPrimarySpec().getIdentifier())) {
+				result.add(version);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Discards the index file and indexes all versions of the project history from their change packages.
+	 */
+	public synchronized void rebuild() {
+		clear();
+		loaded = true;
+		if (file.exists() && !file.delete()) {
+			ModelUtil.logWarning(MessageFormat.format(Messages.ModelElementVersionIndex_WriteFailed,
+				file.getAbsolutePath()));
+			writable = false;
+		} else {
+			writable = true;
+		}
+		final Map<Integer, Collection<String>> records = new LinkedHashMap<Integer, Collection<String>>();
+		for (final Version version : projectHistory.getVersions()) {
+			final Set<String> ids = getInvolvedIds(version);
+			index(version.getPrimarySpec().getIdentifier(), ids);
+			records.put(version.getPrimarySpec().getIdentifier(), ids);
+		}
+		append(records);
+	}
+
+	/**
+	 * Deletes the index file.
+	 */
+	public synchronized void delete() {
+		clear();
+		writable = false;
+		loaded = true;
+		file.delete();
+	}
+
+	/**
+	 * Returns the IDs of all model elements involved in the given version, as determined by a history query that does
+	 * not use the index.
+	 */
+	private static Set<String> getInvolvedIds(Version version) {
+		final Set<String> result = new LinkedHashSet<String>();
+		// special case for initial version
+		if (version.getPrimarySpec().getIdentifier() == 0 && version.getProjectState() != null) {
+			result.addAll(version.getProjectState().getIdToEObjectMapping().keySet());
+		}
+		if (version.getChanges() != null) {
+			result.addAll(toIds(ChangePackageUtil.getInvolvedModelElements(version.getChanges())));
+		}
+		return result;
+	}
+
+	private static List<String> toIds(Collection<ModelElementId> modelElementIds) {
+		final List<String> ids = new ArrayList<String>(modelElementIds.size());
+		for (final ModelElementId modelElementId : modelElementIds) {
+			ids.add(modelElementId.getId());
+		}
+		return ids;
+	}
+
+	private void clear() {
+		versionsById.clear();
+		indexedVersions.clear();
+	}
+
+	private void index(int versionNumber, Collection<String> ids) {
+		indexedVersions.set(versionNumber);
+		for (final String id : ids) {
+			VersionNumbers numbers = versionsById.get(id);
+			if (numbers == null) {
+				numbers = new VersionNumbers();
+				versionsById.put(id, numbers);
+			}
+			numbers.add(versionNumber);
+		}
+	}
+
+	private void append(Map<Integer, Collection<String>> records) {
+		if (!writable || records.isEmpty()) {
+			return;
+		}
+		try {
+			final boolean writeHeader = !file.exists() || file.length() == 0;
+			final DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(file, true)));
+			try {
+				if (writeHeader) {
+					outputStream.writeInt(MAGIC);
+					outputStream.writeInt(FORMAT_VERSION);
+				}
+				for (final Map.Entry<Integer, Collection<String>> record : records.entrySet()) {
+					outputStream.writeInt(record.getKey());
+					outputStream.writeInt(record.getValue().size());
+					for (final String id : record.getValue()) {
+						outputStream.writeUTF(id);
+					}
+				}
+			} finally {
+				outputStream.close();
+			}
+		} catch (final IOException e) {
+			// keep the index in memory, missing records are recreated after a restart
+			ModelUtil.logWarning(MessageFormat.format(Messages.ModelElementVersionIndex_WriteFailed,
+				file.getAbsolutePath()), e);
+			writable = false;
+		}
+	}
+
+	private void load() {
+		if (loaded) {
+			return;
+		}
+		loaded = true;
+		writable = true;
+		if (!file.exists()) {
+			return;
+		}
+		long validLength = 0;
+		try {
+			final DataInputStream inputStream = new DataInputStream(new BufferedInputStream(
+				new FileInputStream(file)));
+			try {
+				validLength = read(inputStream);
+			} finally {
+				inputStream.close();
+			}
+		} catch (final IOException e) {
+			ModelUtil.logWarning(MessageFormat.format(Messages.ModelElementVersionIndex_ReadFailed,
+				file.getAbsolutePath()), e);
+			clear();
+			validLength = 0;
+		}
+		truncate(validLength);
+	}
+
+	/**
+	 * Reads all complete records of the index file and returns the length of the part of the file they occupy.
+	 */
+	private long read(DataInputStream inputStream) throws IOException {
+		long validLength = 0;
+		final EList<Version> versions = projectHistory.getVersions();
+		try {
+			if (inputStream.readInt() != MAGIC || inputStream.readInt() != FORMAT_VERSION) {
+				throw new IOException(file.getAbsolutePath());
+			}
+			validLength = 8;
+			final List<String> ids = new ArrayList<String>();
+			while (true) {
+				final int versionNumber = inputStream.readInt();
+				final int count = inputStream.readInt();
+				long recordLength = 8;
+				ids.clear();
+				for (int i = 0; i < count; i++) {
+					final String id = inputStream.readUTF();
+					ids.add(id);
+					recordLength += getUTFLength(id);
+				}
+				if (versionNumber < 0 || versionNumber >= versions.size() || indexedVersions.get(versionNumber)) {
+					// the version has been removed by a roll back or its number has been reused afterwards
+					throw new IOException(file.getAbsolutePath());
+				}
+				index(versionNumber, ids);
+				validLength += recordLength;
+			}
+		} catch (final EOFException e) {
+			// end of the file or a partially written record
+			return validLength;
+		}
+	}
+
+	/**
+	 * Returns the number of bytes {@link DataOutputStream#writeUTF(String)} writes for the given string.
+	 */
+	private static int getUTFLength(String string) {
+		int length = 2;
+		for (int i = 0; i < string.length(); i++) {
+			final char c = string.charAt(i);
+			if (c >= 0x0001 && c <= 0x007F) {
+				length++;
+			} else if (c > 0x07FF) {
+				length += 3;
+			} else {
+				length += 2;
+			}
+		}
+		return length;
+	}
+
+	private void truncate(long validLength) {
+		if (validLength == file.length()) {
+			return;
+		}
+		try {
+			if (validLength == 0) {
+				if (!file.delete()) {
+					throw new IOException(file.getAbsolutePath());
+				}
+				return;
+			}
+			final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw"); //$NON-NLS-1$
+			try {
+				randomAccessFile.setLength(validLength);
+			} finally {
+				randomAccessFile.close();
+			}
+		} catch (final IOException e) {
+			ModelUtil.logWarning(MessageFormat.format(Messages.ModelElementVersionIndex_WriteFailed,
+				file.getAbsolutePath()), e);
+			writable = false;
+		}
+	}
+
+	/**
+	 * A growable list of version numbers.
+	 */
+	private static final class VersionNumbers {
+
+		private int[] numbers = new int[2];
+		private int size;
+
+		void add(int number) {
+			if (size == numbers.length) {
+				final int[] newNumbers = new int[size * 2];
+				System.arraycopy(numbers, 0, newNumbers, 0, size);
+				numbers = newNumbers;
+			}
+			numbers[size++] = number;
+		}
+
+		void addTo(BitSet bitSet) {
+			for (int i = 0; i < size; i++) {
+				bitSet.set(numbers[i]);
+			}
+		}
+	}
+}
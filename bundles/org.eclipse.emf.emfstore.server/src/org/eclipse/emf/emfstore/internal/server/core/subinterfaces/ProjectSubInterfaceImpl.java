@@ -16,14 +16,22 @@ import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.eclipse.emf.ecore.util.EcoreUtil;
 
 import org.eclipse.emf.emfstore.internal.common.model.Project;
 import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
+import org.eclipse.emf.emfstore.internal.server.ServerConfiguration;
 import org.eclipse.emf.emfstore.internal.server.core.AbstractEmfstoreInterface;
 import org.eclipse.emf.emfstore.internal.server.core.AbstractSubEmfstoreInterface;
+import org.eclipse.emf.emfstore.internal.server.core.ProjectStateCache;
+import org.eclipse.emf.emfstore.internal.server.core.ResourceResidencyManager;
 import org.eclipse.emf.emfstore.internal.server.exceptions.AccessControlException;
 import org.eclipse.emf.emfstore.internal.server.exceptions.FatalESException;
 import org.eclipse.emf.emfstore.internal.server.exceptions.InvalidProjectIdException;
@@ -59,6 +67,8 @@ import org.eclipse.emf.emfstore.server.model.ESOrgUnit;
  */
 public class ProjectSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 
+	private final Set<String> resolvedProjectIds = new HashSet<String>();
+
 	/**
 	 * Default constructor.
 	 *
@@ -96,6 +106,46 @@ public class ProjectSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 				projectId == null ? Messages.ProjectSubInterfaceImpl_Null : projectId));
 	}
 
+	/**
+	 * Acquires the read lock of the project with the given ID, which has to be released via
+	 * {@link org.eclipse.emf.emfstore.internal.server.core.MonitorProvider#releaseProjectReadLock(ProjectId)
+	 * releaseProjectReadLock}. Resolving a proxy modifies the object holding it, hence readers must not resolve the
+	 * proxies of a shared project history. Before a project is read for the first time, its history is therefore
+	 * resolved while holding the write lock of the project.
+	 *
+	 * @param projectId
+	 *            the ID of the project
+	 */
+	void acquireResolvedProjectReadLock(ProjectId projectId) {
+		final ReentrantReadWriteLock projectLock = (ReentrantReadWriteLock) getMonitorProvider().getProjectLock(
+			projectId);
+		// a nested reader must not wait for the write lock
+		if (isResolved(projectId) || projectLock.getReadHoldCount() > 0) {
+			getMonitorProvider().acquireProjectReadLock(projectId);
+			return;
+		}
+		getMonitorProvider().acquireProjectWriteLock(projectId);
+		try {
+			final ProjectHistory projectHistory = getProjectOrNull(projectId);
+			if (projectHistory != null && !isResolved(projectId)) {
+				EcoreUtil.resolveAll(projectHistory);
+				synchronized (resolvedProjectIds) {
+					resolvedProjectIds.add(projectId.getId());
+				}
+			}
+		} catch (final RuntimeException e) {
+			getMonitorProvider().releaseProjectWriteLock(projectId);
+			throw e;
+		}
+		getMonitorProvider().downgradeProjectWriteLock(projectId);
+	}
+
+	private boolean isResolved(ProjectId projectId) {
+		synchronized (resolvedProjectIds) {
+			return resolvedProjectIds.contains(projectId.getId());
+		}
+	}
+
 	private ProjectHistory getProjectOrNull(ProjectId projectId) {
 		for (final ProjectHistory project : getServerSpace().getProjects()) {
 			if (project.getProjectId().equals(projectId)) {
@@ -125,16 +175,42 @@ public class ProjectSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 
 		sanityCheckObjects(projectId, versionSpec);
 
-		synchronized (getMonitor()) {
+		acquireResolvedProjectReadLock(projectId);
+		try {
 
 			final PrimaryVersionSpec resolvedVersion = getSubInterface(VersionSubInterfaceImpl.class)
 				.resolveVersionSpec(
 					projectId, versionSpec);
 			final Version version = getSubInterface(VersionSubInterfaceImpl.class).getVersion(projectId,
 				resolvedVersion);
-			return getProject(version);
+			final Project project = getProject(version);
+			if (project == version.getProjectState()
+				&& (ResourceResidencyManager.getInstance().isEnabled()
+				|| ServerConfiguration.isCommitInPlaceEnabled() && version.getNextVersion() == null)) {
+				// the result is serialized after the lock has been released, while an in-place commit may
+				// modify the state of a head version and the residency manager may unload the state of any version
+				return getStateCopy(projectId, version, project);
+			}
+			return project;
 
+		} finally {
+			getMonitorProvider().releaseProjectReadLock(projectId);
+		}
+	}
+
+	/**
+	 * Returns a read-only copy of the persisted state of a version. The copy is shared via the
+	 * {@link ProjectStateCache}, since it remains the state of the version after an in-place commit has moved the
+	 * original state to the next version or after the original state has been unloaded.
+	 */
+	private static Project getStateCopy(ProjectId projectId, Version version, Project state) {
+		final ProjectStateCache cache = ProjectStateCache.getInstance();
+		Project copy = cache.get(projectId, version.getPrimarySpec());
+		if (copy == null) {
+			copy = ModelUtil.clone(state);
+			cache.put(projectId, version.getPrimarySpec(), copy);
 		}
+		return copy;
 	}
 
 	/**
@@ -154,7 +230,12 @@ public class ProjectSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 	}
 
 	/**
-	 * Returns the project of a version.
+	 * Returns the project of a version. If the version has no persisted project state, the state is reconstructed by
+	 * applying the changes of all intermediate versions onto the nearest ancestor whose state is either persisted or
+	 * cached in the {@link ProjectStateCache}. Reconstructed states are added to the cache.
+	 * <p>
+	 * The returned project state may be shared and hence must not be modified. Use a copy if modifications are needed.
+	 * </p>
 	 *
 	 * @param version the version
 	 * @return the project
@@ -162,28 +243,52 @@ public class ProjectSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 	 * @throws ESException in case of failure
 	 */
 	static Project getProjectFromVersion(Version version) throws InvalidVersionSpecException, ESException {
-		if (version.getProjectState() == null) {
+		if (version.getProjectState() != null) {
+			return version.getProjectState();
+		}
 
-			// TODO BRANCH Review potential performance optimization by searching state in both directions
-			final ArrayList<Version> versions = new ArrayList<Version>();
-			Version currentVersion = version;
-			while (currentVersion.getProjectState() == null) {
-				versions.add(currentVersion);
-				currentVersion = VersionSubInterfaceImpl.findNextVersion(currentVersion);
+		final ProjectStateCache cache = ProjectStateCache.getInstance();
+		final ProjectId projectId = getProjectId(version);
+		final boolean useCache = projectId != null && cache.isEnabled();
+
+		// TODO BRANCH Review potential performance optimization by searching state in both directions
+		final ArrayList<Version> versions = new ArrayList<Version>();
+		Version currentVersion = version;
+		Project seed = null;
+		while (seed == null) {
+			if (useCache) {
+				seed = cache.get(projectId, currentVersion.getPrimarySpec());
 			}
-			if (currentVersion.getProjectState() == null) {
-				// TODO: nicer exception. Is this null check necessary anyway? (there were problems
-				// in past, because the xml files were inconsistent.
-				throw new ESException(Messages.ProjectSubInterfaceImpl_ProjectState_Not_Found);
+			if (seed == null) {
+				seed = currentVersion.getProjectState();
 			}
-			final Project projectState = ModelUtil.clone(currentVersion.getProjectState());
-			Collections.reverse(versions);
-			for (final Version vers : versions) {
-				vers.getChanges().apply(projectState);
+			if (seed == null) {
+				versions.add(currentVersion);
+				currentVersion = VersionSubInterfaceImpl.findNextVersion(currentVersion);
 			}
-			return projectState;
 		}
-		return version.getProjectState();
+
+		if (versions.isEmpty()) {
+			// requested version itself was cached
+			return seed;
+		}
+
+		final Project projectState = ModelUtil.clone(seed);
+		Collections.reverse(versions);
+		for (final Version vers : versions) {
+			vers.getChanges().apply(projectState);
+		}
+		if (useCache) {
+			cache.put(projectId, version.getPrimarySpec(), projectState);
+		}
+		return projectState;
+	}
+
+	private static ProjectId getProjectId(Version version) {
+		if (version.eContainer() instanceof ProjectHistory) {
+			return ((ProjectHistory) version.eContainer()).getProjectId();
+		}
+		return null;
 	}
 
 	/**
@@ -196,7 +301,9 @@ public class ProjectSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 	 */
 	@ESMethod(MethodId.GETPROJECTLIST)
 	public List<ProjectInfo> getProjectList(SessionId sessionId) throws ESException {
-		synchronized (getMonitor()) {
+		final Lock lock = getMonitorProvider().getServerSpaceLock().readLock();
+		lock.lock();
+		try {
 			final List<ProjectInfo> result = new ArrayList<ProjectInfo>();
 			for (final ProjectHistory projectHistory : getServerSpace().getProjects()) {
 				try {
@@ -205,12 +312,14 @@ public class ProjectSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 						sessionId.toAPI(),
 						projectHistory.getProjectId().toAPI(),
 						null);
-					result.add(createProjectInfo(projectHistory));
+					result.add(createProjectInfoWithReadLock(projectHistory));
 				} catch (final AccessControlException e) {
 					// if this exception occurs, project won't be added to list
 				}
 			}
 			return result;
+		} finally {
+			lock.unlock();
 		}
 	}
 
@@ -229,7 +338,9 @@ public class ProjectSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 	@ESMethod(MethodId.CREATEEMPTYPROJECT)
 	public ProjectInfo createProject(String name, String description, LogMessage logMessage) throws ESException {
 		sanityCheckObjects(name, description, logMessage);
-		synchronized (getMonitor()) {
+		final Lock lock = getMonitorProvider().getServerSpaceLock().writeLock();
+		lock.lock();
+		try {
 			ProjectHistory projectHistory = null;
 			try {
 				logMessage.setDate(new Date());
@@ -243,6 +354,8 @@ public class ProjectSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 				throw new StorageException(StorageException.NOSAVE);
 			}
 			return createProjectInfo(projectHistory);
+		} finally {
+			lock.unlock();
 		}
 	}
 
@@ -264,7 +377,9 @@ public class ProjectSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 	public ProjectInfo createProject(String name, String description, LogMessage logMessage, Project project)
 		throws ESException {
 		sanityCheckObjects(name, description, logMessage, project);
-		synchronized (getMonitor()) {
+		final Lock lock = getMonitorProvider().getServerSpaceLock().writeLock();
+		lock.lock();
+		try {
 			ProjectHistory projectHistory = null;
 			try {
 				logMessage.setDate(new Date());
@@ -274,6 +389,8 @@ public class ProjectSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 			}
 
 			return createProjectInfo(projectHistory);
+		} finally {
+			lock.unlock();
 		}
 	}
 
@@ -307,12 +424,16 @@ public class ProjectSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 	 */
 	protected void deleteProject(ProjectId projectId, boolean deleteFiles, boolean throwInvalidIdException)
 		throws ESException {
-		synchronized (getMonitor()) {
+		final Lock lock = getMonitorProvider().getServerSpaceLock().writeLock();
+		lock.lock();
+		try {
 			try {
 				final ProjectHistory project = getProject(projectId);
 				getServerSpace().getProjects().remove(project);
-				removeAllUsers(projectId);
-				removeAllGroups(projectId);
+				synchronized (getMonitor()) {
+					removeAllUsers(projectId);
+					removeAllGroups(projectId);
+				}
 				try {
 					save(getServerSpace());
 				} catch (final FatalESException e) {
@@ -333,6 +454,15 @@ public class ProjectSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 					if (project.eResource() != null) {
 						project.eResource().delete(null);
 					}
+					ProjectStateCache.getInstance().removeAll(projectId);
+					ResourceResidencyManager.getInstance().removeAll(projectId);
+					getSubInterface(VersionSubInterfaceImpl.class).removeVersionSpecIndex(projectId);
+					getSubInterface(HistorySubInterfaceImpl.class).removeModelElementVersionIndex(projectId);
+					getSubInterface(FileTransferSubInterfaceImpl.class).deleteAttachments(projectId);
+					getMonitorProvider().removeProjectLock(projectId);
+					synchronized (resolvedProjectIds) {
+						resolvedProjectIds.remove(projectId.getId());
+					}
 				}
 			} catch (final InvalidProjectIdException e) {
 				if (throwInvalidIdException) {
@@ -341,6 +471,8 @@ public class ProjectSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 			} catch (final IOException e) {
 				throw new StorageException(Messages.ProjectSubInterfaceImpl_ProjectResources_Not_Deleted, e);
 			}
+		} finally {
+			lock.unlock();
 		}
 	}
 
@@ -380,7 +512,9 @@ public class ProjectSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 	@ESMethod(MethodId.IMPORTPROJECTHISTORYTOSERVER)
 	public ProjectId importProjectHistoryToServer(ProjectHistory projectHistory) throws ESException {
 		sanityCheckObjects(projectHistory);
-		synchronized (getMonitor()) {
+		final Lock lock = getMonitorProvider().getServerSpaceLock().writeLock();
+		lock.lock();
+		try {
 			final ProjectHistory projectOrNull = getProjectOrNull(projectHistory.getProjectId());
 			if (projectOrNull != null) {
 				// if project with same id exists, create a new id.
@@ -413,6 +547,8 @@ public class ProjectSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 				throw new StorageException(StorageException.NOSAVE);
 			}
 			return ModelUtil.clone(projectHistory.getProjectId());
+		} finally {
+			lock.unlock();
 		}
 	}
 
@@ -427,8 +563,11 @@ public class ProjectSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 	@ESMethod(MethodId.EXPORTPROJECTHISTORYFROMSERVER)
 	public ProjectHistory exportProjectHistoryFromServer(ProjectId projectId) throws ESException {
 		sanityCheckObjects(projectId);
-		synchronized (getMonitor()) {
+		acquireResolvedProjectReadLock(projectId);
+		try {
 			return ModelUtil.clone(getProject(projectId));
+		} finally {
+			getMonitorProvider().releaseProjectReadLock(projectId);
 		}
 	}
 
@@ -455,21 +594,29 @@ public class ProjectSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 		branchInfo.setSource(ModelUtil.clone(primary));
 		projectHistory.getBranches().add(branchInfo);
 
-		synchronized (getMonitor()) {
-			// create initial project
-			getResourceHelper().createResourceForProject(initialProjectState, firstVersion.getPrimarySpec(),
-				projectHistory.getProjectId());
-			projectHistory.getVersions().add(firstVersion);
+		// caller holds the write lock of the server space
+		// create initial project
+		getResourceHelper().createResourceForProject(initialProjectState, firstVersion.getPrimarySpec(),
+			projectHistory.getProjectId());
+		projectHistory.getVersions().add(firstVersion);
 
-			// add to serverspace and saved
-			getResourceHelper().createResourceForVersion(firstVersion, projectHistory.getProjectId());
-			getResourceHelper().createResourceForProjectHistory(projectHistory);
-			getServerSpace().getProjects().add(projectHistory);
-			save(getServerSpace());
+		// add to serverspace and saved
+		getResourceHelper().createResourceForVersion(firstVersion, projectHistory.getProjectId());
+		getResourceHelper().createResourceForProjectHistory(projectHistory);
+		getServerSpace().getProjects().add(projectHistory);
+		save(getServerSpace());
 
-			firstVersion.setProjectStateResource(initialProjectState.eResource());
+		firstVersion.setProjectStateResource(initialProjectState.eResource());
 
-			return projectHistory;
+		return projectHistory;
+	}
+
+	private ProjectInfo createProjectInfoWithReadLock(ProjectHistory project) {
+		acquireResolvedProjectReadLock(project.getProjectId());
+		try {
+			return createProjectInfo(project);
+		} finally {
+			getMonitorProvider().releaseProjectReadLock(project.getProjectId());
 		}
 	}
 
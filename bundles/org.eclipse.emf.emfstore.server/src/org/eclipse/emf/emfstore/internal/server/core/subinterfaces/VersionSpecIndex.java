@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.internal.server.core.subinterfaces;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.emfstore.internal.server.model.ProjectHistory;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.BranchInfo;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.LogMessage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.TagVersionSpec;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.Version;
+
+/**
+ * In-memory index of a {@link ProjectHistory} used to resolve tag, date and branch version specs without scanning
+ * all versions. The index has to be informed about new versions, branches and tags. If the number of versions or
+ * branches of the history differs from the indexed number, e.g. because a version has been removed during a roll
+ * back, the affected part of the index is rebuilt on the next access.
+ */
+public class VersionSpecIndex {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private final ProjectHistory projectHistory;
+
+	private final Map<String, BranchInfo> branches;
+	private final Map<String, SortedSet<Integer>> tags;
+
+	// commit dates of all versions with a date, in the order of the versions
+	private long[] dates;
+	private int[] dateVersions;
+	private int dateCount;
+	private boolean datesAscending;
+	private int indexedVersions;
+
+	/**
+	 * Creates the index for the given project history.
+	 *
+	 * @param projectHistory
+	 *            the project history to be indexed
+	 */
+	public VersionSpecIndex(ProjectHistory projectHistory) {
+		this.projectHistory = projectHistory;
+		branches = new LinkedHashMap<String, BranchInfo>();
+		tags = new HashMap<String, SortedSet<Integer>>();
+		rebuild();
+	}
+
+	/**
+	 * Rebuilds the whole index from the project history.
+	 */
+	public synchronized void rebuild() {
+		rebuildBranches();
+		tags.clear();
+		dates = new long[Math.max(INITIAL_CAPACITY, projectHistory.getVersions().size())];
+		dateVersions = new int[dates.length];
+		dateCount = 0;
+		datesAscending = true;
+		indexedVersions = 0;
+		indexNewVersions();
+	}
+
+	private void rebuildBranches() {
+		branches.clear();
+		for (final BranchInfo branchInfo : projectHistory.getBranches()) {
+			if (!branches.containsKey(branchInfo.getName())) {
+				branches.put(branchInfo.getName(), branchInfo);
+			}
+		}
+	}
+
+	private void indexNewVersions() {
+		final EList<Version> versions = projectHistory.getVersions();
+		for (int i = indexedVersions; i < versions.size(); i++) {
+			final Version version = versions.get(i);
+			indexDate(version, i);
+			for (final TagVersionSpec tag : version.getTagSpecs()) {
+				addTag(tag.getName(), i);
+			}
+		}
+		indexedVersions = versions.size();
+	}
+
+	private void indexDate(Version version, int index) {
+		final LogMessage logMessage = version.getLogMessage();
+		if (logMessage == null || logMessage.getDate() == null) {
+			return;
+		}
+		final long time = logMessage.getDate().getTime();
+		if (dateCount == dates.length) {
+			final long[] newDates = new long[dates.length * 2];
+			final int[] newDateVersions = new int[newDates.length];
+			System.arraycopy(dates, 0, newDates, 0, dateCount);
+			System.arraycopy(dateVersions, 0, newDateVersions, 0, dateCount);
+			dates = newDates;
+			dateVersions = newDateVersions;
+		}
+		if (dateCount > 0 && time < dates[dateCount - 1]) {
+			datesAscending = false;
+		}
+		dates[dateCount] = time;
+		dateVersions[dateCount] = index;
+		dateCount++;
+	}
+
+	private void addTag(String name, int index) {
+		SortedSet<Integer> versions = tags.get(name);
+		if (versions == null) {
+			versions = new TreeSet<Integer>();
+			tags.put(name, versions);
+		}
+		versions.add(index);
+	}
+
+	private void checkConsistency() {
+		if (projectHistory.getVersions().size() < indexedVersions) {
+			rebuild();
+			return;
+		}
+		if (projectHistory.getVersions().size() > indexedVersions) {
+			indexNewVersions();
+		}
+		if (projectHistory.getBranches().size() != branches.size()) {
+			rebuildBranches();
+		}
+	}
+
+	/**
+	 * Adds a version that has been appended to the project history and, if not <code>null</code>, the branch that has
+	 * been created along with it.
+	 *
+	 * @param version
+	 *            the new version
+	 * @param branchInfo
+	 *            the new branch or <code>null</code>
+	 */
+	public synchronized void versionAdded(Version version, BranchInfo branchInfo) {
+		if (branchInfo != null && !branches.containsKey(branchInfo.getName())) {
+			branches.put(branchInfo.getName(), branchInfo);
+		}
+		checkConsistency();
+	}
+
+	/**
+	 * Adds a tag to the index.
+	 *
+	 * @param version
+	 *            the tagged version
+	 * @param tag
+	 *            the tag
+	 */
+	public synchronized void tagAdded(Version version, TagVersionSpec tag) {
+		checkConsistency();
+		addTag(tag.getName(), version.getPrimarySpec().getIdentifier());
+	}
+
+	/**
+	 * Removes a tag from the index.
+	 *
+	 * @param version
+	 *            the version the tag has been removed from
+	 * @param tag
+	 *            the removed tag
+	 */
+	public synchronized void tagRemoved(Version version, TagVersionSpec tag) {
+		checkConsistency();
+		final SortedSet<Integer> versions = tags.get(tag.getName());
+		if (versions == null) {
+			return;
+		}
+		versions.remove(version.getPrimarySpec().getIdentifier());
+		if (versions.isEmpty()) {
+			tags.remove(tag.getName());
+		}
+	}
+
+	/**
+	 * Returns the branch with the given name.
+	 *
+	 * @param name
+	 *            the name of the branch
+	 * @return the branch or <code>null</code> if there is no such branch
+	 */
+	public synchronized BranchInfo getBranch(String name) {
+		checkConsistency();
+		return branches.get(name);
+	}
+
+	/**
+	 * Returns the first version carrying a tag with the given name.
+	 *
+	 * @param name
+	 *            the name of the tag
+	 * @return the version or <code>null</code> if no version has been tagged with the given name
+	 */
+	public synchronized Version getTaggedVersion(String name) {
+		checkConsistency();
+		final SortedSet<Integer> versions = tags.get(name);
+		if (versions == null) {
+			return null;
+		}
+		return projectHistory.getVersions().get(versions.first());
+	}
+
+	/**
+	 * Returns the first version that has been created after the given date.
+	 *
+	 * @param date
+	 *            the date
+	 * @return the version or <code>null</code> if all versions have been created before or at the given date
+	 */
+	public synchronized Version getFirstVersionAfter(Date date) {
+		checkConsistency();
+		final long time = date.getTime();
+		if (datesAscending) {
+			// binary search for the first date after the given one
+			int low = 0;
+			int high = dateCount;
+			while (low < high) {
+				final int mid = low + high >>> 1;
+				if (dates[mid] <= time) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low < dateCount ? projectHistory.getVersions().get(dateVersions[low]) : null;
+		}
+		// commit dates are not in order, e.g. because of clock changes on the server
+		for (int i = 0; i < dateCount; i++) {
+			if (dates[i] > time) {
+				return projectHistory.getVersions().get(dateVersions[i]);
+			}
+		}
+		return null;
+	}
+}
@@ -16,21 +16,28 @@ import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.emfstore.internal.common.APIUtil;
 import org.eclipse.emf.emfstore.internal.common.ESCollections;
+import org.eclipse.emf.emfstore.internal.common.model.ModelElementId;
 import org.eclipse.emf.emfstore.internal.common.model.Project;
 import org.eclipse.emf.emfstore.internal.common.model.impl.ProjectImpl;
+import org.eclipse.emf.emfstore.internal.common.model.util.CommutativeChecksum;
 import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
 import org.eclipse.emf.emfstore.internal.common.model.util.SerializationException;
 import org.eclipse.emf.emfstore.internal.server.EMFStoreController;
 import org.eclipse.emf.emfstore.internal.server.ServerConfiguration;
 import org.eclipse.emf.emfstore.internal.server.core.AbstractEmfstoreInterface;
 import org.eclipse.emf.emfstore.internal.server.core.AbstractSubEmfstoreInterface;
+import org.eclipse.emf.emfstore.internal.server.core.ResourceResidencyManager;
 import org.eclipse.emf.emfstore.internal.server.core.helper.ResourceHelper;
 import org.eclipse.emf.emfstore.internal.server.exceptions.BranchInfoMissingException;
 import org.eclipse.emf.emfstore.internal.server.exceptions.FatalESException;
@@ -59,6 +66,7 @@ import org.eclipse.emf.emfstore.internal.server.model.versioning.VersionSpec;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningFactory;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.Versions;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AbstractOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.util.ChangePackageUtil;
 import org.eclipse.emf.emfstore.server.ESCloseableIterable;
 import org.eclipse.emf.emfstore.server.auth.ESMethod;
 import org.eclipse.emf.emfstore.server.auth.ESMethod.MethodId;
@@ -76,6 +84,8 @@ import com.google.common.base.Optional;
  */
 public class VersionSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 
+	private final Map<String, VersionSpecIndex> versionSpecIndices;
+
 	/**
 	 * Default constructor.
 	 *
@@ -86,6 +96,42 @@ public class VersionSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 	 */
 	public VersionSubInterfaceImpl(AbstractEmfstoreInterface parentInterface) throws FatalESException {
 		super(parentInterface);
+		versionSpecIndices = new HashMap<String, VersionSpecIndex>();
+	}
+
+	@Override
+	protected void initSubInterface() throws FatalESException {
+		super.initSubInterface();
+		for (final ProjectHistory projectHistory : getServerSpace().getProjects()) {
+			getVersionSpecIndex(projectHistory);
+		}
+	}
+
+	/**
+	 * Returns the index used to resolve version specs of the given project. The index is created if necessary.
+	 *
+	 * @param projectHistory
+	 *            the project history
+	 * @return the index
+	 */
+	synchronized VersionSpecIndex getVersionSpecIndex(ProjectHistory projectHistory) {
+		final String projectId = projectHistory.getProjectId().getId();
+		VersionSpecIndex index = versionSpecIndices.get(projectId);
+		if (index == null) {
+			index = new VersionSpecIndex(projectHistory);
+			versionSpecIndices.put(projectId, index);
+		}
+		return index;
+	}
+
+	/**
+	 * Removes the index of the given project.
+	 *
+	 * @param projectId
+	 *            the ID of the project
+	 */
+	synchronized void removeVersionSpecIndex(ProjectId projectId) {
+		versionSpecIndices.remove(projectId.getId());
 	}
 
 	/**
@@ -109,7 +155,8 @@ public class VersionSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 
 		sanityCheckObjects(projectId, versionSpec);
 
-		synchronized (getMonitor()) {
+		getSubInterface(ProjectSubInterfaceImpl.class).acquireResolvedProjectReadLock(projectId);
+		try {
 			final ProjectHistory projectHistory = getSubInterface(ProjectSubInterfaceImpl.class).getProject(projectId);
 
 			if (versionSpec instanceof PrimaryVersionSpec) {
@@ -129,6 +176,8 @@ public class VersionSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 			}
 
 			throw new InvalidVersionSpecException(Messages.VersionSubInterfaceImpl_UnknownVersionSpec);
+		} finally {
+			getMonitorProvider().releaseProjectReadLock(projectId);
 		}
 	}
 
@@ -214,32 +263,24 @@ public class VersionSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 	}
 
 	private PrimaryVersionSpec resolveDateVersionSpec(ProjectHistory projectHistory, DateVersionSpec versionSpec) {
-		for (final Version version : projectHistory.getVersions()) {
-			final LogMessage logMessage = version.getLogMessage();
-			if (logMessage == null || logMessage.getDate() == null) {
-				continue;
-			}
-			if (versionSpec.getDate().before(logMessage.getDate())) {
-				final Version previousVersion = version.getPreviousVersion();
-				if (previousVersion == null) {
-					return VersioningFactory.eINSTANCE.createPrimaryVersionSpec();
-				}
-				return previousVersion.getPrimarySpec();
-			}
+		final Version version = getVersionSpecIndex(projectHistory).getFirstVersionAfter(versionSpec.getDate());
+		if (version == null) {
+			return projectHistory.getLastVersion().getPrimarySpec();
 		}
-		return projectHistory.getLastVersion().getPrimarySpec();
+		final Version previousVersion = version.getPreviousVersion();
+		if (previousVersion == null) {
+			return VersioningFactory.eINSTANCE.createPrimaryVersionSpec();
+		}
+		return previousVersion.getPrimarySpec();
 	}
 
 	private PrimaryVersionSpec resolveTagVersionSpec(ProjectHistory projectHistory, TagVersionSpec versionSpec)
 		throws InvalidVersionSpecException {
-		for (final Version version : projectHistory.getVersions()) {
-			for (final TagVersionSpec tag : version.getTagSpecs()) {
-				if (versionSpec.equals(tag)) {
-					return ModelUtil.clone(version.getPrimarySpec());
-				}
-			}
+		final Version version = getVersionSpecIndex(projectHistory).getTaggedVersion(versionSpec.getName());
+		if (version == null) {
+			throw new InvalidVersionSpecException(Messages.VersionSubInterfaceImpl_TagVersionNotFound);
 		}
-		throw new InvalidVersionSpecException(Messages.VersionSubInterfaceImpl_TagVersionNotFound);
+		return ModelUtil.clone(version.getPrimarySpec());
 	}
 
 	private PrimaryVersionSpec resolveBranchVersionSpec(ProjectHistory projectHistory, BranchVersionSpec versionSpec)
@@ -280,19 +321,21 @@ public class VersionSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 		}
 
 		final SessionId session = APIUtil.toInternal(SessionId.class, resolvedSession);
-		final Optional<ChangePackageFragmentUploadAdapter> maybeAdapter = ESCollections.find(session.eAdapters(),
-			ChangePackageFragmentUploadAdapter.class);
 		ChangePackageFragmentUploadAdapter adapter;
 
-		if (!maybeAdapter.isPresent()) {
-			adapter = new ChangePackageFragmentUploadAdapter();
-			session.eAdapters().add(adapter);
-		} else {
-			adapter = maybeAdapter.get();
+		// clients may upload several fragments at the same time
+		synchronized (session) {
+			final Optional<ChangePackageFragmentUploadAdapter> maybeAdapter = ESCollections.find(session.eAdapters(),
+				ChangePackageFragmentUploadAdapter.class);
+			if (!maybeAdapter.isPresent()) {
+				adapter = new ChangePackageFragmentUploadAdapter();
+				session.eAdapters().add(adapter);
+			} else {
+				adapter = maybeAdapter.get();
+			}
 		}
 
-		adapter.addFragment(proxyId, envelope.getFragment());
-		if (envelope.isLast()) {
+		if (adapter.addFragment(proxyId, envelope)) {
 			adapter.markAsComplete(proxyId);
 		}
 
@@ -335,9 +378,7 @@ public class VersionSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 		envelope.setFragmentCount(adapter.getFragmentSize(proxyId));
 		envelope.setFragmentIndex(fragmentIndex);
 
-		if (envelope.isLast()) {
-			adapter.markAsConsumed(proxyId);
-		}
+		adapter.markAsServed(proxyId, fragmentIndex);
 
 		return envelope;
 	}
@@ -408,7 +449,8 @@ public class VersionSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 	private PrimaryVersionSpec internalCreateVersion(ProjectId projectId, PrimaryVersionSpec baseVersionSpec,
 		AbstractChangePackage changePackage, BranchVersionSpec targetBranch, PrimaryVersionSpec sourceVersion,
 		LogMessage logMessage, final ACUser user) throws ESException {
-		synchronized (getMonitor()) {
+		getMonitorProvider().acquireProjectWriteLock(projectId);
+		try {
 
 			final long currentTimeMillis = System.currentTimeMillis();
 			final ProjectHistory projectHistory = getSubInterface(ProjectSubInterfaceImpl.class).getProject(projectId);
@@ -426,65 +468,175 @@ public class VersionSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 			Version newVersion = null;
 			BranchInfo newBranch = null;
 
-			// copy project and apply changes
-			final Project newProjectState = ((ProjectImpl) getSubInterface(ProjectSubInterfaceImpl.class).getProject(
-				baseVersion)).copy();
-			changePackage.apply(newProjectState);
-
-			// regular commit
-			if (isRegularCommit(targetBranch, baseVersion)) {
-
-				newVersion = performRegularCommit(baseVersionSpec, logMessage, user, projectHistory, baseBranch,
-					baseVersion, newProjectState);
-
-				// case for new branch creation
-			} else if (isNewBranchCommit(targetBranch, projectHistory)) {
-				checkNewBranchCommitPreRequisites(targetBranch.getBranch());
-				// when branch does NOT exist, create new branch
-				newVersion = createVersion(projectHistory, newProjectState, logMessage, user, baseVersion);
-				newBranch = createNewBranch(projectHistory, baseVersion.getPrimarySpec(), newVersion.getPrimarySpec(),
-					targetBranch);
-				newVersion.setAncestorVersion(baseVersion);
-
+			final Project newProjectState;
+			final Resource baseProjectStateResource;
+			final ChangePackage reverseChanges;
+			final Set<ModelElementId> checksumElements = getCommutativeChecksumElements(changePackage);
+			long checksumDelta;
+			if (isCommitInPlacePossible(projectId, projectHistory, baseVersion, targetBranch)) {
+				// the old head state will be deleted anyway, apply changes to it directly
+				newProjectState = baseVersion.getProjectState();
+				baseProjectStateResource = newProjectState.eResource();
+				checksumDelta = -computeCommutativeChecksum(newProjectState, checksumElements);
+				reverseChanges = applyInPlace(changePackage, newProjectState);
 			} else {
-				// This point only can be reached with invalid input
-				throw new IllegalStateException(Messages.VersionSubInterfaceImpl_TargetBranchCombination_Invalid);
-			}
-
-			if (sourceVersion != null) {
-				newVersion.getMergedFromVersion().add(getVersion(projectHistory, sourceVersion));
+				// copy project and apply changes
+				newProjectState = ((ProjectImpl) getSubInterface(ProjectSubInterfaceImpl.class).getProject(
+					baseVersion)).copy();
+				checksumDelta = -computeCommutativeChecksum(newProjectState, checksumElements);
+				changePackage.apply(newProjectState);
+				baseProjectStateResource = null;
+				reverseChanges = null;
 			}
+			checksumDelta += computeCommutativeChecksum(newProjectState, checksumElements);
+			final Long derivableChecksumDelta = checksumElements == null ? null : Long.valueOf(checksumDelta);
 
-			// try to save
+			boolean saved = false;
 			try {
-				try {
-					trySave(projectId, changePackage, projectHistory, newVersion, newProjectState);
-				} catch (final FatalESException e) {
-					// try to roll back. removing version is necessary in all cases
-					rollback(projectHistory, baseBranch, baseVersion, newVersion, newBranch, e);
+				// regular commit
+				if (isRegularCommit(targetBranch, baseVersion)) {
+
+					newVersion = performRegularCommit(baseVersionSpec, logMessage, user, projectHistory, baseBranch,
+						baseVersion, newProjectState, derivableChecksumDelta);
+
+					// case for new branch creation
+				} else if (isNewBranchCommit(targetBranch, projectHistory)) {
+					checkNewBranchCommitPreRequisites(targetBranch.getBranch());
+					// when branch does NOT exist, create new branch
+					newVersion = createVersion(projectHistory, newProjectState, logMessage, user, baseVersion,
+						derivableChecksumDelta);
+					newBranch = createNewBranch(projectHistory, baseVersion.getPrimarySpec(),
+						newVersion.getPrimarySpec(), targetBranch);
+					newVersion.setAncestorVersion(baseVersion);
+
+				} else {
+					// This point only can be reached with invalid input
+					throw new IllegalStateException(
+						Messages.VersionSubInterfaceImpl_TargetBranchCombination_Invalid);
 				}
 
-				// if ancestor isn't null, a new branch was created. In this
-				// case we want to keep the old base project
-				// state
-				if (newVersion.getAncestorVersion() == null && baseVersion.getProjectState() != null) {
-					// delete projectstate from last revision depending on
-					// persistence policy
-					deleteOldProjectStateAccordingToOptions(projectId, baseVersion);
+				if (sourceVersion != null) {
+					newVersion.getMergedFromVersion().add(getVersion(projectHistory, sourceVersion));
 				}
 
-				save(baseVersion);
-				save(projectHistory);
+				// try to save
+				try {
+					try {
+						trySave(projectId, changePackage, projectHistory, newVersion, newProjectState);
+						saved = true;
+						getVersionSpecIndex(projectHistory).versionAdded(newVersion, newBranch);
+						getSubInterface(HistorySubInterfaceImpl.class).getModelElementVersionIndex(projectHistory)
+							.versionAdded(newVersion, changePackage);
+					} catch (final FatalESException e) {
+						// try to roll back. removing version is necessary in all cases
+						rollback(projectHistory, baseBranch, baseVersion, newVersion, newBranch, e);
+					}
+
+					// if ancestor isn't null, a new branch was created. In this
+					// case we want to keep the old base project
+					// state
+					// an in-place commit has moved the old state to the new version
+					if (newVersion.getAncestorVersion() == null
+						&& (reverseChanges != null || baseVersion.getProjectState() != null)) {
+						// delete projectstate from last revision depending on
+						// persistence policy
+						deleteOldProjectStateAccordingToOptions(projectId, baseVersion);
+					}
+
+					save(baseVersion);
+					save(projectHistory);
 
-			} catch (final FatalESException e) {
-				// roll back failed
-				EMFStoreController.getInstance().shutdown(e);
-				throw new ESException(Messages.VersionSubInterfaceImpl_ShuttingServerDown);
+				} catch (final FatalESException e) {
+					// roll back failed
+					EMFStoreController.getInstance().shutdown(e);
+					throw new ESException(Messages.VersionSubInterfaceImpl_ShuttingServerDown);
+				}
+			} finally {
+				if (!saved && reverseChanges != null) {
+					revertInPlace(baseVersion, baseProjectStateResource, newProjectState, reverseChanges);
+				}
 			}
 
 			ModelUtil.logInfo(
 				Messages.VersionSubInterfaceImpl_TotalTimeForCommit + (System.currentTimeMillis() - currentTimeMillis));
 			return newVersion.getPrimarySpec();
+		} finally {
+			getMonitorProvider().releaseProjectWriteLock(projectId);
+		}
+	}
+
+	/**
+	 * Whether the changes of a commit may be applied directly to the project state of the base version. This is the
+	 * case if in-place commits are enabled, the base version is the head of the target branch and its project state
+	 * is persisted, but will be deleted after the commit according to the persistence policy.
+	 */
+	private boolean isCommitInPlacePossible(ProjectId projectId, ProjectHistory projectHistory, Version baseVersion,
+		BranchVersionSpec targetBranch) {
+		if (!ServerConfiguration.isCommitInPlaceEnabled() || !isRegularCommit(targetBranch, baseVersion)
+			|| isHeadOfBranch(projectHistory, baseVersion.getPrimarySpec()) == null) {
+			return false;
+		}
+		return shouldDeleteOldProjectStateAccordingToOptions(projectId, baseVersion, getResourceHelper())
+			&& baseVersion.getProjectState() != null;
+	}
+
+	/**
+	 * Applies the given changes to the given project state and returns a change package that reverts them.
+	 *
+	 * @param changePackage
+	 *            the changes to be applied
+	 * @param projectState
+	 *            the project state of the head version
+	 * @return a change package containing the reversed operations in reversed order
+	 */
+	private ChangePackage applyInPlace(AbstractChangePackage changePackage, Project projectState) {
+		final List<AbstractOperation> reversedOperations = new ArrayList<AbstractOperation>(changePackage.size());
+		final ESCloseableIterable<AbstractOperation> operations = changePackage.operations();
+		try {
+			for (final AbstractOperation operation : operations.iterable()) {
+				reversedOperations.add(operation.reverse());
+				operation.apply(projectState);
+			}
+			// BEGIN SUPRESS CATCH EXCEPTION
+		} catch (final RuntimeException e) {
+			// END SUPRESS CATCH EXCEPTION
+			// the failing operation may have been applied partially, reload the persisted state instead
+			discardProjectState(projectState);
+			throw e;
+		} finally {
+			operations.close();
+		}
+		Collections.reverse(reversedOperations);
+		final ChangePackage reverseChanges = VersioningFactory.eINSTANCE.createChangePackage();
+		reverseChanges.addAll(reversedOperations);
+		return reverseChanges;
+	}
+
+	/**
+	 * Reverts an in-place commit that could not be saved, such that the given project state becomes the state of the
+	 * base version again.
+	 */
+	private void revertInPlace(Version baseVersion, Resource baseProjectStateResource, Project projectState,
+		ChangePackage reverseChanges) {
+		try {
+			reverseChanges.apply(projectState);
+			baseProjectStateResource.getContents().add(projectState);
+			// BEGIN SUPRESS CATCH EXCEPTION
+		} catch (final RuntimeException e) {
+			// END SUPRESS CATCH EXCEPTION
+			ModelUtil.logWarning(Messages.VersionSubInterfaceImpl_RevertInPlaceCommitFailed, e);
+			discardProjectState(projectState);
+			baseVersion.setProjectStateResource(null);
+		}
+	}
+
+	/**
+	 * Unloads the resource of the given project state, so that the persisted state is loaded on the next access.
+	 */
+	private void discardProjectState(Project projectState) {
+		final Resource resource = projectState.eResource();
+		if (resource != null) {
+			resource.unload();
 		}
 	}
 
@@ -504,14 +656,14 @@ public class VersionSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 
 	private Version performRegularCommit(PrimaryVersionSpec baseVersionSpec, LogMessage logMessage, final ACUser user,
 		final ProjectHistory projectHistory, final BranchInfo baseBranch, final Version baseVersion,
-		final Project newProjectState) throws ESUpdateRequiredException, ESException {
+		final Project newProjectState, Long checksumDelta) throws ESUpdateRequiredException, ESException {
 		Version newVersion;
 		// If branch is null or branch equals base branch, create new
 		// version for specific branch
 		if (!baseVersionSpec.equals(isHeadOfBranch(projectHistory, baseVersion.getPrimarySpec()))) {
 			throw new ESUpdateRequiredException();
 		}
-		newVersion = createVersion(projectHistory, newProjectState, logMessage, user, baseVersion);
+		newVersion = createVersion(projectHistory, newProjectState, logMessage, user, baseVersion, checksumDelta);
 		newVersion.setPreviousVersion(baseVersion);
 		baseBranch.setHead(ModelUtil.clone(newVersion.getPrimarySpec()));
 		return newVersion;
@@ -583,6 +735,8 @@ public class VersionSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 		getResourceHelper().createResourceForVersion(newVersion, projectHistory.getProjectId());
 
 		newVersion.setProjectStateResource(newProjectState.eResource());
+		// set while holding the write lock, readers hand out the change package as it is
+		changePackage.setLogMessage(ModelUtil.clone(newVersion.getLogMessage()));
 		newVersion.setChangeResource(changePackage.eResource());
 	}
 
@@ -601,14 +755,14 @@ public class VersionSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 	}
 
 	private Version createVersion(ProjectHistory projectHistory, Project projectState, LogMessage logMessage,
-		ACUser user, Version previousVersion) throws ESException {
+		ACUser user, Version previousVersion, Long checksumDelta) throws ESException {
 		final Version newVersion = VersioningFactory.eINSTANCE.createVersion();
 
 		long computedChecksum = ModelUtil.NO_CHECKSUM;
 
 		try {
 			if (ServerConfiguration.isComputeChecksumOnCommitActive()) {
-				computedChecksum = ModelUtil.computeChecksum(projectState);
+				computedChecksum = computeChecksum(projectHistory, projectState, previousVersion, checksumDelta);
 				ModelUtil.logProjectDetails(
 					MessageFormat.format("Checksum computation during version create: {0}", computedChecksum), //$NON-NLS-1$
 					user.getName(), projectHistory.getProjectName(), projectHistory.getProjectId().getId(), null, -1);
@@ -631,12 +785,60 @@ public class VersionSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 		newVersion.setPrimarySpec(Versions.createPRIMARY(previousVersion.getPrimarySpec(), projectHistory.getVersions()
 			.size()));
 		newVersion.getPrimarySpec().setProjectStateChecksum(computedChecksum);
+		newVersion.getPrimarySpec().setCommutativeChecksum(
+			computedChecksum != ModelUtil.NO_CHECKSUM && ServerConfiguration.isCommutativeChecksumEnabled());
 		newVersion.setNextVersion(null);
 
 		projectHistory.getVersions().add(newVersion);
 		return newVersion;
 	}
 
+	/**
+	 * Computes the checksum of a new project state. A commutative checksum is derived from the checksum of the
+	 * previous version if that has been computed as commutative checksum as well, and computed over the whole project
+	 * state otherwise or if verification is enabled. The kind of checksum is recorded with the version spec, so that
+	 * clients compute the same kind of checksum when comparing it.
+	 */
+	private long computeChecksum(ProjectHistory projectHistory, Project projectState, Version previousVersion,
+		Long checksumDelta) throws SerializationException {
+		if (!ServerConfiguration.isCommutativeChecksumEnabled()) {
+			return ModelUtil.computeChecksum(projectState);
+		}
+		if (checksumDelta == null || !previousVersion.getPrimarySpec().isCommutativeChecksum()) {
+			return CommutativeChecksum.computeChecksum(projectState);
+		}
+		final long derivedChecksum = previousVersion.getPrimarySpec().getProjectStateChecksum()
+			+ checksumDelta.longValue();
+		if (!ServerConfiguration.isCommutativeChecksumVerificationEnabled()) {
+			return derivedChecksum;
+		}
+		final long computedChecksum = CommutativeChecksum.computeChecksum(projectState);
+		if (computedChecksum != derivedChecksum) {
+			ModelUtil.logWarning(MessageFormat.format(Messages.VersionSubInterfaceImpl_DerivedChecksumMismatch,
+				derivedChecksum, projectHistory.getProjectName(), computedChecksum));
+		}
+		return computedChecksum;
+	}
+
+	/**
+	 * Returns the IDs of the elements whose hashes may be changed by the given changes, if the commutative checksum
+	 * of the new project state is computed, or <code>null</code> otherwise.
+	 */
+	private static Set<ModelElementId> getCommutativeChecksumElements(AbstractChangePackage changePackage) {
+		if (!ServerConfiguration.isComputeChecksumOnCommitActive()
+			|| !ServerConfiguration.isCommutativeChecksumEnabled()) {
+			return null;
+		}
+		return ChangePackageUtil.getInvolvedModelElements(changePackage);
+	}
+
+	private static long computeCommutativeChecksum(Project projectState, Set<ModelElementId> modelElementIds) {
+		if (modelElementIds == null) {
+			return 0;
+		}
+		return CommutativeChecksum.computeChecksum(projectState, modelElementIds);
+	}
+
 	private Version getVersion(ProjectHistory projectHistory, PrimaryVersionSpec baseVersionSpec) {
 		if (0 > baseVersionSpec.getIdentifier()
 			|| baseVersionSpec.getIdentifier() > projectHistory.getVersions().size() - 1) {
@@ -658,12 +860,7 @@ public class VersionSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 	}
 
 	private BranchInfo getBranchInfo(ProjectHistory projectHistory, VersionSpec versionSpec) {
-		for (final BranchInfo branchInfo : projectHistory.getBranches()) {
-			if (branchInfo.getName().equals(versionSpec.getBranch())) {
-				return branchInfo;
-			}
-		}
-		return null;
+		return getVersionSpecIndex(projectHistory).getBranch(versionSpec.getBranch());
 	}
 
 	/**
@@ -676,13 +873,16 @@ public class VersionSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 	 */
 	@ESMethod(MethodId.GETBRANCHES)
 	public List<BranchInfo> getBranches(ProjectId projectId) throws ESException {
-		synchronized (getMonitor()) {
+		getSubInterface(ProjectSubInterfaceImpl.class).acquireResolvedProjectReadLock(projectId);
+		try {
 			final ProjectHistory projectHistory = getSubInterface(ProjectSubInterfaceImpl.class).getProject(projectId);
 			final ArrayList<BranchInfo> result = new ArrayList<BranchInfo>();
 			for (final BranchInfo branch : projectHistory.getBranches()) {
 				result.add(ModelUtil.clone(branch));
 			}
 			return result;
+		} finally {
+			getMonitorProvider().releaseProjectReadLock(projectId);
 		}
 	}
 
@@ -770,7 +970,8 @@ public class VersionSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 			return new ArrayList<AbstractChangePackage>();
 		}
 
-		synchronized (getMonitor()) {
+		getSubInterface(ProjectSubInterfaceImpl.class).acquireResolvedProjectReadLock(projectId);
+		try {
 
 			final boolean updateForward = resolvedTarget.getIdentifier() > resolvedSource.getIdentifier();
 
@@ -791,8 +992,9 @@ public class VersionSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 			for (final Version version : versions) {
 				final AbstractChangePackage changes = version.getChanges();
 				if (changes != null) {
-					changes.setLogMessage(ModelUtil.clone(version.getLogMessage()));
-					result.add(changes);
+					// the result is serialized after the lock has been released, while the residency manager may
+					// unload the resource of the change package
+					result.add(updateForward ? ResourceResidencyManager.getInstance().detach(changes) : changes);
 				}
 			}
 
@@ -831,6 +1033,8 @@ public class VersionSubInterfaceImpl extends AbstractSubEmfstoreInterface {
 			}
 
 			return result;
+		} finally {
+			getMonitorProvider().releaseProjectReadLock(projectId);
 		}
 	}
 
@@ -0,0 +1,186 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.internal.server.filetransfer;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.eclipse.emf.emfstore.internal.server.exceptions.FileTransferException;
+
+/**
+ * Reads and writes the chunks of a file transfer.
+ * <p>
+ * Chunks are read and written at their position within the file via a {@link FileChannel}, so neither preceding
+ * chunks need to be skipped nor is any data copied between streams. Accesses are only serialized per file: any number
+ * of chunks of a file may be read concurrently, whereas writing a chunk excludes all other accesses to that file.
+ * Transfers of different files never block each other.
+ * </p>
+ * <p>
+ * The position of a chunk is determined by its chunk number and the chunk size of its
+ * {@link FileTransferInformation}, which allows transfers to use chunk sizes other than the
+ * {@link #DEFAULT_CHUNK_SIZE}. Since chunks are written in order, an interrupted transfer can be resumed at
+ * {@link #getResumeChunkNumber(File, FileTransferInformation)}.
+ * </p>
+ */
+public final class ChunkedFileTransfer {
+
+	/**
+	 * The chunk size of transfers that did not specify one, in bytes. Consider that changing this value means that
+	 * file transfers of older clients will fail.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 100000;
+
+	// error messages
+	private static final String COULD_NOT_FIND_THE_FILE = "Could not find the file!"; //$NON-NLS-1$
+	private static final String COULD_NOT_READ_THE_FILE = "Could not read the file!"; //$NON-NLS-1$
+	private static final String COULD_NOT_WRITE_TO_THE_FILE = "Could not write to the file!"; //$NON-NLS-1$
+
+	private static final Map<File, FileLock> LOCKS = new HashMap<File, FileLock>();
+
+	private ChunkedFileTransfer() {
+	}
+
+	/**
+	 * Writes a file chunk to a file. The last chunk of a transfer truncates the file after its data, thereby removing
+	 * any leftovers of earlier transfers, and forces all changes to the storage device.
+	 *
+	 * @param file file to be written to
+	 * @param fileChunk file chunk
+	 * @throws FileTransferException if any error occurs writing to the file.
+	 */
+	public static void writeChunk(File file, FileChunk fileChunk) throws FileTransferException {
+		final ByteBuffer buffer = ByteBuffer.wrap(fileChunk.getData());
+		long position = getPosition(fileChunk.getFileInformation());
+		final ReadWriteLock lock = acquireLock(file);
+		lock.writeLock().lock();
+		try {
+			final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw"); //$NON-NLS-1$
+			try {
+				final FileChannel channel = randomAccessFile.getChannel();
+				while (buffer.hasRemaining()) {
+					position += channel.write(buffer, position);
+				}
+				if (fileChunk.isLast()) {
+					channel.truncate(position);
+					channel.force(true);
+				}
+			} finally {
+				randomAccessFile.close();
+			}
+		} catch (final FileNotFoundException e) {
+			throw new FileTransferException(COULD_NOT_FIND_THE_FILE, e);
+		} catch (final IOException e) {
+			throw new FileTransferException(COULD_NOT_WRITE_TO_THE_FILE, e);
+		} finally {
+			lock.writeLock().unlock();
+			releaseLock(file);
+		}
+	}
+
+	/**
+	 * Reads a file chunk from a file. The file size of the given file information is updated as a side effect.
+	 *
+	 * @param file to be read from
+	 * @param fileInformation containing file transfer attributes
+	 * @return fileChunk
+	 * @throws FileTransferException if any error occurs reading the file
+	 */
+	public static FileChunk readChunk(File file, FileTransferInformation fileInformation)
+		throws FileTransferException {
+		final long position = getPosition(fileInformation);
+		final int chunkSize = fileInformation.getChunkSize();
+		final ReadWriteLock lock = acquireLock(file);
+		lock.readLock().lock();
+		try {
+			final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r"); //$NON-NLS-1$
+			try {
+				final FileChannel channel = randomAccessFile.getChannel();
+				final long fileSize = channel.size();
+				final long remainingSize = Math.max(0, fileSize - position);
+				// if the remaining size is chunk size or smaller, this is the last chunk
+				final boolean end = remainingSize <= chunkSize;
+				final ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(remainingSize, chunkSize));
+				while (buffer.hasRemaining()) {
+					if (channel.read(buffer, position + buffer.position()) < 0) {
+						throw new FileTransferException(COULD_NOT_READ_THE_FILE);
+					}
+				}
+				fileInformation.setFileSize((int) fileSize);
+				return new FileChunk(fileInformation, end, buffer.array());
+			} finally {
+				randomAccessFile.close();
+			}
+		} catch (final FileNotFoundException e) {
+			throw new FileTransferException(COULD_NOT_FIND_THE_FILE, e);
+		} catch (final IOException e) {
+			throw new FileTransferException(COULD_NOT_READ_THE_FILE, e);
+		} finally {
+			lock.readLock().unlock();
+			releaseLock(file);
+		}
+	}
+
+	/**
+	 * Returns the number of the first chunk of the given transfer that has not been written completely to the given
+	 * file, i.e. the chunk a transfer into this file should be resumed with.
+	 *
+	 * @param file the partially transferred file, which may not exist yet
+	 * @param fileInformation the file information of the transfer
+	 * @return the chunk number to resume the transfer with, 0 if the file does not exist
+	 */
+	public static int getResumeChunkNumber(File file, FileTransferInformation fileInformation) {
+		return (int) (file.length() / fileInformation.getChunkSize());
+	}
+
+	private static long getPosition(FileTransferInformation fileInformation) {
+		return (long) fileInformation.getChunkNumber() * fileInformation.getChunkSize();
+	}
+
+	private static ReadWriteLock acquireLock(File file) {
+		final File key = file.getAbsoluteFile();
+		synchronized (LOCKS) {
+			FileLock fileLock = LOCKS.get(key);
+			if (fileLock == null) {
+				fileLock = new FileLock();
+				LOCKS.put(key, fileLock);
+			}
+			fileLock.users++;
+			return fileLock.lock;
+		}
+	}
+
+	private static void releaseLock(File file) {
+		final File key = file.getAbsoluteFile();
+		synchronized (LOCKS) {
+			final FileLock fileLock = LOCKS.get(key);
+			if (--fileLock.users == 0) {
+				LOCKS.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * The lock of a file along with the number of threads using it, so that it can be discarded once no transfer
+	 * accesses the file anymore.
+	 */
+	private static final class FileLock {
+		private final ReadWriteLock lock = new ReentrantReadWriteLock();
+		private int users;
+	}
+}
@@ -0,0 +1,287 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.internal.server.filetransfer;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.regex.Pattern;
+
+import org.eclipse.emf.emfstore.internal.common.model.util.FileUtil;
+
+/**
+ * Stores the contents of files addressed by their SHA-256 hash, so that identical contents are kept only once no matter
+ * how many projects or attachments refer to them.
+ * <p>
+ * Every content is stored in a file named after its hash, next to which a reference file records how many links refer
+ * to the content. A link is a small file, such as an attachment of a project, that contains nothing but the hash of
+ * the linked content. Contents are deleted as soon as their last link has been removed. Links and reference counts are
+ * replaced rather than rewritten, so that an interrupted update never leaves a corrupted file behind.
+ * </p>
+ */
+public class ContentAddressedFileStore {
+
+	/**
+	 * The name of the folder of the store within the server home.
+	 */
+	public static final String STORE_FOLDER = "blobs"; //$NON-NLS-1$
+
+	private static final String HASH_ALGORITHM = "SHA-256"; //$NON-NLS-1$
+	private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}"); //$NON-NLS-1$
+	private static final String REFERENCES_SUFFIX = ".refs"; //$NON-NLS-1$
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray(); //$NON-NLS-1$
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final File folder;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param folder
+	 *            the folder holding the stored contents, which is created on demand
+	 */
+	public ContentAddressedFileStore(File folder) {
+		this.folder = folder;
+	}
+
+	/**
+	 * Computes the hash a file's content is addressed by.
+	 *
+	 * @param file
+	 *            the file
+	 * @return the lower case hexadecimal SHA-256 hash of the file's content
+	 * @throws IOException if the file can not be read
+	 */
+	public static String computeHash(File file) throws IOException {
+		final MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance(HASH_ALGORITHM);
+		} catch (final NoSuchAlgorithmException ex) {
+			// only required to be supported from Java 7 on, but provided by all common platforms
+			throw new IllegalStateException(ex);
+		}
+		final byte[] buffer = new byte[BUFFER_SIZE];
+		final InputStream inputStream = new FileInputStream(file);
+		try {
+			int read;
+			while ((read = inputStream.read(buffer)) != -1) {
+				digest.update(buffer, 0, read);
+			}
+		} finally {
+			inputStream.close();
+		}
+		final byte[] hash = digest.digest();
+		final char[] hex = new char[hash.length * 2];
+		for (int i = 0; i < hash.length; i++) {
+			hex[2 * i] = HEX_DIGITS[hash[i] >> 4 & 0xf];
+			hex[2 * i + 1] = HEX_DIGITS[hash[i] & 0xf];
+		}
+		return new String(hex);
+	}
+
+	/**
+	 * Whether the given string is a hash as computed by {@link #computeHash(File)}. Hashes received from clients have
+	 * to be checked, since they are used to build file paths.
+	 *
+	 * @param hash
+	 *            the string to check, may be {@code null}
+	 * @return {@code true} if the given string is a valid hash
+	 */
+	public static boolean isValidHash(String hash) {
+		return hash != null && HASH_PATTERN.matcher(hash).matches();
+	}
+
+	/**
+	 * Links the given file to the content with the given hash, if the store contains it. A link replaces any content
+	 * the file has been linked to before.
+	 *
+	 * @param hash
+	 *            the hash of the content
+	 * @param link
+	 *            the file recording the link, usually located in the attachment folder of a project
+	 * @return {@code true} if the file has been linked, {@code false} if the store does not contain the content
+	 * @throws IOException if the link or the reference count can not be written
+	 */
+	public synchronized boolean link(String hash, File link) throws IOException {
+		checkHash(hash);
+		if (!getContentFile(hash).exists()) {
+			return false;
+		}
+		replaceLink(hash, link);
+		return true;
+	}
+
+	/**
+	 * Adds the given file with the given hash to the store and links the given link file to it. The file is moved into
+	 * the store, or just deleted if the store already contains its content.
+	 *
+	 * @param file
+	 *            the file to be added
+	 * @param hash
+	 *            the hash of the file's content as computed by {@link #computeHash(File)}
+	 * @param link
+	 *            the file recording the link, usually located in the attachment folder of a project
+	 * @throws IOException if the file can not be moved into the store or the link can not be written
+	 */
+	public synchronized void add(File file, String hash, File link) throws IOException {
+		checkHash(hash);
+		final File contentFile = getContentFile(hash);
+		if (contentFile.exists()) {
+			file.delete();
+		} else {
+			contentFile.getParentFile().mkdirs();
+			if (!file.renameTo(contentFile)) {
+				FileUtil.moveAndOverwrite(file, contentFile);
+			}
+		}
+		replaceLink(hash, link);
+	}
+
+	/**
+	 * Returns the file holding the content the given file is linked to.
+	 *
+	 * @param link
+	 *            the file recording the link
+	 * @return the file holding the content, or {@code null} if the given file does not exist or the store does not
+	 *         contain the linked content
+	 * @throws IOException if the link can not be read
+	 */
+	public synchronized File resolve(File link) throws IOException {
+		final String hash = readLink(link);
+		if (hash == null) {
+			return null;
+		}
+		final File contentFile = getContentFile(hash);
+		return contentFile.exists() ? contentFile : null;
+	}
+
+	/**
+	 * Returns the hash of the content the given file is linked to.
+	 *
+	 * @param link
+	 *            the file recording the link
+	 * @return the hash of the linked content, or {@code null} if the given file does not exist
+	 * @throws IOException if the link can not be read
+	 */
+	public synchronized String getLinkedHash(File link) throws IOException {
+		return readLink(link);
+	}
+
+	/**
+	 * Deletes the given link file. The linked content is deleted as well, if it is not referenced anymore.
+	 *
+	 * @param link
+	 *            the file recording the link, which may not exist
+	 * @throws IOException if the link or the reference count can not be read or written
+	 */
+	public synchronized void unlink(File link) throws IOException {
+		final String hash = readLink(link);
+		if (hash != null) {
+			link.delete();
+			removeReference(hash);
+		}
+	}
+
+	/**
+	 * Returns the number of links to the content with the given hash.
+	 *
+	 * @param hash
+	 *            the hash of the content
+	 * @return the reference count, 0 if the store does not contain the content
+	 * @throws IOException if the reference count can not be read
+	 */
+	public synchronized int getReferenceCount(String hash) throws IOException {
+		checkHash(hash);
+		final String count = readFirstLine(getReferenceFile(hash));
+		if (count == null) {
+			return 0;
+		}
+		try {
+			return Integer.parseInt(count);
+		} catch (final NumberFormatException ex) {
+			final IOException exception = new IOException(getReferenceFile(hash).getAbsolutePath());
+			exception.initCause(ex);
+			throw exception;
+		}
+	}
+
+	private void replaceLink(String hash, File link) throws IOException {
+		final String previousHash = readLink(link);
+		if (hash.equals(previousHash)) {
+			return;
+		}
+		// count the new reference first, so that a crash never leaves a link to a deleted content behind
+		writeAtomically(getReferenceFile(hash), String.valueOf(getReferenceCount(hash) + 1));
+		writeAtomically(link, hash);
+		if (previousHash != null) {
+			removeReference(previousHash);
+		}
+	}
+
+	private void removeReference(String hash) throws IOException {
+		final int count = getReferenceCount(hash) - 1;
+		if (count > 0) {
+			writeAtomically(getReferenceFile(hash), String.valueOf(count));
+		} else {
+			getContentFile(hash).delete();
+			getReferenceFile(hash).delete();
+		}
+	}
+
+	private static String readLink(File link) throws IOException {
+		final String hash = readFirstLine(link);
+		if (hash == null) {
+			return null;
+		}
+		if (!isValidHash(hash)) {
+			throw new IOException(link.getAbsolutePath());
+		}
+		return hash;
+	}
+
+	private static String readFirstLine(File file) throws IOException {
+		if (!file.exists()) {
+			return null;
+		}
+		final BufferedReader reader = new BufferedReader(new FileReader(file));
+		try {
+			final String line = reader.readLine();
+			return line == null ? null : line.trim();
+		} finally {
+			reader.close();
+		}
+	}
+
+	private static void writeAtomically(File file, String content) throws IOException {
+		FileUtil.writeAtomically(file, content.getBytes("US-ASCII")); //$NON-NLS-1$
+	}
+
+	private File getContentFile(String hash) {
+		// spread the contents over subfolders in order to keep folder sizes manageable
+		return new File(new File(folder, hash.substring(0, 2)), hash);
+	}
+
+	private File getReferenceFile(String hash) {
+		final File contentFile = getContentFile(hash);
+		return new File(contentFile.getParentFile(), hash + REFERENCES_SUFFIX);
+	}
+
+	private static void checkHash(String hash) {
+		if (!isValidHash(hash)) {
+			throw new IllegalArgumentException(hash);
+		}
+	}
+}
@@ -36,6 +36,12 @@ public class FileTransferInformation implements Serializable {
 
 	private String fileIdentifier;
 
+	private int chunkSize;
+
+	private String contentHash;
+
+	private boolean complete;
+
 	/**
 	 * Default constructor.
 	 *
@@ -61,6 +67,58 @@ public class FileTransferInformation implements Serializable {
 		this.chunkNumber = chunkNumber;
 	}
 
+	/**
+	 * Returns the size of all but the last chunk of the transfer.
+	 *
+	 * @return the chunk size, in bytes
+	 */
+	public int getChunkSize() {
+		// transfers of older clients do not carry a chunk size
+		return chunkSize > 0 ? chunkSize : ChunkedFileTransfer.DEFAULT_CHUNK_SIZE;
+	}
+
+	/**
+	 * Sets the size of all but the last chunk of the transfer. The chunk size must not change during a transfer.
+	 *
+	 * @param chunkSize the chunk size, in bytes
+	 */
+	public void setChunkSize(int chunkSize) {
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Returns the hash of the content of the transferred file, which allows the server to skip uploads of contents the
+	 * project already refers to.
+	 *
+	 * @return the SHA-256 hash of the file content, or {@code null} if unknown
+	 */
+	public String getContentHash() {
+		return contentHash;
+	}
+
+	/**
+	 * @param contentHash the SHA-256 hash of the file content
+	 */
+	public void setContentHash(String contentHash) {
+		this.contentHash = contentHash;
+	}
+
+	/**
+	 * Whether the server already holds the complete file, so that no chunks have to be uploaded.
+	 *
+	 * @return {@code true} if the transfer is complete
+	 */
+	public boolean isComplete() {
+		return complete;
+	}
+
+	/**
+	 * @param complete whether the server already holds the complete file
+	 */
+	public void setComplete(boolean complete) {
+		this.complete = complete;
+	}
+
 	/**
 	 * @return the file identifier
 	 */
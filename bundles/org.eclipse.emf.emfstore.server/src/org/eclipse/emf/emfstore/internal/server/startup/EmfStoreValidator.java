@@ -11,40 +11,78 @@
  ******************************************************************************/
 package org.eclipse.emf.emfstore.internal.server.startup;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.emf.common.util.BasicEList;
 import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.Resource.Diagnostic;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
 import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.util.InternalEList;
 import org.eclipse.emf.ecore.xmi.FeatureNotFoundException;
+import org.eclipse.emf.ecore.xmi.XMIResource;
 import org.eclipse.emf.emfstore.internal.common.model.ModelElementId;
 import org.eclipse.emf.emfstore.internal.common.model.Project;
+import org.eclipse.emf.emfstore.internal.common.model.util.FileUtil;
 import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
 import org.eclipse.emf.emfstore.internal.common.model.util.SerializationException;
+import org.eclipse.emf.emfstore.internal.server.core.MonitorProvider;
 import org.eclipse.emf.emfstore.internal.server.exceptions.FatalESException;
 import org.eclipse.emf.emfstore.internal.server.model.ProjectHistory;
 import org.eclipse.emf.emfstore.internal.server.model.ServerSpace;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.AbstractChangePackage;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.Version;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AbstractOperation;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.CompositeOperation;
 import org.eclipse.emf.emfstore.server.ESCloseableIterable;
+import org.eclipse.emf.emfstore.server.ESServerURIUtil;
 
 /**
  * Validates the serverspace in three different ways. First it resolves all proxies, then checks whether all ME have ids
  * and it is checked whether the changes generate the corret projectstate.
+ * <p>
+ * Different projects are validated in parallel. Each project is validated with a resource set of its own, so that the
+ * loaded versions, change packages and project states neither need to be synchronized with the server nor stay in
+ * memory afterwards. The project lock is held while a version is checked, so the validation may run while the
+ * server accepts requests. If a marker file is set, the validator records the last version of each project that has
+ * been validated successfully and only validates the versions added since then.
+ * </p>
  *
  * @author wesendon
  */
 public class EmfStoreValidator {
 
+	/**
+	 * The name of the marker file within the server home.
+	 */
+	public static final String MARKER_FILE_NAME = "validation.properties"; //$NON-NLS-1$
+
 	private static final String CHANGES_FEATURE_NAME = "changes"; //$NON-NLS-1$
 
 	private static final String PROJECTSTATE_FEATURE_NAME = "projectState"; //$NON-NLS-1$
@@ -53,6 +91,10 @@ public class EmfStoreValidator {
 
 	private List<String> excludedProjects;
 
+	private int threads;
+
+	private File markerFile;
+
 	/**
 	 * Default constructor.
 	 *
@@ -61,6 +103,7 @@ public class EmfStoreValidator {
 	public EmfStoreValidator(ServerSpace serverSpace) {
 		this.serverSpace = serverSpace;
 		excludedProjects = new ArrayList<String>();
+		threads = 1;
 	}
 
 	/**
@@ -92,17 +135,21 @@ public class EmfStoreValidator {
 	 * @throws FatalESException in case of failure
 	 */
 	public void validate(int options, boolean throwException) throws FatalESException {
+		final Properties markers = loadMarkers();
+		final Map<ProjectHistory, VersionRange> ranges = getVersionRanges(markers, options);
+		final Set<String> failedProjects = Collections.synchronizedSet(new HashSet<String>());
 		boolean errors = true;
 		if ((options & RESOLVEALL) == RESOLVEALL) {
-			errors = validateResolveAll() && errors;
+			errors = validateResolveAll(ranges, failedProjects) && errors;
 		}
 		if ((options & MODELELEMENTID) == MODELELEMENTID) {
-			errors = validateModelelementId() && errors;
+			errors = validateModelelementId(ranges, failedProjects) && errors;
 		}
 		// Not effieciently possible with branches
 		// if ((options & PROJECTGENERATION) == PROJECTGENERATION) {
 		// errors = validateProjectGeneration() && errors;
 		// }
+		saveMarkers(markers, options, ranges, failedProjects);
 
 		if (!errors && throwException) {
 			throw new FatalESException(Messages.EmfStoreValidator_ValidationFailed);
@@ -120,23 +167,125 @@ public class EmfStoreValidator {
 		validate(options, true);
 	}
 
+	/**
+	 * Returns the versions to be validated for each project that is not excluded. Versions committed during the
+	 * validation are left for the next one.
+	 */
+	private Map<ProjectHistory, VersionRange> getVersionRanges(Properties markers, int options) {
+		final Map<ProjectHistory, VersionRange> result = new LinkedHashMap<ProjectHistory, VersionRange>();
+		MonitorProvider.getInstance().getServerSpaceLock().readLock().lock();
+		try {
+			for (final ProjectHistory projectHistory : serverSpace.getProjects()) {
+				if (isExcluded(projectHistory)) {
+					continue;
+				}
+				int first = 0;
+				final String marker = markers.getProperty(getMarkerKey(projectHistory, options));
+				if (marker != null) {
+					try {
+						first = Integer.parseInt(marker) + 1;
+					} catch (final NumberFormatException e) {
+						first = 0;
+					}
+				}
+				// versions have been removed since, e.g. by restoring a backup
+				if (first > projectHistory.getVersions().size()) {
+					first = 0;
+				}
+				result.put(projectHistory, new VersionRange(first, projectHistory.getVersions().size() - 1));
+			}
+		} finally {
+			MonitorProvider.getInstance().getServerSpaceLock().readLock().unlock();
+		}
+		return result;
+	}
+
 	/**
 	 * {@link #RESOLVEALL}.
+	 *
+	 * @throws FatalESException if the validation has been interrupted
 	 */
-	private boolean validateResolveAll() {
+	private boolean validateResolveAll(Map<ProjectHistory, VersionRange> ranges, final Set<String> failedProjects)
+		throws FatalESException {
 		start(Messages.EmfStoreValidator_ResolvingAllElements);
-		EcoreUtil.resolveAll(serverSpace.eResource().getResourceSet());
-		final EList<Resource.Diagnostic> errors = new BasicEList<Resource.Diagnostic>();
-		final EList<Resource> resources = serverSpace.eResource().getResourceSet().getResources();
-		for (final Resource currentResource : resources) {
-			errors.addAll(currentResource.getErrors());
+		final List<Object> errors = Collections.synchronizedList(new ArrayList<Object>());
+		final EList<Resource.Diagnostic> serverSpaceErrors = new BasicEList<Resource.Diagnostic>();
+		MonitorProvider.getInstance().getServerSpaceLock().readLock().lock();
+		try {
+			// resolves the project histories, but not their versions
+			EcoreUtil.resolveAll(serverSpace);
+			serverSpaceErrors.addAll(serverSpace.eResource().getErrors());
+		} finally {
+			MonitorProvider.getInstance().getServerSpaceLock().readLock().unlock();
 		}
-		removeAcceptedErrors(errors);
+		removeAcceptedErrors(serverSpaceErrors);
+		errors.addAll(serverSpaceErrors);
+		final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		for (final Map.Entry<ProjectHistory, VersionRange> entry : ranges.entrySet()) {
+			tasks.add(new Callable<Void>() {
+				public Void call() {
+					final List<Object> projectErrors = validateResolveAll(entry.getKey(), entry.getValue());
+					if (!projectErrors.isEmpty()) {
+						failedProjects.add(entry.getKey().getProjectId().getId());
+						errors.addAll(projectErrors);
+					}
+					return null;
+				}
+			});
+		}
+		invokeAll(tasks);
 		errors(errors);
 		stop();
 		return errors.size() == 0;
 	}
 
+	/**
+	 * Resolves the versions of the given project in a resource set of its own, like the model element IDs are checked.
+	 */
+	private List<Object> validateResolveAll(ProjectHistory projectHistory, VersionRange range) {
+		final List<Object> errors = new ArrayList<Object>();
+		final EList<Resource.Diagnostic> diagnostics = new BasicEList<Resource.Diagnostic>();
+		final ResourceSet resourceSet = createResourceSet();
+		URI projectHistoryURI = null;
+		MonitorProvider.getInstance().acquireProjectReadLock(projectHistory.getProjectId());
+		try {
+			if (projectHistory.eResource() != null) {
+				projectHistoryURI = projectHistory.eResource().getURI();
+				diagnostics.addAll(projectHistory.eResource().getErrors());
+			}
+		} finally {
+			MonitorProvider.getInstance().releaseProjectReadLock(projectHistory.getProjectId());
+		}
+		for (int i = range.first; i <= range.last; i++) {
+			MonitorProvider.getInstance().acquireProjectReadLock(projectHistory.getProjectId());
+			try {
+				if (!serverSpace.getProjects().contains(projectHistory)) {
+					break;
+				}
+				final URI versionURI = getVersionURI(projectHistory, i);
+				// versions within the resource of the project history have been checked with it
+				if (versionURI == null || versionURI.equals(projectHistoryURI)) {
+					continue;
+				}
+				if (loadResource(resourceSet, versionURI, errors) != null) {
+					EcoreUtil.resolveAll(resourceSet);
+					for (final Resource resource : resourceSet.getResources()) {
+						diagnostics.addAll(resource.getErrors());
+					}
+				}
+			} finally {
+				MonitorProvider.getInstance().releaseProjectReadLock(projectHistory.getProjectId());
+				for (final Resource resource : resourceSet.getResources()) {
+					resource.unload();
+				}
+				resourceSet.getResources().clear();
+			}
+		}
+		removeAcceptedErrors(diagnostics);
+		errors.addAll(diagnostics);
+		return errors;
+	}
+
 	private void removeAcceptedErrors(EList<Diagnostic> errors) {
 		final Iterator<Diagnostic> iterator = errors.iterator();
 		while (iterator.hasNext()) {
@@ -157,53 +306,176 @@ public class EmfStoreValidator {
 
 	/**
 	 * {@link #MODELELEMENTID}.
+	 *
+	 * @throws FatalESException if the validation has been interrupted
 	 */
-	private boolean validateModelelementId() {
+	private boolean validateModelelementId(Map<ProjectHistory, VersionRange> ranges,
+		final Set<String> failedProjects) throws FatalESException {
 		start(Messages.EmfStoreValidator_CheckingModelElementIds);
+		final List<String> errors = Collections.synchronizedList(new ArrayList<String>());
+		final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		for (final Map.Entry<ProjectHistory, VersionRange> entry : ranges.entrySet()) {
+			tasks.add(new Callable<Void>() {
+				public Void call() {
+					final List<String> projectErrors = validateModelelementId(entry.getKey(), entry.getValue());
+					if (!projectErrors.isEmpty()) {
+						failedProjects.add(entry.getKey().getProjectId().getId());
+						errors.addAll(projectErrors);
+					}
+					return null;
+				}
+			});
+		}
+		invokeAll(tasks);
+		errors(errors);
+		stop();
+		return errors.size() == 0;
+	}
+
+	/**
+	 * Runs the given tasks, one per project, on a pool of {@link #setThreads(int) threads}.
+	 *
+	 * @throws FatalESException if the validation has been interrupted or a task failed
+	 */
+	private void invokeAll(List<Callable<Void>> tasks) throws FatalESException {
+		final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, tasks.size())),
+			new ThreadFactory() {
+				private int count;
+
+				public synchronized Thread newThread(Runnable runnable) {
+					final Thread thread = new Thread(runnable, "EMFStore Validation " + ++count); //$NON-NLS-1$
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		try {
+			for (final Future<Void> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (final InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new FatalESException(Messages.EmfStoreValidator_Interrupted, ex);
+		} catch (final ExecutionException ex) {
+			throw new FatalESException(Messages.EmfStoreValidator_ValidationFailed, ex.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private List<String> validateModelelementId(ProjectHistory projectHistory, VersionRange range) {
+		System.out.println(
+			MessageFormat.format(Messages.EmfStoreValidator_CheckingProject,
+				projectHistory.getProjectId().getId()));
 		final List<String> errors = new ArrayList<String>();
-		for (final ProjectHistory projectHistory : serverSpace.getProjects()) {
-			if (isExcluded(projectHistory)) {
-				continue;
+		final ResourceSet resourceSet = createResourceSet();
+		for (int i = range.first; i <= range.last; i++) {
+			MonitorProvider.getInstance().acquireProjectReadLock(projectHistory.getProjectId());
+			try {
+				if (!serverSpace.getProjects().contains(projectHistory)) {
+					break;
+				}
+				final URI versionURI = getVersionURI(projectHistory, i);
+				if (versionURI != null) {
+					validateModelelementId(projectHistory, versionURI, resourceSet, errors);
+				}
+			} finally {
+				MonitorProvider.getInstance().releaseProjectReadLock(projectHistory.getProjectId());
+				for (final Resource resource : resourceSet.getResources()) {
+					resource.unload();
+				}
+				resourceSet.getResources().clear();
 			}
-			System.out.println(
-				MessageFormat.format(Messages.EmfStoreValidator_CheckingProject,
-					projectHistory.getProjectId().getId()));
-			for (final Version version : projectHistory.getVersions()) {
-				if (version.getChanges() != null) {
-					final ESCloseableIterable<AbstractOperation> operations = version.getChanges().operations();
-					try {
-						for (final AbstractOperation abstractOperation : operations.iterable()) {
-							if (!(abstractOperation instanceof CompositeOperation)
-								&& (abstractOperation.getModelElementId() == null
-									|| abstractOperation.getModelElementId().getId() == null)) {
-								errors.add(
-									MessageFormat.format(
-										Messages.EmfStoreValidator_ChangeOperation_Has_No_ModelElementId,
-										projectHistory.getProjectId(),
-										version.getPrimarySpec().getIdentifier()));
-							}
-						}
-					} finally {
-						operations.close();
+		}
+		return errors;
+	}
+
+	/**
+	 * Returns the URI of the resource of the version with the given index without resolving the version, since the
+	 * resource set of the server space must not be modified by several threads at once.
+	 */
+	private static URI getVersionURI(ProjectHistory projectHistory, int index) {
+		final Version version = ((InternalEList<Version>) projectHistory.getVersions()).basicGet(index);
+		if (version.eIsProxy()) {
+			return EcoreUtil.getURI(version).trimFragment();
+		}
+		return version.eResource() == null ? null : version.eResource().getURI();
+	}
+
+	private void validateModelelementId(ProjectHistory projectHistory, URI versionURI, ResourceSet resourceSet,
+		List<String> errors) {
+		final String versionIdentifier = versionURI.lastSegment();
+		final Resource changesResource = loadResource(resourceSet,
+			ESServerURIUtil.createChangePackageURI(versionURI), errors);
+		if (changesResource != null && !changesResource.getContents().isEmpty()) {
+			final ESCloseableIterable<AbstractOperation> operations = ((AbstractChangePackage) changesResource
+				.getContents().get(0)).operations();
+			try {
+				for (final AbstractOperation abstractOperation : operations.iterable()) {
+					if (!(abstractOperation instanceof CompositeOperation)
+						&& (abstractOperation.getModelElementId() == null
+							|| abstractOperation.getModelElementId().getId() == null)) {
+						errors.add(
+							MessageFormat.format(
+								Messages.EmfStoreValidator_ChangeOperation_Has_No_ModelElementId,
+								projectHistory.getProjectId(),
+								versionIdentifier));
 					}
 				}
-				if (version.getProjectState() != null) {
-					for (final EObject me : version.getProjectState().getAllModelElements()) {
-						final ModelElementId modelElementId = ModelUtil.getProject(me).getModelElementId(me);
-						if (modelElementId == null || modelElementId.getId() == null) {
-							errors.add(
-								MessageFormat.format(
-									Messages.EmfStoreValidator_ModelElement_Has_No_ModelElementId,
-									projectHistory.getProjectId(),
-									version.getPrimarySpec().getIdentifier()));
-						}
-					}
+			} finally {
+				operations.close();
+			}
+		}
+		final Resource projectStateResource = loadResource(resourceSet,
+			ESServerURIUtil.createProjectStateURI(versionURI), errors);
+		if (projectStateResource != null && !projectStateResource.getContents().isEmpty()) {
+			final Project project = (Project) projectStateResource.getContents().get(0);
+			for (final EObject me : ModelUtil.getAllContainedModelElements(project, false)) {
+				// the IDs are kept by the resource until the project state is accessed by the server
+				final String modelElementId = projectStateResource instanceof XMIResource
+					? ((XMIResource) projectStateResource).getID(me)
+					: getId(project.getModelElementId(me));
+				if (modelElementId == null) {
+					errors.add(
+						MessageFormat.format(
+							Messages.EmfStoreValidator_ModelElement_Has_No_ModelElementId,
+							projectHistory.getProjectId(),
+							versionIdentifier));
 				}
 			}
 		}
-		errors(errors);
-		stop();
-		return errors.size() == 0;
+	}
+
+	private static String getId(ModelElementId modelElementId) {
+		return modelElementId == null ? null : modelElementId.getId();
+	}
+
+	/**
+	 * Creates a resource set that loads resources the same way as the resource set of the server space.
+	 */
+	private ResourceSet createResourceSet() {
+		final ResourceSet serverResourceSet = serverSpace.eResource().getResourceSet();
+		final ResourceSet resourceSet = new ResourceSetImpl();
+		resourceSet.setResourceFactoryRegistry(serverResourceSet.getResourceFactoryRegistry());
+		resourceSet.setURIConverter(serverResourceSet.getURIConverter());
+		resourceSet.getLoadOptions().putAll(ModelUtil.getResourceLoadOptions());
+		return resourceSet;
+	}
+
+	/**
+	 * Loads the resource with the given URI or returns <code>null</code> if it does not exist, like the project
+	 * state of a version that has not been persisted.
+	 */
+	private static Resource loadResource(ResourceSet resourceSet, URI uri, List<? super String> errors) {
+		if (!resourceSet.getURIConverter().exists(uri, null)) {
+			return null;
+		}
+		final Resource resource = resourceSet.createResource(uri);
+		try {
+			resource.load(ModelUtil.getResourceLoadOptions());
+		} catch (final IOException e) {
+			errors.add(MessageFormat.format(Messages.EmfStoreValidator_Resource_Not_Loadable, uri, e.getMessage()));
+		}
+		return resource;
 	}
 
 	/**
@@ -269,6 +541,73 @@ public class EmfStoreValidator {
 		return excludedProjects.contains(projectHistory.getProjectId().getId());
 	}
 
+	/**
+	 * Sets the number of projects whose model element IDs are checked in parallel.
+	 *
+	 * @param threads the number of threads, at least 1
+	 */
+	public void setThreads(int threads) {
+		this.threads = Math.max(1, threads);
+	}
+
+	/**
+	 * Sets the file in which the last successfully validated version of each project is recorded. Versions up to the
+	 * recorded ones are skipped by subsequent validations with the same options.
+	 *
+	 * @param markerFile the marker file or <code>null</code> to validate all versions
+	 */
+	public void setMarkerFile(File markerFile) {
+		this.markerFile = markerFile;
+	}
+
+	private static String getMarkerKey(ProjectHistory projectHistory, int options) {
+		return projectHistory.getProjectId().getId() + "." + options; //$NON-NLS-1$
+	}
+
+	private Properties loadMarkers() {
+		final Properties markers = new Properties();
+		if (markerFile == null || !markerFile.exists()) {
+			return markers;
+		}
+		try {
+			final InputStream inputStream = new FileInputStream(markerFile);
+			try {
+				markers.load(inputStream);
+			} finally {
+				inputStream.close();
+			}
+		} catch (final IOException e) {
+			ModelUtil.logWarning(MessageFormat.format(Messages.EmfStoreValidator_MarkerReadFailed,
+				markerFile.getAbsolutePath()), e);
+			markers.clear();
+		}
+		return markers;
+	}
+
+	private void saveMarkers(Properties markers, int options, Map<ProjectHistory, VersionRange> ranges,
+		Set<String> failedProjects) {
+		if (markerFile == null) {
+			return;
+		}
+		for (final Map.Entry<ProjectHistory, VersionRange> entry : ranges.entrySet()) {
+			final String key = getMarkerKey(entry.getKey(), options);
+			if (failedProjects.contains(entry.getKey().getProjectId().getId())) {
+				markers.remove(key);
+			} else {
+				markers.setProperty(key, Integer.toString(entry.getValue().last));
+			}
+		}
+		// replace the file at once, so that an interrupted write does not lose all markers
+		try {
+			final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			markers.store(outputStream, null);
+			FileUtil.writeAtomically(markerFile, outputStream.toByteArray());
+		} catch (final IOException e) {
+			ModelUtil.logWarning(MessageFormat.format(Messages.EmfStoreValidator_MarkerWriteFailed,
+				markerFile.getAbsolutePath()), e);
+		}
+	}
+
 	private void start(String str) {
 		timeMillis = System.currentTimeMillis();
 		System.out.println(Messages.EmfStoreValidator_Validation + str);
@@ -345,4 +684,18 @@ public class EmfStoreValidator {
 		return lineNum;
 	}
 
+	/**
+	 * The indices of the first and the last version of a project to be validated.
+	 */
+	private static final class VersionRange {
+
+		private final int first;
+		private final int last;
+
+		VersionRange(int first, int last) {
+			this.first = first;
+			this.last = last;
+		}
+	}
+
 }
@@ -23,10 +23,14 @@ public class Messages extends NLS {
 	public static String EmfStoreValidator_CheckingModelElementIds;
 	public static String EmfStoreValidator_CheckingProject;
 	public static String EmfStoreValidator_Errors;
+	public static String EmfStoreValidator_Interrupted;
+	public static String EmfStoreValidator_MarkerReadFailed;
+	public static String EmfStoreValidator_MarkerWriteFailed;
 	public static String EmfStoreValidator_ModelElement_Has_No_ModelElementId;
 	public static String EmfStoreValidator_ProjectGenerationCompare;
 	public static String EmfStoreValidator_ProjectVersionCompareFailed;
 	public static String EmfStoreValidator_ResolvingAllElements;
+	public static String EmfStoreValidator_Resource_Not_Loadable;
 	public static String EmfStoreValidator_Validation;
 	public static String EmfStoreValidator_ValidationDuration;
 	public static String EmfStoreValidator_ValidationFailed;
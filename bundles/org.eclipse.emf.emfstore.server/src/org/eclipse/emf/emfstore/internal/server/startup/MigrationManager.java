@@ -152,10 +152,9 @@ public final class MigrationManager {
 				}
 			}
 
-			/* copy temp file to regular file */
+			/* save temp file to regular file */
 			try {
-				FileUtils.copyFile(new File(changePackage.getTempFilePath()),
-					new File(changePackage.getFilePath()));
+				changePackage.save();
 			} catch (final IOException ex) {
 				ModelUtil.logException(ex);
 			}
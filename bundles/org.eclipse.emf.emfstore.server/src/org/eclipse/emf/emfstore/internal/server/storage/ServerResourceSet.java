@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.internal.server.storage;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+
+/**
+ * Resource set of the server space. Since projects are accessed concurrently by the server, resources of different
+ * projects may be demand loaded or created at the same time, e.g. while resolving the proxies of a version. This
+ * resource set therefore serializes all modifications of its list of resources.
+ *
+ * @see org.eclipse.emf.emfstore.internal.server.core.MonitorProvider
+ */
+public class ServerResourceSet extends ResourceSetImpl {
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @see org.eclipse.emf.ecore.resource.impl.ResourceSetImpl#getResource(org.eclipse.emf.common.util.URI, boolean)
+	 */
+	@Override
+	public synchronized Resource getResource(URI uri, boolean loadOnDemand) {
+		return super.getResource(uri, loadOnDemand);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @see org.eclipse.emf.ecore.resource.impl.ResourceSetImpl#createResource(org.eclipse.emf.common.util.URI,
+	 *      java.lang.String)
+	 */
+	@Override
+	public synchronized Resource createResource(URI uri, String contentType) {
+		return super.createResource(uri, contentType);
+	}
+}
@@ -35,7 +35,7 @@ public class ServerXMIResourceSetProvider implements ESResourceSetProvider {
 	 * @see org.eclipse.emf.emfstore.common.ESResourceSetProvider#getResourceSet()
 	 */
 	public ResourceSet getResourceSet() {
-		final ResourceSetImpl resourceSet = new ResourceSetImpl();
+		final ResourceSetImpl resourceSet = new ServerResourceSet();
 		resourceSet.setResourceFactoryRegistry(new ResourceFactoryRegistry());
 		resourceSet.setURIConverter(new XMIServerURIConverter());
 		resourceSet.setURIResourceMap(new LinkedHashMap<URI, Resource>());
@@ -36,7 +36,11 @@ public @interface ESMethod {
 		/**
 		 * @since 1.10
 		 */
-		DELETEFILE
+		DELETEFILE,
+		/**
+		 * @since 1.10
+		 */
+		GETHISTORYINFOPAGE
 	}
 
 	/**
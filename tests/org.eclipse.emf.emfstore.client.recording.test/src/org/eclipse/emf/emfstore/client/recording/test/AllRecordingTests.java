@@ -35,7 +35,8 @@ import org.junit.runners.Suite;
 	OperationRecorderTest.class,
 	OperationManagerTest.class,
 	AllocateIdsPolicyTest.class,
-	DuplicateOperationsTest.class
+	DuplicateOperationsTest.class,
+	CreatedElementCaptureTest.class
 })
 public class AllRecordingTests {
 
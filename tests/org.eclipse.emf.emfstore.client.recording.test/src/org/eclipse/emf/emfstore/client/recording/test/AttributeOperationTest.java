@@ -17,6 +17,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
 
 import org.eclipse.emf.emfstore.bowling.BowlingFactory;
@@ -29,10 +30,15 @@ import org.eclipse.emf.emfstore.client.test.common.util.ProjectUtil;
 import org.eclipse.emf.emfstore.client.util.ESVoidCallable;
 import org.eclipse.emf.emfstore.client.util.RunESCommand;
 import org.eclipse.emf.emfstore.internal.client.model.exceptions.UnsupportedNotificationException;
+import org.eclipse.emf.emfstore.internal.client.model.impl.BulkApplyOperationsRunnable;
+import org.eclipse.emf.emfstore.internal.client.model.impl.ProjectSpaceBase;
 import org.eclipse.emf.emfstore.internal.client.model.util.EMFStoreCommand;
 import org.eclipse.emf.emfstore.internal.common.model.ModelElementId;
 import org.eclipse.emf.emfstore.internal.common.model.Project;
 import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.AbstractChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.ChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningFactory;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AbstractOperation;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AttributeOperation;
 import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.UnsetType;
@@ -134,6 +140,46 @@ public class AttributeOperationTest extends ESTest {
 		assertEquals(testElementId, attributeOperation.getModelElementId());
 	}
 
+	/**
+	 * Change attributes several times and apply the reversed operations in bulk, which only applies the last of the
+	 * consecutive changes of each attribute.
+	 *
+	 * @throws ESException on test fail
+	 */
+	@Test
+	public void bulkApplyReversedChanges() throws ESException {
+		final TestElement testElement = Create.testElement();
+		final TestElement otherElement = Create.testElement();
+		ProjectUtil.addElement(getProjectSpace().toAPI(), testElement);
+		ProjectUtil.addElement(getProjectSpace().toAPI(), otherElement);
+		ProjectUtil.clearOperations(getProjectSpace().toAPI());
+		final Project secondProject = ModelUtil.clone(getProject());
+
+		RunESCommand.run(new ESVoidCallable() {
+			@Override
+			public void run() {
+				testElement.setName(OLD_NAME);
+				testElement.setName(OTHER_NAME);
+				testElement.setName(NEW_NAME);
+				otherElement.setName(NAME);
+			}
+		});
+
+		final List<AbstractOperation> operations = forceGetOperations();
+		final ChangePackage changePackage = VersioningFactory.eINSTANCE.createChangePackage();
+		for (int i = operations.size() - 1; i >= 0; i--) {
+			changePackage.getOperations().add(operations.get(i).reverse());
+		}
+		final BulkApplyOperationsRunnable runnable = new BulkApplyOperationsRunnable(
+			(ProjectSpaceBase) getProjectSpace(), Collections.<AbstractChangePackage> singletonList(changePackage));
+		runnable.run();
+
+		assertEquals(2, runnable.getAppliedOperations());
+		assertEquals(2, runnable.getCoalescedOperations());
+		assertNull(testElement.getName());
+		assertTrue(ModelUtil.areEqual(getProject(), secondProject));
+	}
+
 	/**
 	 * Change an attribute and reverse the operation and check the result.
 	 *
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.client.recording.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.emf.emfstore.client.test.common.cases.ESTest;
+import org.eclipse.emf.emfstore.client.test.common.dsl.Create;
+import org.eclipse.emf.emfstore.internal.client.model.impl.OperationRecorderConfig;
+import org.eclipse.emf.emfstore.internal.client.model.util.EMFStoreCommand;
+import org.eclipse.emf.emfstore.internal.common.model.Project;
+import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AbstractOperation;
+import org.eclipse.emf.emfstore.server.ESCloseableIterable;
+import org.eclipse.emf.emfstore.test.model.TestElement;
+import org.junit.Test;
+
+/**
+ * Measures the throughput and the heap usage of adding a large containment tree to a project, with created trees being
+ * copied right away or lazily. The number of added elements can be configured via the system property
+ * {@code emfstore.benchmark.elements}.
+ */
+public class CreateCaptureBenchmark extends ESTest {
+
+	private static final int NR_OF_ELEMENTS = Integer.getInteger("emfstore.benchmark.elements", 50000); //$NON-NLS-1$
+	private static final int CHILDREN_PER_ELEMENT = 10;
+
+	@Test
+	public void benchmarkEagerCapture() {
+		runBenchmark(false);
+	}
+
+	@Test
+	public void benchmarkLazyCapture() {
+		runBenchmark(true);
+	}
+
+	private void runBenchmark(boolean lazy) {
+		final OperationRecorderConfig config = getProjectSpace().getOperationManager().getRecorderConfig();
+		final Boolean wasLazy = config.isLazyCreateCapture();
+		config.setLazyCreateCapture(lazy);
+		try {
+			final Project clonedProject = ModelUtil.clone(getProject());
+			final TestElement root = createTree();
+			final long[] addTime = new long[1];
+			final long[] usedHeap = new long[1];
+
+			final long time = System.nanoTime();
+			new EMFStoreCommand() {
+				@Override
+				protected void doRun() {
+					final long addStart = System.nanoTime();
+					getProject().addModelElement(root);
+					addTime[0] = System.nanoTime() - addStart;
+					usedHeap[0] = getUsedHeap();
+				}
+			}.run(false);
+			final long commandTime = System.nanoTime() - time;
+
+			assertEquals(NR_OF_ELEMENTS, getProject().getAllModelElements().size());
+			applyLocalOperations(clonedProject);
+			assertTrue(ModelUtil.areEqual(getProject(), clonedProject));
+
+			ModelUtil.logInfo("create capture - elements: " + NR_OF_ELEMENTS //$NON-NLS-1$
+				+ ", lazy: " + lazy //$NON-NLS-1$
+				+ ", add: " + addTime[0] / 1000000 + "ms" //$NON-NLS-1$ //$NON-NLS-2$
+				+ ", command: " + commandTime / 1000000 + "ms" //$NON-NLS-1$ //$NON-NLS-2$
+				+ ", elements/s: " + NR_OF_ELEMENTS * 1000000000L / Math.max(1, commandTime) //$NON-NLS-1$
+				+ ", used heap in command: " + usedHeap[0] / (1024 * 1024) + "MB"); //$NON-NLS-1$ //$NON-NLS-2$
+		} finally {
+			config.setLazyCreateCapture(wasLazy);
+		}
+	}
+
+	private static TestElement createTree() {
+		final TestElement root = Create.testElement("root"); //$NON-NLS-1$
+		TestElement parent = root;
+		for (int i = 1; i < NR_OF_ELEMENTS; i++) {
+			if (i % CHILDREN_PER_ELEMENT == 0) {
+				parent = parent.getContainedElements().get(0);
+			}
+			parent.getContainedElements().add(Create.testElement("element " + i)); //$NON-NLS-1$
+		}
+		return root;
+	}
+
+	private void applyLocalOperations(Project project) {
+		final ESCloseableIterable<AbstractOperation> operations = getProjectSpace().getLocalChangePackage()
+			.operations();
+		try {
+			for (final AbstractOperation operation : operations.iterable()) {
+				operation.apply(project);
+			}
+		} finally {
+			operations.close();
+		}
+	}
+
+	private static long getUsedHeap() {
+		final Runtime runtime = Runtime.getRuntime();
+		System.gc();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
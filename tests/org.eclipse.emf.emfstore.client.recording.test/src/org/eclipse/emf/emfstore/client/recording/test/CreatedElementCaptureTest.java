@@ -0,0 +1,320 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.client.recording.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.common.util.EMap;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.emfstore.internal.client.model.impl.CreatedElementCapture;
+import org.eclipse.emf.emfstore.internal.common.model.ModelElementId;
+import org.eclipse.emf.emfstore.internal.common.model.ModelFactory;
+import org.eclipse.emf.emfstore.internal.common.model.Project;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.CreateDeleteOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.OperationsFactory;
+import org.eclipse.emf.emfstore.test.model.TestElement;
+import org.eclipse.emf.emfstore.test.model.TestmodelFactory;
+import org.junit.Test;
+
+/**
+ * Tests that a deferred copy of a created containment tree equals a copy made right away, if the first change to the
+ * tree is passed to the capture.
+ */
+public class CreatedElementCaptureTest {
+
+	private static final int NR_OF_RUNS = 2000;
+	private static final int NR_OF_CHANGES = 19;
+
+	private final List<Notification> notifications = new ArrayList<Notification>();
+	private Project project;
+	private List<TestElement> tree;
+	private List<TestElement> others;
+	private int counter;
+
+	@Test
+	public void testUnchangedTree() {
+		final Random random = new Random(1);
+		final TestElement root = createProject(random);
+		final CreatedElementCapture eagerCapture = capture(root);
+		final CreatedElementCapture lazyCapture = capture(root);
+		eagerCapture.materialize(null);
+
+		project.addModelElement(createElement());
+		tree.get(0).setName("changed"); //$NON-NLS-1$
+		lazyCapture.materialize(null);
+
+		// the change after the capture is reflected since it has not been passed to the capture
+		assertEquals("changed", getCopy(lazyCapture, root, tree.get(0)).getName()); //$NON-NLS-1$
+		assertEquals(tree.size(), getIdMap(lazyCapture).size());
+	}
+
+	@Test
+	public void testChangeToOtherElementDoesNotAffectCapture() {
+		final Random random = new Random(2);
+		final TestElement root = createProject(random);
+		final CreatedElementCapture capture = capture(root);
+		notifications.clear();
+		others.get(0).setName("changed"); //$NON-NLS-1$
+		assertFalse(notifications.isEmpty());
+		for (final Notification notification : notifications) {
+			assertFalse(capture.isChangedBy(notification));
+		}
+	}
+
+	@Test
+	public void testRandomFirstChange() {
+		final Random random = new Random(15);
+		for (int run = 0; run < NR_OF_RUNS; run++) {
+			final TestElement root = createProject(random);
+			final CreatedElementCapture eagerCapture = capture(root);
+			final CreatedElementCapture lazyCapture = capture(root);
+			assertTrue(lazyCapture.isDeferrable());
+			eagerCapture.materialize(null);
+
+			notifications.clear();
+			final int change = random.nextInt(NR_OF_CHANGES);
+			applyChange(change, random);
+
+			Notification firstChange = null;
+			for (final Notification notification : notifications) {
+				if (lazyCapture.isChangedBy(notification)) {
+					firstChange = notification;
+					break;
+				}
+			}
+			lazyCapture.materialize(firstChange);
+
+			final String message = "run " + run + ", change " + change; //$NON-NLS-1$ //$NON-NLS-2$
+			assertTrue(message, EcoreUtil.equals(eagerCapture.getOperation().getModelElement(),
+				lazyCapture.getOperation().getModelElement()));
+			assertEqualIds(message, eagerCapture, lazyCapture);
+		}
+	}
+
+	private TestElement createProject(Random random) {
+		project = ModelFactory.eINSTANCE.createProject();
+		project.initMapping();
+		tree = new ArrayList<TestElement>();
+		others = new ArrayList<TestElement>();
+
+		final TestElement root = createElement();
+		tree.add(root);
+		for (int i = 0; i < 8; i++) {
+			final TestElement element = createElement();
+			final TestElement parent = tree.get(random.nextInt(tree.size()));
+			if (random.nextInt(4) == 0 && parent.getContainedElement() == null) {
+				parent.setContainedElement(element);
+			} else if (random.nextBoolean()) {
+				parent.getContainedElements().add(element);
+			} else {
+				parent.getContainedElements_NoOpposite().add(element);
+			}
+			tree.add(element);
+		}
+		for (int i = 0; i < 3; i++) {
+			final TestElement element = createElement();
+			project.addModelElement(element);
+			others.add(element);
+		}
+		project.addModelElement(root);
+
+		final List<TestElement> all = new ArrayList<TestElement>(tree);
+		all.addAll(others);
+		for (int i = 0; i < 10; i++) {
+			final TestElement source = all.get(random.nextInt(all.size()));
+			final TestElement target = all.get(random.nextInt(all.size()));
+			switch (random.nextInt(5)) {
+			case 0:
+				if (!source.getReferences().contains(target)) {
+					source.getReferences().add(target);
+				}
+				break;
+			case 1:
+				source.setReference(target);
+				break;
+			case 2:
+				source.setNonContained_NTo1(target);
+				break;
+			case 3:
+				if (!source.getNonContained_NToM().contains(target)) {
+					source.getNonContained_NToM().add(target);
+				}
+				break;
+			default:
+				source.getStrings().add(source.getName() + i);
+				break;
+			}
+		}
+
+		project.eAdapters().add(new EContentAdapter() {
+			@Override
+			public void notifyChanged(Notification notification) {
+				super.notifyChanged(notification);
+				notifications.add(notification);
+			}
+		});
+		return root;
+	}
+
+	private void applyChange(int change, Random random) {
+		final List<TestElement> all = new ArrayList<TestElement>(tree);
+		all.addAll(others);
+		final TestElement element = tree.get(random.nextInt(tree.size()));
+		final TestElement target = all.get(random.nextInt(all.size()));
+
+		switch (change) {
+		case 0:
+			element.setName(element.getName() + "'"); //$NON-NLS-1$
+			break;
+		case 1:
+			element.getStrings().add(0, "new"); //$NON-NLS-1$
+			break;
+		case 2:
+			if (!element.getStrings().isEmpty()) {
+				element.getStrings().remove(random.nextInt(element.getStrings().size()));
+			}
+			break;
+		case 3:
+			move(element.getReferences(), random);
+			break;
+		case 4:
+			if (!element.getReferences().contains(target)) {
+				element.getReferences().add(0, target);
+			}
+			break;
+		case 5:
+			element.getReferences().clear();
+			break;
+		case 6:
+			element.setReference(random.nextBoolean() ? target : null);
+			break;
+		case 7:
+			element.setNonContained_NTo1(target);
+			break;
+		case 8:
+			if (!target.getNonContained_1ToN().contains(element)) {
+				target.getNonContained_1ToN().add(element);
+			}
+			break;
+		case 9:
+			if (!target.getNonContained_NToM().contains(element)) {
+				target.getNonContained_NToM().add(element);
+			}
+			break;
+		case 10:
+			element.getContainedElements().add(createElement());
+			break;
+		case 11:
+			if (!EcoreUtil.isAncestor(target, element) && !element.getContainedElements().contains(target)) {
+				element.getContainedElements().add(0, target);
+			}
+			break;
+		case 12:
+			final EObject container = element.eContainer();
+			if (container instanceof TestElement) {
+				project.addModelElement(element);
+			}
+			break;
+		case 13:
+			move(element.getContainedElements(), random);
+			break;
+		case 14:
+			element.setContainedElement(random.nextBoolean() ? createElement() : null);
+			break;
+		case 15:
+			element.getFeatureMapReferences1().add(createElement());
+			break;
+		case 16:
+			final List<TestElement> children = new ArrayList<TestElement>(element.getContainedElements_NoOpposite());
+			if (children.size() > 1) {
+				element.getContainedElements_NoOpposite().removeAll(children.subList(0, 2));
+			}
+			break;
+		case 17:
+			element.getReferences().removeAll(new ArrayList<TestElement>(tree));
+			break;
+		default:
+			final List<TestElement> newElements = new ArrayList<TestElement>();
+			newElements.add(createElement());
+			newElements.add(createElement());
+			element.getContainedElements_NoOpposite().addAll(0, newElements);
+			break;
+		}
+	}
+
+	private static void move(EList<TestElement> list, Random random) {
+		if (list.size() > 1) {
+			list.move(random.nextInt(list.size()), random.nextInt(list.size()));
+		}
+	}
+
+	private TestElement createElement() {
+		final TestElement element = TestmodelFactory.eINSTANCE.createTestElement();
+		element.setName("element " + counter++); //$NON-NLS-1$
+		return element;
+	}
+
+	private CreatedElementCapture capture(TestElement root) {
+		final CreateDeleteOperation operation = OperationsFactory.eINSTANCE.createCreateDeleteOperation();
+		return new CreatedElementCapture(operation, root, project);
+	}
+
+	private static EMap<EObject, ModelElementId> getIdMap(CreatedElementCapture capture) {
+		return capture.getOperation().getEObjectToIdMap();
+	}
+
+	private static TestElement getCopy(CreatedElementCapture capture, TestElement root, TestElement element) {
+		final EObject copiedRoot = capture.getOperation().getModelElement();
+		if (element == root) {
+			return (TestElement) copiedRoot;
+		}
+		final Iterator<EObject> originals = root.eAllContents();
+		final Iterator<EObject> copies = copiedRoot.eAllContents();
+		while (originals.hasNext()) {
+			final EObject original = originals.next();
+			final EObject copy = copies.next();
+			if (original == element) {
+				return (TestElement) copy;
+			}
+		}
+		return null;
+	}
+
+	private static void assertEqualIds(String message, CreatedElementCapture expected, CreatedElementCapture actual) {
+		final EObject expectedRoot = expected.getOperation().getModelElement();
+		final EObject actualRoot = actual.getOperation().getModelElement();
+		assertEquals(message, getIdMap(expected).size(), getIdMap(actual).size());
+		assertEquals(message, getIdMap(expected).get(expectedRoot), getIdMap(actual).get(actualRoot));
+		final Iterator<EObject> expectedElements = expectedRoot.eAllContents();
+		final Iterator<EObject> actualElements = actualRoot.eAllContents();
+		while (expectedElements.hasNext()) {
+			final EObject expectedElement = expectedElements.next();
+			final EObject actualElement = actualElements.next();
+			final ModelElementId expectedId = getIdMap(expected).get(expectedElement);
+			if (expectedId != null) {
+				assertNotNull(message, getIdMap(actual).get(actualElement));
+				assertEquals(message, expectedId, getIdMap(actual).get(actualElement));
+			}
+		}
+	}
+}
@@ -192,4 +192,78 @@ public class OperationRecorderTest extends ComparingESTest {
 			Assert.assertEquals(1, getClonedProjectSpace().getProject().getModelElements().size());
 		}
 	}
+
+	/**
+	 * Test deferring the copy of a created element that is left unchanged within the command.
+	 */
+	@Test
+	public void lazyCreateCaptureOfUnchangedElement() {
+		getProjectSpace().getOperationManager().getRecorderConfig().setLazyCreateCapture(true);
+
+		final TestElement parent = Create.testElement();
+		final TestElement child = Create.testElement();
+		final TestElement other = Create.testElement();
+		parent.getContainedElements().add(child);
+		child.getReferences().add(parent);
+		child.getReferences().add(other);
+		Add.toProject(getLocalProject(), other);
+
+		RunESCommand.run(new ESVoidCallable() {
+			@Override
+			public void run() {
+				getProject().addModelElement(parent);
+			}
+		});
+
+		final CreateDeleteOperation createOperation = findCreateOperation(forceGetOperations());
+		assertEquals(2, createOperation.getEObjectToIdMap().size());
+		assertEquals(1, ((TestElement) createOperation.getModelElement()).getContainedElements().size());
+	}
+
+	/**
+	 * Test deferring the copy of a created element that is changed within the same command.
+	 */
+	@Test
+	public void lazyCreateCaptureOfChangedElement() {
+		getProjectSpace().getOperationManager().getRecorderConfig().setLazyCreateCapture(true);
+
+		final TestElement parent = Create.testElement("parent"); //$NON-NLS-1$
+		final TestElement child = Create.testElement();
+		final TestElement otherChild = Create.testElement();
+		parent.getContainedElements().add(child);
+		parent.getContainedElements().add(otherChild);
+
+		RunESCommand.run(new ESVoidCallable() {
+			@Override
+			public void run() {
+				getProject().addModelElement(parent);
+				parent.setName("renamed"); //$NON-NLS-1$
+				child.getReferences().add(otherChild);
+				parent.getContainedElements().move(0, 1);
+				getProject().addModelElement(child);
+			}
+		});
+
+		final CreateDeleteOperation createOperation = findCreateOperation(forceGetOperations());
+		final TestElement copiedParent = (TestElement) createOperation.getModelElement();
+		assertEquals("parent", copiedParent.getName()); //$NON-NLS-1$
+		assertEquals(2, copiedParent.getContainedElements().size());
+		assertTrue(copiedParent.getContainedElements().get(0).getReferences().isEmpty());
+	}
+
+	private static CreateDeleteOperation findCreateOperation(List<? extends AbstractOperation> operations) {
+		for (final AbstractOperation operation : operations) {
+			if (operation instanceof CreateDeleteOperation) {
+				return (CreateDeleteOperation) operation;
+			}
+			if (operation instanceof CompositeOperation) {
+				final CreateDeleteOperation result = findCreateOperation(
+					((CompositeOperation) operation).getSubOperations());
+				if (result != null) {
+					return result;
+				}
+			}
+		}
+		return null;
+	}
 }
@@ -27,7 +27,10 @@ import org.junit.runners.Suite;
 	ObserverBusTest.class,
 	ExtensionRegistryTest.class,
 	ProjectCacheTest.class,
-	ChangePackageUtilTest.class
+	ChangePackageUtilTest.class,
+	InverseReferenceIndexTest.class,
+	EObjectIdRegistryTest.class,
+	CommutativeChecksumTest.class
 })
 public class AllCommonTests {
 
@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.internal.client.test.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.ECollections;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.emfstore.internal.common.model.ModelElementId;
+import org.eclipse.emf.emfstore.internal.common.model.ModelFactory;
+import org.eclipse.emf.emfstore.internal.common.model.Project;
+import org.eclipse.emf.emfstore.internal.common.model.impl.ProjectImpl;
+import org.eclipse.emf.emfstore.internal.common.model.util.CommutativeChecksum;
+import org.eclipse.emf.emfstore.internal.common.model.util.CommutativeChecksumTracker;
+import org.eclipse.emf.emfstore.test.model.TestElement;
+import org.eclipse.emf.emfstore.test.model.TestmodelFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that the commutative checksum ignores the order of root elements and that updating it incrementally yields
+ * the checksum computed over the whole project.
+ */
+public class CommutativeChecksumTest {
+
+	private static final int NR_OF_ELEMENTS = 30;
+
+	private Project project;
+	private List<TestElement> elements;
+
+	@Before
+	public void before() {
+		project = ModelFactory.eINSTANCE.createProject();
+		project.initMapping();
+		elements = new ArrayList<TestElement>();
+		for (int i = 0; i < NR_OF_ELEMENTS; i++) {
+			elements.add(createElement(String.valueOf(i)));
+		}
+	}
+
+	@Test
+	public void testRootOrderDoesNotMatter() {
+		elements.get(0).getContainedElements().add(elements.get(1));
+		elements.get(0).getContainedElements().add(elements.get(2));
+		elements.get(3).getReferences().add(elements.get(2));
+		final Project copy = ((ProjectImpl) project).copy();
+		assertEquals(CommutativeChecksum.computeChecksum(project), CommutativeChecksum.computeChecksum(copy));
+
+		ECollections.reverse(copy.getModelElements());
+		assertEquals(CommutativeChecksum.computeChecksum(project), CommutativeChecksum.computeChecksum(copy));
+
+		// the order of children does matter
+		ECollections.reverse(((TestElement) copy.getModelElement(project.getModelElementId(elements.get(0))))
+			.getContainedElements());
+		assertFalse(CommutativeChecksum.computeChecksum(project) == CommutativeChecksum.computeChecksum(copy));
+	}
+
+	@Test
+	public void testContentChangesChecksum() {
+		final long checksum = CommutativeChecksum.computeChecksum(project);
+		elements.get(4).setDescription("changed"); //$NON-NLS-1$
+		assertFalse(checksum == CommutativeChecksum.computeChecksum(project));
+		elements.get(4).setDescription(null);
+		assertEquals(checksum, CommutativeChecksum.computeChecksum(project));
+
+		elements.get(5).setReference(elements.get(6));
+		assertFalse(checksum == CommutativeChecksum.computeChecksum(project));
+		elements.get(5).setReference(null);
+		assertEquals(checksum, CommutativeChecksum.computeChecksum(project));
+	}
+
+	@Test
+	public void testDeltaOfChangedElements() {
+		final Set<ModelElementId> changedIds = new LinkedHashSet<ModelElementId>();
+		changedIds.add(project.getModelElementId(elements.get(0)));
+		changedIds.add(project.getModelElementId(elements.get(1)));
+		final long checksumBefore = CommutativeChecksum.computeChecksum(project);
+		final long changedBefore = CommutativeChecksum.computeChecksum(project, changedIds);
+
+		elements.get(0).getContainedElements().add(elements.get(1));
+		elements.get(1).getStrings().add("value"); //$NON-NLS-1$
+
+		final long changedAfter = CommutativeChecksum.computeChecksum(project, changedIds);
+		assertEquals(CommutativeChecksum.computeChecksum(project), checksumBefore - changedBefore + changedAfter);
+	}
+
+	@Test
+	public void testTrackerFollowsRandomChanges() {
+		final CommutativeChecksumTracker tracker = new CommutativeChecksumTracker(project, false);
+		project.addIdEObjectCollectionChangeObserver(tracker);
+		assertEquals(CommutativeChecksum.computeChecksum(project), tracker.getChecksum());
+
+		final Random random = new Random(17);
+		for (int i = 0; i < 500; i++) {
+			final TestElement source = elements.get(random.nextInt(elements.size()));
+			final TestElement target = elements.get(random.nextInt(elements.size()));
+			switch (random.nextInt(10)) {
+			case 0:
+				source.setName(source.getName() + i);
+				break;
+			case 1:
+				source.setReference(random.nextBoolean() ? target : null);
+				break;
+			case 2:
+				source.getReferences().add(target);
+				break;
+			case 3:
+				source.getReferences().remove(target);
+				break;
+			case 4:
+				if (source != target && !isAncestor(target, source)) {
+					source.getContainedElements().add(target);
+				}
+				break;
+			case 5:
+				if (source.getContainedElements().size() > 1) {
+					source.getContainedElements().move(0, source.getContainedElements().size() - 1);
+				}
+				break;
+			case 6:
+				source.getStrings().add(String.valueOf(i));
+				break;
+			case 7:
+				if (project.contains(target)) {
+					final List<EObject> deleted = new ArrayList<EObject>();
+					deleted.add(target);
+					final TreeIterator<EObject> iterator = target.eAllContents();
+					while (iterator.hasNext()) {
+						deleted.add(iterator.next());
+					}
+					// like the operation recorder, remove references to the deleted elements as well
+					EcoreUtil.delete(target, true);
+					for (final EObject element : deleted) {
+						if (elements.remove(element)) {
+							elements.add(createElement("new " + i)); //$NON-NLS-1$
+						}
+					}
+				}
+				break;
+			case 8:
+				if (target.eContainer() != project && project.contains(target)) {
+					project.addModelElement(target);
+				}
+				break;
+			default:
+				source.getContainedElements().add(TestmodelFactory.eINSTANCE.createTestElement());
+				break;
+			}
+			if (random.nextInt(5) == 0) {
+				assertEquals(CommutativeChecksum.computeChecksum(project), tracker.getChecksum());
+			}
+		}
+		assertEquals(CommutativeChecksum.computeChecksum(project), tracker.getChecksum());
+	}
+
+	private TestElement createElement(String name) {
+		final TestElement element = TestmodelFactory.eINSTANCE.createTestElement();
+		element.setName(name);
+		project.addModelElement(element);
+		return element;
+	}
+
+	private static boolean isAncestor(EObject ancestor, EObject eObject) {
+		for (EObject current = eObject; current != null; current = current.eContainer()) {
+			if (current == ancestor) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
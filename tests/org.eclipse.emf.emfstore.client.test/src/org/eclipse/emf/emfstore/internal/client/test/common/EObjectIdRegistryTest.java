@@ -0,0 +1,379 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.internal.client.test.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.emfstore.internal.common.EObjectIdRegistry;
+import org.eclipse.emf.emfstore.test.model.TestElement;
+import org.eclipse.emf.emfstore.test.model.TestmodelFactory;
+import org.junit.Test;
+
+/**
+ * Tests that the views of an {@link EObjectIdRegistry} behave like two separate maps.
+ */
+public class EObjectIdRegistryTest {
+
+	private static final int NR_OF_ELEMENTS = 40;
+
+	@Test
+	public void testIdFormats() {
+		final EObjectIdRegistry registry = new EObjectIdRegistry();
+		final List<String> ids = new ArrayList<String>();
+		for (int i = 0; i < 100; i++) {
+			ids.add(EcoreUtil.generateUUID());
+			ids.add(UUID.randomUUID().toString());
+		}
+		ids.add("001"); //$NON-NLS-1$
+		ids.add(UUID.randomUUID().toString().toUpperCase());
+		ids.add("_" + EcoreUtil.generateUUID().substring(2) + "A"); //$NON-NLS-1$ //$NON-NLS-2$
+		ids.add(""); //$NON-NLS-1$
+
+		final List<TestElement> elements = new ArrayList<TestElement>();
+		for (final String id : ids) {
+			final TestElement element = TestmodelFactory.eINSTANCE.createTestElement();
+			elements.add(element);
+			registry.getEObjectToIdMap().put(element, id);
+			registry.getIdToEObjectMap().put(id, element);
+		}
+
+		assertEquals(ids.size(), registry.getEObjectToIdMap().size());
+		assertEquals(ids.size(), registry.getIdToEObjectMap().size());
+		for (int i = 0; i < ids.size(); i++) {
+			assertEquals(ids.get(i), registry.getEObjectToIdMap().get(elements.get(i)));
+			assertSame(elements.get(i), registry.getIdToEObjectMap().get(ids.get(i)));
+		}
+		assertEquals(ids, new ArrayList<String>(registry.getEObjectToIdMap().values()));
+		assertEquals(ids, new ArrayList<String>(registry.getIdToEObjectMap().keySet()));
+		assertNull(registry.getIdToEObjectMap().get(EcoreUtil.generateUUID()));
+		assertNull(registry.getIdToEObjectMap().get(ids.get(0).toUpperCase()));
+	}
+
+	@Test
+	public void testRandomChangesBehaveLikeMaps() {
+		final Random random = new Random(16);
+		final EObjectIdRegistry registry = new EObjectIdRegistry();
+		final Map<EObject, String> expectedEObjectToId = new LinkedHashMap<EObject, String>();
+		final Map<String, EObject> expectedIdToEObject = new LinkedHashMap<String, EObject>();
+		final Map<EObject, String> eObjectToId = registry.getEObjectToIdMap();
+		final Map<String, EObject> idToEObject = registry.getIdToEObjectMap();
+
+		final List<TestElement> elements = new ArrayList<TestElement>();
+		final List<String> ids = new ArrayList<String>();
+		for (int i = 0; i < NR_OF_ELEMENTS; i++) {
+			elements.add(TestmodelFactory.eINSTANCE.createTestElement());
+			ids.add(i % 5 == 0 ? "id" + i : EcoreUtil.generateUUID()); //$NON-NLS-1$
+		}
+
+		for (int i = 0; i < 5000; i++) {
+			final TestElement element = elements.get(random.nextInt(NR_OF_ELEMENTS));
+			// mostly consistent pairs
+			final String id = random.nextInt(10) == 0 ? ids.get(random.nextInt(NR_OF_ELEMENTS))
+				: ids.get(elements.indexOf(element));
+			switch (random.nextInt(9)) {
+			case 0:
+				assertEquals(expectedEObjectToId.put(element, id), eObjectToId.put(element, id));
+				assertEquals(expectedIdToEObject.put(id, element), idToEObject.put(id, element));
+				break;
+			case 1:
+				assertEquals(expectedEObjectToId.put(element, id), eObjectToId.put(element, id));
+				break;
+			case 2:
+				assertEquals(expectedIdToEObject.put(id, element), idToEObject.put(id, element));
+				break;
+			case 3:
+				assertEquals(expectedEObjectToId.remove(element), eObjectToId.remove(element));
+				break;
+			case 4:
+				assertEquals(expectedIdToEObject.remove(id), idToEObject.remove(id));
+				break;
+			case 5:
+				assertEquals(expectedEObjectToId.keySet().remove(element), eObjectToId.keySet().remove(element));
+				assertEquals(expectedIdToEObject.values().remove(element), idToEObject.values().remove(element));
+				break;
+			case 6:
+				assertEquals(expectedEObjectToId.values().remove(id), eObjectToId.values().remove(id));
+				break;
+			case 7:
+				expectedIdToEObject.keySet().removeAll(removeEverySecond(idToEObject.keySet().iterator()));
+				break;
+			default:
+				if (random.nextInt(20) == 0) {
+					expectedEObjectToId.clear();
+					eObjectToId.clear();
+				}
+				break;
+			}
+			assertEquals(expectedEObjectToId, eObjectToId);
+			assertEquals(expectedIdToEObject, idToEObject);
+			assertEquals(expectedEObjectToId.size(), eObjectToId.size());
+			assertEquals(expectedIdToEObject.size(), idToEObject.size());
+		}
+	}
+
+	@Test
+	public void testInsertionOrderAndRemoval() {
+		final EObjectIdRegistry registry = new EObjectIdRegistry();
+		final List<TestElement> elements = new ArrayList<TestElement>();
+		for (int i = 0; i < 1000; i++) {
+			final TestElement element = TestmodelFactory.eINSTANCE.createTestElement();
+			final String id = EcoreUtil.generateUUID();
+			registry.getEObjectToIdMap().put(element, id);
+			registry.getIdToEObjectMap().put(id, element);
+			elements.add(element);
+		}
+		for (int i = 0; i < 1000; i += 2) {
+			final String id = registry.getEObjectToIdMap().remove(elements.get(i));
+			assertSame(elements.get(i), registry.getIdToEObjectMap().remove(id));
+		}
+		final List<EObject> expected = new ArrayList<EObject>();
+		for (int i = 1; i < 1000; i += 2) {
+			expected.add(elements.get(i));
+		}
+		assertEquals(expected, new ArrayList<EObject>(registry.getEObjectToIdMap().keySet()));
+		assertEquals(expected, new ArrayList<EObject>(registry.getIdToEObjectMap().values()));
+	}
+
+	@Test
+	public void testCopyIsIndependent() {
+		final EObjectIdRegistry registry = new EObjectIdRegistry();
+		final TestElement element = TestmodelFactory.eINSTANCE.createTestElement();
+		final String id = EcoreUtil.generateUUID();
+		registry.getEObjectToIdMap().put(element, id);
+		registry.getIdToEObjectMap().put(id, element);
+
+		final EObjectIdRegistry copy = EObjectIdRegistry.copyOf(registry.getEObjectToIdMap(),
+			registry.getIdToEObjectMap());
+		assertSame(registry, EObjectIdRegistry.of(registry.getEObjectToIdMap(), registry.getIdToEObjectMap()));
+		registry.getEObjectToIdMap().clear();
+		registry.getIdToEObjectMap().clear();
+
+		assertTrue(registry.getEObjectToIdMap().isEmpty());
+		assertEquals(id, copy.getEObjectToIdMap().get(element));
+		assertSame(element, copy.getIdToEObjectMap().get(id));
+		assertFalse(copy.getIdToEObjectMap().containsKey(EcoreUtil.generateUUID()));
+	}
+
+	@Test
+	public void testIteratorRemoval() {
+		final EObjectIdRegistry registry = new EObjectIdRegistry();
+		final Map<EObject, String> expectedEObjectToId = new LinkedHashMap<EObject, String>();
+		final Map<String, EObject> expectedIdToEObject = new LinkedHashMap<String, EObject>();
+		putAll(registry, expectedEObjectToId, expectedIdToEObject, createMixedIds(NR_OF_ELEMENTS));
+		final Map<EObject, String> eObjectToId = registry.getEObjectToIdMap();
+		final Map<String, EObject> idToEObject = registry.getIdToEObjectMap();
+
+		assertEquals(removeEverySecond(expectedEObjectToId.entrySet().iterator()),
+			removeEverySecond(eObjectToId.entrySet().iterator()));
+		assertSameOrder(expectedEObjectToId, eObjectToId);
+		assertEquals(removeEverySecond(expectedIdToEObject.entrySet().iterator()),
+			removeEverySecond(idToEObject.entrySet().iterator()));
+		assertSameOrder(expectedIdToEObject, idToEObject);
+
+		assertEquals(removeEverySecond(expectedEObjectToId.keySet().iterator()),
+			removeEverySecond(eObjectToId.keySet().iterator()));
+		assertEquals(removeEverySecond(expectedIdToEObject.keySet().iterator()),
+			removeEverySecond(idToEObject.keySet().iterator()));
+		assertSameOrder(expectedEObjectToId, eObjectToId);
+		assertSameOrder(expectedIdToEObject, idToEObject);
+
+		assertEquals(removeEverySecond(expectedEObjectToId.values().iterator()),
+			removeEverySecond(eObjectToId.values().iterator()));
+		assertEquals(removeEverySecond(expectedIdToEObject.values().iterator()),
+			removeEverySecond(idToEObject.values().iterator()));
+		assertSameOrder(expectedEObjectToId, eObjectToId);
+		assertSameOrder(expectedIdToEObject, idToEObject);
+	}
+
+	@Test
+	public void testMixedIdKinds() {
+		final EObjectIdRegistry registry = new EObjectIdRegistry();
+		final Map<EObject, String> expectedEObjectToId = new LinkedHashMap<EObject, String>();
+		final Map<String, EObject> expectedIdToEObject = new LinkedHashMap<String, EObject>();
+		final List<String> ids = createMixedIds(NR_OF_ELEMENTS);
+		final List<TestElement> elements = putAll(registry, expectedEObjectToId, expectedIdToEObject, ids);
+
+		// remove IDs of every kind, the remaining ones must still be found
+		for (int i = 0; i < ids.size(); i += 3) {
+			assertSame(elements.get(i), registry.getIdToEObjectMap().remove(ids.get(i)));
+			expectedIdToEObject.remove(ids.get(i));
+			assertFalse(registry.getIdToEObjectMap().containsKey(ids.get(i)));
+			assertEquals(ids.get(i), registry.getEObjectToIdMap().get(elements.get(i)));
+		}
+		for (int i = 0; i < ids.size(); i++) {
+			assertEquals(expectedIdToEObject.get(ids.get(i)), registry.getIdToEObjectMap().get(ids.get(i)));
+			assertEquals(i % 3 != 0, registry.getIdToEObjectMap().containsValue(elements.get(i)));
+			assertTrue(registry.getEObjectToIdMap().containsValue(ids.get(i)));
+		}
+		assertSameOrder(expectedEObjectToId, registry.getEObjectToIdMap());
+		assertSameOrder(expectedIdToEObject, registry.getIdToEObjectMap());
+	}
+
+	@Test
+	public void testCopyOf() {
+		final Map<EObject, String> eObjectToId = new LinkedHashMap<EObject, String>();
+		final Map<String, EObject> idToEObject = new LinkedHashMap<String, EObject>();
+		final List<String> ids = createMixedIds(NR_OF_ELEMENTS);
+		for (final String id : ids) {
+			final TestElement element = TestmodelFactory.eINSTANCE.createTestElement();
+			eObjectToId.put(element, id);
+			idToEObject.put(id, element);
+		}
+
+		final EObjectIdRegistry registry = EObjectIdRegistry.copyOf(eObjectToId, idToEObject);
+		eObjectToId.remove(idToEObject.get(ids.get(0)));
+		idToEObject.remove(ids.get(1));
+		assertEquals(ids.size(), registry.getEObjectToIdMap().size());
+		assertEquals(ids, new ArrayList<String>(registry.getIdToEObjectMap().keySet()));
+
+		final EObjectIdRegistry copy = EObjectIdRegistry.copyOf(registry.getEObjectToIdMap(),
+			registry.getIdToEObjectMap());
+		assertSameOrder(registry.getEObjectToIdMap(), copy.getEObjectToIdMap());
+		assertSameOrder(registry.getIdToEObjectMap(), copy.getIdToEObjectMap());
+		copy.getIdToEObjectMap().remove(ids.get(2));
+		copy.getEObjectToIdMap().put(TestmodelFactory.eINSTANCE.createTestElement(), EcoreUtil.generateUUID());
+		assertTrue(registry.getIdToEObjectMap().containsKey(ids.get(2)));
+		assertEquals(ids.size(), registry.getEObjectToIdMap().size());
+		assertEquals(ids.size() + 1, copy.getEObjectToIdMap().size());
+	}
+
+	@Test
+	public void testEqualsAndHashCode() {
+		final EObjectIdRegistry registry = new EObjectIdRegistry();
+		final Map<EObject, String> expectedEObjectToId = new LinkedHashMap<EObject, String>();
+		final Map<String, EObject> expectedIdToEObject = new LinkedHashMap<String, EObject>();
+		final List<String> ids = createMixedIds(NR_OF_ELEMENTS);
+		putAll(registry, expectedEObjectToId, expectedIdToEObject, ids);
+
+		assertEqualMaps(expectedEObjectToId, registry.getEObjectToIdMap());
+		assertEqualMaps(expectedIdToEObject, registry.getIdToEObjectMap());
+
+		registry.getIdToEObjectMap().remove(ids.get(0));
+		assertFalse(expectedIdToEObject.equals(registry.getIdToEObjectMap()));
+		assertFalse(registry.getIdToEObjectMap().equals(expectedIdToEObject));
+		expectedIdToEObject.remove(ids.get(0));
+		assertEqualMaps(expectedIdToEObject, registry.getIdToEObjectMap());
+	}
+
+	@Test
+	public void testIterationOrderAfterRemovals() {
+		final EObjectIdRegistry registry = new EObjectIdRegistry();
+		final Map<EObject, String> expectedEObjectToId = new LinkedHashMap<EObject, String>();
+		final Map<String, EObject> expectedIdToEObject = new LinkedHashMap<String, EObject>();
+		final List<String> ids = createMixedIds(NR_OF_ELEMENTS);
+		final List<TestElement> elements = putAll(registry, expectedEObjectToId, expectedIdToEObject, ids);
+
+		// removed pairs are put again after new ones, so they move to the end
+		final List<String> removedIds = new ArrayList<String>();
+		for (int i = 0; i < ids.size(); i += 4) {
+			registry.getEObjectToIdMap().remove(elements.get(i));
+			registry.getIdToEObjectMap().remove(ids.get(i));
+			expectedEObjectToId.remove(elements.get(i));
+			expectedIdToEObject.remove(ids.get(i));
+			removedIds.add(ids.get(i));
+		}
+		assertSameOrder(expectedEObjectToId, registry.getEObjectToIdMap());
+		assertSameOrder(expectedIdToEObject, registry.getIdToEObjectMap());
+
+		putAll(registry, expectedEObjectToId, expectedIdToEObject, createMixedIds(5));
+		for (final String id : removedIds) {
+			final TestElement element = elements.get(ids.indexOf(id));
+			registry.getEObjectToIdMap().put(element, id);
+			registry.getIdToEObjectMap().put(id, element);
+			expectedEObjectToId.put(element, id);
+			expectedIdToEObject.put(id, element);
+		}
+		assertSameOrder(expectedEObjectToId, registry.getEObjectToIdMap());
+		assertSameOrder(expectedIdToEObject, registry.getIdToEObjectMap());
+	}
+
+	/**
+	 * Creates EMF UUIDs, UUIDs and other IDs, in alternating order.
+	 */
+	private static List<String> createMixedIds(int count) {
+		final List<String> ids = new ArrayList<String>();
+		for (int i = 0; i < count; i++) {
+			switch (i % 4) {
+			case 0:
+				ids.add(EcoreUtil.generateUUID());
+				break;
+			case 1:
+				ids.add(UUID.randomUUID().toString());
+				break;
+			case 2:
+				ids.add("id" + i + "-" + UUID.randomUUID()); //$NON-NLS-1$ //$NON-NLS-2$
+				break;
+			default:
+				ids.add(UUID.randomUUID().toString().toUpperCase());
+				break;
+			}
+		}
+		return ids;
+	}
+
+	private static List<TestElement> putAll(EObjectIdRegistry registry, Map<EObject, String> expectedEObjectToId,
+		Map<String, EObject> expectedIdToEObject, List<String> ids) {
+		final List<TestElement> elements = new ArrayList<TestElement>();
+		for (final String id : ids) {
+			final TestElement element = TestmodelFactory.eINSTANCE.createTestElement();
+			elements.add(element);
+			registry.getEObjectToIdMap().put(element, id);
+			registry.getIdToEObjectMap().put(id, element);
+			expectedEObjectToId.put(element, id);
+			expectedIdToEObject.put(id, element);
+		}
+		return elements;
+	}
+
+	private static <K, V> void assertSameOrder(Map<K, V> expected, Map<K, V> actual) {
+		assertEquals(new ArrayList<K>(expected.keySet()), new ArrayList<K>(actual.keySet()));
+		assertEquals(new ArrayList<V>(expected.values()), new ArrayList<V>(actual.values()));
+		assertEquals(new ArrayList<Map.Entry<K, V>>(expected.entrySet()),
+			new ArrayList<Map.Entry<K, V>>(actual.entrySet()));
+	}
+
+	private static <K, V> void assertEqualMaps(Map<K, V> expected, Map<K, V> actual) {
+		assertTrue(expected.equals(actual));
+		assertTrue(actual.equals(expected));
+		assertEquals(expected.hashCode(), actual.hashCode());
+		assertTrue(expected.entrySet().equals(actual.entrySet()));
+		assertTrue(actual.entrySet().equals(expected.entrySet()));
+		assertTrue(actual.keySet().equals(expected.keySet()));
+	}
+
+	private static <T> List<T> removeEverySecond(Iterator<T> iterator) {
+		final List<T> removed = new ArrayList<T>();
+		boolean remove = false;
+		while (iterator.hasNext()) {
+			final T next = iterator.next();
+			if (remove) {
+				iterator.remove();
+				removed.add(next);
+			}
+			remove = !remove;
+		}
+		return removed;
+	}
+}
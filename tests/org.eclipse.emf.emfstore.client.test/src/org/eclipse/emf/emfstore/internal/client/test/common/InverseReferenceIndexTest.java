@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.internal.client.test.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature.Setting;
+import org.eclipse.emf.ecore.util.EcoreUtil.UsageCrossReferencer;
+import org.eclipse.emf.emfstore.internal.common.model.ModelFactory;
+import org.eclipse.emf.emfstore.internal.common.model.Project;
+import org.eclipse.emf.emfstore.test.model.TestElement;
+import org.eclipse.emf.emfstore.test.model.TestmodelFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that the inverse reference index of a project returns the same references as a search of the whole project.
+ */
+public class InverseReferenceIndexTest {
+
+	private static final int NR_OF_ELEMENTS = 30;
+
+	private Project project;
+	private List<TestElement> elements;
+
+	@Before
+	public void before() {
+		project = ModelFactory.eINSTANCE.createProject();
+		project.initMapping();
+		elements = new ArrayList<TestElement>();
+		for (int i = 0; i < NR_OF_ELEMENTS; i++) {
+			final TestElement element = TestmodelFactory.eINSTANCE.createTestElement();
+			element.setName(String.valueOf(i));
+			elements.add(element);
+			project.addModelElement(element);
+		}
+	}
+
+	@Test
+	public void testSingleAndMultiReferences() {
+		final TestElement source = elements.get(0);
+		final TestElement target = elements.get(1);
+		source.setReference(target);
+		source.getReferences().add(target);
+		source.getReferences().add(elements.get(2));
+		assertEquals(2, project.findInverseCrossReferences(target).size());
+
+		source.getReferences().remove(target);
+		assertEquals(1, project.findInverseCrossReferences(target).size());
+		source.setReference(null);
+		assertTrue(project.findInverseCrossReferences(target).isEmpty());
+		assertIndexMatchesSearch();
+	}
+
+	@Test
+	public void testReferencesFromRemovedElements() {
+		final TestElement container = elements.get(0);
+		final TestElement child = elements.get(1);
+		final TestElement target = elements.get(2);
+		container.getContainedElements().add(child);
+		child.getReferences().add(target);
+		target.setReference(child);
+		assertEquals(1, project.findInverseCrossReferences(target).size());
+
+		// references from removed elements are dropped, references to them are kept
+		project.getModelElements().remove(container);
+		assertTrue(project.findInverseCrossReferences(target).isEmpty());
+		assertEquals(1, project.findInverseCrossReferences(child).size());
+		assertIndexMatchesSearch();
+
+		project.addModelElement(container);
+		assertEquals(1, project.findInverseCrossReferences(target).size());
+		assertIndexMatchesSearch();
+	}
+
+	@Test
+	public void testDeleteModelElement() {
+		final TestElement target = elements.get(0);
+		for (int i = 1; i < NR_OF_ELEMENTS; i++) {
+			elements.get(i).getReferences().add(target);
+		}
+		assertEquals(NR_OF_ELEMENTS - 1, project.findInverseCrossReferences(target).size());
+
+		project.deleteModelElement(target);
+		assertTrue(project.findInverseCrossReferences(target).isEmpty());
+		assertIndexMatchesSearch();
+	}
+
+	@Test
+	public void testRandomChanges() {
+		final Random random = new Random(13);
+		// build the index before changing anything
+		project.findInverseCrossReferences(elements.get(0));
+		for (int i = 0; i < 500; i++) {
+			final TestElement source = elements.get(random.nextInt(NR_OF_ELEMENTS));
+			final TestElement target = elements.get(random.nextInt(NR_OF_ELEMENTS));
+			switch (random.nextInt(7)) {
+			case 0:
+				source.setReference(random.nextBoolean() ? target : null);
+				break;
+			case 1:
+				source.getReferences().add(target);
+				break;
+			case 2:
+				source.getReferences().remove(target);
+				break;
+			case 3:
+				source.getNonContained_NToM().add(target);
+				break;
+			case 4:
+				source.setOtherReference(target);
+				break;
+			case 5:
+				if (source != target && !isAncestor(target, source)) {
+					source.getContainedElements().add(target);
+				}
+				break;
+			default:
+				if (target.eContainer() != project && project.contains(target)) {
+					project.addModelElement(target);
+				}
+				break;
+			}
+			assertIndexMatchesSearch();
+		}
+	}
+
+	private static boolean isAncestor(EObject ancestor, EObject eObject) {
+		for (EObject current = eObject; current != null; current = current.eContainer()) {
+			if (current == ancestor) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void assertIndexMatchesSearch() {
+		for (final TestElement element : elements) {
+			final List<String> expected = describe(UsageCrossReferencer.find(element, project));
+			final List<String> actual = describe(project.findInverseCrossReferences(element));
+			assertEquals(element.getName(), sorted(expected), sorted(actual));
+		}
+	}
+
+	private static List<String> describe(Collection<Setting> settings) {
+		final List<String> result = new ArrayList<String>();
+		for (final Setting setting : settings) {
+			final EReference reference = (EReference) setting.getEStructuralFeature();
+			if (reference.isTransient() || reference.isDerived()) {
+				continue;
+			}
+			result.add(((TestElement) setting.getEObject()).getName() + "." + reference.getName()); //$NON-NLS-1$
+		}
+		return result;
+	}
+
+	private static List<String> sorted(List<String> list) {
+		Collections.sort(list);
+		return list;
+	}
+}
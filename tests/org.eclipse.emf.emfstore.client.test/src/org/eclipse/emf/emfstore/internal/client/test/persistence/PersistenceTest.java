@@ -11,18 +11,23 @@
 package org.eclipse.emf.emfstore.internal.client.test.persistence;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.xmi.XMLHelper;
+import org.eclipse.emf.emfstore.client.ESLocalProject;
+import org.eclipse.emf.emfstore.client.ESWorkspaceProvider;
 import org.eclipse.emf.emfstore.client.test.common.cases.ESTest;
 import org.eclipse.emf.emfstore.client.test.common.dsl.Add;
 import org.eclipse.emf.emfstore.client.test.common.dsl.Create;
 import org.eclipse.emf.emfstore.internal.client.model.Configuration;
 import org.eclipse.emf.emfstore.internal.client.model.ESWorkspaceProviderImpl;
 import org.eclipse.emf.emfstore.internal.client.model.Workspace;
+import org.eclipse.emf.emfstore.internal.client.model.impl.ProjectSpaceBase;
 import org.eclipse.emf.emfstore.internal.common.EMFStoreResource;
 import org.eclipse.emf.emfstore.internal.common.EMFStoreResourceHelper;
 import org.eclipse.emf.emfstore.internal.common.model.Project;
@@ -47,6 +52,80 @@ public class PersistenceTest extends ESTest {
 		assertTrue(ModelUtil.areEqual(project, originalProject));
 	}
 
+	@Test
+	public void testReplayJournaledOperations() throws SerializationException {
+		final boolean autoSave = Configuration.getClientBehavior().isAutoSaveEnabled();
+		Configuration.getClientBehavior().setAutoSave(true);
+		Configuration.getClientBehavior().setProjectSnapshotInterval(100);
+		try {
+			// the first save saves the whole project, the following ones only the local operations
+			Add.toProject(getLocalProject(), Create.testElement());
+			Add.toProject(getLocalProject(), Create.testElement());
+			Add.toProject(getLocalProject(), Create.testElement());
+			final Project expectedProject = ModelUtil.clone(getProject());
+
+			ESWorkspaceProviderImpl.getInstance().dispose();
+			ESWorkspaceProviderImpl.getInstance().load();
+			final Workspace internalWorkspace = ESWorkspaceProviderImpl.getInstance().getWorkspace().toInternalAPI();
+			final Project project = internalWorkspace.getProjectSpaces().get(0).getProject();
+			assertEquals(3, project.getModelElements().size());
+			assertTrue(ModelUtil.areEqual(project, expectedProject));
+		} finally {
+			Configuration.getClientBehavior().setProjectSnapshotInterval(1);
+			Configuration.getClientBehavior().setAutoSave(autoSave);
+		}
+	}
+
+	@Test
+	public void testLazyProjectSpaceInit() {
+		Add.toProject(getLocalProject(), Create.testElement());
+		getLocalProject().save();
+		final boolean lazyInit = Configuration.getClientBehavior().isLazyProjectSpaceInitActivated();
+		Configuration.getClientBehavior().setLazyProjectSpaceInit(true);
+		try {
+			ESWorkspaceProviderImpl.getInstance().dispose();
+			ESWorkspaceProviderImpl.getInstance().load();
+			final ESLocalProject localProject = ESWorkspaceProvider.INSTANCE.getWorkspace().getLocalProjects().get(0);
+			final ProjectSpaceBase projectSpace = (ProjectSpaceBase) ESWorkspaceProviderImpl.getInstance()
+				.getWorkspace().toInternalAPI().getProjectSpaces().get(0);
+			assertTrue(projectSpace.isInitDeferred());
+
+			// metadata does not require the project space to be initialized
+			assertEquals(projectSpace.getProjectName(), localProject.getProjectName());
+			assertFalse(localProject.isShared());
+			assertTrue(projectSpace.isInitDeferred());
+
+			assertEquals(1, localProject.getModelElements().size());
+			assertFalse(projectSpace.isInitDeferred());
+
+			// changes are recorded
+			final int operations = projectSpace.getLocalChangePackage().size();
+			Add.toProject(localProject, Create.testElement());
+			assertEquals(operations + 1, projectSpace.getLocalChangePackage().size());
+		} finally {
+			Configuration.getClientBehavior().setLazyProjectSpaceInit(lazyInit);
+		}
+	}
+
+	@Test
+	public void testLazyProjectSpaceInitUponProjectLoad() {
+		final boolean lazyInit = Configuration.getClientBehavior().isLazyProjectSpaceInitActivated();
+		Configuration.getClientBehavior().setLazyProjectSpaceInit(true);
+		try {
+			ESWorkspaceProviderImpl.getInstance().dispose();
+			ESWorkspaceProviderImpl.getInstance().load();
+			final ProjectSpaceBase projectSpace = (ProjectSpaceBase) ESWorkspaceProviderImpl.getInstance()
+				.getWorkspace().toInternalAPI().getProjectSpaces().get(0);
+			assertTrue(projectSpace.isInitDeferred());
+
+			final Project project = projectSpace.getProject();
+			assertFalse(projectSpace.isInitDeferred());
+			assertSame(projectSpace, ESWorkspaceProviderImpl.getProjectSpace(project));
+		} finally {
+			Configuration.getClientBehavior().setLazyProjectSpaceInit(lazyInit);
+		}
+	}
+
 	/**
 	 * Checks whether the XMLHelper used by the {@link EMFStoreResource} is an {@link EMFStoreResourceHelper}.
 	 *
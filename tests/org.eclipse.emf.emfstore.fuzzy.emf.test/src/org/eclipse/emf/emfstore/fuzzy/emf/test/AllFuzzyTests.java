@@ -27,6 +27,7 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({
 	CrossResourceReferencesMutatorTest.class,
 	OperationApplyTest.class,
+	OperationCompactionTest.class,
 	OperationReverseTest.class,
 	MutatorTest.class,
 	ESXMIResourceDataProviderTest.class,
@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.fuzzy.emf.test;
+
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.emf.emfstore.fuzzy.emf.ESEMFDataProvider;
+import org.eclipse.emf.emfstore.fuzzy.emf.junit.Annotations.DataProvider;
+import org.eclipse.emf.emfstore.fuzzy.emf.junit.ESFuzzyRunner;
+import org.eclipse.emf.emfstore.internal.client.model.ProjectSpace;
+import org.eclipse.emf.emfstore.internal.client.model.impl.ProjectSpaceBase;
+import org.eclipse.emf.emfstore.internal.client.model.util.EMFStoreCommand;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.ChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningFactory;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AbstractOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.util.OperationsCompactor;
+import org.eclipse.emf.emfstore.modelmutator.ESModelMutatorConfiguration;
+import org.eclipse.emf.emfstore.server.ESCloseableIterable;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * ESFuzzyTest which mutates a project, compacts its changes and then applies the compacted changes to another
+ * (copied) project. Then compares the two mutated projects. A small window is used, so that operations are compacted
+ * across several windows.
+ */
+@RunWith(ESFuzzyRunner.class)
+@DataProvider(ESEMFDataProvider.class)
+public class OperationCompactionTest extends FuzzyProjectTest {
+
+	private static final int WINDOW_SIZE = 16;
+
+	/***/
+	@Test
+	public void compactionTest() {
+
+		final ProjectSpace projectSpace = getProjectSpace();
+		final ESModelMutatorConfiguration mmc = getModelMutatorConfiguration(projectSpace
+			.getProject());
+
+		new EMFStoreCommand() {
+			@Override
+			protected void doRun() {
+				getUtil().mutate(mmc);
+			}
+		}.run(false);
+
+		final OperationsCompactor compactor = new OperationsCompactor(WINDOW_SIZE);
+		final ChangePackage compactedChangePackage = VersioningFactory.eINSTANCE.createChangePackage();
+		final ESCloseableIterable<AbstractOperation> operations = projectSpace.getLocalChangePackage().operations();
+		try {
+			compactor.compact(operations.iterable(), compactedChangePackage);
+		} finally {
+			operations.close();
+		}
+		assertTrue(compactor.getCompactedOperationCount() <= compactor.getOperationCount());
+
+		final ProjectSpace copyProjectSpace = getCopyProjectSpace();
+		new EMFStoreCommand() {
+			@Override
+			protected void doRun() {
+				((ProjectSpaceBase) copyProjectSpace).applyOperations(
+					compactedChangePackage.getOperations(), false);
+			}
+		}.run(false);
+
+		compareIgnoreOrder(projectSpace.getProject(),
+			copyProjectSpace.getProject());
+	}
+}
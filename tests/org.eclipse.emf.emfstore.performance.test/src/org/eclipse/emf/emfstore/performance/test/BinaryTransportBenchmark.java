@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.performance.test;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+import org.apache.xmlrpc.XmlRpcException;
+import org.apache.xmlrpc.parser.TypeParser;
+import org.apache.xmlrpc.serializer.TypeSerializer;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.emfstore.client.test.common.cases.ESTestWithLoggedInUserMock;
+import org.eclipse.emf.emfstore.client.util.ESVoidCallable;
+import org.eclipse.emf.emfstore.client.util.RunESCommand;
+import org.eclipse.emf.emfstore.fuzzy.emf.junit.ESDefaultModelMutator;
+import org.eclipse.emf.emfstore.internal.client.model.ESWorkspaceProviderImpl;
+import org.eclipse.emf.emfstore.internal.common.model.Project;
+import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
+import org.eclipse.emf.emfstore.internal.server.connection.xmlrpc.util.BinaryEObjectDeserializer;
+import org.eclipse.emf.emfstore.internal.server.connection.xmlrpc.util.BinaryEObjectSerializer;
+import org.eclipse.emf.emfstore.internal.server.connection.xmlrpc.util.EObjectDeserializer;
+import org.eclipse.emf.emfstore.internal.server.connection.xmlrpc.util.EObjectSerializer;
+import org.eclipse.emf.emfstore.modelmutator.ESModelMutatorConfiguration;
+import org.eclipse.emf.emfstore.modelmutator.ESModelMutatorUtil;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Compares the XMI based transport of EObjects with the binary transport of the
+ * {@link org.eclipse.emf.emfstore.internal.server.connection.xmlrpc.XmlRpcBinaryConnectionHandler
+ * XmlRpcBinaryConnectionHandler} by transferring a generated project, which is the payload of a checkout. Since the
+ * test server is connected in-process, the transfer is measured as the time needed to write the XML RPC value on the
+ * sending side and to parse it on the receiving side.
+ */
+public class BinaryTransportBenchmark extends ESTestWithLoggedInUserMock {
+
+	private static final String MODEL_KEY = "http://org/eclipse/example/bowling"; //$NON-NLS-1$
+	private static final int PROJECT_SIZE = 10000;
+	private static final int NUM_ITERATIONS = 5;
+	private static final long SEED = 1234567800L;
+
+	@BeforeClass
+	public static void beforeClass() {
+		startEMFStore();
+	}
+
+	@AfterClass
+	public static void afterClass() {
+		stopEMFStore();
+	}
+
+	@Override
+	public void before() {
+		super.before();
+		generateModel(getProjectSpace().getProject());
+	}
+
+	@Test
+	public void benchmarkCheckoutPayload() throws SAXException, XmlRpcException {
+		final Project project = getProjectSpace().getProject();
+
+		transfer("XMI", new EObjectSerializer(), new EObjectDeserializer(), project); //$NON-NLS-1$
+		transfer("binary", new BinaryEObjectSerializer(false), new BinaryEObjectDeserializer(), project); //$NON-NLS-1$
+		transfer("binary compressed", new BinaryEObjectSerializer(true), new BinaryEObjectDeserializer(), project); //$NON-NLS-1$
+	}
+
+	private static void transfer(String format, TypeSerializer serializer, TypeParser parser, Project project)
+		throws SAXException, XmlRpcException {
+		long writeTime = 0;
+		long parseTime = 0;
+		int payloadSize = 0;
+		Project received = null;
+
+		for (int i = 0; i < NUM_ITERATIONS; i++) {
+			final ValueRecorder recorder = new ValueRecorder();
+			long time = System.nanoTime();
+			serializer.write(recorder, project);
+			writeTime += System.nanoTime() - time;
+			payloadSize = recorder.payload.length();
+
+			time = System.nanoTime();
+			received = (Project) recorder.replay(parser);
+			parseTime += System.nanoTime() - time;
+		}
+
+		assertTrue(ModelUtil.areEqual(project, received));
+		ModelUtil.logInfo("checkout payload - format: " + format + ", elements: " //$NON-NLS-1$ //$NON-NLS-2$
+			+ project.getAllModelElements().size() + ", payload: " + payloadSize / 1024 + "KB, write: " //$NON-NLS-1$ //$NON-NLS-2$
+			+ writeTime / NUM_ITERATIONS / 1000000 + "ms, parse: " + parseTime / NUM_ITERATIONS / 1000000 //$NON-NLS-1$
+			+ "ms"); //$NON-NLS-1$
+	}
+
+	private static void generateModel(Project project) {
+		final ESModelMutatorConfiguration mmc = new ESModelMutatorConfiguration(
+			ESModelMutatorUtil.getEPackage(MODEL_KEY), project, SEED);
+		mmc.setMaxDeleteCount(1);
+		mmc.setUseEcoreUtilDelete(false);
+		mmc.setMinObjectsCount(PROJECT_SIZE);
+		mmc.setEditingDomain(ESWorkspaceProviderImpl.getInstance().getInternalWorkspace().getEditingDomain());
+		final Collection<EStructuralFeature> features = new ArrayList<EStructuralFeature>();
+		features.add(org.eclipse.emf.emfstore.internal.common.model.ModelPackage.eINSTANCE.getProject_CutElements());
+		mmc.seteStructuralFeaturesToIgnore(features);
+
+		RunESCommand.run(new ESVoidCallable() {
+			@Override
+			public void run() {
+				ESDefaultModelMutator.generateModel(mmc);
+			}
+		});
+	}
+
+	/**
+	 * Records the Base64 payload of a serialized XML RPC value, so it can be fed into a parser afterwards.
+	 */
+	private static final class ValueRecorder extends DefaultHandler {
+
+		private static final String NO_NAMESPACE = ""; //$NON-NLS-1$
+
+		private final StringBuilder payload = new StringBuilder();
+		private String tag;
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes) {
+			tag = localName;
+		}
+
+		@Override
+		public void characters(char[] ch, int start, int length) {
+			payload.append(ch, start, length);
+		}
+
+		Object replay(TypeParser parser) throws SAXException, XmlRpcException {
+			final char[] chars = new char[payload.length()];
+			payload.getChars(0, chars.length, chars, 0);
+			parser.startDocument();
+			parser.startElement(NO_NAMESPACE, tag, tag, new AttributesImpl());
+			parser.characters(chars, 0, chars.length);
+			parser.endElement(NO_NAMESPACE, tag, tag);
+			parser.endDocument();
+			return parser.getResult();
+		}
+	}
+}
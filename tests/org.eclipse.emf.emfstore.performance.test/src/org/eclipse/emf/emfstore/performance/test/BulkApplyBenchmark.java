@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.performance.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.emf.emfstore.client.ESLocalProject;
+import org.eclipse.emf.emfstore.client.ESWorkspaceProvider;
+import org.eclipse.emf.emfstore.client.util.ESVoidCallable;
+import org.eclipse.emf.emfstore.client.util.RunESCommand;
+import org.eclipse.emf.emfstore.internal.client.model.Configuration;
+import org.eclipse.emf.emfstore.internal.client.model.impl.ProjectSpaceBase;
+import org.eclipse.emf.emfstore.internal.client.model.impl.api.ESLocalProjectImpl;
+import org.eclipse.emf.emfstore.internal.common.model.Project;
+import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.AbstractChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.ChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningFactory;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.Versions;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AttributeOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.OperationsFactory;
+import org.eclipse.emf.emfstore.server.exceptions.ESException;
+import org.eclipse.emf.emfstore.test.model.TestElement;
+import org.eclipse.emf.emfstore.test.model.TestmodelFactory;
+import org.junit.Test;
+
+/**
+ * Compares the throughput of applying the incoming operations of an update, once one by one and once in bulk. The
+ * incoming operations rename the elements of the project, several times in a row per element, as recorded while a
+ * user types a name. The number of incoming operations can be configured via the system property
+ * {@code emfstore.benchmark.operations}.
+ */
+public class BulkApplyBenchmark {
+
+	private static final int NR_OF_OPERATIONS = Integer.getInteger("emfstore.benchmark.operations", 100000); //$NON-NLS-1$
+	private static final int NR_OF_ELEMENTS = 1000;
+	private static final int RENAMES_PER_ELEMENT = 5;
+
+	@Test
+	public void benchmarkApply() throws IOException, ESException {
+		final boolean bulkApply = Configuration.getClientBehavior().isBulkApplyActivated();
+		final ESLocalProject localProject = ESWorkspaceProvider.INSTANCE.getWorkspace()
+			.createLocalProject("bulk apply benchmark"); //$NON-NLS-1$
+		try {
+			RunESCommand.run(new ESVoidCallable() {
+				@Override
+				public void run() {
+					for (int i = 0; i < NR_OF_ELEMENTS; i++) {
+						final TestElement element = TestmodelFactory.eINSTANCE.createTestElement();
+						element.setName("element " + i); //$NON-NLS-1$
+						localProject.getModelElements().add(element);
+					}
+				}
+			});
+			final ProjectSpaceBase projectSpace = (ProjectSpaceBase) ((ESLocalProjectImpl) localProject)
+				.toInternalAPI();
+
+			final long singleTime = apply(projectSpace, false);
+			final long bulkTime = apply(projectSpace, true);
+
+			ModelUtil.logInfo("apply incoming operations - operations: " + NR_OF_OPERATIONS //$NON-NLS-1$
+				+ ", single: " + NR_OF_OPERATIONS * 1000000000L / Math.max(1, singleTime) + " ops/s" //$NON-NLS-1$ //$NON-NLS-2$
+				+ ", bulk: " + NR_OF_OPERATIONS * 1000000000L / Math.max(1, bulkTime) + " ops/s"); //$NON-NLS-1$ //$NON-NLS-2$
+		} finally {
+			Configuration.getClientBehavior().setBulkApply(bulkApply);
+			localProject.delete(new NullProgressMonitor());
+		}
+	}
+
+	private static long apply(ProjectSpaceBase projectSpace, boolean bulkApply) throws ESException {
+		final String prefix = bulkApply ? "bulk " : "single "; //$NON-NLS-1$ //$NON-NLS-2$
+		final Project project = projectSpace.getProject();
+		final ChangePackage changePackage = VersioningFactory.eINSTANCE.createChangePackage();
+		for (int i = 0; i < NR_OF_OPERATIONS; i++) {
+			final TestElement element = getElement(project, i / RENAMES_PER_ELEMENT % NR_OF_ELEMENTS);
+			final AttributeOperation operation = OperationsFactory.eINSTANCE.createAttributeOperation();
+			operation.setModelElementId(ModelUtil.clone(project.getModelElementId(element)));
+			operation.setFeatureName("name"); //$NON-NLS-1$
+			operation.setNewValue(prefix + i);
+			changePackage.getOperations().add(operation);
+		}
+		final List<AbstractChangePackage> incoming = Collections.<AbstractChangePackage> singletonList(changePackage);
+
+		Configuration.getClientBehavior().setBulkApply(bulkApply);
+		final long time = System.nanoTime();
+		projectSpace.applyChanges(Versions.createPRIMARY(0), incoming,
+			VersioningFactory.eINSTANCE.createChangePackage(), new NullProgressMonitor(), false);
+		final long elapsed = System.nanoTime() - time;
+
+		final int lastIndex = NR_OF_OPERATIONS - 1;
+		assertEquals(prefix + lastIndex,
+			getElement(project, lastIndex / RENAMES_PER_ELEMENT % NR_OF_ELEMENTS).getName());
+		return elapsed;
+	}
+
+	private static TestElement getElement(Project project, int index) {
+		return (TestElement) project.getModelElements().get(index);
+	}
+}
@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.performance.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.xmlrpc.XmlRpcException;
+import org.apache.xmlrpc.client.XmlRpcClient;
+import org.apache.xmlrpc.client.XmlRpcClientConfigImpl;
+import org.apache.xmlrpc.server.PropertyHandlerMapping;
+import org.apache.xmlrpc.webserver.WebServer;
+import org.eclipse.emf.emfstore.internal.client.model.connectionmanager.xmlrpc.ChangePackageFragmentTransfer;
+import org.eclipse.emf.emfstore.internal.client.model.connectionmanager.xmlrpc.ChangePackageFragmentTransfer.FragmentConnection;
+import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
+import org.eclipse.emf.emfstore.internal.server.core.subinterfaces.ChangePackageFragmentUploadAdapter;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.ChangePackageEnvelope;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.FileBasedChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningFactory;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AttributeOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.OperationsFactory;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.util.ChangePackageUtil;
+import org.eclipse.emf.emfstore.server.exceptions.ESException;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Measures uploads and downloads of a fragmented change package for growing numbers of fragment requests in flight.
+ * The fragments are served by a local XML RPC server that delays every call in order to simulate the latency of a
+ * wide area network. The delay in milliseconds can be configured via the system property
+ * {@code emfstore.benchmark.latency}, the number of operations of the change package via
+ * {@code emfstore.benchmark.operations}.
+ */
+public class ChangePackageFragmentTransferBenchmark {
+
+	private static final int LATENCY = Integer.getInteger("emfstore.benchmark.latency", 50); //$NON-NLS-1$
+	private static final int NR_OF_OPERATIONS = Integer.getInteger("emfstore.benchmark.operations", 2000); //$NON-NLS-1$
+	private static final int FRAGMENT_SIZE = 500;
+	private static final int[] WINDOWS = { 1, 2, 4, 8, 16 };
+	private static final String HANDLER = "fragments"; //$NON-NLS-1$
+	private static final String PROXY_ID = "proxy"; //$NON-NLS-1$
+
+	private static FileBasedChangePackage changePackage;
+	private static List<ChangePackageEnvelope> envelopes;
+	private static String expectedContent;
+	private static WebServer webServer;
+	private static XmlRpcClient client;
+
+	@BeforeClass
+	public static void beforeClass() throws IOException, XmlRpcException {
+		changePackage = VersioningFactory.eINSTANCE.createFileBasedChangePackage();
+		changePackage.initialize(File.createTempFile("benchmark", ".eoc").getAbsolutePath()); //$NON-NLS-1$ //$NON-NLS-2$
+		for (int i = 0; i < NR_OF_OPERATIONS; i++) {
+			final AttributeOperation operation = OperationsFactory.eINSTANCE.createAttributeOperation();
+			operation.setFeatureName("name"); //$NON-NLS-1$
+			operation.setNewValue(String.valueOf(i));
+			changePackage.add(operation);
+		}
+		envelopes = new ArrayList<ChangePackageEnvelope>();
+		final StringWriter content = new StringWriter();
+		final Iterator<ChangePackageEnvelope> iterator = ChangePackageUtil.splitChangePackage(
+			changePackage, FRAGMENT_SIZE);
+		while (iterator.hasNext()) {
+			final ChangePackageEnvelope envelope = iterator.next();
+			envelopes.add(envelope);
+			for (final String line : envelope.getFragment()) {
+				content.write(line + System.getProperty("line.separator")); //$NON-NLS-1$
+			}
+		}
+		expectedContent = content.toString();
+
+		final ServerSocket socket = new ServerSocket(0);
+		final int port = socket.getLocalPort();
+		socket.close();
+		webServer = new WebServer(port);
+		final PropertyHandlerMapping handlerMapping = new PropertyHandlerMapping();
+		handlerMapping.addHandler(HANDLER, FragmentHandler.class);
+		webServer.getXmlRpcServer().setHandlerMapping(handlerMapping);
+		webServer.start();
+
+		final XmlRpcClientConfigImpl config = new XmlRpcClientConfigImpl();
+		config.setServerURL(new URL("http", "localhost", port, "/")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		client = new XmlRpcClient();
+		client.setConfig(config);
+	}
+
+	@AfterClass
+	public static void afterClass() {
+		webServer.shutdown();
+		new File(changePackage.getFilePath()).delete();
+		new File(changePackage.getTempFilePath()).delete();
+	}
+
+	@Test
+	public void benchmarkDownload() throws ESException, IOException {
+		for (final int window : WINDOWS) {
+			final long time = System.nanoTime();
+			final StringWriter writer = new StringWriter();
+			new ChangePackageFragmentTransfer(new LocalConnection(), window).download(writer);
+			log("download", window, System.nanoTime() - time); //$NON-NLS-1$
+			assertEquals(expectedContent, writer.toString());
+		}
+	}
+
+	@Test
+	public void benchmarkUpload() throws ESException {
+		for (final int window : WINDOWS) {
+			FragmentHandler.adapter = new ChangePackageFragmentUploadAdapter();
+			final long time = System.nanoTime();
+			new ChangePackageFragmentTransfer(new LocalConnection(), window).upload(envelopes.iterator());
+			log("upload", window, System.nanoTime() - time); //$NON-NLS-1$
+			assertEquals(NR_OF_OPERATIONS,
+				FragmentHandler.adapter.convertFileBasedToInMemoryChangePackage(PROXY_ID).get().size());
+		}
+	}
+
+	private static void log(String transfer, int window, long duration) {
+		ModelUtil.logInfo("change package fragment " + transfer + " - fragments: " + envelopes.size() //$NON-NLS-1$ //$NON-NLS-2$
+			+ ", latency: " + LATENCY + "ms, window: " + window + ", time: " + duration / 1000000 + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+	}
+
+	/**
+	 * Transfers fragments by calling the {@link FragmentHandler} of the local server.
+	 */
+	private static final class LocalConnection implements FragmentConnection {
+
+		public ChangePackageEnvelope downloadFragment(int fragmentIndex) throws ESException {
+			final Object[] result = (Object[]) execute("download", new Object[] { fragmentIndex }); //$NON-NLS-1$
+			final ChangePackageEnvelope envelope = VersioningFactory.eINSTANCE.createChangePackageEnvelope();
+			envelope.setFragmentIndex(fragmentIndex);
+			envelope.setFragmentCount((Integer) result[0]);
+			for (final Object line : (Object[]) result[1]) {
+				envelope.getFragment().add((String) line);
+			}
+			return envelope;
+		}
+
+		public String uploadFragment(ChangePackageEnvelope envelope) throws ESException {
+			return (String) execute("upload", new Object[] { //$NON-NLS-1$
+				envelope.getFragmentIndex(), envelope.getFragmentCount(), envelope.getFragment().toArray() });
+		}
+
+		private static Object execute(String method, Object[] parameters) throws ESException {
+			try {
+				return client.execute(HANDLER + "." + method, parameters); //$NON-NLS-1$
+			} catch (final XmlRpcException ex) {
+				throw new ESException(ex);
+			}
+		}
+	}
+
+	/**
+	 * Serves the fragments of the change package and receives uploaded fragments, delaying every call by the
+	 * configured latency.
+	 */
+	public static class FragmentHandler {
+
+		private static volatile ChangePackageFragmentUploadAdapter adapter;
+
+		/**
+		 * Returns a fragment.
+		 *
+		 * @param fragmentIndex the index of the fragment
+		 * @return the number of fragments followed by the lines of the requested fragment
+		 * @throws InterruptedException if interrupted while simulating the latency
+		 */
+		public Object[] download(int fragmentIndex) throws InterruptedException {
+			Thread.sleep(LATENCY);
+			final ChangePackageEnvelope envelope = envelopes.get(fragmentIndex);
+			return new Object[] { envelope.getFragmentCount(), envelope.getFragment().toArray() };
+		}
+
+		/**
+		 * Receives a fragment.
+		 *
+		 * @param fragmentIndex the index of the fragment
+		 * @param fragmentCount the number of fragments
+		 * @param fragment the lines of the fragment
+		 * @return the proxy ID of the uploaded change package
+		 * @throws InterruptedException if interrupted while simulating the latency
+		 * @throws ESException if the fragment can not be added
+		 */
+		public String upload(int fragmentIndex, int fragmentCount, Object[] fragment)
+			throws InterruptedException, ESException {
+			Thread.sleep(LATENCY);
+			final ChangePackageEnvelope envelope = VersioningFactory.eINSTANCE.createChangePackageEnvelope();
+			envelope.setFragmentIndex(fragmentIndex);
+			envelope.setFragmentCount(fragmentCount);
+			for (final Object line : fragment) {
+				envelope.getFragment().add((String) line);
+			}
+			if (adapter.addFragment(PROXY_ID, envelope)) {
+				adapter.markAsComplete(PROXY_ID);
+			}
+			return PROXY_ID;
+		}
+	}
+}
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.performance.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.emf.emfstore.client.test.common.cases.ESTestWithLoggedInUserMock;
+import org.eclipse.emf.emfstore.client.test.common.dsl.Create;
+import org.eclipse.emf.emfstore.internal.client.model.ESWorkspaceProviderImpl;
+import org.eclipse.emf.emfstore.internal.client.model.Usersession;
+import org.eclipse.emf.emfstore.internal.client.model.connectionmanager.ConnectionManager;
+import org.eclipse.emf.emfstore.internal.common.APIUtil;
+import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
+import org.eclipse.emf.emfstore.internal.server.model.ProjectId;
+import org.eclipse.emf.emfstore.internal.server.model.ProjectInfo;
+import org.eclipse.emf.emfstore.internal.server.model.SessionId;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.PrimaryVersionSpec;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.Versions;
+import org.eclipse.emf.emfstore.server.exceptions.ESException;
+import org.eclipse.emf.emfstore.server.exceptions.ESUpdateRequiredException;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Multi-threaded stress test for the per-project locking of the server. A number of worker threads issue a mix of
+ * checkouts, version spec resolutions and commits against a configurable number of projects and the resulting
+ * throughput is logged. Afterwards the history of every project is checked for lost commits.
+ */
+public class ConcurrentProjectAccessTest extends ESTestWithLoggedInUserMock {
+
+	private static final int NR_OF_PROJECTS = Integer.getInteger("emfstore.stress.projects", 4); //$NON-NLS-1$
+	private static final int NR_OF_THREADS = Integer.getInteger("emfstore.stress.threads", 8); //$NON-NLS-1$
+	private static final int CALLS_PER_THREAD = Integer.getInteger("emfstore.stress.calls", 200); //$NON-NLS-1$
+	private static final int COMMIT_EVERY_X_CALLS = 5;
+	private static final long TIMEOUT_MINUTES = 10;
+
+	@BeforeClass
+	public static void beforeClass() {
+		startEMFStore();
+	}
+
+	@AfterClass
+	public static void afterClass() {
+		stopEMFStore();
+	}
+
+	@Test
+	public void testThroughputAcrossProjects() throws Exception {
+		final ConnectionManager connectionManager = ESWorkspaceProviderImpl.getInstance().getConnectionManager();
+		final SessionId sessionId = APIUtil.toInternal(Usersession.class, getUsersession()).getSessionId();
+
+		final List<ProjectId> projectIds = new ArrayList<ProjectId>();
+		for (int i = 0; i < NR_OF_PROJECTS; i++) {
+			final ProjectInfo projectInfo = connectionManager.createEmptyProject(sessionId,
+				"stress-" + i, "", Create.logMessage()); //$NON-NLS-1$ //$NON-NLS-2$
+			projectIds.add(projectInfo.getProjectId());
+		}
+
+		final AtomicInteger calls = new AtomicInteger();
+		final AtomicInteger[] commits = new AtomicInteger[NR_OF_PROJECTS];
+		for (int i = 0; i < NR_OF_PROJECTS; i++) {
+			commits[i] = new AtomicInteger();
+		}
+		final AtomicInteger rejectedCommits = new AtomicInteger();
+		final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+		final CountDownLatch start = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(NR_OF_THREADS);
+		final ExecutorService executor = Executors.newFixedThreadPool(NR_OF_THREADS);
+
+		for (int t = 0; t < NR_OF_THREADS; t++) {
+			final int projectIndex = t % NR_OF_PROJECTS;
+			final ProjectId projectId = projectIds.get(projectIndex);
+			executor.execute(new Runnable() {
+				public void run() {
+					try {
+						start.await();
+						for (int i = 0; i < CALLS_PER_THREAD; i++) {
+							final PrimaryVersionSpec head = connectionManager.resolveVersionSpec(sessionId, projectId,
+								Versions.createHEAD());
+							if (i % COMMIT_EVERY_X_CALLS == 0) {
+								try {
+									connectionManager.createVersion(sessionId, projectId, head,
+										Create.changePackage(), null, null, Create.logMessage());
+									commits[projectIndex].incrementAndGet();
+								} catch (final ESUpdateRequiredException ex) {
+									// another thread committed to the same project in the meantime
+									rejectedCommits.incrementAndGet();
+								}
+							} else {
+								connectionManager.getProject(sessionId, projectId, head);
+							}
+							calls.incrementAndGet();
+						}
+					} catch (final InterruptedException ex) {
+						failures.add(ex);
+					} catch (final ESException ex) {
+						failures.add(ex);
+					} finally {
+						done.countDown();
+					}
+				}
+			});
+		}
+
+		final long startTime = System.currentTimeMillis();
+		start.countDown();
+		assertTrue(done.await(TIMEOUT_MINUTES, TimeUnit.MINUTES));
+		final long duration = Math.max(1, System.currentTimeMillis() - startTime);
+		executor.shutdown();
+
+		ModelUtil.logInfo("concurrent project access - projects: " + NR_OF_PROJECTS + ", threads: " + NR_OF_THREADS //$NON-NLS-1$ //$NON-NLS-2$
+			+ ", calls: " + calls.get() + ", rejected commits: " + rejectedCommits.get() + ", time: " + duration //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			+ "ms, throughput: " + calls.get() * 1000L / duration + " calls/s"); //$NON-NLS-1$ //$NON-NLS-2$
+
+		assertTrue(failures.toString(), failures.isEmpty());
+		for (int i = 0; i < NR_OF_PROJECTS; i++) {
+			final PrimaryVersionSpec head = connectionManager.resolveVersionSpec(sessionId, projectIds.get(i),
+				Versions.createHEAD());
+			assertEquals(commits[i].get(), head.getIdentifier());
+		}
+	}
+}
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.performance.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.emf.emfstore.client.test.common.util.TestModelElementIdToEObjectMapping;
+import org.eclipse.emf.emfstore.internal.common.model.ModelElementId;
+import org.eclipse.emf.emfstore.internal.common.model.ModelElementIdToEObjectMapping;
+import org.eclipse.emf.emfstore.internal.common.model.ModelFactory;
+import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
+import org.eclipse.emf.emfstore.internal.server.conflictDetection.ChangeConflictSet;
+import org.eclipse.emf.emfstore.internal.server.conflictDetection.ConflictDetector;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.AbstractChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.ChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningFactory;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AbstractOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AttributeOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.MultiReferenceOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.OperationsFactory;
+import org.junit.Test;
+
+/**
+ * Measures conflict detection between a local change set and many incoming change packages for growing numbers of
+ * operations, once on the calling thread and once partitioned across several threads. The largest number of
+ * operations on each side can be configured via the system property {@code emfstore.benchmark.conflictOperations},
+ * the number of threads via {@code emfstore.benchmark.parallelism}.
+ */
+public class ConflictDetectionBenchmark {
+
+	private static final int NR_OF_OPERATIONS = Integer.getInteger("emfstore.benchmark.conflictOperations", 100000); //$NON-NLS-1$
+	private static final int PARALLELISM = Integer.getInteger("emfstore.benchmark.parallelism", //$NON-NLS-1$
+		Runtime.getRuntime().availableProcessors());
+	private static final int OPERATIONS_PER_CHANGE_PACKAGE = 100;
+	private static final int NUM_WARMUPS = 1;
+	private static final int NUM_ITERATIONS = 3;
+
+	private static final ModelElementIdToEObjectMapping EMPTY_MAPPING = new TestModelElementIdToEObjectMapping();
+
+	@Test
+	public void benchmarkConflictDetection() {
+		for (int operationCount = NR_OF_OPERATIONS / 8; operationCount <= NR_OF_OPERATIONS; operationCount *= 2) {
+			final Random random = new Random(operationCount);
+			final List<AbstractChangePackage> myChanges = createChanges(random, operationCount, operationCount);
+			final List<AbstractChangePackage> theirChanges = createChanges(random, operationCount,
+				OPERATIONS_PER_CHANGE_PACKAGE);
+
+			final long serial = benchmark(new ConflictDetector(), myChanges, theirChanges);
+			final long partitioned = benchmark(new ConflictDetector(PARALLELISM), myChanges, theirChanges);
+			ModelUtil.logInfo("conflict detection - operations: " + operationCount + " vs. " + operationCount //$NON-NLS-1$ //$NON-NLS-2$
+				+ ", serial: " + serial + "ms, " + PARALLELISM + " threads: " + partitioned + "ms, speedup: " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+				+ (double) serial / Math.max(1, partitioned));
+		}
+	}
+
+	private static long benchmark(ConflictDetector conflictDetector, List<AbstractChangePackage> myChanges,
+		List<AbstractChangePackage> theirChanges) {
+		int expectedConflicts = -1;
+		for (int i = 0; i < NUM_WARMUPS; i++) {
+			expectedConflicts = detect(conflictDetector, myChanges, theirChanges).getConflictBuckets().size();
+		}
+		final long time = System.nanoTime();
+		for (int i = 0; i < NUM_ITERATIONS; i++) {
+			final ChangeConflictSet conflicts = detect(conflictDetector, myChanges, theirChanges);
+			assertEquals(expectedConflicts, conflicts.getConflictBuckets().size());
+		}
+		return (System.nanoTime() - time) / NUM_ITERATIONS / 1000000;
+	}
+
+	private static ChangeConflictSet detect(ConflictDetector conflictDetector, List<AbstractChangePackage> myChanges,
+		List<AbstractChangePackage> theirChanges) {
+		return conflictDetector.calculateConflicts(myChanges, theirChanges, EMPTY_MAPPING);
+	}
+
+	private static List<AbstractChangePackage> createChanges(Random random, int operationCount,
+		int operationsPerChangePackage) {
+		final int modelElementCount = operationCount * 2;
+		final List<AbstractChangePackage> changePackages = new ArrayList<AbstractChangePackage>();
+		ChangePackage changePackage = null;
+		for (int i = 0; i < operationCount; i++) {
+			if (i % operationsPerChangePackage == 0) {
+				changePackage = VersioningFactory.eINSTANCE.createChangePackage();
+				changePackages.add(changePackage);
+			}
+			changePackage.add(createOperation(random, modelElementCount));
+		}
+		return changePackages;
+	}
+
+	private static AbstractOperation createOperation(Random random, int modelElementCount) {
+		if (random.nextInt(4) == 0) {
+			final MultiReferenceOperation operation = OperationsFactory.eINSTANCE.createMultiReferenceOperation();
+			operation.setModelElementId(createId(random.nextInt(modelElementCount)));
+			operation.setFeatureName("references"); //$NON-NLS-1$
+			operation.setAdd(true);
+			operation.getReferencedModelElements().add(createId(random.nextInt(modelElementCount)));
+			return operation;
+		}
+		final AttributeOperation operation = OperationsFactory.eINSTANCE.createAttributeOperation();
+		operation.setModelElementId(createId(random.nextInt(modelElementCount)));
+		operation.setFeatureName("name"); //$NON-NLS-1$
+		operation.setNewValue(String.valueOf(random.nextInt()));
+		return operation;
+	}
+
+	private static ModelElementId createId(int index) {
+		final ModelElementId modelElementId = ModelFactory.eINSTANCE.createModelElementId();
+		modelElementId.setId("element" + index); //$NON-NLS-1$
+		return modelElementId;
+	}
+}
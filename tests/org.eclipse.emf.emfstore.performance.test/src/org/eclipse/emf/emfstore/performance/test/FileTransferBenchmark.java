@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.performance.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.emf.emfstore.internal.common.model.util.FileUtil;
+import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
+import org.eclipse.emf.emfstore.internal.server.filetransfer.ChunkedFileTransfer;
+import org.eclipse.emf.emfstore.internal.server.filetransfer.FileChunk;
+import org.eclipse.emf.emfstore.internal.server.filetransfer.FileTransferInformation;
+import org.eclipse.emf.emfstore.internal.server.model.ModelFactory;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Measures the throughput of chunked file transfers, each of which reads the chunks of a source file and writes them to
+ * a target file, for growing numbers of concurrent transfers and different chunk sizes. The size of the transferred
+ * files in KB can be configured via the system property {@code emfstore.benchmark.fileSize}, the largest number of
+ * concurrent transfers via {@code emfstore.benchmark.transfers}.
+ */
+public class FileTransferBenchmark {
+
+	private static final int FILE_SIZE = Integer.getInteger("emfstore.benchmark.fileSize", 8192) * 1024; //$NON-NLS-1$
+	private static final int NR_OF_TRANSFERS = Integer.getInteger("emfstore.benchmark.transfers", //$NON-NLS-1$
+		Runtime.getRuntime().availableProcessors() * 2);
+	private static final int[] CHUNK_SIZES = { ChunkedFileTransfer.DEFAULT_CHUNK_SIZE, 1024 * 1024 };
+	private static final int NUM_WARMUPS = 1;
+	private static final int NUM_ITERATIONS = 3;
+
+	private static File folder;
+	private static List<File> sourceFiles;
+
+	@BeforeClass
+	public static void beforeClass() throws IOException {
+		folder = File.createTempFile("benchmark", ""); //$NON-NLS-1$ //$NON-NLS-2$
+		folder.delete();
+		folder.mkdirs();
+		sourceFiles = new ArrayList<File>();
+		final byte[] data = new byte[FILE_SIZE];
+		new Random(42).nextBytes(data);
+		for (int i = 0; i < NR_OF_TRANSFERS; i++) {
+			final File file = new File(folder, "source" + i); //$NON-NLS-1$
+			final FileOutputStream outputStream = new FileOutputStream(file);
+			try {
+				outputStream.write(data);
+			} finally {
+				outputStream.close();
+			}
+			sourceFiles.add(file);
+		}
+	}
+
+	@AfterClass
+	public static void afterClass() throws IOException {
+		FileUtil.deleteDirectory(folder, true);
+	}
+
+	@Test
+	public void benchmarkConcurrentTransfers() throws Exception {
+		for (final int chunkSize : CHUNK_SIZES) {
+			for (int transfers = 1; transfers <= NR_OF_TRANSFERS; transfers *= 2) {
+				for (int i = 0; i < NUM_WARMUPS; i++) {
+					transfer(transfers, chunkSize);
+				}
+				final long time = System.nanoTime();
+				for (int i = 0; i < NUM_ITERATIONS; i++) {
+					transfer(transfers, chunkSize);
+				}
+				final long duration = System.nanoTime() - time;
+				final long bytes = (long) FILE_SIZE * transfers * NUM_ITERATIONS;
+				ModelUtil.logInfo("file transfer - chunk size: " + chunkSize + " bytes, concurrent transfers: " //$NON-NLS-1$ //$NON-NLS-2$
+					+ transfers + ", file size: " + FILE_SIZE / 1024 + "KB, throughput: " //$NON-NLS-1$ //$NON-NLS-2$
+					+ bytes * 1000000000L / duration / (1024 * 1024) + " MB/s"); //$NON-NLS-1$
+			}
+		}
+	}
+
+	private static void transfer(int transfers, final int chunkSize) throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(transfers);
+		try {
+			final List<Future<Long>> results = new ArrayList<Future<Long>>();
+			for (int i = 0; i < transfers; i++) {
+				final File source = sourceFiles.get(i);
+				final File target = new File(folder, "target" + i); //$NON-NLS-1$
+				results.add(executor.submit(new Callable<Long>() {
+					public Long call() throws Exception {
+						return transfer(source, target, chunkSize);
+					}
+				}));
+			}
+			for (final Future<Long> result : results) {
+				assertEquals(FILE_SIZE, result.get().longValue());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static long transfer(File source, File target, int chunkSize) throws Exception {
+		final FileTransferInformation information = new FileTransferInformation(
+			ModelFactory.eINSTANCE.createFileIdentifier(), FileTransferInformation.UNKOWN_SIZE);
+		information.setChunkSize(chunkSize);
+		FileChunk chunk;
+		do {
+			chunk = ChunkedFileTransfer.readChunk(source, information);
+			ChunkedFileTransfer.writeChunk(target, chunk);
+			information.setChunkNumber(information.getChunkNumber() + 1);
+		} while (!chunk.isLast());
+		return target.length();
+	}
+}
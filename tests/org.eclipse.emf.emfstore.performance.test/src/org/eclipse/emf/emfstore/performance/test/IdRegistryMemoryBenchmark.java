@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.performance.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.emfstore.bowling.BowlingFactory;
+import org.eclipse.emf.emfstore.bowling.Matchup;
+import org.eclipse.emf.emfstore.bowling.Tournament;
+import org.eclipse.emf.emfstore.internal.common.EObjectIdRegistry;
+import org.eclipse.emf.emfstore.internal.common.model.ModelFactory;
+import org.eclipse.emf.emfstore.internal.common.model.Project;
+import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
+import org.junit.Test;
+
+/**
+ * Compares the heap retained by the ID mapping of a bowling project, once held by two linked hash maps of ID strings
+ * and once by an {@link EObjectIdRegistry}. The number of model elements can be configured via the system property
+ * {@code emfstore.benchmark.elements}.
+ */
+public class IdRegistryMemoryBenchmark {
+
+	private static final int NR_OF_ELEMENTS = Integer.getInteger("emfstore.benchmark.elements", 1000000); //$NON-NLS-1$
+	private static final int MATCHUPS_PER_TOURNAMENT = 100;
+	private static final int GAMES_PER_MATCHUP = 9;
+
+	@Test
+	public void benchmarkIdMappingMemory() {
+		final Project project = createBowlingProject();
+		final List<EObject> elements = new ArrayList<EObject>(NR_OF_ELEMENTS);
+		final TreeIterator<EObject> iterator = project.eAllContents();
+		while (iterator.hasNext()) {
+			elements.add(iterator.next());
+		}
+		final long modelHeap = getUsedHeap();
+
+		Map<EObject, String> eObjectToIdMap = new LinkedHashMap<EObject, String>();
+		Map<String, EObject> idToEObjectMap = new LinkedHashMap<String, EObject>();
+		long time = System.nanoTime();
+		fill(elements, eObjectToIdMap, idToEObjectMap);
+		final long mapFillTime = System.nanoTime() - time;
+		final long mapHeap = getUsedHeap() - modelHeap;
+		time = System.nanoTime();
+		lookUp(elements, eObjectToIdMap, idToEObjectMap);
+		final long mapLookupTime = System.nanoTime() - time;
+		eObjectToIdMap = null;
+		idToEObjectMap = null;
+
+		final EObjectIdRegistry registry = new EObjectIdRegistry();
+		time = System.nanoTime();
+		fill(elements, registry.getEObjectToIdMap(), registry.getIdToEObjectMap());
+		final long registryFillTime = System.nanoTime() - time;
+		final long registryHeap = getUsedHeap() - modelHeap;
+		time = System.nanoTime();
+		lookUp(elements, registry.getEObjectToIdMap(), registry.getIdToEObjectMap());
+		final long registryLookupTime = System.nanoTime() - time;
+
+		assertEquals(elements.size(), registry.getEObjectToIdMap().size());
+		ModelUtil.logInfo("ID mapping of " + elements.size() + " bowling elements" //$NON-NLS-1$ //$NON-NLS-2$
+			+ " - linked hash maps: " + mapHeap / elements.size() + " bytes/element" //$NON-NLS-1$ //$NON-NLS-2$
+			+ ", fill " + mapFillTime / 1000000 + "ms, lookup " + mapLookupTime / 1000000 + "ms" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			+ " - registry: " + registryHeap / elements.size() + " bytes/element" //$NON-NLS-1$ //$NON-NLS-2$
+			+ ", fill " + registryFillTime / 1000000 + "ms, lookup " + registryLookupTime / 1000000 + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	private static Project createBowlingProject() {
+		final Project project = ModelFactory.eINSTANCE.createProject();
+		int count = 0;
+		while (count < NR_OF_ELEMENTS) {
+			final Tournament tournament = BowlingFactory.eINSTANCE.createTournament();
+			count++;
+			for (int i = 0; i < MATCHUPS_PER_TOURNAMENT && count < NR_OF_ELEMENTS; i++) {
+				final Matchup matchup = BowlingFactory.eINSTANCE.createMatchup();
+				tournament.getMatchups().add(matchup);
+				count++;
+				for (int j = 0; j < GAMES_PER_MATCHUP && count < NR_OF_ELEMENTS; j++) {
+					matchup.getGames().add(BowlingFactory.eINSTANCE.createGame());
+					count++;
+				}
+			}
+			project.getModelElements().add(tournament);
+		}
+		return project;
+	}
+
+	private static void fill(List<EObject> elements, Map<EObject, String> eObjectToIdMap,
+		Map<String, EObject> idToEObjectMap) {
+		for (final EObject element : elements) {
+			final String id = EcoreUtil.generateUUID();
+			eObjectToIdMap.put(element, id);
+			idToEObjectMap.put(id, element);
+		}
+	}
+
+	private static void lookUp(List<EObject> elements, Map<EObject, String> eObjectToIdMap,
+		Map<String, EObject> idToEObjectMap) {
+		for (final EObject element : elements) {
+			assertSame(element, idToEObjectMap.get(eObjectToIdMap.get(element)));
+		}
+	}
+
+	private static long getUsedHeap() {
+		final Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
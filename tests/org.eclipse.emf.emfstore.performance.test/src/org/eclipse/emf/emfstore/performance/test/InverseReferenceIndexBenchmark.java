@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.performance.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.emf.ecore.util.EcoreUtil.UsageCrossReferencer;
+import org.eclipse.emf.emfstore.internal.common.model.ModelFactory;
+import org.eclipse.emf.emfstore.internal.common.model.Project;
+import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
+import org.eclipse.emf.emfstore.test.model.TestElement;
+import org.eclipse.emf.emfstore.test.model.TestmodelFactory;
+import org.junit.Test;
+
+/**
+ * Compares the cost of deleting many elements of a project for growing project sizes. Without an index, the inverse
+ * references of every deleted element are looked up by scanning the whole project, whereas the inverse reference
+ * index of the project answers them directly. The number of deleted elements per project size can be configured via
+ * the system property {@code emfstore.benchmark.deletes}.
+ */
+public class InverseReferenceIndexBenchmark {
+
+	private static final int NR_OF_DELETES = Integer.getInteger("emfstore.benchmark.deletes", 200); //$NON-NLS-1$
+	private static final int[] PROJECT_SIZES = { 1000, 10000, 50000 };
+	private static final int REFERENCES_PER_ELEMENT = 3;
+
+	@Test
+	public void benchmarkBulkDelete() {
+		for (final int projectSize : PROJECT_SIZES) {
+			final Random random = new Random(projectSize);
+			final Project project = ModelFactory.eINSTANCE.createProject();
+			project.initMapping();
+			final List<TestElement> elements = new ArrayList<TestElement>(projectSize);
+			for (int i = 0; i < projectSize; i++) {
+				final TestElement element = TestmodelFactory.eINSTANCE.createTestElement();
+				element.setName("element " + i); //$NON-NLS-1$
+				elements.add(element);
+			}
+			for (final TestElement element : elements) {
+				for (int i = 0; i < REFERENCES_PER_ELEMENT; i++) {
+					element.getReferences().add(elements.get(random.nextInt(projectSize)));
+				}
+				project.addModelElement(element);
+			}
+
+			final List<TestElement> deleted = new ArrayList<TestElement>(NR_OF_DELETES);
+			for (int i = 0; i < NR_OF_DELETES; i++) {
+				deleted.add(elements.get(i * (projectSize / NR_OF_DELETES)));
+			}
+
+			long time = System.nanoTime();
+			int scannedReferences = 0;
+			for (final TestElement element : deleted) {
+				scannedReferences += UsageCrossReferencer.find(element, project).size();
+			}
+			final long scanTime = System.nanoTime() - time;
+
+			time = System.nanoTime();
+			int indexedReferences = 0;
+			for (final TestElement element : deleted) {
+				indexedReferences += project.findInverseCrossReferences(element).size();
+			}
+			final long indexTime = System.nanoTime() - time;
+			assertEquals(scannedReferences, indexedReferences);
+
+			time = System.nanoTime();
+			for (final TestElement element : deleted) {
+				project.deleteModelElement(element);
+			}
+			final long deleteTime = System.nanoTime() - time;
+			for (final TestElement element : deleted) {
+				assertTrue(project.findInverseCrossReferences(element).isEmpty());
+			}
+
+			ModelUtil.logInfo("inverse references of " + NR_OF_DELETES + " elements - elements: " + projectSize //$NON-NLS-1$ //$NON-NLS-2$
+				+ ", scan: " + scanTime / 1000000 + "ms" //$NON-NLS-1$ //$NON-NLS-2$
+				+ ", index: " + indexTime / 1000000 + "ms" //$NON-NLS-1$ //$NON-NLS-2$
+				+ ", delete with index: " + deleteTime / 1000000 + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+}
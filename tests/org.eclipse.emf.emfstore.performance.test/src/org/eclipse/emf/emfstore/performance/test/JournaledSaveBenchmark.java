@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.performance.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl;
+import org.eclipse.emf.emfstore.internal.common.model.ModelFactory;
+import org.eclipse.emf.emfstore.internal.common.model.Project;
+import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.FileBasedChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningFactory;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.impl.persistent.OperationIndex;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AttributeOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.OperationsFactory;
+import org.eclipse.emf.emfstore.test.model.TestElement;
+import org.eclipse.emf.emfstore.test.model.TestmodelFactory;
+import org.junit.Test;
+
+/**
+ * Compares the cost of an automatic save after a single command for growing project sizes. Saving the whole project
+ * grows with the size of the project, whereas journaling the command's operation to the local change package, as done
+ * between two project snapshots, does not. The number of commands per project size can be configured via the system
+ * property {@code emfstore.benchmark.commands}.
+ */
+public class JournaledSaveBenchmark {
+
+	private static final int NR_OF_COMMANDS = Integer.getInteger("emfstore.benchmark.commands", 50); //$NON-NLS-1$
+	private static final int[] PROJECT_SIZES = { 1000, 10000, 100000 };
+
+	@Test
+	public void benchmarkSave() throws IOException {
+		for (final int projectSize : PROJECT_SIZES) {
+			final File projectFile = File.createTempFile("benchmark", ".ucp"); //$NON-NLS-1$ //$NON-NLS-2$
+			final File operationsFile = File.createTempFile("benchmark", ".eoc"); //$NON-NLS-1$ //$NON-NLS-2$
+			final FileBasedChangePackage changePackage = VersioningFactory.eINSTANCE.createFileBasedChangePackage();
+			changePackage.initialize(operationsFile.getAbsolutePath());
+			try {
+				final Project project = ModelFactory.eINSTANCE.createProject();
+				final Resource resource = new XMIResourceImpl(URI.createFileURI(projectFile.getAbsolutePath()));
+				resource.getContents().add(project);
+				for (int i = 0; i < projectSize; i++) {
+					final TestElement element = TestmodelFactory.eINSTANCE.createTestElement();
+					element.setName("element " + i); //$NON-NLS-1$
+					project.getModelElements().add(element);
+				}
+				final TestElement element = (TestElement) project.getModelElements().get(0);
+
+				long snapshotTime = 0;
+				long journalTime = 0;
+				for (int i = 0; i < NR_OF_COMMANDS; i++) {
+					final String oldName = element.getName();
+					element.setName("command " + i); //$NON-NLS-1$
+
+					long time = System.nanoTime();
+					resource.save(ModelUtil.getResourceSaveOptions());
+					snapshotTime += System.nanoTime() - time;
+
+					time = System.nanoTime();
+					changePackage.add(createOperation(project, element, oldName));
+					changePackage.save();
+					journalTime += System.nanoTime() - time;
+				}
+				assertEquals(NR_OF_COMMANDS, changePackage.size());
+
+				ModelUtil.logInfo("save per command - elements: " + projectSize //$NON-NLS-1$
+					+ ", project: " + snapshotTime / NR_OF_COMMANDS / 1000 + "us" //$NON-NLS-1$ //$NON-NLS-2$
+					+ ", journal: " + journalTime / NR_OF_COMMANDS / 1000 + "us"); //$NON-NLS-1$ //$NON-NLS-2$
+			} finally {
+				final File tempFile = new File(changePackage.getTempFilePath());
+				tempFile.delete();
+				OperationIndex.getIndexFile(tempFile).delete();
+				operationsFile.delete();
+				projectFile.delete();
+			}
+		}
+	}
+
+	private static AttributeOperation createOperation(Project project, TestElement element, String oldName) {
+		final AttributeOperation operation = OperationsFactory.eINSTANCE.createAttributeOperation();
+		operation.setModelElementId(ModelUtil.clone(project.getModelElementId(element)));
+		operation.setFeatureName("name"); //$NON-NLS-1$
+		operation.setOldValue(oldName);
+		operation.setNewValue(element.getName());
+		return operation;
+	}
+}
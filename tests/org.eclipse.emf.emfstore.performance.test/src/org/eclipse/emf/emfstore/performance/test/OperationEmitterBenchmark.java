@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.performance.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+
+import org.eclipse.emf.emfstore.internal.common.model.ModelFactory;
+import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.FileBasedChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningFactory;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.impl.persistent.OperationIndex;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AbstractOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AttributeOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.OperationsFactory;
+import org.eclipse.emf.emfstore.server.ESCloseableIterable;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Measures the iteration of the operations of a large {@link FileBasedChangePackage} in both directions. For each
+ * direction the throughput in operations per second and, if supported by the VM, the number of bytes allocated by the
+ * iterating thread per operation are reported. The number of operations can be configured via the system property
+ * {@code emfstore.benchmark.operations}.
+ */
+public class OperationEmitterBenchmark {
+
+	private static final int NR_OF_OPERATIONS = Integer.getInteger("emfstore.benchmark.operations", 50000); //$NON-NLS-1$
+	private static final int NUM_WARMUPS = 2;
+	private static final int NUM_ITERATIONS = 5;
+
+	private static FileBasedChangePackage changePackage;
+	private static File operationsFile;
+
+	@BeforeClass
+	public static void beforeClass() throws IOException {
+		operationsFile = File.createTempFile("benchmark", ".eoc"); //$NON-NLS-1$ //$NON-NLS-2$
+		operationsFile.deleteOnExit();
+		changePackage = VersioningFactory.eINSTANCE.createFileBasedChangePackage();
+		changePackage.initialize(operationsFile.getAbsolutePath());
+		for (int i = 0; i < NR_OF_OPERATIONS; i++) {
+			final AttributeOperation operation = OperationsFactory.eINSTANCE.createAttributeOperation();
+			operation.setModelElementId(ModelFactory.eINSTANCE.createModelElementId());
+			operation.setFeatureName("name"); //$NON-NLS-1$
+			operation.setOldValue("old value " + i); //$NON-NLS-1$
+			operation.setNewValue("new value " + i); //$NON-NLS-1$
+			changePackage.add(operation);
+		}
+	}
+
+	@AfterClass
+	public static void afterClass() {
+		final File tempFile = new File(changePackage.getTempFilePath());
+		tempFile.delete();
+		OperationIndex.getIndexFile(tempFile).delete();
+		operationsFile.delete();
+	}
+
+	@Test
+	public void benchmarkOperations() {
+		benchmark("operations", false); //$NON-NLS-1$
+	}
+
+	@Test
+	public void benchmarkReversedOperations() {
+		benchmark("reversedOperations", true); //$NON-NLS-1$
+	}
+
+	private static void benchmark(String name, boolean reversed) {
+		for (int i = 0; i < NUM_WARMUPS; i++) {
+			assertEquals(NR_OF_OPERATIONS, iterate(reversed));
+		}
+
+		final long allocatedBefore = getAllocatedBytes();
+		final long time = System.nanoTime();
+		for (int i = 0; i < NUM_ITERATIONS; i++) {
+			assertEquals(NR_OF_OPERATIONS, iterate(reversed));
+		}
+		final long duration = System.nanoTime() - time;
+		final long allocatedAfter = getAllocatedBytes();
+
+		final long totalOperations = (long) NR_OF_OPERATIONS * NUM_ITERATIONS;
+		final String allocations = allocatedBefore < 0 || allocatedAfter < 0
+			? "n/a" //$NON-NLS-1$
+			: (allocatedAfter - allocatedBefore) / totalOperations + " bytes"; //$NON-NLS-1$
+		ModelUtil.logInfo(name + " - operations: " + NR_OF_OPERATIONS + ", file: " //$NON-NLS-1$ //$NON-NLS-2$
+			+ operationsFile.length() / 1024 + "KB, throughput: " + totalOperations * 1000000000L / duration //$NON-NLS-1$
+			+ " ops/s, allocated per operation: " + allocations); //$NON-NLS-1$
+	}
+
+	private static int iterate(boolean reversed) {
+		final ESCloseableIterable<AbstractOperation> operations = reversed
+			? changePackage.reversedOperations()
+			: changePackage.operations();
+		int count = 0;
+		try {
+			for (final AbstractOperation operation : operations.iterable()) {
+				if (operation != null) {
+					count++;
+				}
+			}
+		} finally {
+			operations.close();
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the number of bytes allocated by the current thread, or -1 if the VM does not support this
+	 * measurement. The method is looked up reflectively since it is not part of the standard management API.
+	 */
+	private static long getAllocatedBytes() {
+		try {
+			final Object threadMXBean = ManagementFactory.getThreadMXBean();
+			final Method method = Class.forName("com.sun.management.ThreadMXBean") //$NON-NLS-1$
+				.getMethod("getThreadAllocatedBytes", long.class); //$NON-NLS-1$
+			return (Long) method.invoke(threadMXBean, Thread.currentThread().getId());
+		} catch (final Exception ex) {
+			return -1;
+		}
+	}
+}
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.performance.test;
+
+import static org.junit.Assert.assertSame;
+
+import java.util.Date;
+import java.util.Random;
+
+import org.eclipse.emf.ecore.util.InternalEList;
+import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
+import org.eclipse.emf.emfstore.internal.server.core.subinterfaces.VersionSpecIndex;
+import org.eclipse.emf.emfstore.internal.server.model.ModelFactory;
+import org.eclipse.emf.emfstore.internal.server.model.ProjectHistory;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.BranchInfo;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.LogMessage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.TagVersionSpec;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.Version;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningFactory;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.Versions;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Compares the resolution of tag, date and branch version specs via the {@link VersionSpecIndex} with a linear scan
+ * of a synthetic project history. The size of the history can be configured via the system property
+ * {@code emfstore.benchmark.versions}.
+ */
+public class VersionSpecResolutionBenchmark {
+
+	private static final int NR_OF_VERSIONS = Integer.getInteger("emfstore.benchmark.versions", 100000); //$NON-NLS-1$
+	private static final int NR_OF_BRANCHES = 50;
+	private static final int TAG_EVERY_X_VERSIONS = 100;
+	private static final int NR_OF_LOOKUPS = 2000;
+	private static final long START_DATE = 1000000000000L;
+	private static final long COMMIT_INTERVAL = 60000L;
+	private static final String TAG_PREFIX = "release-"; //$NON-NLS-1$
+	private static final String BRANCH_PREFIX = "branch-"; //$NON-NLS-1$
+
+	private static ProjectHistory projectHistory;
+
+	@BeforeClass
+	public static void beforeClass() {
+		projectHistory = ModelFactory.eINSTANCE.createProjectHistory();
+		projectHistory.setProjectId(ModelFactory.eINSTANCE.createProjectId());
+		@SuppressWarnings("unchecked")
+		final InternalEList<Version> versions = (InternalEList<Version>) projectHistory.getVersions();
+		Version previousVersion = null;
+		for (int i = 0; i < NR_OF_VERSIONS; i++) {
+			final Version version = VersioningFactory.eINSTANCE.createVersion();
+			version.setPrimarySpec(Versions.createPRIMARY(i));
+			final LogMessage logMessage = VersioningFactory.eINSTANCE.createLogMessage();
+			logMessage.setDate(new Date(START_DATE + i * COMMIT_INTERVAL));
+			version.setLogMessage(logMessage);
+			if (i % TAG_EVERY_X_VERSIONS == 0) {
+				version.getTagSpecs().add(Versions.createTAG(TAG_PREFIX + i, Versions.createPRIMARY(i).getBranch()));
+			}
+			version.setPreviousVersion(previousVersion);
+			// skip the uniqueness check of the containment list
+			versions.addUnique(version);
+			previousVersion = version;
+		}
+		for (int i = 0; i < NR_OF_BRANCHES; i++) {
+			final BranchInfo branchInfo = VersioningFactory.eINSTANCE.createBranchInfo();
+			branchInfo.setName(BRANCH_PREFIX + i);
+			branchInfo.setHead(Versions.createPRIMARY(BRANCH_PREFIX + i, i));
+			projectHistory.getBranches().add(branchInfo);
+		}
+	}
+
+	@Test
+	public void benchmarkResolution() {
+		long time = System.nanoTime();
+		final VersionSpecIndex index = new VersionSpecIndex(projectHistory);
+		final long buildTime = System.nanoTime() - time;
+
+		final Random random = new Random(1234567800L);
+		final String[] tags = new String[NR_OF_LOOKUPS];
+		final Date[] dates = new Date[NR_OF_LOOKUPS];
+		final String[] branches = new String[NR_OF_LOOKUPS];
+		for (int i = 0; i < NR_OF_LOOKUPS; i++) {
+			tags[i] = TAG_PREFIX + random.nextInt(NR_OF_VERSIONS / TAG_EVERY_X_VERSIONS) * TAG_EVERY_X_VERSIONS;
+			dates[i] = new Date(START_DATE + (long) (random.nextDouble() * NR_OF_VERSIONS * COMMIT_INTERVAL));
+			branches[i] = BRANCH_PREFIX + random.nextInt(NR_OF_BRANCHES);
+		}
+
+		time = System.nanoTime();
+		for (int i = 0; i < NR_OF_LOOKUPS; i++) {
+			index.getTaggedVersion(tags[i]);
+			index.getFirstVersionAfter(dates[i]);
+			index.getBranch(branches[i]);
+		}
+		final long indexTime = System.nanoTime() - time;
+
+		time = System.nanoTime();
+		for (int i = 0; i < NR_OF_LOOKUPS; i++) {
+			scanTaggedVersion(tags[i]);
+			scanFirstVersionAfter(dates[i]);
+			scanBranch(branches[i]);
+		}
+		final long scanTime = System.nanoTime() - time;
+
+		for (int i = 0; i < NR_OF_LOOKUPS; i++) {
+			assertSame(scanTaggedVersion(tags[i]), index.getTaggedVersion(tags[i]));
+			assertSame(scanFirstVersionAfter(dates[i]), index.getFirstVersionAfter(dates[i]));
+			assertSame(scanBranch(branches[i]), index.getBranch(branches[i]));
+		}
+
+		ModelUtil.logInfo("version spec resolution - versions: " + NR_OF_VERSIONS + ", lookups: " + NR_OF_LOOKUPS //$NON-NLS-1$ //$NON-NLS-2$
+			+ ", index build: " + buildTime / 1000000 + "ms, indexed: " + indexTime / 1000000 //$NON-NLS-1$ //$NON-NLS-2$
+			+ "ms, linear scan: " + scanTime / 1000000 + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private static Version scanTaggedVersion(String name) {
+		for (final Version version : projectHistory.getVersions()) {
+			for (final TagVersionSpec tag : version.getTagSpecs()) {
+				if (name.equals(tag.getName())) {
+					return version;
+				}
+			}
+		}
+		return null;
+	}
+
+	private static Version scanFirstVersionAfter(Date date) {
+		for (final Version version : projectHistory.getVersions()) {
+			final LogMessage logMessage = version.getLogMessage();
+			if (logMessage != null && logMessage.getDate() != null && date.before(logMessage.getDate())) {
+				return version;
+			}
+		}
+		return null;
+	}
+
+	private static BranchInfo scanBranch(String name) {
+		for (final BranchInfo branchInfo : projectHistory.getBranches()) {
+			if (branchInfo.getName().equals(name)) {
+				return branchInfo;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.performance.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.emf.emfstore.client.ESLocalProject;
+import org.eclipse.emf.emfstore.client.ESWorkspaceProvider;
+import org.eclipse.emf.emfstore.client.util.ESVoidCallable;
+import org.eclipse.emf.emfstore.client.util.RunESCommand;
+import org.eclipse.emf.emfstore.internal.client.model.Configuration;
+import org.eclipse.emf.emfstore.internal.client.model.ESWorkspaceProviderImpl;
+import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
+import org.eclipse.emf.emfstore.server.exceptions.ESException;
+import org.eclipse.emf.emfstore.test.model.TestElement;
+import org.eclipse.emf.emfstore.test.model.TestmodelFactory;
+import org.junit.Test;
+
+/**
+ * Compares the time to load the workspace for a growing number of local projects, once with all project spaces being
+ * initialized upon startup and once with project spaces being initialized upon their first use. The latter also
+ * reports the time of the first access of a single project. The number of elements per project can be configured via
+ * the system property {@code emfstore.benchmark.elements}.
+ */
+public class WorkspaceStartupBenchmark {
+
+	private static final int NR_OF_ELEMENTS = Integer.getInteger("emfstore.benchmark.elements", 1000); //$NON-NLS-1$
+	private static final int[] WORKSPACE_SIZES = { 5, 20, 50 };
+
+	@Test
+	public void benchmarkStartup() throws IOException, ESException {
+		final boolean lazyInit = Configuration.getClientBehavior().isLazyProjectSpaceInitActivated();
+		final int initialSize = getLocalProjects().size();
+		try {
+			for (final int workspaceSize : WORKSPACE_SIZES) {
+				while (getLocalProjects().size() < initialSize + workspaceSize) {
+					createProject(getLocalProjects().size());
+				}
+
+				final long eagerTime = load(false);
+				final long lazyTime = load(true);
+
+				final long time = System.nanoTime();
+				final ESLocalProject localProject = getLocalProjects().get(getLocalProjects().size() - 1);
+				assertEquals(NR_OF_ELEMENTS, localProject.getModelElements().size());
+				final long firstAccessTime = System.nanoTime() - time;
+
+				ModelUtil.logInfo("workspace startup - projects: " + getLocalProjects().size() //$NON-NLS-1$
+					+ ", eager: " + eagerTime / 1000000 + "ms" //$NON-NLS-1$ //$NON-NLS-2$
+					+ ", lazy: " + lazyTime / 1000000 + "ms" //$NON-NLS-1$ //$NON-NLS-2$
+					+ ", first access: " + firstAccessTime / 1000000 + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		} finally {
+			load(lazyInit);
+			final List<ESLocalProject> localProjects = getLocalProjects();
+			for (int i = localProjects.size() - 1; i >= initialSize; i--) {
+				localProjects.get(i).delete(new NullProgressMonitor());
+			}
+		}
+	}
+
+	private static List<ESLocalProject> getLocalProjects() {
+		return ESWorkspaceProvider.INSTANCE.getWorkspace().getLocalProjects();
+	}
+
+	private static void createProject(int index) {
+		final ESLocalProject localProject = ESWorkspaceProvider.INSTANCE.getWorkspace()
+			.createLocalProject("project " + index); //$NON-NLS-1$
+		RunESCommand.run(new ESVoidCallable() {
+			@Override
+			public void run() {
+				for (int i = 0; i < NR_OF_ELEMENTS; i++) {
+					final TestElement element = TestmodelFactory.eINSTANCE.createTestElement();
+					element.setName("element " + i); //$NON-NLS-1$
+					localProject.getModelElements().add(element);
+				}
+			}
+		});
+		localProject.save();
+	}
+
+	private static long load(boolean lazyInit) {
+		Configuration.getClientBehavior().setLazyProjectSpaceInit(lazyInit);
+		ESWorkspaceProviderImpl.getInstance().dispose();
+		final long time = System.nanoTime();
+		ESWorkspaceProviderImpl.getInstance().load();
+		return System.nanoTime() - time;
+	}
+}
@@ -31,9 +31,23 @@ import org.junit.runners.Suite;
 	LoginServiceTest.class,
 	ChangeCertificationTest.class,
 	ChecksumTest.class,
+	CompactOperationsCommitTest.class,
+	ChunkedFileTransferTest.class,
+	ContentAddressedFileStoreTest.class,
+	EmfStoreValidatorTest.class,
+	ChangePackageFragmentTest.class,
+	PartitionedConflictDetectionTest.class,
+	FileBasedConflictDetectionTest.class,
+	FileBasedChangePackageIndexTest.class,
+	FileBasedChangePackageManifestTest.class,
 	FileManagerTest.class,
+	InPlaceCommitTest.class,
 	InvalidArgumentsTest.class,
+	ModelElementVersionIndexTest.class,
+	OperationsCompactorTest.class,
 	PropertiesTest.class,
+	ProjectStateCacheTest.class,
+	ResourceResidencyManagerTest.class,
 	AllServerAPITests.class,
 	VersionSpecTests.class,
 	VersionVerifierTest.class
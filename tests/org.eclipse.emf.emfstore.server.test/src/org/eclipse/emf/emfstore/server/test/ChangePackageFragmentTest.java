@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.server.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.emf.emfstore.internal.server.core.subinterfaces.ChangePackageFragmentUploadAdapter;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.ChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.ChangePackageEnvelope;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.FileBasedChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningFactory;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AbstractOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AttributeOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.OperationsFactory;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.util.ChangePackageUtil;
+import org.eclipse.emf.emfstore.server.exceptions.ESException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that change packages are reassembled from fragments that arrive in any order.
+ */
+public class ChangePackageFragmentTest {
+
+	private static final String PROXY_ID = "proxy"; //$NON-NLS-1$
+
+	private FileBasedChangePackage changePackage;
+
+	@Before
+	public void before() throws IOException {
+		final File file = File.createTempFile("fragments", ".eoc"); //$NON-NLS-1$ //$NON-NLS-2$
+		changePackage = VersioningFactory.eINSTANCE.createFileBasedChangePackage();
+		changePackage.initialize(file.getAbsolutePath());
+		for (int i = 0; i < 50; i++) {
+			final AttributeOperation operation = OperationsFactory.eINSTANCE.createAttributeOperation();
+			operation.setFeatureName("name"); //$NON-NLS-1$
+			operation.setNewValue(String.valueOf(i));
+			changePackage.add(operation);
+		}
+	}
+
+	@After
+	public void after() {
+		new File(changePackage.getFilePath()).delete();
+		new File(changePackage.getTempFilePath()).delete();
+	}
+
+	@Test
+	public void testFragmentCountMatchesFragments() {
+		for (int fragmentSize = 1; fragmentSize < 40; fragmentSize++) {
+			final List<ChangePackageEnvelope> envelopes = split(fragmentSize);
+			assertEquals(envelopes.size(), envelopes.get(0).getFragmentCount());
+			assertTrue(envelopes.get(envelopes.size() - 1).isLast());
+		}
+	}
+
+	@Test
+	public void testInOrderFragments() throws ESException {
+		assertReassembled(split(7));
+	}
+
+	@Test
+	public void testOutOfOrderFragments() throws ESException {
+		final List<ChangePackageEnvelope> envelopes = split(7);
+		Collections.shuffle(envelopes, new Random(7));
+		assertReassembled(envelopes);
+	}
+
+	@Test
+	public void testReversedFragments() throws ESException {
+		final List<ChangePackageEnvelope> envelopes = split(3);
+		Collections.reverse(envelopes);
+		assertReassembled(envelopes);
+	}
+
+	@Test(expected = ESException.class)
+	public void testDuplicateFragment() throws ESException {
+		final List<ChangePackageEnvelope> envelopes = split(3);
+		final ChangePackageFragmentUploadAdapter adapter = new ChangePackageFragmentUploadAdapter();
+		adapter.addFragment(PROXY_ID, envelopes.get(1));
+		adapter.addFragment(PROXY_ID, envelopes.get(1));
+	}
+
+	private void assertReassembled(List<ChangePackageEnvelope> envelopes) throws ESException {
+		final ChangePackageFragmentUploadAdapter adapter = new ChangePackageFragmentUploadAdapter();
+		for (int i = 0; i < envelopes.size(); i++) {
+			final boolean complete = adapter.addFragment(PROXY_ID, envelopes.get(i));
+			assertEquals(i == envelopes.size() - 1, complete);
+		}
+		adapter.markAsComplete(PROXY_ID);
+
+		final ChangePackage reassembled = adapter.convertFileBasedToInMemoryChangePackage(PROXY_ID).get();
+		final List<AbstractOperation> operations = reassembled.getOperations();
+		assertEquals(changePackage.size(), operations.size());
+		for (int i = 0; i < operations.size(); i++) {
+			assertEquals(String.valueOf(i), ((AttributeOperation) operations.get(i)).getNewValue());
+		}
+		assertFalse(adapter.convertFileBasedToInMemoryChangePackage("unknown").isPresent()); //$NON-NLS-1$
+	}
+
+	private List<ChangePackageEnvelope> split(int fragmentSize) {
+		final List<ChangePackageEnvelope> envelopes = new ArrayList<ChangePackageEnvelope>();
+		final Iterator<ChangePackageEnvelope> iterator = ChangePackageUtil.splitChangePackage(changePackage,
+			fragmentSize);
+		while (iterator.hasNext()) {
+			envelopes.add(iterator.next());
+		}
+		return envelopes;
+	}
+}
@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.server.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.emf.emfstore.internal.common.model.util.FileUtil;
+import org.eclipse.emf.emfstore.internal.server.exceptions.FileTransferException;
+import org.eclipse.emf.emfstore.internal.server.filetransfer.ChunkedFileTransfer;
+import org.eclipse.emf.emfstore.internal.server.filetransfer.FileChunk;
+import org.eclipse.emf.emfstore.internal.server.filetransfer.FileTransferInformation;
+import org.eclipse.emf.emfstore.internal.server.model.FileIdentifier;
+import org.eclipse.emf.emfstore.internal.server.model.ModelFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the positional reading and writing of file chunks by {@link ChunkedFileTransfer}.
+ */
+public class ChunkedFileTransferTest {
+
+	private File folder;
+
+	@Before
+	public void before() throws IOException {
+		folder = File.createTempFile("transfer", ""); //$NON-NLS-1$ //$NON-NLS-2$
+		folder.delete();
+		folder.mkdirs();
+	}
+
+	@After
+	public void after() throws IOException {
+		FileUtil.deleteDirectory(folder, true);
+	}
+
+	@Test
+	public void testTransferWithDefaultChunkSize() throws Exception {
+		assertTransfer(ChunkedFileTransfer.DEFAULT_CHUNK_SIZE * 3 + 17, 0);
+	}
+
+	@Test
+	public void testTransferWithCustomChunkSize() throws Exception {
+		assertTransfer(10000, 1024);
+		assertTransfer(4096, 1024);
+		assertTransfer(0, 1024);
+	}
+
+	@Test
+	public void testLastChunkTruncatesStaleData() throws Exception {
+		final File source = createFile("source", 3000); //$NON-NLS-1$
+		final File target = createFile("target", 8000); //$NON-NLS-1$
+		transfer(source, target, createInformation(1000));
+		assertArrayEquals(read(source), read(target));
+	}
+
+	@Test
+	public void testResume() throws Exception {
+		final File source = createFile("source", 10500); //$NON-NLS-1$
+		final File target = new File(folder, "target"); //$NON-NLS-1$
+		final FileTransferInformation information = createInformation(1000);
+		assertEquals(0, ChunkedFileTransfer.getResumeChunkNumber(target, information));
+
+		// transfer the first chunks and half of the fourth one only
+		for (int i = 0; i < 3; i++) {
+			information.setChunkNumber(i);
+			ChunkedFileTransfer.writeChunk(target, ChunkedFileTransfer.readChunk(source, information));
+		}
+		final FileOutputStream outputStream = new FileOutputStream(target, true);
+		try {
+			outputStream.write(new byte[500]);
+		} finally {
+			outputStream.close();
+		}
+
+		final int resumeChunkNumber = ChunkedFileTransfer.getResumeChunkNumber(target, information);
+		assertEquals(3, resumeChunkNumber);
+		information.setChunkNumber(resumeChunkNumber);
+		transfer(source, target, information);
+		assertArrayEquals(read(source), read(target));
+	}
+
+	@Test
+	public void testConcurrentTransfers() throws Exception {
+		final int transferCount = 8;
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+			for (int i = 0; i < transferCount; i++) {
+				final File source = createFile("source" + i, 20000 + i * 1000); //$NON-NLS-1$
+				final File target = new File(folder, "target" + i); //$NON-NLS-1$
+				results.add(executor.submit(new Callable<Boolean>() {
+					public Boolean call() throws Exception {
+						transfer(source, target, createInformation(777));
+						return Arrays.equals(read(source), read(target));
+					}
+				}));
+			}
+			for (final Future<Boolean> result : results) {
+				assertTrue(result.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private void assertTransfer(int fileSize, int requestedChunkSize) throws Exception {
+		final File source = createFile("source", fileSize); //$NON-NLS-1$
+		final File target = new File(folder, "target"); //$NON-NLS-1$
+		target.delete();
+		final FileTransferInformation information = createInformation(requestedChunkSize);
+		final int chunkCount = transfer(source, target, information);
+		final int chunkSize = information.getChunkSize();
+		assertEquals(Math.max(1, (fileSize + chunkSize - 1) / chunkSize), chunkCount);
+		assertEquals(fileSize, information.getFileSize());
+		assertArrayEquals(read(source), read(target));
+	}
+
+	private static int transfer(File source, File target, FileTransferInformation information)
+		throws FileTransferException {
+		int chunkCount = 0;
+		FileChunk chunk;
+		do {
+			chunk = ChunkedFileTransfer.readChunk(source, information);
+			ChunkedFileTransfer.writeChunk(target, chunk);
+			information.setChunkNumber(information.getChunkNumber() + 1);
+			chunkCount++;
+		} while (!chunk.isLast());
+		return chunkCount;
+	}
+
+	private static FileTransferInformation createInformation(int chunkSize) {
+		final FileIdentifier identifier = ModelFactory.eINSTANCE.createFileIdentifier();
+		final FileTransferInformation information = new FileTransferInformation(identifier,
+			FileTransferInformation.UNKOWN_SIZE);
+		information.setChunkSize(chunkSize);
+		return information;
+	}
+
+	private File createFile(String name, int size) throws IOException {
+		final byte[] data = new byte[size];
+		new Random(size).nextBytes(data);
+		final File file = new File(folder, name);
+		final FileOutputStream outputStream = new FileOutputStream(file);
+		try {
+			outputStream.write(data);
+		} finally {
+			outputStream.close();
+		}
+		return file;
+	}
+
+	private static byte[] read(File file) throws IOException {
+		final byte[] data = new byte[(int) file.length()];
+		final DataInputStream inputStream = new DataInputStream(new FileInputStream(file));
+		try {
+			inputStream.readFully(data);
+		} finally {
+			inputStream.close();
+		}
+		return data;
+	}
+}
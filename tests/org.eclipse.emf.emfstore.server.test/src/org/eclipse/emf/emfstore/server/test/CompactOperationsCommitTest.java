@@ -0,0 +1,216 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.server.test;
+
+import static org.eclipse.emf.emfstore.client.test.common.util.ProjectUtil.addElement;
+import static org.eclipse.emf.emfstore.client.test.common.util.ProjectUtil.commit;
+import static org.eclipse.emf.emfstore.client.test.common.util.ProjectUtil.defaultName;
+import static org.eclipse.emf.emfstore.client.test.common.util.ProjectUtil.rename;
+import static org.eclipse.emf.emfstore.client.test.common.util.ProjectUtil.share;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.emfstore.client.ESLocalProject;
+import org.eclipse.emf.emfstore.client.test.common.cases.ESTestWithLoggedInUserMock;
+import org.eclipse.emf.emfstore.client.test.common.dsl.Create;
+import org.eclipse.emf.emfstore.client.test.common.dsl.CreateAPI;
+import org.eclipse.emf.emfstore.client.util.RunESCommand;
+import org.eclipse.emf.emfstore.internal.client.model.Configuration;
+import org.eclipse.emf.emfstore.internal.client.model.ProjectSpace;
+import org.eclipse.emf.emfstore.internal.client.model.impl.api.ESLocalProjectImpl;
+import org.eclipse.emf.emfstore.internal.common.model.ModelElementId;
+import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.AbstractChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.FileBasedChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AbstractOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AttributeOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.OperationsFactory;
+import org.eclipse.emf.emfstore.server.ESCloseableIterable;
+import org.eclipse.emf.emfstore.server.exceptions.ESException;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests commits with the client option compactOperations activated, for in-memory as well as for file based local
+ * change packages.
+ */
+public class CompactOperationsCommitTest extends ESTestWithLoggedInUserMock {
+
+	private static final String[] NAMES = { "a", "b", "c" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+	private boolean compactOperations;
+	private boolean useInMemoryChangePackage;
+
+	@BeforeClass
+	public static void beforeClass() {
+		startEMFStore();
+	}
+
+	@AfterClass
+	public static void afterClass() {
+		stopEMFStore();
+	}
+
+	@Override
+	@Before
+	public void before() {
+		super.before();
+		compactOperations = Configuration.getClientBehavior().isCompactOperationsActivated();
+		useInMemoryChangePackage = Configuration.getClientBehavior().useInMemoryChangePackage();
+		Configuration.getClientBehavior().setCompactOperations(true);
+	}
+
+	@Override
+	@After
+	public void after() {
+		Configuration.getClientBehavior().setCompactOperations(compactOperations);
+		Configuration.getClientBehavior().setUseInMemoryChangePackage(useInMemoryChangePackage);
+		super.after();
+	}
+
+	@Test
+	public void testCommitInMemory() throws ESException {
+		assertCompactedCommit(true);
+	}
+
+	@Test
+	public void testCommitFileBased() throws ESException {
+		assertCompactedCommit(false);
+	}
+
+	@Test
+	public void testFailedCommitInMemory() throws ESException {
+		assertFailedCommit(true);
+	}
+
+	@Test
+	public void testFailedCommitFileBased() throws ESException {
+		assertFailedCommit(false);
+	}
+
+	private void assertCompactedCommit(boolean inMemory) throws ESException {
+		final ESLocalProject localProject = createSharedProject(inMemory);
+		for (final String name : NAMES) {
+			rename(localProject, name);
+		}
+		assertEquals(NAMES.length, getLocalChangePackage(localProject).size());
+
+		final Set<File> temporaryFiles = getTemporaryChangePackageFiles();
+		commit(localProject);
+
+		assertEquals(temporaryFiles, getTemporaryChangePackageFiles());
+		assertEquals(0, getLocalChangePackage(localProject).size());
+		// the renames are folded into a single one
+		final AbstractChangePackage changes = getHistory(localProject).getVersions().get(1).getChanges();
+		final List<AbstractOperation> operations = getOperations(changes);
+		assertEquals(1, operations.size());
+		assertEquals(NAMES[NAMES.length - 1], ((AttributeOperation) operations.get(0)).getNewValue());
+	}
+
+	private void assertFailedCommit(boolean inMemory) throws ESException {
+		final ESLocalProject localProject = createSharedProject(inMemory);
+		for (final String name : NAMES) {
+			rename(localProject, name);
+		}
+		// the compacted rename fails on the server with a ClassCastException
+		final ProjectSpace projectSpace = ESLocalProjectImpl.class.cast(localProject).toInternalAPI();
+		final ModelElementId elementId = projectSpace.getProject().getModelElementId(
+			localProject.getModelElements().get(0));
+		RunESCommand.run(new Callable<Void>() {
+			public Void call() throws Exception {
+				projectSpace.getLocalChangePackage().add(createRename(elementId, Integer.valueOf(1)));
+				return null;
+			}
+		});
+		final List<AbstractOperation> localOperations = getOperations(getLocalChangePackage(localProject));
+
+		final Set<File> temporaryFiles = getTemporaryChangePackageFiles();
+		try {
+			commit(localProject);
+			fail();
+		} catch (final ESException expected) {
+			// expected
+		}
+
+		assertEquals(temporaryFiles, getTemporaryChangePackageFiles());
+		assertEquals(1, getHistory(localProject).getVersions().size());
+		final List<AbstractOperation> operations = getOperations(getLocalChangePackage(localProject));
+		assertEquals(localOperations.size(), operations.size());
+		for (int i = 0; i < operations.size(); i++) {
+			assertTrue(EcoreUtil.equals(localOperations.get(i), operations.get(i)));
+		}
+	}
+
+	private ESLocalProject createSharedProject(boolean inMemory) throws ESException {
+		// the kind of the local change package is determined when the project space is created
+		Configuration.getClientBehavior().setUseInMemoryChangePackage(inMemory);
+		final ESLocalProject localProject = CreateAPI.project(defaultName());
+		addElement(localProject, Create.testElement("element")); //$NON-NLS-1$
+		share(getUsersession(), localProject);
+		assertEquals(!inMemory, getLocalChangePackage(localProject) instanceof FileBasedChangePackage);
+		return localProject;
+	}
+
+	private static AbstractChangePackage getLocalChangePackage(ESLocalProject localProject) {
+		return ESLocalProjectImpl.class.cast(localProject).toInternalAPI().getLocalChangePackage();
+	}
+
+	private static List<AbstractOperation> getOperations(AbstractChangePackage changePackage) {
+		final List<AbstractOperation> result = new ArrayList<AbstractOperation>();
+		final ESCloseableIterable<AbstractOperation> operations = changePackage.operations();
+		try {
+			for (final AbstractOperation operation : operations.iterable()) {
+				result.add(EcoreUtil.copy(operation));
+			}
+		} finally {
+			operations.close();
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the files of the temporary change packages, which are created in the temporary directory.
+	 */
+	private static Set<File> getTemporaryChangePackageFiles() {
+		final Set<File> result = new LinkedHashSet<File>();
+		final File[] files = new File(System.getProperty("java.io.tmpdir")).listFiles(); //$NON-NLS-1$
+		if (files == null) {
+			return result;
+		}
+		for (final File file : Arrays.asList(files)) {
+			if (file.getName().startsWith("temp-") && file.getName().contains(".eoc")) { //$NON-NLS-1$ //$NON-NLS-2$
+				result.add(file);
+			}
+		}
+		return result;
+	}
+
+	private static AttributeOperation createRename(ModelElementId elementId, Object newValue) {
+		final AttributeOperation operation = OperationsFactory.eINSTANCE.createAttributeOperation();
+		operation.setModelElementId(ModelUtil.clone(elementId));
+		operation.setFeatureName("name"); //$NON-NLS-1$
+		operation.setNewValue(newValue);
+		return operation;
+	}
+}
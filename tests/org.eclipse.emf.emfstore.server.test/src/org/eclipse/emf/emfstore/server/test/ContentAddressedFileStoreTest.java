@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.server.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.eclipse.emf.emfstore.internal.common.model.util.FileUtil;
+import org.eclipse.emf.emfstore.internal.server.filetransfer.ContentAddressedFileStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the deduplication and reference counting of the {@link ContentAddressedFileStore}.
+ */
+public class ContentAddressedFileStoreTest {
+
+	private File folder;
+	private ContentAddressedFileStore store;
+
+	@Before
+	public void before() throws IOException {
+		folder = File.createTempFile("store", ""); //$NON-NLS-1$ //$NON-NLS-2$
+		folder.delete();
+		folder.mkdirs();
+		store = new ContentAddressedFileStore(new File(folder, ContentAddressedFileStore.STORE_FOLDER));
+	}
+
+	@After
+	public void after() throws IOException {
+		FileUtil.deleteDirectory(folder, true);
+	}
+
+	@Test
+	public void testComputeHash() throws IOException {
+		assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855", //$NON-NLS-1$
+			ContentAddressedFileStore.computeHash(createFile("empty", ""))); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", //$NON-NLS-1$
+			ContentAddressedFileStore.computeHash(createFile("abc", "abc"))); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Test
+	public void testIdenticalContentsAreStoredOnce() throws IOException {
+		final File first = createFile("first", "content"); //$NON-NLS-1$ //$NON-NLS-2$
+		final File second = createFile("second", "content"); //$NON-NLS-1$ //$NON-NLS-2$
+		final String hash = ContentAddressedFileStore.computeHash(first);
+		final File firstLink = new File(folder, "first.sha256"); //$NON-NLS-1$
+		final File secondLink = new File(folder, "second.sha256"); //$NON-NLS-1$
+
+		store.add(first, hash, firstLink);
+		store.add(second, hash, secondLink);
+
+		assertFalse(first.exists());
+		assertFalse(second.exists());
+		assertEquals(2, store.getReferenceCount(hash));
+		final File content = store.resolve(firstLink);
+		assertEquals(content, store.resolve(secondLink));
+		assertEquals("content".length(), content.length()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testLinkToStoredContentOnly() throws IOException {
+		final File file = createFile("file", "content"); //$NON-NLS-1$ //$NON-NLS-2$
+		final String hash = ContentAddressedFileStore.computeHash(file);
+		final File link = new File(folder, "link.sha256"); //$NON-NLS-1$
+
+		assertFalse(store.link(hash, link));
+		assertFalse(link.exists());
+		assertNull(store.getLinkedHash(link));
+
+		store.add(file, hash, new File(folder, "file.sha256")); //$NON-NLS-1$
+		assertTrue(store.link(hash, link));
+		assertEquals(2, store.getReferenceCount(hash));
+		assertEquals(hash, store.getLinkedHash(link));
+
+		// linking twice does not count twice
+		assertTrue(store.link(hash, link));
+		assertEquals(2, store.getReferenceCount(hash));
+	}
+
+	@Test
+	public void testContentIsDeletedWithLastLink() throws IOException {
+		final File file = createFile("file", "content"); //$NON-NLS-1$ //$NON-NLS-2$
+		final String hash = ContentAddressedFileStore.computeHash(file);
+		final File firstLink = new File(folder, "first.sha256"); //$NON-NLS-1$
+		final File secondLink = new File(folder, "second.sha256"); //$NON-NLS-1$
+		store.add(file, hash, firstLink);
+		store.link(hash, secondLink);
+		final File content = store.resolve(firstLink);
+
+		store.unlink(firstLink);
+		assertFalse(firstLink.exists());
+		assertNull(store.resolve(firstLink));
+		assertTrue(content.exists());
+		assertEquals(1, store.getReferenceCount(hash));
+
+		store.unlink(secondLink);
+		assertFalse(content.exists());
+		assertEquals(0, store.getReferenceCount(hash));
+
+		// unlinking a missing link is ignored
+		store.unlink(secondLink);
+	}
+
+	@Test
+	public void testReplaceLinkedContent() throws IOException {
+		final File oldFile = createFile("old", "old content"); //$NON-NLS-1$ //$NON-NLS-2$
+		final File newFile = createFile("new", "new content"); //$NON-NLS-1$ //$NON-NLS-2$
+		final String oldHash = ContentAddressedFileStore.computeHash(oldFile);
+		final String newHash = ContentAddressedFileStore.computeHash(newFile);
+		final File link = new File(folder, "link.sha256"); //$NON-NLS-1$
+
+		store.add(oldFile, oldHash, link);
+		final File oldContent = store.resolve(link);
+		store.add(newFile, newHash, link);
+
+		assertFalse(oldContent.exists());
+		assertEquals(0, store.getReferenceCount(oldHash));
+		assertEquals(1, store.getReferenceCount(newHash));
+		assertEquals("new content".length(), store.resolve(link).length()); //$NON-NLS-1$
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidHash() throws IOException {
+		store.link("../../etc/passwd", new File(folder, "link.sha256")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private File createFile(String name, String content) throws IOException {
+		final File file = new File(folder, name);
+		final FileOutputStream outputStream = new FileOutputStream(file);
+		try {
+			outputStream.write(content.getBytes("UTF-8")); //$NON-NLS-1$
+		} finally {
+			outputStream.close();
+		}
+		return file;
+	}
+}
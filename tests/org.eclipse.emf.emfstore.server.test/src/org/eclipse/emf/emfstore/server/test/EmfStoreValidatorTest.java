@@ -0,0 +1,232 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.server.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceFactoryImpl;
+import org.eclipse.emf.emfstore.internal.common.model.util.FileUtil;
+import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
+import org.eclipse.emf.emfstore.internal.server.exceptions.FatalESException;
+import org.eclipse.emf.emfstore.internal.server.model.ModelFactory;
+import org.eclipse.emf.emfstore.internal.server.model.ProjectHistory;
+import org.eclipse.emf.emfstore.internal.server.model.ServerSpace;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.ChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.Version;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningFactory;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.Versions;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AttributeOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.OperationsFactory;
+import org.eclipse.emf.emfstore.internal.server.startup.EmfStoreValidator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the parallel and incremental model element ID validation of the {@link EmfStoreValidator}.
+ */
+public class EmfStoreValidatorTest {
+
+	private static final int NR_OF_VERSIONS = 5;
+
+	private File folder;
+	private File markerFile;
+	private ResourceSet resourceSet;
+	private ServerSpace serverSpace;
+
+	@Before
+	public void before() throws IOException {
+		folder = File.createTempFile("validator", ""); //$NON-NLS-1$ //$NON-NLS-2$
+		folder.delete();
+		folder.mkdirs();
+		markerFile = new File(folder, EmfStoreValidator.MARKER_FILE_NAME);
+		resourceSet = new ResourceSetImpl();
+		resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap().put(
+			Resource.Factory.Registry.DEFAULT_EXTENSION, new XMIResourceFactoryImpl());
+		serverSpace = ModelFactory.eINSTANCE.createServerSpace();
+		resourceSet.createResource(getURI("serverspace")).getContents().add(serverSpace); //$NON-NLS-1$
+	}
+
+	@After
+	public void after() throws IOException {
+		FileUtil.deleteDirectory(folder, true);
+	}
+
+	@Test
+	public void testValidProjects() throws Exception {
+		final ProjectHistory first = createProject();
+		final ProjectHistory second = createProject();
+
+		createValidator().validate(EmfStoreValidator.MODELELEMENTID);
+
+		final Properties markers = loadMarkers();
+		assertEquals(Integer.toString(NR_OF_VERSIONS - 1), markers.getProperty(getMarkerKey(first)));
+		assertEquals(Integer.toString(NR_OF_VERSIONS - 1), markers.getProperty(getMarkerKey(second)));
+	}
+
+	@Test
+	public void testInvalidProject() throws Exception {
+		final ProjectHistory valid = createProject();
+		final ProjectHistory invalid = createProject();
+		addVersion(invalid, false);
+
+		try {
+			createValidator().validate(EmfStoreValidator.MODELELEMENTID);
+			fail();
+		} catch (final FatalESException e) {
+			// expected
+		}
+
+		final Properties markers = loadMarkers();
+		assertEquals(Integer.toString(NR_OF_VERSIONS - 1), markers.getProperty(getMarkerKey(valid)));
+		assertNull(markers.getProperty(getMarkerKey(invalid)));
+	}
+
+	@Test
+	public void testValidatedVersionsAreSkipped() throws Exception {
+		final ProjectHistory projectHistory = createProject();
+		createValidator().validate(EmfStoreValidator.MODELELEMENTID);
+
+		// a validated version is not checked again
+		saveChangePackage(projectHistory.getVersions().get(1), false);
+		createValidator().validate(EmfStoreValidator.MODELELEMENTID);
+
+		// a new version is
+		addVersion(projectHistory, false);
+		try {
+			createValidator().validate(EmfStoreValidator.MODELELEMENTID);
+			fail();
+		} catch (final FatalESException e) {
+			// expected
+		}
+
+		// as well as all versions without marker file
+		saveChangePackage(projectHistory.getVersions().get(NR_OF_VERSIONS), true);
+		final EmfStoreValidator validator = createValidator();
+		validator.setMarkerFile(null);
+		try {
+			validator.validate(EmfStoreValidator.MODELELEMENTID);
+			fail();
+		} catch (final FatalESException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testResolveAll() throws Exception {
+		final ProjectHistory projectHistory = createProject();
+		for (final Version version : projectHistory.getVersions()) {
+			version.eResource().save(null);
+		}
+		final int resources = resourceSet.getResources().size();
+		createValidator().validate(EmfStoreValidator.RESOLVEALL);
+
+		// the versions are loaded in a resource set of their own
+		assertEquals(resources, resourceSet.getResources().size());
+		assertEquals(Integer.toString(NR_OF_VERSIONS - 1), loadMarkers().getProperty(
+			projectHistory.getProjectId().getId() + "." + EmfStoreValidator.RESOLVEALL)); //$NON-NLS-1$
+
+		final FileWriter writer = new FileWriter(
+			new File(projectHistory.getVersions().get(1).eResource().getURI().toFileString()));
+		try {
+			writer.write("<invalid"); //$NON-NLS-1$
+		} finally {
+			writer.close();
+		}
+		final EmfStoreValidator validator = createValidator();
+		validator.setMarkerFile(null);
+		try {
+			validator.validate(EmfStoreValidator.RESOLVEALL);
+			fail();
+		} catch (final FatalESException e) {
+			// expected
+		}
+	}
+
+	private EmfStoreValidator createValidator() {
+		final EmfStoreValidator validator = new EmfStoreValidator(serverSpace);
+		validator.setThreads(2);
+		validator.setMarkerFile(markerFile);
+		return validator;
+	}
+
+	private ProjectHistory createProject() throws IOException {
+		final ProjectHistory projectHistory = ModelFactory.eINSTANCE.createProjectHistory();
+		projectHistory.setProjectId(ModelFactory.eINSTANCE.createProjectId());
+		serverSpace.eResource().getContents().add(projectHistory);
+		serverSpace.getProjects().add(projectHistory);
+		for (int i = 0; i < NR_OF_VERSIONS; i++) {
+			addVersion(projectHistory, true);
+		}
+		return projectHistory;
+	}
+
+	private void addVersion(ProjectHistory projectHistory, boolean valid) throws IOException {
+		final Version version = VersioningFactory.eINSTANCE.createVersion();
+		version.setPrimarySpec(Versions.createPRIMARY(projectHistory.getVersions().size()));
+		projectHistory.getVersions().add(version);
+		resourceSet.createResource(getURI(projectHistory, "versions", version)).getContents().add(version); //$NON-NLS-1$
+		saveChangePackage(version, valid);
+	}
+
+	private void saveChangePackage(Version version, boolean valid) throws IOException {
+		final ChangePackage changePackage = VersioningFactory.eINSTANCE.createChangePackage();
+		final AttributeOperation operation = OperationsFactory.eINSTANCE.createAttributeOperation();
+		if (valid) {
+			operation.setModelElementId(ModelUtil.createModelElementId("element")); //$NON-NLS-1$
+		}
+		changePackage.getOperations().add(operation);
+		// the server does not keep change packages in the resource set of the server space either
+		final Resource resource = resourceSet.createResource(
+			getURI((ProjectHistory) version.eContainer(), "changepackages", version)); //$NON-NLS-1$
+		resource.getContents().add(changePackage);
+		resource.save(null);
+		resource.unload();
+		resourceSet.getResources().remove(resource);
+	}
+
+	private URI getURI(ProjectHistory projectHistory, String segment, Version version) {
+		return getURI(projectHistory.getProjectId().getId() + "/" + segment + "/" //$NON-NLS-1$ //$NON-NLS-2$
+			+ version.getPrimarySpec().getIdentifier());
+	}
+
+	private URI getURI(String path) {
+		return URI.createFileURI(new File(folder, path).getAbsolutePath());
+	}
+
+	private static String getMarkerKey(ProjectHistory projectHistory) {
+		return projectHistory.getProjectId().getId() + "." + EmfStoreValidator.MODELELEMENTID; //$NON-NLS-1$
+	}
+
+	private Properties loadMarkers() throws IOException {
+		final Properties markers = new Properties();
+		final InputStream inputStream = new FileInputStream(markerFile);
+		try {
+			markers.load(inputStream);
+		} finally {
+			inputStream.close();
+		}
+		return markers;
+	}
+}
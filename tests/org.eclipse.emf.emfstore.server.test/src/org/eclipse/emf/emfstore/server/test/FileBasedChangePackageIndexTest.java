@@ -0,0 +1,263 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.server.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.emf.emfstore.internal.common.model.ModelFactory;
+import org.eclipse.emf.emfstore.internal.common.model.util.FileUtil;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.FileBasedChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningFactory;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.impl.persistent.OperationIndex;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AbstractOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AttributeOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.CompositeOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.OperationsFactory;
+import org.eclipse.emf.emfstore.server.ESCloseableIterable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the random access to the operations of a {@link FileBasedChangePackage} via its {@link OperationIndex} and
+ * the incremental saving of its operations.
+ */
+public class FileBasedChangePackageIndexTest {
+
+	private static final int NR_OF_OPERATIONS = 10;
+
+	private File file;
+	private FileBasedChangePackage changePackage;
+
+	@Before
+	public void before() throws IOException {
+		file = File.createTempFile("operations", ".eoc"); //$NON-NLS-1$ //$NON-NLS-2$
+		changePackage = createChangePackage(file.getAbsolutePath());
+		for (int i = 0; i < NR_OF_OPERATIONS; i++) {
+			changePackage.add(createOperation(i));
+		}
+	}
+
+	@After
+	public void after() {
+		delete(changePackage);
+	}
+
+	@Test
+	public void testSizeAndGet() {
+		assertEquals(NR_OF_OPERATIONS, changePackage.size());
+		assertEquals(NR_OF_OPERATIONS, changePackage.leafSize());
+		for (int i = 0; i < NR_OF_OPERATIONS; i++) {
+			assertOperation(i, changePackage.get(i));
+		}
+	}
+
+	@Test
+	public void testGetRange() {
+		final List<AbstractOperation> operations = changePackage.get(3, 7);
+		assertEquals(4, operations.size());
+		for (int i = 0; i < operations.size(); i++) {
+			assertOperation(3 + i, operations.get(i));
+		}
+		assertTrue(changePackage.get(5, 5).isEmpty());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testGetOutOfBounds() {
+		changePackage.get(NR_OF_OPERATIONS);
+	}
+
+	@Test
+	public void testIterationInBothDirections() {
+		final List<AbstractOperation> forward = collect(changePackage.operations());
+		final List<AbstractOperation> backward = collect(changePackage.reversedOperations());
+		assertEquals(NR_OF_OPERATIONS, forward.size());
+		assertEquals(NR_OF_OPERATIONS, backward.size());
+		for (int i = 0; i < NR_OF_OPERATIONS; i++) {
+			assertOperation(i, forward.get(i));
+			assertOperation(i, backward.get(NR_OF_OPERATIONS - 1 - i));
+		}
+	}
+
+	@Test
+	public void testRemoveAtEnd() {
+		final List<AbstractOperation> removed = changePackage.removeAtEnd(3);
+		assertEquals(3, removed.size());
+		assertOperation(9, removed.get(0));
+		assertOperation(8, removed.get(1));
+		assertOperation(7, removed.get(2));
+		assertEquals(NR_OF_OPERATIONS - 3, changePackage.size());
+
+		changePackage.add(createOperation(NR_OF_OPERATIONS));
+		assertOperation(NR_OF_OPERATIONS, changePackage.get(NR_OF_OPERATIONS - 3));
+		assertEquals(NR_OF_OPERATIONS - 2, collect(changePackage.operations()).size());
+
+		changePackage.removeAtEnd(NR_OF_OPERATIONS);
+		assertTrue(changePackage.isEmpty());
+		assertTrue(collect(changePackage.operations()).isEmpty());
+	}
+
+	@Test
+	public void testClear() {
+		changePackage.clear();
+		assertTrue(changePackage.isEmpty());
+		changePackage.add(createOperation(0));
+		assertEquals(1, changePackage.size());
+		assertOperation(0, changePackage.get(0));
+	}
+
+	@Test
+	public void testIndexIsSharedViaSidecarFile() throws IOException {
+		final File operationsFile = new File(changePackage.getTempFilePath());
+		assertTrue(OperationIndex.getIndexFile(operationsFile).exists());
+
+		final OperationIndex index = OperationIndex.load(operationsFile);
+		assertTrue(index.isPersisted());
+		assertEquals(NR_OF_OPERATIONS, index.size());
+
+		final FileBasedChangePackage other = VersioningFactory.eINSTANCE.createFileBasedChangePackage();
+		other.setFilePath(changePackage.getFilePath());
+		assertEquals(NR_OF_OPERATIONS, other.size());
+		assertOperation(4, other.get(4));
+	}
+
+	@Test
+	public void testStaleIndexIsRebuilt() throws IOException {
+		final FileBasedChangePackage other = createChangePackage(file.getAbsolutePath() + "2"); //$NON-NLS-1$
+		try {
+			other.add(createOperation(42));
+			final CompositeOperation composite = OperationsFactory.eINSTANCE.createCompositeOperation();
+			composite.getSubOperations().add(createOperation(43));
+			composite.getSubOperations().add(createOperation(44));
+			other.add(composite);
+
+			// replace the operations file behind the back of the change package
+			FileUtil.copyFile(new File(other.getTempFilePath()), new File(changePackage.getTempFilePath()));
+
+			assertEquals(2, changePackage.size());
+			assertEquals(4, changePackage.leafSize());
+			assertOperation(42, changePackage.get(0));
+			assertEquals(2, CompositeOperation.class.cast(changePackage.get(1)).getSubOperations().size());
+		} finally {
+			delete(other);
+		}
+	}
+
+	@Test
+	public void testMove() throws IOException {
+		final String newFilePath = file.getAbsolutePath() + "moved"; //$NON-NLS-1$
+		final File oldIndexFile = OperationIndex.getIndexFile(new File(changePackage.getTempFilePath()));
+		changePackage.move(newFilePath);
+
+		assertTrue(!oldIndexFile.exists());
+		assertTrue(OperationIndex.getIndexFile(new File(changePackage.getTempFilePath())).exists());
+		assertEquals(NR_OF_OPERATIONS, changePackage.size());
+		changePackage.add(createOperation(NR_OF_OPERATIONS));
+		assertOperation(NR_OF_OPERATIONS, changePackage.get(NR_OF_OPERATIONS));
+	}
+
+	@Test
+	public void testIncrementalSave() throws IOException {
+		changePackage.save();
+		assertSaved();
+
+		changePackage.add(createOperation(NR_OF_OPERATIONS));
+		changePackage.save();
+		assertSaved();
+
+		changePackage.removeAtEnd(3);
+		changePackage.add(createOperation(NR_OF_OPERATIONS + 1));
+		changePackage.save();
+		assertSaved();
+
+		changePackage.removeAtEnd(2);
+		changePackage.save();
+		assertSaved();
+
+		changePackage.clear();
+		changePackage.add(createOperation(0));
+		changePackage.save();
+		assertSaved();
+
+		final FileBasedChangePackage saved = VersioningFactory.eINSTANCE.createFileBasedChangePackage();
+		saved.setFilePath(file.getAbsolutePath() + "saved"); //$NON-NLS-1$
+		try {
+			FileUtil.copyFile(new File(changePackage.getFilePath()), new File(saved.getTempFilePath()));
+			assertEquals(1, saved.size());
+			assertOperation(0, saved.get(0));
+		} finally {
+			delete(saved);
+		}
+	}
+
+	private void assertSaved() throws IOException {
+		assertTrue(Arrays.equals(readFile(new File(changePackage.getTempFilePath())),
+			readFile(new File(changePackage.getFilePath()))));
+	}
+
+	private static byte[] readFile(File file) throws IOException {
+		final byte[] bytes = new byte[(int) file.length()];
+		final DataInputStream inputStream = new DataInputStream(new FileInputStream(file));
+		try {
+			inputStream.readFully(bytes);
+		} finally {
+			inputStream.close();
+		}
+		return bytes;
+	}
+
+	private static FileBasedChangePackage createChangePackage(String filePath) {
+		final FileBasedChangePackage changePackage = VersioningFactory.eINSTANCE.createFileBasedChangePackage();
+		changePackage.initialize(filePath);
+		return changePackage;
+	}
+
+	private static void delete(FileBasedChangePackage changePackage) {
+		final File tempFile = new File(changePackage.getTempFilePath());
+		new File(changePackage.getFilePath()).delete();
+		tempFile.delete();
+		OperationIndex.getIndexFile(tempFile).delete();
+	}
+
+	private static AttributeOperation createOperation(int i) {
+		final AttributeOperation operation = OperationsFactory.eINSTANCE.createAttributeOperation();
+		operation.setModelElementId(ModelFactory.eINSTANCE.createModelElementId());
+		operation.setFeatureName("name"); //$NON-NLS-1$
+		operation.setOldValue(String.valueOf(i));
+		operation.setNewValue("multi\nline <value> " + i); //$NON-NLS-1$
+		return operation;
+	}
+
+	private static void assertOperation(int expected, AbstractOperation operation) {
+		assertEquals(String.valueOf(expected), AttributeOperation.class.cast(operation).getOldValue());
+	}
+
+	private static List<AbstractOperation> collect(ESCloseableIterable<AbstractOperation> operations) {
+		final List<AbstractOperation> result = new ArrayList<AbstractOperation>();
+		try {
+			for (final AbstractOperation operation : operations.iterable()) {
+				result.add(operation);
+			}
+		} finally {
+			operations.close();
+		}
+		return result;
+	}
+}
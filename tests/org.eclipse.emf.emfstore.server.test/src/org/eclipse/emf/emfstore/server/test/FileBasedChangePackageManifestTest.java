@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.server.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.eclipse.emf.emfstore.internal.common.model.ModelFactory;
+import org.eclipse.emf.emfstore.internal.common.model.util.FileUtil;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.FileBasedChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningFactory;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.impl.persistent.ChangePackageManifest;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.impl.persistent.OperationIndex;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AttributeOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.OperationsFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests restoring the temporary operations file of a {@link FileBasedChangePackage} from the
+ * {@link ChangePackageManifest} written upon saving.
+ */
+public class FileBasedChangePackageManifestTest {
+
+	private static final int NR_OF_OPERATIONS = 10;
+
+	private File file;
+	private FileBasedChangePackage changePackage;
+
+	@Before
+	public void before() throws IOException {
+		file = File.createTempFile("operations", ".eoc"); //$NON-NLS-1$ //$NON-NLS-2$
+		changePackage = VersioningFactory.eINSTANCE.createFileBasedChangePackage();
+		changePackage.initialize(file.getAbsolutePath());
+		for (int i = 0; i < NR_OF_OPERATIONS; i++) {
+			changePackage.add(createOperation(i));
+		}
+		changePackage.save();
+	}
+
+	@After
+	public void after() {
+		final File tempFile = new File(changePackage.getTempFilePath());
+		file.delete();
+		tempFile.delete();
+		OperationIndex.getIndexFile(tempFile).delete();
+		ChangePackageManifest.delete(file);
+	}
+
+	@Test
+	public void testSaveWritesManifest() throws IOException {
+		assertTrue(ChangePackageManifest.getManifestFile(file).exists());
+		assertEquals(NR_OF_OPERATIONS, ChangePackageManifest.read(file).get().getOperationCount());
+
+		// appending does not touch the saved bytes
+		changePackage.add(createOperation(NR_OF_OPERATIONS));
+		assertTrue(ChangePackageManifest.getManifestFile(file).exists());
+		changePackage.save();
+		assertEquals(NR_OF_OPERATIONS + 1, ChangePackageManifest.read(file).get().getOperationCount());
+		assertTrue(ChangePackageManifest.read(file).get().describes(file));
+	}
+
+	@Test
+	public void testRemovingSavedOperationsDeletesManifest() throws IOException {
+		changePackage.removeAtEnd(2);
+		assertFalse(ChangePackageManifest.getManifestFile(file).exists());
+
+		changePackage.save();
+		assertEquals(NR_OF_OPERATIONS - 2, ChangePackageManifest.read(file).get().getOperationCount());
+		assertSaved();
+	}
+
+	@Test
+	public void testRestoreDiscardsUnsavedOperations() throws IOException {
+		changePackage.add(createOperation(NR_OF_OPERATIONS));
+		changePackage.add(createOperation(NR_OF_OPERATIONS + 1));
+
+		final FileBasedChangePackage restored = reopen();
+		restored.restore();
+		assertEquals(NR_OF_OPERATIONS, restored.size());
+		assertOperation(NR_OF_OPERATIONS - 1, restored.get(NR_OF_OPERATIONS - 1));
+		assertSaved();
+
+		// the restored change package continues to save incrementally
+		restored.add(createOperation(NR_OF_OPERATIONS));
+		restored.save();
+		assertEquals(NR_OF_OPERATIONS + 1, reopen().size());
+		assertSaved();
+	}
+
+	@Test
+	public void testRestoreRepairsInterruptedSave() throws IOException {
+		changePackage.add(createOperation(NR_OF_OPERATIONS));
+		// simulate a save that has appended the new operation but did not get to write the manifest
+		FileUtil.copyFile(new File(changePackage.getTempFilePath()), file);
+		assertFalse(ChangePackageManifest.read(file).get().describes(file));
+
+		final FileBasedChangePackage restored = reopen();
+		restored.restore();
+		assertEquals(NR_OF_OPERATIONS, restored.size());
+		assertTrue(ChangePackageManifest.read(file).get().describes(file));
+		assertSaved();
+	}
+
+	@Test
+	public void testRestoreWithoutManifest() throws IOException {
+		changePackage.add(createOperation(NR_OF_OPERATIONS));
+		ChangePackageManifest.delete(file);
+
+		final FileBasedChangePackage restored = reopen();
+		restored.restore();
+		assertEquals(NR_OF_OPERATIONS, restored.size());
+		assertSaved();
+	}
+
+	private FileBasedChangePackage reopen() {
+		final FileBasedChangePackage reopened = VersioningFactory.eINSTANCE.createFileBasedChangePackage();
+		reopened.setFilePath(changePackage.getFilePath());
+		return reopened;
+	}
+
+	private void assertSaved() throws IOException {
+		assertTrue(Arrays.equals(readFile(new File(changePackage.getTempFilePath())), readFile(file)));
+	}
+
+	private static byte[] readFile(File file) throws IOException {
+		final byte[] bytes = new byte[(int) file.length()];
+		final DataInputStream inputStream = new DataInputStream(new FileInputStream(file));
+		try {
+			inputStream.readFully(bytes);
+		} finally {
+			inputStream.close();
+		}
+		return bytes;
+	}
+
+	private static AttributeOperation createOperation(int i) {
+		final AttributeOperation operation = OperationsFactory.eINSTANCE.createAttributeOperation();
+		operation.setModelElementId(ModelFactory.eINSTANCE.createModelElementId());
+		operation.setFeatureName("name"); //$NON-NLS-1$
+		operation.setOldValue(String.valueOf(i));
+		return operation;
+	}
+
+	private static void assertOperation(int expected, Object operation) {
+		assertEquals(String.valueOf(expected), AttributeOperation.class.cast(operation).getOldValue());
+	}
+}
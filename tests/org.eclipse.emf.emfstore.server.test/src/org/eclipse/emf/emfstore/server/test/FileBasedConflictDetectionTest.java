@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.server.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.emfstore.client.test.common.util.TestModelElementIdToEObjectMapping;
+import org.eclipse.emf.emfstore.internal.common.model.ModelElementId;
+import org.eclipse.emf.emfstore.internal.common.model.ModelElementIdToEObjectMapping;
+import org.eclipse.emf.emfstore.internal.common.model.ModelFactory;
+import org.eclipse.emf.emfstore.internal.server.conflictDetection.ChangeConflictSet;
+import org.eclipse.emf.emfstore.internal.server.conflictDetection.ConflictBucket;
+import org.eclipse.emf.emfstore.internal.server.conflictDetection.ConflictDetector;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.AbstractChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.ChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.FileBasedChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningFactory;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.impl.persistent.OperationIndex;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AbstractOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AttributeOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.MultiReferenceOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.OperationsFactory;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests that conflicts are detected in the same way for file based change packages, whose operations are streamed
+ * from disk, as for in-memory change packages.
+ */
+public class FileBasedConflictDetectionTest {
+
+	private static final int NR_OF_OPERATIONS = 600;
+
+	private static final ModelElementIdToEObjectMapping EMPTY_MAPPING = new TestModelElementIdToEObjectMapping();
+
+	private final List<FileBasedChangePackage> fileBasedChangePackages = new ArrayList<FileBasedChangePackage>();
+
+	@After
+	public void after() {
+		for (final FileBasedChangePackage changePackage : fileBasedChangePackages) {
+			final File tempFile = new File(changePackage.getTempFilePath());
+			new File(changePackage.getFilePath()).delete();
+			tempFile.delete();
+			OperationIndex.getIndexFile(tempFile).delete();
+		}
+	}
+
+	@Test
+	public void testSameConflictsAsInMemory() throws IOException {
+		assertSameConflicts(1);
+	}
+
+	@Test
+	public void testSameConflictsAsInMemoryInParallel() throws IOException {
+		assertSameConflicts(4);
+	}
+
+	@Test
+	public void testNoConflicts() throws IOException {
+		final Random random = new Random(5);
+		final ChangePackage myChanges = createChanges(random, "mine"); //$NON-NLS-1$
+		final ChangePackage theirChanges = createChanges(random, "theirs"); //$NON-NLS-1$
+
+		final ChangeConflictSet conflicts = new ConflictDetector().calculateConflicts(
+			asList(toFileBased(myChanges)), asList(toFileBased(theirChanges)), EMPTY_MAPPING);
+
+		assertTrue(conflicts.getConflictBuckets().isEmpty());
+		assertEquals(getIdentifiers(myChanges.getOperations()), getIdentifiers(conflicts.getNotInvolvedInConflict()));
+	}
+
+	@Test
+	public void testOperationsWithoutIdentifier() {
+		final ChangePackage myChanges = VersioningFactory.eINSTANCE.createChangePackage();
+		final AttributeOperation conflicting = createRename("element", "mine"); //$NON-NLS-1$ //$NON-NLS-2$
+		final AttributeOperation notConflicting = createRename("other", "mine"); //$NON-NLS-1$ //$NON-NLS-2$
+		myChanges.add(conflicting);
+		myChanges.add(notConflicting);
+		final ChangePackage theirChanges = VersioningFactory.eINSTANCE.createChangePackage();
+		theirChanges.add(createRename("element", "theirs")); //$NON-NLS-1$ //$NON-NLS-2$
+
+		final ChangeConflictSet conflicts = new ConflictDetector().calculateConflicts(asList(myChanges),
+			asList(theirChanges), EMPTY_MAPPING);
+
+		assertEquals(1, conflicts.getConflictBuckets().size());
+		// copies are matched structurally
+		assertFalse(conflicts.isNotInvolvedInConflict(copyWithoutIdentifier(conflicting)));
+		assertTrue(conflicts.isNotInvolvedInConflict(copyWithoutIdentifier(notConflicting)));
+	}
+
+	private void assertSameConflicts(int parallelism) throws IOException {
+		final Random random = new Random(parallelism);
+		final ChangePackage myChanges = createChanges(random, "element"); //$NON-NLS-1$
+		final ChangePackage theirChanges = createChanges(random, "element"); //$NON-NLS-1$
+		final ConflictDetector conflictDetector = new ConflictDetector(parallelism);
+
+		final ChangeConflictSet expected = conflictDetector.calculateConflicts(asList(myChanges),
+			asList(theirChanges), EMPTY_MAPPING);
+		final ChangeConflictSet actual = conflictDetector.calculateConflicts(asList(toFileBased(myChanges)),
+			asList(toFileBased(theirChanges)), EMPTY_MAPPING);
+
+		final List<ConflictBucket> expectedBuckets = new ArrayList<ConflictBucket>(expected.getConflictBuckets());
+		final List<ConflictBucket> actualBuckets = new ArrayList<ConflictBucket>(actual.getConflictBuckets());
+		assertTrue(expectedBuckets.size() > 1);
+		assertEquals(expectedBuckets.size(), actualBuckets.size());
+		for (int i = 0; i < expectedBuckets.size(); i++) {
+			final ConflictBucket expectedBucket = expectedBuckets.get(i);
+			final ConflictBucket actualBucket = actualBuckets.get(i);
+			assertEquals(getIdentifiers(expectedBucket.getMyOperations()),
+				getIdentifiers(actualBucket.getMyOperations()));
+			assertEquals(getIdentifiers(expectedBucket.getTheirOperations()),
+				getIdentifiers(actualBucket.getTheirOperations()));
+			assertEquals(expectedBucket.getMyOperation().getIdentifier(),
+				actualBucket.getMyOperation().getIdentifier());
+			assertEquals(expectedBucket.getTheirOperation().getIdentifier(),
+				actualBucket.getTheirOperation().getIdentifier());
+		}
+
+		final List<String> notInvolved = getIdentifiers(expected.getNotInvolvedInConflict());
+		assertTrue(!notInvolved.isEmpty());
+		assertEquals(notInvolved, getIdentifiers(actual.getNotInvolvedInConflict()));
+		for (final AbstractOperation operation : myChanges.getOperations()) {
+			assertEquals(notInvolved.contains(operation.getIdentifier()), actual.isNotInvolvedInConflict(operation));
+		}
+	}
+
+	private static ChangePackage createChanges(Random random, String modelElementPrefix) {
+		final ChangePackage changePackage = VersioningFactory.eINSTANCE.createChangePackage();
+		for (int i = 0; i < NR_OF_OPERATIONS; i++) {
+			final AbstractOperation operation;
+			if (random.nextInt(4) == 0) {
+				final MultiReferenceOperation referenceOperation = OperationsFactory.eINSTANCE
+					.createMultiReferenceOperation();
+				referenceOperation.setFeatureName("references"); //$NON-NLS-1$
+				referenceOperation.setAdd(true);
+				referenceOperation.getReferencedModelElements().add(createId(modelElementPrefix, random));
+				operation = referenceOperation;
+			} else {
+				final AttributeOperation attributeOperation = OperationsFactory.eINSTANCE.createAttributeOperation();
+				attributeOperation.setFeatureName("name"); //$NON-NLS-1$
+				attributeOperation.setNewValue(String.valueOf(random.nextInt()));
+				operation = attributeOperation;
+			}
+			operation.setModelElementId(createId(modelElementPrefix, random));
+			changePackage.add(operation);
+		}
+		return changePackage;
+	}
+
+	private static AttributeOperation createRename(String modelElementId, String newValue) {
+		final AttributeOperation operation = OperationsFactory.eINSTANCE.createAttributeOperation();
+		final ModelElementId id = ModelFactory.eINSTANCE.createModelElementId();
+		id.setId(modelElementId);
+		operation.setModelElementId(id);
+		operation.setFeatureName("name"); //$NON-NLS-1$
+		operation.setNewValue(newValue);
+		operation.setIdentifier(null);
+		return operation;
+	}
+
+	private static AbstractOperation copyWithoutIdentifier(AbstractOperation operation) {
+		final AbstractOperation copy = EcoreUtil.copy(operation);
+		copy.setIdentifier(null);
+		return copy;
+	}
+
+	private FileBasedChangePackage toFileBased(ChangePackage changePackage) throws IOException {
+		final File file = File.createTempFile("conflicts", ".eoc"); //$NON-NLS-1$ //$NON-NLS-2$
+		final FileBasedChangePackage fileBasedChangePackage = VersioningFactory.eINSTANCE
+			.createFileBasedChangePackage();
+		fileBasedChangePackage.initialize(file.getAbsolutePath());
+		fileBasedChangePackages.add(fileBasedChangePackage);
+		for (final AbstractOperation operation : changePackage.getOperations()) {
+			fileBasedChangePackage.add(operation);
+		}
+		return fileBasedChangePackage;
+	}
+
+	private static List<AbstractChangePackage> asList(AbstractChangePackage changePackage) {
+		final List<AbstractChangePackage> changePackages = new ArrayList<AbstractChangePackage>();
+		changePackages.add(changePackage);
+		return changePackages;
+	}
+
+	private static ModelElementId createId(String prefix, Random random) {
+		final ModelElementId modelElementId = ModelFactory.eINSTANCE.createModelElementId();
+		modelElementId.setId(prefix + random.nextInt(NR_OF_OPERATIONS));
+		return modelElementId;
+	}
+
+	private static List<String> getIdentifiers(Collection<AbstractOperation> operations) {
+		final List<String> identifiers = new ArrayList<String>();
+		for (final AbstractOperation operation : operations) {
+			identifiers.add(operation.getIdentifier());
+		}
+		return identifiers;
+	}
+}
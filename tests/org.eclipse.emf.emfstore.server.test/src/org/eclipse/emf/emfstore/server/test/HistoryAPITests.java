@@ -26,6 +26,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.eclipse.core.runtime.NullProgressMonitor;
@@ -41,11 +42,21 @@ import org.eclipse.emf.emfstore.client.test.common.util.ServerUtil;
 import org.eclipse.emf.emfstore.client.util.ESVoidCallable;
 import org.eclipse.emf.emfstore.client.util.RunESCommand;
 import org.eclipse.emf.emfstore.common.model.ESModelElementId;
+import org.eclipse.emf.emfstore.internal.client.model.ESWorkspaceProviderImpl;
 import org.eclipse.emf.emfstore.internal.client.model.ProjectSpace;
+import org.eclipse.emf.emfstore.internal.client.model.connectionmanager.ConnectionManager;
 import org.eclipse.emf.emfstore.internal.client.model.impl.api.ESLocalProjectImpl;
+import org.eclipse.emf.emfstore.internal.client.model.impl.api.ESUsersessionImpl;
 import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
 import org.eclipse.emf.emfstore.internal.server.exceptions.FatalESException;
 import org.eclipse.emf.emfstore.internal.server.exceptions.InvalidVersionSpecException;
+import org.eclipse.emf.emfstore.internal.server.model.ProjectId;
+import org.eclipse.emf.emfstore.internal.server.model.SessionId;
+import org.eclipse.emf.emfstore.internal.server.model.impl.api.versionspec.ESPrimaryVersionSpecImpl;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.HistoryInfo;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.RangeQuery;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.util.HistoryInfoSummary;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.util.HistoryQueryBuilder;
 import org.eclipse.emf.emfstore.server.exceptions.ESException;
 import org.eclipse.emf.emfstore.server.model.ESHistoryInfo;
 import org.eclipse.emf.emfstore.server.model.query.ESHistoryQuery;
@@ -227,6 +238,71 @@ public class HistoryAPITests {
 		assertEquals(VERSIONS[0], result.get(7).getPrimarySpec());
 	}
 
+	@Test
+	public void rangequeryAllVersionsInPages() throws ESException {
+		final ESLocalProject localProject = getProject();
+		final ConnectionManager connectionManager = ESWorkspaceProviderImpl.getInstance().getConnectionManager();
+		final SessionId sessionId = ((ESUsersessionImpl) session).toInternalAPI().getSessionId();
+		final ProjectId projectId = ((ESLocalProjectImpl) localProject).toInternalAPI().getProjectId();
+
+		final RangeQuery<?> rangeQuery = HistoryQueryBuilder.rangeQuery(
+			((ESPrimaryVersionSpecImpl) VERSIONS[3]).toInternalAPI(), 5, 25, true, false, false, true);
+
+		final List<HistoryInfo> result = new ArrayList<HistoryInfo>();
+		String continuationToken = ""; //$NON-NLS-1$
+		do {
+			final List<HistoryInfo> page = connectionManager.getHistoryInfoPage(sessionId, projectId, rangeQuery,
+				continuationToken, 3);
+			assertTrue(page.size() <= 3);
+			result.addAll(page);
+			continuationToken = HistoryInfoSummary.getContinuationToken(page);
+		} while (continuationToken != null);
+
+		assertEquals(8, result.size());
+		for (int i = 0; i < result.size(); i++) {
+			assertEquals(VERSIONS[7 - i].getIdentifier(), result.get(i).getPrimarySpec().getIdentifier());
+			assertNull(result.get(i).getChangePackage());
+		}
+		// version 1 renames the element
+		assertTrue(HistoryInfoSummary.getOperationCount(result.get(6)) > 0);
+		assertEquals(1, HistoryInfoSummary.getInvolvedModelElements(result.get(6)).size());
+		assertEquals(1, HistoryInfoSummary.getInvolvedModelElementCount(result.get(6)));
+		// version 0
+		assertEquals(-1, HistoryInfoSummary.getOperationCount(result.get(7)));
+	}
+
+	@Test
+	public void rangequeryIncomingAndOutgoingInPages() throws ESException {
+		final ESLocalProject localProject = getProject();
+		final ConnectionManager connectionManager = ESWorkspaceProviderImpl.getInstance().getConnectionManager();
+		final SessionId sessionId = ((ESUsersessionImpl) session).toInternalAPI().getSessionId();
+		final ProjectId projectId = ((ESLocalProjectImpl) localProject).toInternalAPI().getProjectId();
+
+		final List<ESHistoryInfo> expected = localProject.getHistoryInfos(
+			ESHistoryQuery.FACTORY.rangeQuery(VERSIONS[3], 2, 2, false, true, true, false), NPM);
+		// the versions of the other branches are spread across several pages
+		final int pageSize = 2;
+		assertTrue(expected.size() > pageSize);
+
+		final RangeQuery<?> rangeQuery = HistoryQueryBuilder.rangeQuery(
+			((ESPrimaryVersionSpecImpl) VERSIONS[3]).toInternalAPI(), 2, 2, false, true, true, true);
+		final List<HistoryInfo> result = new ArrayList<HistoryInfo>();
+		String continuationToken = ""; //$NON-NLS-1$
+		do {
+			final List<HistoryInfo> page = connectionManager.getHistoryInfoPage(sessionId, projectId, rangeQuery,
+				continuationToken, pageSize);
+			assertTrue(page.size() <= pageSize);
+			result.addAll(page);
+			continuationToken = HistoryInfoSummary.getContinuationToken(page);
+		} while (continuationToken != null);
+
+		assertEquals(expected.size(), result.size());
+		for (int i = 0; i < result.size(); i++) {
+			assertEquals(expected.get(i).getPrimarySpec().getIdentifier(),
+				result.get(i).getPrimarySpec().getIdentifier());
+		}
+	}
+
 	@Test
 	public void rangequeryIncludeCp() throws ESException {
 		final ESLocalProject localProject = getProject();
@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.server.test;
+
+import static org.eclipse.emf.emfstore.client.test.common.util.ProjectUtil.addElement;
+import static org.eclipse.emf.emfstore.client.test.common.util.ProjectUtil.checkout;
+import static org.eclipse.emf.emfstore.client.test.common.util.ProjectUtil.commit;
+import static org.eclipse.emf.emfstore.client.test.common.util.ProjectUtil.share;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.emf.emfstore.client.ESLocalProject;
+import org.eclipse.emf.emfstore.client.test.common.cases.ESTestWithLoggedInUserMock;
+import org.eclipse.emf.emfstore.client.test.common.dsl.Create;
+import org.eclipse.emf.emfstore.internal.client.model.ProjectSpace;
+import org.eclipse.emf.emfstore.internal.client.model.impl.api.ESLocalProjectImpl;
+import org.eclipse.emf.emfstore.internal.common.model.ModelElementId;
+import org.eclipse.emf.emfstore.internal.common.model.Project;
+import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
+import org.eclipse.emf.emfstore.internal.server.ServerConfiguration;
+import org.eclipse.emf.emfstore.internal.server.model.ProjectHistory;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.ChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.Version;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningFactory;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.Versions;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AttributeOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.OperationsFactory;
+import org.eclipse.emf.emfstore.server.exceptions.ESException;
+import org.eclipse.emf.emfstore.test.model.TestElement;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests commits with {@link ServerConfiguration#PROJECTSTATE_COMMIT_IN_PLACE} enabled.
+ */
+public class InPlaceCommitTest extends ESTestWithLoggedInUserMock {
+
+	private static final int EVERY_X_VERSIONS = 3;
+	private static final int COMMITS = 7;
+
+	@BeforeClass
+	public static void beforeClass() {
+		final Map<String, String> properties = new LinkedHashMap<String, String>();
+		properties.put(ServerConfiguration.PROJECTSTATE_COMMIT_IN_PLACE, Boolean.TRUE.toString());
+		properties.put(ServerConfiguration.PROJECTSTATE_VERSION_PERSISTENCE_EVERYXVERSIONS_X,
+			String.valueOf(EVERY_X_VERSIONS));
+		startEMFStore(properties);
+	}
+
+	@AfterClass
+	public static void afterClass() {
+		stopEMFStore();
+	}
+
+	@Test
+	public void testCommitInPlace() throws ESException {
+		share(getUsersession(), getLocalProject());
+		for (int i = 0; i < COMMITS; i++) {
+			addElement(getLocalProject(), Create.testElement(String.valueOf(i)));
+			commit(getLocalProject());
+		}
+
+		final ESLocalProject head = checkout(getLocalProject());
+		assertTrue(ModelUtil.areEqual(
+			ESLocalProjectImpl.class.cast(getLocalProject()).toInternalAPI().getProject(),
+			ESLocalProjectImpl.class.cast(head).toInternalAPI().getProject()));
+
+		// states in between must be reconstructible from the remaining persisted states
+		for (int i = 1; i < COMMITS; i++) {
+			final ESLocalProject checkout = checkout(getLocalProject(), Versions.createPRIMARY(i).toAPI());
+			assertEquals(i, checkout.getModelElements().size());
+		}
+	}
+
+	@Test
+	public void testPersistencePolicyIsRespected() throws ESException {
+		share(getUsersession(), getLocalProject());
+		for (int i = 0; i < COMMITS; i++) {
+			addElement(getLocalProject(), Create.testElement(String.valueOf(i)));
+			commit(getLocalProject());
+		}
+
+		final ProjectHistory history = getHistory(getLocalProject());
+		for (int i = 0; i <= COMMITS; i++) {
+			if (i == 0 || i == COMMITS || i % EVERY_X_VERSIONS == 0) {
+				assertNotNull(history.getVersions().get(i).getProjectState());
+			} else {
+				assertNull(history.getVersions().get(i).getProjectState());
+			}
+		}
+	}
+
+	@Test
+	public void testFailedCommitInPlaceIsReverted() throws ESException {
+		final TestElement element = Create.testElement("element"); //$NON-NLS-1$
+		addElement(getLocalProject(), element);
+		share(getUsersession(), getLocalProject());
+		addElement(getLocalProject(), Create.testElement("other")); //$NON-NLS-1$
+		commit(getLocalProject());
+
+		final ProjectHistory history = getHistory(getLocalProject());
+		final Version head = history.getVersions().get(1);
+		final Project headState = ModelUtil.clone(head.getProjectState());
+
+		// the first operation is applied to the head state, the second one fails with a ClassCastException
+		final ProjectSpace projectSpace = ESLocalProjectImpl.class.cast(getLocalProject()).toInternalAPI();
+		final ModelElementId elementId = projectSpace.getProject().getModelElementId(element);
+		final ChangePackage changePackage = VersioningFactory.eINSTANCE.createChangePackage();
+		changePackage.add(createRename(elementId, "renamed")); //$NON-NLS-1$
+		changePackage.add(createRename(elementId, Integer.valueOf(1)));
+		try {
+			getEMFStore().createVersion(
+				ModelUtil.clone(projectSpace.getUsersession().getSessionId()),
+				ModelUtil.clone(projectSpace.getProjectId()),
+				ModelUtil.clone(head.getPrimarySpec()), changePackage, null, null,
+				VersioningFactory.eINSTANCE.createLogMessage());
+			fail();
+		} catch (final ESException expected) {
+			// expected
+		}
+
+		assertEquals(2, history.getVersions().size());
+		assertTrue(ModelUtil.areEqual(headState, head.getProjectState()));
+
+		// the head state can still be committed upon
+		addElement(getLocalProject(), Create.testElement("another")); //$NON-NLS-1$
+		commit(getLocalProject());
+		assertTrue(ModelUtil.areEqual(projectSpace.getProject(),
+			ESLocalProjectImpl.class.cast(checkout(getLocalProject())).toInternalAPI().getProject()));
+	}
+
+	private static AttributeOperation createRename(ModelElementId elementId, Object newValue) {
+		final AttributeOperation operation = OperationsFactory.eINSTANCE.createAttributeOperation();
+		operation.setModelElementId(ModelUtil.clone(elementId));
+		operation.setFeatureName("name"); //$NON-NLS-1$
+		operation.setNewValue(newValue);
+		return operation;
+	}
+}
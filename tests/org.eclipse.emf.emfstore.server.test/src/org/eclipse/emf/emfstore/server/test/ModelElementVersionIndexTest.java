@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.server.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.emf.emfstore.internal.common.model.ModelElementId;
+import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
+import org.eclipse.emf.emfstore.internal.server.core.subinterfaces.ModelElementVersionIndex;
+import org.eclipse.emf.emfstore.internal.server.model.ModelFactory;
+import org.eclipse.emf.emfstore.internal.server.model.ProjectHistory;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.ChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.Version;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningFactory;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.Versions;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AbstractOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AttributeOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.OperationsFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that the {@link ModelElementVersionIndex} finds the same versions as a scan of their change packages and
+ * survives being reloaded from its file.
+ */
+public class ModelElementVersionIndexTest {
+
+	private static final int NR_OF_VERSIONS = 40;
+	private static final int NR_OF_ELEMENTS = 15;
+
+	private File file;
+	private ProjectHistory projectHistory;
+	private List<Version> versions;
+	private List<ChangePackage> changePackages;
+	private List<ModelElementId> modelElementIds;
+
+	@Before
+	public void before() throws IOException {
+		file = File.createTempFile("elementindex", ""); //$NON-NLS-1$ //$NON-NLS-2$
+		file.delete();
+		projectHistory = ModelFactory.eINSTANCE.createProjectHistory();
+		projectHistory.setProjectId(ModelFactory.eINSTANCE.createProjectId());
+		modelElementIds = new ArrayList<ModelElementId>();
+		for (int i = 0; i < NR_OF_ELEMENTS; i++) {
+			modelElementIds.add(ModelUtil.createModelElementId("element" + i)); //$NON-NLS-1$
+		}
+
+		final Random random = new Random(18);
+		versions = new ArrayList<Version>();
+		changePackages = new ArrayList<ChangePackage>();
+		for (int i = 0; i < NR_OF_VERSIONS; i++) {
+			final Version version = VersioningFactory.eINSTANCE.createVersion();
+			version.setPrimarySpec(Versions.createPRIMARY(i));
+			projectHistory.getVersions().add(version);
+			final ChangePackage changePackage = VersioningFactory.eINSTANCE.createChangePackage();
+			for (int j = random.nextInt(3); j > 0; j--) {
+				final AttributeOperation operation = OperationsFactory.eINSTANCE.createAttributeOperation();
+				operation.setModelElementId(
+					ModelUtil.clone(modelElementIds.get(random.nextInt(modelElementIds.size()))));
+				changePackage.getOperations().add(operation);
+			}
+			changePackages.add(changePackage);
+			// the initial version is not indexed from changes
+			if (i > 0) {
+				versions.add(version);
+			}
+		}
+	}
+
+	@After
+	public void after() {
+		file.delete();
+	}
+
+	@Test
+	public void testFindsVersionsTouchingElements() {
+		final ModelElementVersionIndex index = createIndex();
+		for (final ModelElementId modelElementId : modelElementIds) {
+			final List<ModelElementId> ids = Arrays.asList(modelElementId);
+			assertEquals(scan(ids, NR_OF_VERSIONS), index.filterVersions(versions, ids));
+		}
+		final List<ModelElementId> ids = modelElementIds.subList(2, 5);
+		assertEquals(scan(ids, NR_OF_VERSIONS), index.filterVersions(versions, ids));
+		assertEquals(0, index.filterVersions(versions,
+			Arrays.asList(ModelUtil.createModelElementId("unknown"))).size()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testReloadFromFile() {
+		createIndex();
+		final ModelElementVersionIndex reloaded = new ModelElementVersionIndex(projectHistory, file);
+		for (final ModelElementId modelElementId : modelElementIds) {
+			final List<ModelElementId> ids = Arrays.asList(modelElementId);
+			assertEquals(scan(ids, NR_OF_VERSIONS), reloaded.filterVersions(versions, ids));
+		}
+	}
+
+	@Test
+	public void testPartiallyWrittenRecordIsDiscarded() throws IOException {
+		createIndex();
+		final long length = file.length();
+		final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw"); //$NON-NLS-1$
+		try {
+			randomAccessFile.setLength(length - 1);
+		} finally {
+			randomAccessFile.close();
+		}
+
+		// the last version has to be indexed again
+		final ModelElementVersionIndex reloaded = new ModelElementVersionIndex(projectHistory, file);
+		reloaded.versionAdded(versions.get(versions.size() - 1), changePackages.get(NR_OF_VERSIONS - 1));
+		assertEquals(length, file.length());
+
+		final ModelElementVersionIndex reloadedAgain = new ModelElementVersionIndex(projectHistory, file);
+		for (final ModelElementId modelElementId : modelElementIds) {
+			final List<ModelElementId> ids = Arrays.asList(modelElementId);
+			assertEquals(scan(ids, NR_OF_VERSIONS), reloadedAgain.filterVersions(versions, ids));
+		}
+	}
+
+	@Test
+	public void testRemovedVersionsInvalidateFile() {
+		createIndex();
+		// e.g. a roll back after the index has been written
+		projectHistory.getVersions().remove(NR_OF_VERSIONS - 1);
+		final List<Version> remainingVersions = versions.subList(0, versions.size() - 1);
+
+		final ModelElementVersionIndex reloaded = new ModelElementVersionIndex(projectHistory, file);
+		for (final Version version : remainingVersions) {
+			reloaded.versionAdded(version, changePackages.get(version.getPrimarySpec().getIdentifier()));
+		}
+		for (final ModelElementId modelElementId : modelElementIds) {
+			final List<ModelElementId> ids = Arrays.asList(modelElementId);
+			assertEquals(scan(ids, NR_OF_VERSIONS - 1), reloaded.filterVersions(remainingVersions, ids));
+		}
+
+		reloaded.delete();
+		assertFalse(file.exists());
+	}
+
+	private ModelElementVersionIndex createIndex() {
+		final ModelElementVersionIndex index = new ModelElementVersionIndex(projectHistory, file);
+		for (int i = 1; i < NR_OF_VERSIONS; i++) {
+			index.versionAdded(projectHistory.getVersions().get(i), changePackages.get(i));
+		}
+		return index;
+	}
+
+	private List<Version> scan(List<ModelElementId> ids, int nrOfVersions) {
+		final List<Version> result = new ArrayList<Version>();
+		for (int i = 1; i < nrOfVersions; i++) {
+			for (final ModelElementId id : ids) {
+				if (involves(changePackages.get(i), id)) {
+					result.add(projectHistory.getVersions().get(i));
+					break;
+				}
+			}
+		}
+		return result;
+	}
+
+	private static boolean involves(ChangePackage changePackage, ModelElementId id) {
+		for (final AbstractOperation operation : changePackage.getOperations()) {
+			if (operation.getAllInvolvedModelElements().contains(id)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.server.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.emf.emfstore.internal.common.model.ModelElementId;
+import org.eclipse.emf.emfstore.internal.common.model.ModelFactory;
+import org.eclipse.emf.emfstore.internal.common.model.util.ModelUtil;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.FileBasedChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningFactory;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.impl.persistent.OperationIndex;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AbstractOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AttributeOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.CreateDeleteOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.MultiReferenceMoveOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.OperationsFactory;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.SingleReferenceOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.util.OperationsCompactor;
+import org.eclipse.emf.emfstore.test.model.TestmodelFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the folding rules of the {@link OperationsCompactor} and the compaction of a stream of operations.
+ */
+public class OperationsCompactorTest {
+
+	private static final String NAME = "name"; //$NON-NLS-1$
+	private static final String REFERENCE = "reference"; //$NON-NLS-1$
+	private static final String REFERENCES = "references"; //$NON-NLS-1$
+
+	private ModelElementId element;
+	private ModelElementId otherElement;
+	private List<AbstractOperation> operations;
+
+	@Before
+	public void before() {
+		element = ModelFactory.eINSTANCE.createModelElementId();
+		otherElement = ModelFactory.eINSTANCE.createModelElementId();
+		operations = new ArrayList<AbstractOperation>();
+	}
+
+	@Test
+	public void testFoldAttributes() {
+		operations.add(createAttributeOperation(element, null, "a")); //$NON-NLS-1$
+		operations.add(createAttributeOperation(otherElement, null, "x")); //$NON-NLS-1$
+		operations.add(createAttributeOperation(element, "a", "b")); //$NON-NLS-1$ //$NON-NLS-2$
+		OperationsCompactor.compact(operations);
+
+		assertEquals(2, operations.size());
+		assertEquals("b", ((AttributeOperation) operations.get(0)).getNewValue()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testFoldSingleReferences() {
+		final ModelElementId first = ModelFactory.eINSTANCE.createModelElementId();
+		final ModelElementId second = ModelFactory.eINSTANCE.createModelElementId();
+		operations.add(createReferenceOperation(element, null, first, false));
+		operations.add(createAttributeOperation(element, null, "a")); //$NON-NLS-1$
+		operations.add(createReferenceOperation(element, first, second, false));
+		OperationsCompactor.compact(operations);
+
+		assertEquals(2, operations.size());
+		final SingleReferenceOperation referenceOperation = (SingleReferenceOperation) operations.get(0);
+		assertEquals(null, referenceOperation.getOldValue());
+		assertEquals(second, referenceOperation.getNewValue());
+
+		// setting the reference back to its old value cancels out
+		operations.add(createReferenceOperation(element, second, null, false));
+		OperationsCompactor.compact(operations);
+		assertEquals(1, operations.size());
+		assertTrue(operations.get(0) instanceof AttributeOperation);
+	}
+
+	@Test
+	public void testBidirectionalReferencesAreNotFolded() {
+		final ModelElementId first = ModelFactory.eINSTANCE.createModelElementId();
+		operations.add(createReferenceOperation(element, null, first, true));
+		operations.add(createReferenceOperation(element, first, null, true));
+		OperationsCompactor.compact(operations);
+
+		assertEquals(2, operations.size());
+	}
+
+	@Test
+	public void testFoldingStopsAtDelete() {
+		operations.add(createReferenceOperation(element, null, otherElement, false));
+		operations.add(createDeleteOperation(otherElement));
+		operations.add(createReferenceOperation(element, otherElement, null, false));
+		OperationsCompactor.compact(operations);
+
+		assertEquals(3, operations.size());
+	}
+
+	@Test
+	public void testMergeMoves() {
+		operations.add(createMoveOperation(otherElement, 0, 2));
+		operations.add(createMoveOperation(otherElement, 2, 3));
+		OperationsCompactor.compact(operations);
+
+		assertEquals(1, operations.size());
+		final MultiReferenceMoveOperation moveOperation = (MultiReferenceMoveOperation) operations.get(0);
+		assertEquals(0, moveOperation.getOldIndex());
+		assertEquals(3, moveOperation.getNewIndex());
+
+		// moving it back cancels out
+		operations.add(createMoveOperation(otherElement, 3, 0));
+		OperationsCompactor.compact(operations);
+		assertTrue(operations.isEmpty());
+	}
+
+	@Test
+	public void testMovesOfDifferentElementsAreNotMerged() {
+		operations.add(createMoveOperation(otherElement, 0, 2));
+		operations.add(createMoveOperation(ModelFactory.eINSTANCE.createModelElementId(), 2, 3));
+		OperationsCompactor.compact(operations);
+
+		assertEquals(2, operations.size());
+	}
+
+	@Test
+	public void testCompactIntoFileBasedChangePackage() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			operations.add(createAttributeOperation(element, String.valueOf(i), String.valueOf(i + 1)));
+		}
+		final File file = File.createTempFile("operations", ".eoc"); //$NON-NLS-1$ //$NON-NLS-2$
+		final FileBasedChangePackage changePackage = VersioningFactory.eINSTANCE.createFileBasedChangePackage();
+		changePackage.initialize(file.getAbsolutePath());
+		try {
+			final OperationsCompactor compactor = new OperationsCompactor(4);
+			compactor.compact(operations, changePackage);
+
+			// each window of four operations is folded into a single one
+			assertEquals(10, compactor.getOperationCount());
+			assertEquals(3, compactor.getCompactedOperationCount());
+			assertEquals(3, changePackage.size());
+			assertEquals("4", ((AttributeOperation) changePackage.get(0)).getNewValue()); //$NON-NLS-1$
+			assertEquals("10", ((AttributeOperation) changePackage.get(2)).getNewValue()); //$NON-NLS-1$
+			// the given operations are not changed
+			assertEquals(10, operations.size());
+		} finally {
+			final File tempFile = new File(changePackage.getTempFilePath());
+			tempFile.delete();
+			OperationIndex.getIndexFile(tempFile).delete();
+			file.delete();
+		}
+	}
+
+	private static AttributeOperation createAttributeOperation(ModelElementId id, String oldValue, String newValue) {
+		final AttributeOperation operation = OperationsFactory.eINSTANCE.createAttributeOperation();
+		operation.setModelElementId(ModelUtil.clone(id));
+		operation.setFeatureName(NAME);
+		operation.setOldValue(oldValue);
+		operation.setNewValue(newValue);
+		return operation;
+	}
+
+	private static SingleReferenceOperation createReferenceOperation(ModelElementId id, ModelElementId oldValue,
+		ModelElementId newValue, boolean bidirectional) {
+		final SingleReferenceOperation operation = OperationsFactory.eINSTANCE.createSingleReferenceOperation();
+		operation.setModelElementId(ModelUtil.clone(id));
+		operation.setFeatureName(REFERENCE);
+		operation.setOldValue(ModelUtil.clone(oldValue));
+		operation.setNewValue(ModelUtil.clone(newValue));
+		operation.setBidirectional(bidirectional);
+		return operation;
+	}
+
+	private static CreateDeleteOperation createDeleteOperation(ModelElementId id) {
+		final CreateDeleteOperation operation = OperationsFactory.eINSTANCE.createCreateDeleteOperation();
+		operation.setModelElementId(ModelUtil.clone(id));
+		operation.setModelElement(TestmodelFactory.eINSTANCE.createTestElement());
+		operation.setDelete(true);
+		return operation;
+	}
+
+	private MultiReferenceMoveOperation createMoveOperation(ModelElementId referencedId, int oldIndex, int newIndex) {
+		final MultiReferenceMoveOperation operation = OperationsFactory.eINSTANCE.createMultiReferenceMoveOperation();
+		operation.setModelElementId(ModelUtil.clone(element));
+		operation.setFeatureName(REFERENCES);
+		operation.setReferencedModelElementId(ModelUtil.clone(referencedId));
+		operation.setOldIndex(oldIndex);
+		operation.setNewIndex(newIndex);
+		return operation;
+	}
+}
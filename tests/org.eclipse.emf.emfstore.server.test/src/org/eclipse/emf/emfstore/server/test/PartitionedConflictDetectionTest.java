@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.server.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.emfstore.client.test.common.util.TestModelElementIdToEObjectMapping;
+import org.eclipse.emf.emfstore.internal.common.model.ModelElementId;
+import org.eclipse.emf.emfstore.internal.common.model.ModelFactory;
+import org.eclipse.emf.emfstore.internal.server.conflictDetection.ChangeConflictSet;
+import org.eclipse.emf.emfstore.internal.server.conflictDetection.ConflictBucket;
+import org.eclipse.emf.emfstore.internal.server.conflictDetection.ConflictDetector;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.AbstractChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.ChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningFactory;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AbstractOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.AttributeOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.CompositeOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.CreateDeleteOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.MultiReferenceOperation;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.OperationsFactory;
+import org.junit.Test;
+
+/**
+ * Tests that scanning operations for conflicts in parallel yields the same conflicts as a serial scan.
+ */
+public class PartitionedConflictDetectionTest {
+
+	private static final int NR_OF_MODEL_ELEMENTS = 500;
+	private static final int NR_OF_MAP_ENTRIES = 50;
+
+	private final TestModelElementIdToEObjectMapping mapping = new TestModelElementIdToEObjectMapping();
+
+	@Test
+	public void testSameConflictsAsSerialScan() {
+		assertSameConflicts(42, 3000, 3000, 4);
+	}
+
+	@Test
+	public void testSameConflictsWithUnbalancedChanges() {
+		assertSameConflicts(7, 200, 5000, 3);
+	}
+
+	@Test
+	public void testSameConflictsWithTwoPartitions() {
+		assertSameConflicts(13, 1500, 1500, 2);
+	}
+
+	private void assertSameConflicts(long seed, int myOperationCount, int theirOperationCount, int parallelism) {
+		final Random random = new Random(seed);
+		for (int i = 0; i < NR_OF_MAP_ENTRIES; i += 2) {
+			mapping.put(mapEntryId(i), createMapEntry("existing" + i)); //$NON-NLS-1$
+		}
+		final List<AbstractChangePackage> myChanges = createChanges(random, myOperationCount);
+		final List<AbstractChangePackage> theirChanges = createChanges(random, theirOperationCount);
+
+		final ChangeConflictSet expected = new ConflictDetector().calculateConflicts(myChanges, theirChanges,
+			mapping);
+		final ChangeConflictSet actual = new ConflictDetector(parallelism).calculateConflicts(myChanges,
+			theirChanges, mapping);
+
+		final List<ConflictBucket> expectedBuckets = new ArrayList<ConflictBucket>(expected.getConflictBuckets());
+		final List<ConflictBucket> actualBuckets = new ArrayList<ConflictBucket>(actual.getConflictBuckets());
+		assertTrue(expectedBuckets.size() > 1);
+		assertEquals(expectedBuckets.size(), actualBuckets.size());
+		for (int i = 0; i < expectedBuckets.size(); i++) {
+			final ConflictBucket expectedBucket = expectedBuckets.get(i);
+			final ConflictBucket actualBucket = actualBuckets.get(i);
+			assertEquals(new ArrayList<AbstractOperation>(expectedBucket.getMyOperations()),
+				new ArrayList<AbstractOperation>(actualBucket.getMyOperations()));
+			assertEquals(new ArrayList<AbstractOperation>(expectedBucket.getTheirOperations()),
+				new ArrayList<AbstractOperation>(actualBucket.getTheirOperations()));
+			assertSame(expectedBucket.getMyOperation(), actualBucket.getMyOperation());
+			assertSame(expectedBucket.getTheirOperation(), actualBucket.getTheirOperation());
+		}
+		assertEquals(new ArrayList<AbstractOperation>(expected.getNotInvolvedInConflict()),
+			new ArrayList<AbstractOperation>(actual.getNotInvolvedInConflict()));
+	}
+
+	private static List<AbstractChangePackage> createChanges(Random random, int operationCount) {
+		final List<AbstractChangePackage> changePackages = new ArrayList<AbstractChangePackage>();
+		ChangePackage changePackage = null;
+		for (int i = 0; i < operationCount; i++) {
+			if (i % 500 == 0) {
+				changePackage = VersioningFactory.eINSTANCE.createChangePackage();
+				changePackages.add(changePackage);
+			}
+			changePackage.add(createOperation(random, true));
+		}
+		return changePackages;
+	}
+
+	private static AbstractOperation createOperation(Random random, boolean allowComposite) {
+		final int kind = random.nextInt(allowComposite ? 10 : 9);
+		if (kind < 5) {
+			final AttributeOperation operation = OperationsFactory.eINSTANCE.createAttributeOperation();
+			operation.setModelElementId(createId(modelElementId(random)));
+			operation.setFeatureName("attribute" + random.nextInt(3)); //$NON-NLS-1$
+			operation.setNewValue(String.valueOf(random.nextInt()));
+			return operation;
+		} else if (kind < 7) {
+			final MultiReferenceOperation operation = OperationsFactory.eINSTANCE.createMultiReferenceOperation();
+			operation.setModelElementId(createId(modelElementId(random)));
+			operation.setFeatureName("references"); //$NON-NLS-1$
+			operation.setAdd(random.nextBoolean());
+			for (int i = random.nextInt(3); i >= 0; i--) {
+				operation.getReferencedModelElements().add(createId(random.nextBoolean()
+					? modelElementId(random)
+					: mapEntryId(random.nextInt(NR_OF_MAP_ENTRIES))));
+			}
+			return operation;
+		} else if (kind == 7) {
+			final CreateDeleteOperation operation = OperationsFactory.eINSTANCE.createCreateDeleteOperation();
+			operation.setDelete(true);
+			operation.setModelElementId(createId(modelElementId(random)));
+			operation.getEObjectToIdMap().put(EcoreFactory.eINSTANCE.createEObject(),
+				createId(operation.getModelElementId().getId()));
+			return operation;
+		} else if (kind == 8) {
+			final CreateDeleteOperation operation = OperationsFactory.eINSTANCE.createCreateDeleteOperation();
+			final String id = mapEntryId(random.nextInt(NR_OF_MAP_ENTRIES));
+			operation.setModelElementId(createId(id));
+			operation.getEObjectToIdMap().put(createMapEntry("created" + random.nextInt(5)), createId(id)); //$NON-NLS-1$
+			return operation;
+		}
+		final CompositeOperation composite = OperationsFactory.eINSTANCE.createCompositeOperation();
+		for (int i = random.nextInt(3); i >= 0; i--) {
+			composite.getSubOperations().add(createOperation(random, false));
+		}
+		return composite;
+	}
+
+	private static String modelElementId(Random random) {
+		return "element" + random.nextInt(NR_OF_MODEL_ELEMENTS); //$NON-NLS-1$
+	}
+
+	private static String mapEntryId(int index) {
+		return "entry" + index; //$NON-NLS-1$
+	}
+
+	private static ModelElementId createId(String id) {
+		final ModelElementId modelElementId = ModelFactory.eINSTANCE.createModelElementId();
+		modelElementId.setId(id);
+		return modelElementId;
+	}
+
+	private static EObject createMapEntry(String key) {
+		final EObject entry = EcoreFactory.eINSTANCE.create(EcorePackage.Literals.ESTRING_TO_STRING_MAP_ENTRY);
+		entry.eSet(EcorePackage.Literals.ESTRING_TO_STRING_MAP_ENTRY__KEY, key);
+		return entry;
+	}
+}
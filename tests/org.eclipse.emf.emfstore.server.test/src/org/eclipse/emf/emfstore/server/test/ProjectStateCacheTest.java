@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.server.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.eclipse.emf.emfstore.client.test.common.dsl.Create;
+import org.eclipse.emf.emfstore.internal.common.model.ModelFactory;
+import org.eclipse.emf.emfstore.internal.common.model.Project;
+import org.eclipse.emf.emfstore.internal.server.core.ProjectStateCache;
+import org.eclipse.emf.emfstore.internal.server.model.ProjectId;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the LRU behavior and the metrics of the {@link ProjectStateCache}.
+ */
+public class ProjectStateCacheTest {
+
+	private static final long BUDGET_FOR_TWO_EMPTY_PROJECTS = 2 * ProjectStateCache.ESTIMATED_BYTES_PER_ELEMENT;
+
+	private ProjectStateCache cache;
+	private ProjectId projectId;
+
+	@Before
+	public void before() {
+		cache = new ProjectStateCache(BUDGET_FOR_TWO_EMPTY_PROJECTS);
+		projectId = Create.projectId();
+	}
+
+	@Test
+	public void testHitAndMiss() {
+		final Project project = createProject();
+		cache.put(projectId, Create.primaryVersionSpec(1), project);
+
+		assertSame(project, cache.get(projectId, Create.primaryVersionSpec(1)));
+		assertNull(cache.get(projectId, Create.primaryVersionSpec(2)));
+		assertNull(cache.get(projectId, Create.primaryVersionSpec(1, "branch"))); //$NON-NLS-1$
+		assertNull(cache.get(Create.projectId(), Create.primaryVersionSpec(1)));
+
+		assertEquals(1, cache.getHits());
+		assertEquals(3, cache.getMisses());
+	}
+
+	@Test
+	public void testEvictsLeastRecentlyUsed() {
+		final Project first = createProject();
+		final Project second = createProject();
+		cache.put(projectId, Create.primaryVersionSpec(1), first);
+		cache.put(projectId, Create.primaryVersionSpec(2), second);
+
+		// touch the first state, so the second one becomes the eldest
+		assertSame(first, cache.get(projectId, Create.primaryVersionSpec(1)));
+		cache.put(projectId, Create.primaryVersionSpec(3), createProject());
+
+		assertEquals(1, cache.getEvictions());
+		assertEquals(2, cache.getEntryCount());
+		assertEquals(BUDGET_FOR_TWO_EMPTY_PROJECTS, cache.getSize());
+		assertSame(first, cache.get(projectId, Create.primaryVersionSpec(1)));
+		assertNull(cache.get(projectId, Create.primaryVersionSpec(2)));
+	}
+
+	@Test
+	public void testOversizedStateIsNotCached() {
+		final Project project = createProject();
+		project.getModelElements().add(Create.testElement());
+		project.getModelElements().add(Create.testElement());
+
+		cache.put(projectId, Create.primaryVersionSpec(1), project);
+
+		assertEquals(0, cache.getEntryCount());
+		assertEquals(0, cache.getEvictions());
+	}
+
+	@Test
+	public void testRemoveAll() {
+		final ProjectId otherProjectId = Create.projectId();
+		cache.put(projectId, Create.primaryVersionSpec(1), createProject());
+		cache.put(otherProjectId, Create.primaryVersionSpec(1), createProject());
+
+		cache.removeAll(projectId);
+
+		assertEquals(1, cache.getEntryCount());
+		assertEquals(ProjectStateCache.ESTIMATED_BYTES_PER_ELEMENT, cache.getSize());
+		assertNull(cache.get(projectId, Create.primaryVersionSpec(1)));
+	}
+
+	@Test
+	public void testDisabled() {
+		final ProjectStateCache disabledCache = new ProjectStateCache(0);
+		disabledCache.put(projectId, Create.primaryVersionSpec(1), createProject());
+
+		assertNull(disabledCache.get(projectId, Create.primaryVersionSpec(1)));
+		assertEquals(0, disabledCache.getEntryCount());
+	}
+
+	private static Project createProject() {
+		return ModelFactory.eINSTANCE.createProject();
+	}
+}
@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.server.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.emfstore.internal.server.core.MonitorProvider;
+import org.eclipse.emf.emfstore.internal.server.core.ResourceResidencyManager;
+import org.eclipse.emf.emfstore.internal.server.model.ModelFactory;
+import org.eclipse.emf.emfstore.internal.server.model.ProjectHistory;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.ChangePackage;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.Version;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.VersioningFactory;
+import org.eclipse.emf.emfstore.internal.server.model.versioning.operations.OperationsFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the LRU behavior, the locking and the metrics of the {@link ResourceResidencyManager}.
+ */
+public class ResourceResidencyManagerTest {
+
+	private static final long BUDGET_FOR_TWO_RESOURCES = 2 * ResourceResidencyManager.ESTIMATED_BYTES_PER_ELEMENT;
+
+	private ResourceResidencyManager manager;
+	private ProjectHistory projectHistory;
+	private Version version;
+
+	@Before
+	public void before() {
+		manager = new ResourceResidencyManager(BUDGET_FOR_TWO_RESOURCES, MonitorProvider.getInstance());
+		projectHistory = ModelFactory.eINSTANCE.createProjectHistory();
+		projectHistory.setProjectId(ModelFactory.eINSTANCE.createProjectId());
+		version = VersioningFactory.eINSTANCE.createVersion();
+		projectHistory.getVersions().add(version);
+	}
+
+	@Test
+	public void testHitsAndLoads() {
+		final Resource resource = createResource();
+		manager.resourceAccessed(version, resource);
+		manager.resourceAccessed(version, resource);
+
+		assertEquals(1, manager.getLoads());
+		assertEquals(1, manager.getHits());
+		assertEquals(1, manager.getEntryCount());
+		assertEquals(ResourceResidencyManager.ESTIMATED_BYTES_PER_ELEMENT, manager.getSize());
+	}
+
+	@Test
+	public void testUnloadsLeastRecentlyUsed() {
+		final Resource first = createResource();
+		final Resource second = createResource();
+		manager.resourceAccessed(version, first);
+		manager.resourceAccessed(version, second);
+
+		// touch the first resource, so the second one becomes the eldest
+		manager.resourceAccessed(version, first);
+		final Resource third = createResource();
+		manager.resourceAccessed(version, third);
+
+		assertEquals(1, manager.getEvictions());
+		assertEquals(2, manager.getEntryCount());
+		assertEquals(BUDGET_FOR_TWO_RESOURCES, manager.getSize());
+		assertTrue(first.isLoaded());
+		assertFalse(second.isLoaded());
+		assertTrue(third.isLoaded());
+	}
+
+	@Test
+	public void testUnloadedResourceIsRemovedFromResourceSet() {
+		final ResourceSet resourceSet = new ResourceSetImpl();
+		final Resource first = createResource();
+		resourceSet.getResources().add(first);
+		manager.resourceAccessed(version, first);
+		manager.resourceAccessed(version, createResource());
+		manager.resourceAccessed(version, createResource());
+
+		assertFalse(first.isLoaded());
+		assertNull(first.getResourceSet());
+		assertTrue(resourceSet.getResources().isEmpty());
+	}
+
+	@Test
+	public void testAccessedResourceIsNotUnloaded() {
+		final Resource resource = createResource();
+		resource.getContents().add(VersioningFactory.eINSTANCE.createLogMessage());
+		resource.getContents().add(VersioningFactory.eINSTANCE.createLogMessage());
+		manager.resourceAccessed(version, resource);
+
+		assertTrue(resource.isLoaded());
+		assertEquals(0, manager.getEvictions());
+	}
+
+	@Test
+	public void testResourcesOfLockedProjectStayLoaded() {
+		final Resource first = createResource();
+		manager.resourceAccessed(version, first);
+		manager.resourceAccessed(version, createResource());
+
+		MonitorProvider.getInstance().acquireProjectReadLock(projectHistory.getProjectId());
+		try {
+			manager.resourceAccessed(version, createResource());
+		} finally {
+			MonitorProvider.getInstance().releaseProjectReadLock(projectHistory.getProjectId());
+		}
+		assertTrue(first.isLoaded());
+		assertEquals(0, manager.getEvictions());
+		assertEquals(2, manager.getDeferredEvictions());
+		assertEquals(3, manager.getEntryCount());
+
+		MonitorProvider.getInstance().acquireProjectWriteLock(projectHistory.getProjectId());
+		try {
+			manager.resourceAccessed(version, createResource());
+		} finally {
+			MonitorProvider.getInstance().releaseProjectWriteLock(projectHistory.getProjectId());
+		}
+		assertTrue(first.isLoaded());
+		assertEquals(0, manager.getEvictions());
+
+		// the next access after the project has been released catches up
+		manager.resourceAccessed(version, createResource());
+		assertFalse(first.isLoaded());
+		assertEquals(3, manager.getEvictions());
+		assertEquals(2, manager.getEntryCount());
+	}
+
+	@Test
+	public void testRemoveAll() {
+		final Resource resource = createResource();
+		manager.resourceAccessed(version, resource);
+		manager.removeAll(projectHistory.getProjectId());
+
+		assertEquals(0, manager.getEntryCount());
+		assertEquals(0, manager.getSize());
+		assertTrue(resource.isLoaded());
+	}
+
+	@Test
+	public void testDetachedChangesSurviveEviction() {
+		final Resource resource = createResource();
+		final ChangePackage changes = VersioningFactory.eINSTANCE.createChangePackage();
+		changes.setLogMessage(VersioningFactory.eINSTANCE.createLogMessage());
+		changes.getLogMessage().setMessage("message"); //$NON-NLS-1$
+		changes.add(OperationsFactory.eINSTANCE.createAttributeOperation());
+		resource.getContents().add(changes);
+		manager.resourceAccessed(version, resource);
+
+		// as a server call does before releasing the project lock, the result is serialized afterwards
+		final ChangePackage result = manager.detach(changes);
+		manager.resourceAccessed(version, createResource());
+		manager.resourceAccessed(version, createResource());
+
+		assertFalse(resource.isLoaded());
+		assertTrue(changes.eIsProxy());
+		assertFalse(result.eIsProxy());
+		assertEquals(1, result.size());
+		assertEquals("message", result.getLogMessage().getMessage()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testDisabledManagerDoesNotCopy() {
+		final ChangePackage changes = VersioningFactory.eINSTANCE.createChangePackage();
+		assertSame(changes, new ResourceResidencyManager(0, MonitorProvider.getInstance()).detach(changes));
+		assertNull(manager.detach(null));
+	}
+
+	private static Resource createResource() {
+		final Resource resource = new ResourceImpl(URI.createURI("resource")); //$NON-NLS-1$
+		resource.getContents().add(VersioningFactory.eINSTANCE.createLogMessage());
+		return resource;
+	}
+}
@@ -168,6 +168,19 @@ public class ConnectionMock implements ConnectionManager {
 				ModelUtil.clone(historyQuery)));
 	}
 
+	public List<HistoryInfo> getHistoryInfoPage(final SessionId sessionId, final ProjectId projectId,
+		final HistoryQuery<?> historyQuery, final String continuationToken, final int pageSize)
+		throws ESException {
+		final SessionId clonedSessionId = checkSessionId(sessionId);
+		return ModelUtil.clone(
+			emfStore.getHistoryInfoPage(
+				clonedSessionId,
+				ModelUtil.clone(projectId),
+				ModelUtil.clone(historyQuery),
+				continuationToken,
+				pageSize));
+	}
+
 	public void addTag(final SessionId sessionId, final ProjectId projectId, final PrimaryVersionSpec versionSpec,
 		final TagVersionSpec tag)
 		throws ESException {
@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource Muenchen GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ ******************************************************************************/
+package org.eclipse.emf.emfstore.client.test.common.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.emfstore.internal.common.model.ModelElementId;
+import org.eclipse.emf.emfstore.internal.common.model.ModelElementIdToEObjectMapping;
+import org.eclipse.emf.emfstore.internal.common.model.impl.ESModelElementIdToEObjectMappingImpl;
+
+/**
+ * A {@link ModelElementIdToEObjectMapping} for tests that detect conflicts without a project. It only knows the
+ * elements which have been put into it and is empty initially.
+ */
+public class TestModelElementIdToEObjectMapping implements ModelElementIdToEObjectMapping {
+
+	private final Map<String, EObject> elements = new LinkedHashMap<String, EObject>();
+	private ESModelElementIdToEObjectMappingImpl apiImpl;
+
+	/**
+	 * Adds the given element to the mapping.
+	 *
+	 * @param id
+	 *            the ID of the element
+	 * @param eObject
+	 *            the element
+	 */
+	public void put(String id, EObject eObject) {
+		elements.put(id, eObject);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @see org.eclipse.emf.emfstore.internal.common.model.ModelElementIdToEObjectMapping#get(org.eclipse.emf.emfstore.internal.common.model.ModelElementId)
+	 */
+	public EObject get(ModelElementId modelElementId) {
+		return modelElementId == null ? null : elements.get(modelElementId.getId());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public ESModelElementIdToEObjectMappingImpl toAPI() {
+		if (apiImpl == null) {
+			apiImpl = createAPI();
+		}
+		return apiImpl;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public ESModelElementIdToEObjectMappingImpl createAPI() {
+		return new ESModelElementIdToEObjectMappingImpl(this);
+	}
+}